@@ -3,6 +3,7 @@ package com.abel.ecommerce.config;
 import com.abel.ecommerce.service.TokenBlacklistService;
 import com.abel.ecommerce.service.UserRoleCacheService;
 import com.abel.ecommerce.utils.JwtTokenUtil;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -34,16 +35,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        String token = getTokenFromRequest(request);
+        String token = JwtTokenUtil.getTokenFromRequest(request);
 
         if (!StringUtils.isEmpty(token)) {
             try {
+                // Verified once per request, RateLimitFilter has usually done it already
+                DecodedJWT decodedJWT = JwtTokenUtil.getVerifiedToken(request);
+                if (decodedJWT == null) {
+                    logger.debug("JWT token is invalid or expired, authentication denied");
+                }
                 // Check if token is blacklisted
-                if (tokenBlacklistService.isTokenBlacklisted(token)) {
+                else if (tokenBlacklistService.isTokenBlacklisted(decodedJWT)) {
                     logger.debug("Token is blacklisted, authentication denied");
-                } else if (JwtTokenUtil.validateToken(token)) {
+                } else {
                     // Extract username from token
-                    String username = JwtTokenUtil.getUsernameFromToken(token);
+                    String username = JwtTokenUtil.getUsername(decodedJWT);
 
                     // Get role from cache or database
                     Set<String> userRoles = userRoleCacheService.getUserRoles(username);
@@ -69,12 +75,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-
-    private String getTokenFromRequest(HttpServletRequest request) {
-        String bearerToken = request.getHeader("Authorization");
-        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
-        }
-        return null;
-    }
 }
@@ -25,9 +25,6 @@ public class RateLimitConfig {
     // User rate limit: 50 requests per second per user
     public static final long USER_RATE_LIMIT = 50;
 
-    // Seckill rate limit: 10 requests per second per user
-    public static final long SECKILL_RATE_LIMIT = 10;
-
     @Value("${spring.data.redis.host:localhost}")
     private String redisHost;
 
@@ -84,15 +81,4 @@ public class RateLimitConfig {
                         .build())
                 .build();
     }
-
-    // Seckill rate limit configuration
-    @Bean
-    public BucketConfiguration seckillRateLimitConfig() {
-        return BucketConfiguration.builder()
-                .addLimit(Bandwidth.builder()
-                        .capacity(SECKILL_RATE_LIMIT)
-                        .refillGreedy(SECKILL_RATE_LIMIT, Duration.ofSeconds(1))
-                        .build())
-                .build();
-    }
 }
@@ -1,22 +1,29 @@
 package com.abel.ecommerce.config;
 
 
+import com.abel.ecommerce.utils.CompactRedisSerializer;
+import com.abel.ecommerce.utils.ProductCompactCodec;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.util.List;
+
 @Configuration
 public class RedisConfig {
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory,
+                                                       @Value("${redis.serializer.compact.enabled:false}") boolean compactEnabled) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(factory);
 
@@ -30,13 +37,28 @@ public class RedisConfig {
                 .build();
         mapper.activateDefaultTyping(ptv, ObjectMapper.DefaultTyping.NON_FINAL);
 
-        GenericJackson2JsonRedisSerializer serializer =
+        GenericJackson2JsonRedisSerializer jsonSerializer =
                 new GenericJackson2JsonRedisSerializer(mapper);
 
+        // Cached domain objects are stored in a compact binary form, anything else as JSON.
+        // Both forms are always read; compact writes are off until every node can read them (rollout / rollback).
+        CompactRedisSerializer serializer = new CompactRedisSerializer(jsonSerializer, compactEnabled,
+                List.of(new ProductCompactCodec()));
+
         template.setKeySerializer(new StringRedisSerializer());
         template.setValueSerializer(serializer);
 
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * Shared container for Redis Pub/Sub listeners, listeners register their own topics
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory factory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        return container;
+    }
 }
@@ -63,6 +63,7 @@ public class SecurityConfig {
                                 .requestMatchers("/api/webhooks/stripe").permitAll()  // Allow Stripe webhook endpoint
                                 .requestMatchers("/api/payments/session/**").permitAll()  // Allow public access to payment session lookup
                                 .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll()
+                                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()  // Container health and readiness probes
                                 .anyRequest().authenticated()  // All other requests require authentication
 //                                .anyRequest().permitAll()  // All other requests require authentication
                 )
@@ -0,0 +1,140 @@
+package com.abel.ecommerce.config;
+
+import com.abel.ecommerce.constant.RedisKeyConstants;
+import com.abel.ecommerce.utils.SnowflakeIdGenerator;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the SnowflakeIdGenerator with a node ID leased from Redis (snowflake:node:{id}, SET NX EX),
+ * so two running instances never share a node ID. Set snowflake.node-id to skip the lease.
+ *
+ * The generator only issues IDs until LEASE_TTL_SECONDS - LEASE_SAFETY_MARGIN_SECONDS after the last confirmed
+ * acquire or renewal, counted from before the Redis call. If Redis cannot be reached for that long, ID generation
+ * fails until the lease is renewed or a new node ID is leased.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class SnowflakeConfig {
+
+    private static final long LEASE_TTL_SECONDS = 60;
+
+    // Stop issuing IDs this long before the lease could expire in Redis, covers clock drift and slow calls
+    private static final long LEASE_SAFETY_MARGIN_SECONDS = 10;
+
+    // Extend the lease only while we still own it
+    private static final DefaultRedisScript<Long> RENEW_LEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+                    "  return redis.call('EXPIRE', KEYS[1], ARGV[2]) " +
+                    "end " +
+                    "return 0",
+            Long.class);
+
+    private static final DefaultRedisScript<Long> RELEASE_LEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+                    "  return redis.call('DEL', KEYS[1]) " +
+                    "end " +
+                    "return 0",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${snowflake.node-id:-1}")
+    private long configuredNodeId;
+
+    private final String leaseOwner = UUID.randomUUID().toString();
+
+    private SnowflakeIdGenerator generator;
+
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator() {
+        if (configuredNodeId >= 0) {
+            log.info("Snowflake ID generator started with configured node ID {}", configuredNodeId);
+            generator = new SnowflakeIdGenerator(configuredNodeId);
+            return generator;
+        }
+
+        long leasedAt = System.currentTimeMillis();
+        long nodeId = leaseNodeId();
+        log.info("Snowflake ID generator started with node ID {}", nodeId);
+        generator = new SnowflakeIdGenerator(nodeId);
+        generator.setLeaseExpiresAt(leaseDeadline(leasedAt));
+        return generator;
+    }
+
+    @Scheduled(fixedDelay = LEASE_TTL_SECONDS / 3, timeUnit = TimeUnit.SECONDS)
+    public void renewLease() {
+        if (configuredNodeId >= 0 || generator == null) {
+            return;
+        }
+
+        try {
+            long renewedAt = System.currentTimeMillis();
+            String key = RedisKeyConstants.getSnowflakeNodeKey(generator.getNodeId());
+            Long renewed = stringRedisTemplate.execute(RENEW_LEASE_SCRIPT, Collections.singletonList(key),
+                    leaseOwner, String.valueOf(LEASE_TTL_SECONDS));
+            if (renewed != null && renewed == 1L) {
+                generator.setLeaseExpiresAt(leaseDeadline(renewedAt));
+                return;
+            }
+
+            // Lease expired (e.g. Redis was unreachable for a whole TTL) and the ID may be in use elsewhere:
+            // stop issuing IDs until a free node ID is leased
+            generator.setLeaseExpiresAt(0);
+            long lostNodeId = generator.getNodeId();
+            long nodeId = leaseNodeId();
+            generator.setNodeId(nodeId);
+            generator.setLeaseExpiresAt(leaseDeadline(renewedAt));
+            log.warn("Snowflake node lease {} was lost, switched to node ID {}", lostNodeId, nodeId);
+        }
+        catch (Exception e) {
+            // The previous deadline still applies, IDs stop once it passes
+            log.error("Failed to renew snowflake node lease {}", generator.getNodeId(), e);
+        }
+    }
+
+    @PreDestroy
+    public void releaseLease() {
+        if (configuredNodeId >= 0 || generator == null) {
+            return;
+        }
+        try {
+            String key = RedisKeyConstants.getSnowflakeNodeKey(generator.getNodeId());
+            stringRedisTemplate.execute(RELEASE_LEASE_SCRIPT, Collections.singletonList(key), leaseOwner);
+        }
+        catch (Exception e) {
+            log.warn("Failed to release snowflake node lease {}", generator.getNodeId(), e);
+        }
+    }
+
+    private static long leaseDeadline(long confirmedAt) {
+        return confirmedAt + TimeUnit.SECONDS.toMillis(LEASE_TTL_SECONDS - LEASE_SAFETY_MARGIN_SECONDS);
+    }
+
+    private long leaseNodeId() {
+        // Start at a random node ID so instances starting together do not race for the same keys
+        long start = ThreadLocalRandom.current().nextLong(SnowflakeIdGenerator.MAX_NODE_ID + 1);
+        for (long i = 0; i <= SnowflakeIdGenerator.MAX_NODE_ID; i++) {
+            long nodeId = (start + i) % (SnowflakeIdGenerator.MAX_NODE_ID + 1);
+            Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(
+                    RedisKeyConstants.getSnowflakeNodeKey(nodeId), leaseOwner, LEASE_TTL_SECONDS, TimeUnit.SECONDS);
+            if (Boolean.TRUE.equals(acquired)) {
+                return nodeId;
+            }
+        }
+        throw new IllegalStateException("No free snowflake node ID, all " + (SnowflakeIdGenerator.MAX_NODE_ID + 1) + " are leased");
+    }
+}
@@ -8,6 +8,28 @@ public class RedisKeyConstants {
 
     // Seckill
     public static final String SECKILL_USER_PREFIX = "seckill:user:";
+    // Seckill outcome per order number, read by the result polling and SSE endpoints
+    public static final String SECKILL_RESULT_PREFIX = "seckill:result:";
+    // Seckill stock is split across this many sub-keys, each in its own cluster slot
+    public static final int SECKILL_STOCK_SEGMENTS = 4;
+
+    // Cart (cart.store=redis), one hash per user plus the set of users waiting to be persisted
+    public static final String CART_PREFIX = "cart:";
+    public static final String CART_DIRTY_KEY = "cart:dirty";
+
+    // Route rate limit rules set at runtime, rule name -> RouteRateLimitRule JSON
+    public static final String RATE_LIMIT_ROUTES_KEY = "rate_limit:routes";
+
+    // Snowflake node ID leases
+    public static final String SNOWFLAKE_NODE_PREFIX = "snowflake:node:";
+
+    // Pub/Sub channels
+    public static final String SECKILL_SOLD_OUT_CHANNEL = "channel:seckill:sold-out";
+    public static final String PRODUCT_INVALIDATE_CHANNEL = "channel:product:invalidate";
+    public static final String USER_ROLE_INVALIDATE_CHANNEL = "channel:user:roles:invalidate";
+    public static final String TOKEN_BLACKLIST_CHANNEL = "channel:token:blacklist";
+    public static final String SECKILL_RESULT_CHANNEL = "channel:seckill:result";
+    public static final String RATE_LIMIT_ROUTES_CHANNEL = "channel:rate-limit:routes";
 
     //
 
@@ -15,16 +37,30 @@ public class RedisKeyConstants {
         throw new AssertionError("Cannot instantiate constants class");
     }
 
-    public static String getProductStockKey(Long productId) {
-        return PRODUCT_STOCK_PREFIX + productId;
+    // Hash tag {productId:segment} puts each segment in its own slot
+    public static String getProductStockKey(Long productId, int segment) {
+        return PRODUCT_STOCK_PREFIX + "{" + productId + ":" + segment + "}";
+    }
+
+    public static String getSeckillResultKey(String orderNo) {
+        return SECKILL_RESULT_PREFIX + orderNo;
+    }
+
+    public static String getCartKey(Long userId) {
+        return CART_PREFIX + userId;
+    }
+
+    public static String getSnowflakeNodeKey(long nodeId) {
+        return SNOWFLAKE_NODE_PREFIX + nodeId;
     }
 
     public static String getProductInfoKey(Long productId) {
         return PRODUCT_INFO_PREFIX + productId;
     }
 
-    public static String getSeckillUserKey(Long userId, Long productId) {
-        return SECKILL_USER_PREFIX + productId + ":" + userId;
+    // Same hash tag as the user's home stock segment so both keys can be used in one script
+    public static String getSeckillUserKey(Long userId, Long productId, int segment) {
+        return SECKILL_USER_PREFIX + "{" + productId + ":" + segment + "}:" + userId;
     }
 
 }
@@ -2,9 +2,9 @@ package com.abel.ecommerce.consumer;
 
 import com.abel.ecommerce.entity.Order;
 import com.abel.ecommerce.entity.OrderItem;
-import com.abel.ecommerce.entity.Product;
+import com.abel.ecommerce.entity.StockLedger;
 import com.abel.ecommerce.service.OrderService;
-import com.abel.ecommerce.service.ProductService;
+import com.abel.ecommerce.service.StockLedgerService;
 import com.abel.ecommerce.service.StockService;
 import com.rabbitmq.client.Channel;
 import jakarta.transaction.Transactional;
@@ -25,7 +25,7 @@ public class PaymentCheckConsumer {
 
     private final OrderService orderService;
     private final StockService stockService;
-    private final ProductService productService;
+    private final StockLedgerService stockLedgerService;
 
 
     @RabbitListener(queues = "payment.check.queue")
@@ -62,11 +62,9 @@ public class PaymentCheckConsumer {
                     // Restore Redis stock
                     stockService.restoreStock(orderItem.getProductId(), orderItem.getQuantity());
 
-                    // Restore database stock
-                    Product product = productService.findProductById(orderItem.getProductId());
-                    product.setStock(product.getStock() + orderItem.getQuantity());
-                    product.setSales(product.getSales() - orderItem.getQuantity());
-                    productService.updateProduct(product);
+                    // Restore database stock, applied by StockLedgerTask
+                    stockLedgerService.recordRestock(orderItem.getProductId(), orderItem.getQuantity(),
+                            StockLedger.SOURCE_PAYMENT_TIMEOUT, orderNo);
 
                     log.info("Restored stock for product {}: {} units", orderItem.getProductId(), orderItem.getQuantity());
                 }
@@ -0,0 +1,217 @@
+package com.abel.ecommerce.consumer;
+
+import com.abel.ecommerce.dto.request.SeckillOrderMessage;
+import com.abel.ecommerce.dto.response.SeckillOrderBatchResult;
+import com.abel.ecommerce.service.SeckillOrderService;
+import com.abel.ecommerce.service.SeckillResultService;
+import com.abel.ecommerce.service.StockService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rabbitmq.client.Channel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch mode for seckill.order.queue, enabled with seckill.consumer.batch-enabled=true.
+ * One transaction and one ack per batch instead of per message.
+ *
+ * A batch that fails for a reason other than the database being unreachable is retried one message at a time,
+ * so one bad message cannot hold up the queue. A message that keeps failing on its own is given up after
+ * seckill.consumer.max-attempts and marked FAILED; its Redis stock is left to StockReconciliationService,
+ * which no longer counts it as in flight.
+ */
+@Slf4j
+@Component
+public class SeckillOrderBatchConsumer {
+
+    private final SeckillOrderService seckillOrderService;
+    private final StockService stockService;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final SeckillResultService seckillResultService;
+    private final int maxAttempts;
+
+    // Failed attempts per order number on this node
+    private final Cache<String, Integer> attempts = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    public SeckillOrderBatchConsumer(SeckillOrderService seckillOrderService,
+                                     StockService stockService,
+                                     RabbitTemplate rabbitTemplate,
+                                     ObjectMapper objectMapper,
+                                     SeckillResultService seckillResultService,
+                                     @Value("${seckill.consumer.max-attempts:3}") int maxAttempts) {
+        this.seckillOrderService = seckillOrderService;
+        this.stockService = stockService;
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.seckillResultService = seckillResultService;
+        this.maxAttempts = maxAttempts;
+    }
+
+    // 1 parse the batch, poison messages are dropped
+    // 2 create all orders in one transaction (dedup, lookups and stock update are batched)
+    // 3 after commit: give back Redis stock of orders rejected for the first time, record results and send payment timeout messages
+    // 4 ack the whole batch with multiple=true
+    // If step 2 fails for a reason other than an unreachable database, every message goes through 2-4 on its own
+
+    @RabbitListener(queues = "seckill.order.queue", containerFactory = "batchListenerContainerFactory",
+            autoStartup = "${seckill.consumer.batch-enabled:false}")
+    public void handleSeckillOrderBatch(List<Message> messages, Channel channel) throws IOException {
+        if (messages.isEmpty()) {
+            return;
+        }
+        // Delivery tags are increasing on a channel, acking the last one with multiple=true covers the batch
+        long lastDeliveryTag = messages.get(messages.size() - 1).getMessageProperties().getDeliveryTag();
+
+        // Step 1: Parse
+        List<SeckillOrderMessage> parsed = new ArrayList<>(messages.size());
+        List<SeckillOrderMessage> orderMessages = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            SeckillOrderMessage orderMessage = parse(message);
+            parsed.add(orderMessage);
+            if (orderMessage != null) {
+                orderMessages.add(orderMessage);
+            }
+        }
+
+        // Step 2: Create orders, any exception rolls back the whole batch
+        SeckillOrderBatchResult result;
+        try {
+            result = seckillOrderService.createSeckillOrders(orderMessages);
+        }
+        catch (Exception e) {
+            if (isTransient(e)) {
+                // TRANSIENT FAILURE: requeue the batch, duplicates are filtered out on redelivery
+                log.error("TRANSIENT FAILURE - Failed to process seckill batch of {} messages. Batch will be REQUEUED.",
+                        messages.size(), e);
+                channel.basicNack(lastDeliveryTag, true, true);
+                return;
+            }
+            log.error("Failed to process seckill batch of {} messages, processing them one at a time",
+                    messages.size(), e);
+            processOneByOne(messages, parsed, channel);
+            return;
+        }
+
+        // Step 3: Side effects that must only happen after commit
+        afterCommit(result);
+
+        // Step 4: Ack everything up to the last message
+        channel.basicAck(lastDeliveryTag, true);
+    }
+
+    // Each message in its own transaction and acked on its own; parsed is null for poison messages
+    private void processOneByOne(List<Message> messages, List<SeckillOrderMessage> parsed, Channel channel) throws IOException {
+        for (int i = 0; i < messages.size(); i++) {
+            long deliveryTag = messages.get(i).getMessageProperties().getDeliveryTag();
+            SeckillOrderMessage orderMessage = parsed.get(i);
+            if (orderMessage == null) {
+                channel.basicAck(deliveryTag, false);
+                continue;
+            }
+
+            SeckillOrderBatchResult result;
+            try {
+                result = seckillOrderService.createSeckillOrders(List.of(orderMessage));
+            }
+            catch (Exception e) {
+                String orderNo = orderMessage.getOrderNo();
+                if (isTransient(e)) {
+                    log.error("TRANSIENT FAILURE - Failed to process seckill order {}. Message will be REQUEUED.", orderNo, e);
+                    channel.basicNack(deliveryTag, false, true);
+                    continue;
+                }
+                int attempt = attempts.asMap().merge(orderNo, 1, Integer::sum);
+                if (attempt < maxAttempts) {
+                    log.error("Failed to process seckill order {} (attempt {} of {}). Message will be REQUEUED.",
+                            orderNo, attempt, maxAttempts, e);
+                    channel.basicNack(deliveryTag, false, true);
+                    continue;
+                }
+                log.error("PERMANENT FAILURE - Seckill order {} failed {} times. Message will be DISCARDED.",
+                        orderNo, attempt, e);
+                attempts.invalidate(orderNo);
+                seckillResultService.markFailed(orderNo, "Order could not be created, please try again");
+                channel.basicNack(deliveryTag, false, false);
+                continue;
+            }
+
+            attempts.invalidate(orderMessage.getOrderNo());
+            afterCommit(result);
+            channel.basicAck(deliveryTag, false);
+        }
+    }
+
+    // Rejected holds only messages rejected in this batch, a redelivery after a lost ack is a duplicate,
+    // so stock is never given back twice
+    private void afterCommit(SeckillOrderBatchResult result) {
+        for (SeckillOrderMessage rejected : result.getRejected()) {
+            log.info("Compensating Redis stock for product {}: restoring {} units",
+                    rejected.getProductId(), rejected.getQuantity());
+            stockService.restoreStock(rejected.getProductId(), rejected.getQuantity());
+            seckillResultService.markFailed(rejected.getOrderNo(), result.getRejectReasons().get(rejected.getOrderNo()));
+        }
+        for (SeckillOrderMessage created : result.getCreated()) {
+            seckillResultService.markCreated(created.getOrderNo());
+            try {
+                rabbitTemplate.convertAndSend("payment.timeout.exchange", "payment.timeout", created.getOrderNo());
+            }
+            catch (Exception e) {
+                // Order is created, the backup check task should catch orders without timeout messages
+                log.error("Failed to send payment timeout message for order: {}", created.getOrderNo(), e);
+            }
+        }
+    }
+
+    // The database could not be reached or the failure may go away on its own; retrying the same input can succeed
+    private static boolean isTransient(Exception e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof TransactionException;
+    }
+
+    private SeckillOrderMessage parse(Message message) {
+        String messageContent = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            Map<String, Object> map = objectMapper.readValue(messageContent, new TypeReference<Map<String, Object>>() {
+            });
+            if (!map.containsKey("orderNo") || !map.containsKey("userId") ||
+                    !map.containsKey("productId") || !map.containsKey("quantity")) {
+                log.error("Invalid message: missing required fields. Message: {}", messageContent);
+                return null;
+            }
+            return new SeckillOrderMessage(
+                    String.valueOf(map.get("orderNo")),
+                    ((Number) map.get("userId")).longValue(),
+                    ((Number) map.get("productId")).longValue(),
+                    ((Number) map.get("quantity")).intValue());
+        }
+        catch (JsonProcessingException | ClassCastException | NullPointerException e) {
+            // Poison message, dropped by the batch ack
+            log.error("Invalid message format: {}", messageContent, e);
+            return null;
+        }
+    }
+}
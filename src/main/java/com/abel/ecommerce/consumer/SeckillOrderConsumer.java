@@ -5,6 +5,7 @@ import com.abel.ecommerce.entity.Order;
 import com.abel.ecommerce.entity.OrderItem;
 import com.abel.ecommerce.entity.Product;
 import com.abel.ecommerce.entity.ReliableMessage;
+import com.abel.ecommerce.entity.StockLedger;
 import com.abel.ecommerce.exception.AddressNotFoundException;
 import com.abel.ecommerce.exception.BaseException;
 import com.abel.ecommerce.exception.ProductNotFoundException;
@@ -13,6 +14,8 @@ import com.abel.ecommerce.repository.SeckillMessageRepository;
 import com.abel.ecommerce.service.AddressService;
 import com.abel.ecommerce.service.OrderService;
 import com.abel.ecommerce.service.ProductService;
+import com.abel.ecommerce.service.SeckillResultService;
+import com.abel.ecommerce.service.StockLedgerService;
 import com.abel.ecommerce.service.StockService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -47,6 +50,8 @@ public class SeckillOrderConsumer {
     private final AddressService addressService;
     private final RabbitTemplate rabbitTemplate;
     private final StockService stockService;
+    private final StockLedgerService stockLedgerService;
+    private final SeckillResultService seckillResultService;
 
 
     // 1 insert reliable message table to know: is it the first time to write
@@ -54,7 +59,8 @@ public class SeckillOrderConsumer {
     // 3 create order and set status unpaid, and reduce product in database
     // 4 send a message to TTL + dead letter queue
 
-    @RabbitListener(queues = "seckill.order.queue")
+    // Disabled when the batch consumer (SeckillOrderBatchConsumer) is enabled
+    @RabbitListener(queues = "seckill.order.queue", autoStartup = "#{!${seckill.consumer.batch-enabled:false}}")
     @Transactional
     public void handleSeckillOrder(Message message, Channel channel) throws IOException {
         long deliveryTag = message.getMessageProperties().getDeliveryTag();
@@ -154,10 +160,8 @@ public class SeckillOrderConsumer {
             orderItems.add(orderItem);
             orderService.saveOrderItems(orderItems);
 
-            // Reduce product stock in database (keep in sync with Redis)
-            product.setStock(product.getStock() - quantity);
-            product.setSales(product.getSales() + quantity);
-            productService.updateProduct(product);
+            // Reduce product stock in database (keep in sync with Redis), applied by StockLedgerTask
+            stockLedgerService.recordSale(productId, quantity, StockLedger.SOURCE_SECKILL_ORDER, orderNo);
 
             // Step 4: Send payment timeout message (TTL + DLQ)
             try {
@@ -171,6 +175,9 @@ public class SeckillOrderConsumer {
                         "Order created successfully but timeout check may not trigger.", orderNo, e);
             }
 
+            // Visible to result polling once the transaction commits
+            seckillResultService.markCreated(orderNo);
+
             // ACK the seckill message (order created successfully)
             channel.basicAck(deliveryTag, false);
             log.info("Seckill order processed successfully. OrderNo: {}, UserId: {}, ProductId: {}, Quantity: {}",
@@ -183,6 +190,7 @@ public class SeckillOrderConsumer {
                     "User needs to add a default address. Error: {}", userId, orderNo, e.getMessage());
 
             compensateRedisStock(productId, quantity);
+            seckillResultService.markFailed(orderNo, "No default address, please add one and try again");
 
             channel.basicAck(deliveryTag, false);  // ACK to remove from queue permanently
             throw e;  // Rollback transaction to clean up ReliableMessage
@@ -193,6 +201,7 @@ public class SeckillOrderConsumer {
                     productId, orderNo, e.getMessage());
 
             compensateRedisStock(productId, quantity);
+            seckillResultService.markFailed(orderNo, "Product not found");
 
             channel.basicAck(deliveryTag, false);  // ACK to remove from queue permanently
             throw e;  // Rollback transaction to clean up ReliableMessage
@@ -203,6 +212,7 @@ public class SeckillOrderConsumer {
                     "Error: {}", orderNo, e.getMessage());
 
             compensateRedisStock(productId, quantity);
+            seckillResultService.markFailed(orderNo, e.getMessage());
 
             channel.basicAck(deliveryTag, false);  // ACK to remove from queue permanently
             throw e;  // Rollback transaction to clean up ReliableMessage
@@ -4,7 +4,6 @@ import com.abel.ecommerce.dto.request.CartItemRequest;
 import com.abel.ecommerce.dto.response.CartItemResponse;
 import com.abel.ecommerce.dto.response.CartResponse;
 import com.abel.ecommerce.entity.CartItem;
-import com.abel.ecommerce.exception.ProductNotFoundException;
 import com.abel.ecommerce.service.CartService;
 import com.abel.ecommerce.service.ProductService;
 import com.abel.ecommerce.entity.Product;
@@ -19,7 +18,10 @@ import org.springframework.beans.BeanUtils;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -94,32 +96,35 @@ public class CartController {
     }
 
     /**
-     * Convert CartItems to CartResponse
+     * Convert CartItems to CartResponse: one batched product lookup for the whole cart,
+     * then items and totals are built in a single pass
      */
     private CartResponse convertToCartResponse(Long userId, List<CartItem> cartItems) {
-        List<CartItemResponse> itemResponses = cartItems.stream()
-                .map(this::convertToCartItemResponse)
-                .collect(Collectors.toList());
+        Set<Long> productIds = cartItems.stream()
+                .map(CartItem::getProductId)
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = productService.findProductsByIds(productIds);
+
+        List<CartItemResponse> itemResponses = new ArrayList<>(cartItems.size());
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        BigDecimal selectedAmount = BigDecimal.ZERO;
+        int selectedCount = 0;
+
+        for (CartItem cartItem : cartItems) {
+            CartItemResponse itemResponse = convertToCartItemResponse(cartItem, products.get(cartItem.getProductId()));
+            itemResponses.add(itemResponse);
+
+            totalAmount = totalAmount.add(itemResponse.getTotalAmount());
+            if (itemResponse.getSelected() == 1) {
+                selectedAmount = selectedAmount.add(itemResponse.getTotalAmount());
+                selectedCount++;
+            }
+        }
 
         CartResponse cartResponse = new CartResponse();
         cartResponse.setUserId(userId);
         cartResponse.setItems(itemResponses);
         cartResponse.setTotalItems(itemResponses.size());
-
-        // Calculate totals
-        BigDecimal totalAmount = itemResponses.stream()
-                .map(CartItemResponse::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal selectedAmount = itemResponses.stream()
-                .filter(item -> item.getSelected() == 1)
-                .map(CartItemResponse::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        int selectedCount = (int) itemResponses.stream()
-                .filter(item -> item.getSelected() == 1)
-                .count();
-
         cartResponse.setTotalAmount(totalAmount);
         cartResponse.setSelectedAmount(selectedAmount);
         cartResponse.setSelectedCount(selectedCount);
@@ -129,19 +134,19 @@ public class CartController {
 
     /**
      * Convert CartItem entity to CartItemResponse DTO
+     * @param product Product of the item, null if it has been deleted
      */
-    private CartItemResponse convertToCartItemResponse(CartItem cartItem) {
+    private CartItemResponse convertToCartItemResponse(CartItem cartItem, Product product) {
         CartItemResponse response = new CartItemResponse();
         BeanUtils.copyProperties(cartItem, response);
 
-        // Get product details
-        try {
-            Product product = productService.findProductById(cartItem.getProductId());
+        if (product != null) {
             response.setProductName(product.getName());
             response.setProductImage(product.getMainImage());
             response.setProductPrice(product.getPrice());
             response.setTotalAmount(product.getPrice().multiply(BigDecimal.valueOf(cartItem.getQuantity())));
-        } catch (ProductNotFoundException e) {
+        }
+        else {
             // Handle case where product might have been deleted
             response.setProductName("Product not found");
             response.setProductPrice(BigDecimal.ZERO);
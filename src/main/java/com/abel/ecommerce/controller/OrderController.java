@@ -1,6 +1,7 @@
 package com.abel.ecommerce.controller;
 
 import com.abel.ecommerce.dto.request.OrderRequest;
+import com.abel.ecommerce.dto.response.CursorPageResponse;
 import com.abel.ecommerce.dto.response.OrderItemResponse;
 import com.abel.ecommerce.dto.response.OrderResponse;
 import com.abel.ecommerce.entity.Order;
@@ -9,6 +10,7 @@ import com.abel.ecommerce.exception.OrderNotFoundException;
 import com.abel.ecommerce.exception.OrderStatusException;
 import com.abel.ecommerce.facade.OrderFacade;
 import com.abel.ecommerce.service.OrderService;
+import com.abel.ecommerce.utils.PageCursor;
 import com.abel.ecommerce.utils.ResponseResult;
 import com.abel.ecommerce.utils.ResultCode;
 import io.swagger.v3.oas.annotations.Operation;
@@ -23,6 +25,7 @@ import org.springframework.beans.BeanUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -40,6 +43,8 @@ public class OrderController {
     private final OrderService orderService;
     private final OrderFacade orderFacade;
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     @Operation(summary = "Create order from cart", description = "Create a new order from user's selected cart items")
     @PostMapping
     public ResponseResult<OrderResponse> createOrder(
@@ -82,11 +87,44 @@ public class OrderController {
             orders = orderService.findOrdersByUserId(userId, pageable);
         }
 
+        // Load items for the whole page at once
+        List<Long> orderIds = orders.getContent().stream().map(Order::getId).toList();
+        Map<Long, List<OrderItem>> itemsByOrderId = orderService.findOrderItemsByOrderIds(orderIds);
+
         // Convert to response DTOs in controller
-        Page<OrderResponse> orderResponses = orders.map(this::convertToOrderResponse);
+        Page<OrderResponse> orderResponses = orders.map(order ->
+                convertToOrderResponse(order, itemsByOrderId.getOrDefault(order.getId(), List.of())));
         return ResponseResult.ok(orderResponses);
     }
 
+    @Operation(summary = "Get user orders by cursor", description = "Get user's orders newest first using keyset pagination. " +
+            "Pass nextCursor from the previous response to continue; no total count is returned")
+    @GetMapping("/cursor")
+    public ResponseResult<CursorPageResponse<OrderResponse>> getUserOrdersByCursor(
+            @Parameter(description = "User ID") @RequestParam Long userId,
+            @Parameter(description = "Cursor from the previous response, omit for the first slice") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Order status filter") @RequestParam(required = false) Integer status) {
+        int sliceSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        Slice<Order> orders = orderService.findOrdersByUserIdAfterCursor(userId, status, PageCursor.decode(cursor), sliceSize);
+
+        // Load items for the whole slice at once
+        List<Long> orderIds = orders.getContent().stream().map(Order::getId).toList();
+        Map<Long, List<OrderItem>> itemsByOrderId = orderService.findOrderItemsByOrderIds(orderIds);
+
+        List<OrderResponse> responses = new ArrayList<>(orders.getNumberOfElements());
+        for (Order order : orders) {
+            responses.add(convertToOrderResponse(order, itemsByOrderId.getOrDefault(order.getId(), List.of())));
+        }
+
+        String nextCursor = null;
+        if (orders.hasNext()) {
+            Order last = orders.getContent().get(orders.getNumberOfElements() - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return ResponseResult.ok(new CursorPageResponse<>(responses, nextCursor, orders.hasNext()));
+    }
+
     @Operation(summary = "Get order by ID", description = "Get specific order details")
     @GetMapping("/{orderId}")
     public ResponseResult<OrderResponse> getOrderById(
@@ -193,6 +231,13 @@ public class OrderController {
      * This conversion logic is in the Controller layer following Pattern 1
      */
     private OrderResponse convertToOrderResponse(Order order) {
+        return convertToOrderResponse(order, orderService.findOrderItems(order.getId()));
+    }
+
+    /**
+     * Convert Order entity to OrderResponse DTO with its already loaded items
+     */
+    private OrderResponse convertToOrderResponse(Order order, List<OrderItem> items) {
         OrderResponse response = new OrderResponse();
         BeanUtils.copyProperties(order, response);
 
@@ -202,8 +247,6 @@ public class OrderController {
         response.setCanBeShipped(order.canBeShipped());
         response.setCanBeCompleted(order.canBeCompleted());
 
-        // Load order items
-        List<OrderItem> items = orderService.findOrderItems(order.getId());
         List<OrderItemResponse> itemResponses = convertToOrderItemResponses(items);
         response.setItems(itemResponses);
         response.setTotalItems(itemResponses.size());
@@ -1,9 +1,11 @@
 package com.abel.ecommerce.controller;
 
 import com.abel.ecommerce.dto.request.ProductRequest;
+import com.abel.ecommerce.dto.response.CursorPageResponse;
 import com.abel.ecommerce.dto.response.ProductResponse;
 import com.abel.ecommerce.entity.Product;
 import com.abel.ecommerce.service.ProductService;
+import com.abel.ecommerce.utils.PageCursor;
 import com.abel.ecommerce.utils.ResponseResult;
 import com.abel.ecommerce.utils.ResultCode;
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,6 +17,7 @@ import org.springframework.beans.BeanUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -40,6 +43,8 @@ public class ProductController {
 
     private final ProductService productService;
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     @Operation(summary = "Create new product")
     @PreAuthorize("hasRole('PRODUCT_ADMIN') or hasRole('SUPER_ADMIN')")
     @PostMapping("/createProduct")
@@ -91,6 +96,31 @@ public class ProductController {
         return ResponseResult.ok(productResponses);
     }
 
+    @Operation(summary = "Find products by cursor", description = "Newest first, using keyset pagination. " +
+            "Pass nextCursor from the previous response to continue; no total count is returned")
+    @GetMapping("/cursor")
+    public ResponseResult<CursorPageResponse<ProductResponse>> findProductsByCursor(@RequestParam(required = false) Long categoryId,
+                                                                                  @RequestParam(defaultValue = "1") Integer status,
+                                                                                  @RequestParam(required = false) String cursor,
+                                                                                  @RequestParam(defaultValue = "10") int size) {
+        int sliceSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        Slice<Product> products = productService.findProductsAfterCursor(categoryId, status, PageCursor.decode(cursor), sliceSize);
+
+        List<ProductResponse> productResponses = new ArrayList<>(products.getNumberOfElements());
+        for (Product product : products) {
+            ProductResponse response = new ProductResponse();
+            BeanUtils.copyProperties(product, response);
+            productResponses.add(response);
+        }
+
+        String nextCursor = null;
+        if (products.hasNext()) {
+            Product last = products.getContent().get(products.getNumberOfElements() - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return ResponseResult.ok(new CursorPageResponse<>(productResponses, nextCursor, products.hasNext()));
+    }
+
     @Operation(summary = "Search products by Name")
     @GetMapping("/search")
     public ResponseResult<List<ProductResponse>> searchProducts(@RequestParam String name) {
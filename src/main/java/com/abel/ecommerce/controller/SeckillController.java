@@ -2,12 +2,17 @@ package com.abel.ecommerce.controller;
 
 import com.abel.ecommerce.constant.RedisKeyConstants;
 import com.abel.ecommerce.dto.request.OrderRequest;
+import com.abel.ecommerce.dto.request.SeckillCampaignRequest;
 import com.abel.ecommerce.dto.response.OrderResponse;
+import com.abel.ecommerce.dto.response.SeckillResultResponse;
 import com.abel.ecommerce.entity.Order;
 import com.abel.ecommerce.entity.Product;
+import com.abel.ecommerce.entity.SeckillCampaign;
 import com.abel.ecommerce.entity.SeckillMessage;
 import com.abel.ecommerce.exception.InsufficientStockException;
 import com.abel.ecommerce.exception.OrderNotFoundException;
+import com.abel.ecommerce.service.SeckillCampaignService;
+import com.abel.ecommerce.service.SeckillResultService;
 import com.abel.ecommerce.service.SeckillService;
 import com.abel.ecommerce.service.StockService;
 import com.abel.ecommerce.utils.JwtTokenUtil;
@@ -22,6 +27,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -29,6 +37,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/seckill")
@@ -43,6 +52,10 @@ public class SeckillController {
 
     private final SeckillService seckillService;
 
+    private final SeckillResultService seckillResultService;
+
+    private final SeckillCampaignService seckillCampaignService;
+
     @Operation(summary = "Create order for seckilling product", description = "Create a new order message for rabbitmq listener")
     @PostMapping("/{productId}")
     public ResponseResult<String> seckillProduct(
@@ -50,7 +63,41 @@ public class SeckillController {
             @Parameter(description = "User ID") @RequestParam Long userId
             ) {
         SeckillMessage seckillMessage = seckillService.doSeckill(userId, productId, 1);
-        return ResponseResult.ok("Seckill successful, order is being processed");
+        // Order number to poll /result/{orderNo} or stream /result/{orderNo}/stream with
+        return ResponseResult.ok(seckillMessage.getOrderNo(), "Seckill successful, order is being processed");
+    }
+
+    @Operation(summary = "Get seckill result", description = "QUEUED, CREATED or FAILED with a reason, read from Redis only")
+    @GetMapping("/result/{orderNo}")
+    public ResponseResult<SeckillResultResponse> getSeckillResult(
+            @PathVariable String orderNo,
+            @Parameter(description = "User ID") @RequestParam Long userId) {
+        return ResponseResult.ok(findOwnResult(orderNo, userId));
+    }
+
+    @Operation(summary = "Stream seckill result", description = "Server-Sent Events: the current result, then the final one")
+    @GetMapping(value = "/result/{orderNo}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeckillResult(
+            @PathVariable String orderNo,
+            @Parameter(description = "User ID") @RequestParam Long userId) {
+        return seckillResultService.subscribe(findOwnResult(orderNo, userId));
+    }
+
+    // Results of other users are reported as not found
+    private SeckillResultResponse findOwnResult(String orderNo, Long userId) {
+        SeckillResultResponse result = seckillResultService.getResult(orderNo);
+        if (result == null || !userId.equals(result.getUserId())) {
+            throw new OrderNotFoundException(orderNo, "orderNo");
+        }
+        return result;
+    }
+
+    @Operation(summary = "Schedule seckill campaign", description = "Stock is loaded into Redis shortly before the start time, requests outside the window are rejected")
+    @PostMapping("/campaigns")
+    @PreAuthorize("hasRole('PRODUCT_ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseResult<Long> createCampaign(@Valid @RequestBody SeckillCampaignRequest request) {
+        SeckillCampaign campaign = seckillCampaignService.createCampaign(request);
+        return ResponseResult.ok(campaign.getId(), "Seckill campaign scheduled successfully");
     }
 
     @Operation(summary = "Enable product for seckill", description = "Store product info and stock in Redis for seckill")
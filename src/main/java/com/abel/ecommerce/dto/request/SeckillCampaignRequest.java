@@ -0,0 +1,49 @@
+package com.abel.ecommerce.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class SeckillCampaignRequest {
+
+    @NotBlank(message = "Campaign name cannot be blank")
+    @Size(max = 100, message = "Campaign name cannot exceed 100 characters")
+    private String name;
+
+    @NotNull(message = "Start time cannot be null")
+    @Future(message = "Start time must be in the future")
+    private LocalDateTime startTime;
+
+    @NotNull(message = "End time cannot be null")
+    private LocalDateTime endTime;
+
+    @NotEmpty(message = "Campaign must contain at least one product")
+    @Valid
+    private List<Item> items;
+
+    @AssertTrue(message = "End time must be after start time")
+    public boolean isTimeRangeValid() {
+        return startTime == null || endTime == null || endTime.isAfter(startTime);
+    }
+
+    @Data
+    public static class Item {
+
+        @NotNull(message = "Product ID cannot be null")
+        private Long productId;
+
+        @NotNull(message = "Quantity cannot be null")
+        @Min(value = 1, message = "Quantity must be at least 1")
+        private Integer quantity;
+    }
+}
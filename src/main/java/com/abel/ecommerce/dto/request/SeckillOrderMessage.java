@@ -0,0 +1,22 @@
+package com.abel.ecommerce.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Parsed body of a message on seckill.order.queue
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeckillOrderMessage {
+
+    private String orderNo;
+
+    private Long userId;
+
+    private Long productId;
+
+    private Integer quantity;
+}
@@ -0,0 +1,23 @@
+package com.abel.ecommerce.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated listing. Pass nextCursor back to get the following slice.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+
+    private List<T> items;
+
+    // Null when there is nothing after this slice
+    private String nextCursor;
+
+    private boolean hasNext;
+}
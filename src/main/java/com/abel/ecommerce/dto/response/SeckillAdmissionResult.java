@@ -0,0 +1,39 @@
+package com.abel.ecommerce.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of the seckill admission script: a status code plus the stock left in the segment that served the request
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeckillAdmissionResult {
+
+    // Status codes returned by the admission script
+    public static final long STATUS_NOT_ENABLED = -1L;
+    public static final long STATUS_SOLD_OUT = 0L;
+    public static final long STATUS_ADMITTED = 1L;
+    public static final long STATUS_DUPLICATE = 2L;
+
+    private long status;
+    private long remainingStock;
+
+    public boolean isAdmitted() {
+        return status == STATUS_ADMITTED;
+    }
+
+    public boolean isDuplicate() {
+        return status == STATUS_DUPLICATE;
+    }
+
+    public boolean isSoldOut() {
+        return status == STATUS_SOLD_OUT;
+    }
+
+    public boolean isNotEnabled() {
+        return status == STATUS_NOT_ENABLED;
+    }
+}
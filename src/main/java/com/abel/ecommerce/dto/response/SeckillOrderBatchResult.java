@@ -0,0 +1,29 @@
+package com.abel.ecommerce.dto.response;
+
+import com.abel.ecommerce.dto.request.SeckillOrderMessage;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of creating a batch of seckill orders
+ */
+@Data
+public class SeckillOrderBatchResult {
+
+    // Orders created in this batch
+    private List<SeckillOrderMessage> created = new ArrayList<>();
+
+    // Already processed earlier (or twice in the same batch), nothing was done
+    private List<SeckillOrderMessage> duplicates = new ArrayList<>();
+
+    // Permanent failures (no default address, unknown product) first seen in this batch, Redis stock must be given back.
+    // A redelivered rejected message is a duplicate, so the stock is not given back twice
+    private List<SeckillOrderMessage> rejected = new ArrayList<>();
+
+    // Why each rejected order failed, by order number
+    private Map<String, String> rejectReasons = new HashMap<>();
+}
@@ -0,0 +1,33 @@
+package com.abel.ecommerce.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a seckill request, kept in Redis per order number: QUEUED, then CREATED or FAILED
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeckillResultResponse {
+
+    public static final String STATUS_QUEUED = "QUEUED";
+    public static final String STATUS_CREATED = "CREATED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private String orderNo;
+    private Long userId;
+    private Long productId;
+    private String status;
+
+    // Only set for FAILED
+    private String reason;
+
+    // Epoch millis of the last transition
+    private Long updatedAt;
+
+    public boolean isFinished() {
+        return STATUS_CREATED.equals(status) || STATUS_FAILED.equals(status);
+    }
+}
@@ -0,0 +1,37 @@
+package com.abel.ecommerce.dto.response;
+
+import lombok.Data;
+
+/**
+ * Outcome of one Redis versus database stock reconciliation run
+ */
+@Data
+public class StockReconciliationResult {
+
+    // Products with seckill stock in Redis that were checked
+    private int scanned;
+
+    // Products whose Redis stock differs from the expected stock
+    private int drifting;
+
+    // Units Redis holds above the expected stock (oversell risk)
+    private long overUnits;
+
+    // Units Redis holds below the expected stock (undersell)
+    private long underUnits;
+
+    // Products whose Redis stock was corrected
+    private int repaired;
+
+    // Repairs abandoned because Redis changed under them
+    private int conflicts;
+
+    public void add(StockReconciliationResult other) {
+        scanned += other.scanned;
+        drifting += other.drifting;
+        overUnits += other.overUnits;
+        underUnits += other.underUnits;
+        repaired += other.repaired;
+        conflicts += other.conflicts;
+    }
+}
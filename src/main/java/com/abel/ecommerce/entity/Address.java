@@ -14,7 +14,9 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "addresses")
+@Table(name = "addresses", indexes = {
+        @Index(name = "idx_addresses_user_default", columnList = "user_id, is_default")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
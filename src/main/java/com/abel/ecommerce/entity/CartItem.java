@@ -6,7 +6,10 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", indexes = {
+        @Index(name = "idx_cart_items_user_product", columnList = "user_id, product_id"),
+        @Index(name = "idx_cart_items_user_selected", columnList = "user_id, selected")
+})
 @Data
 public class CartItem {
 
@@ -38,7 +41,8 @@ public class CartItem {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        // Keep createdAt when the Redis cart store persists a line added earlier
+        if (createdAt == null) createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
         if (quantity == null) quantity = 1;
         if (selected == null) selected = 1;
@@ -6,7 +6,11 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "categories")
+@Table(name = "categories", indexes = {
+        @Index(name = "idx_categories_parent_status_sort", columnList = "parent_id, status, sort_order"),
+        @Index(name = "idx_categories_status", columnList = "status"),
+        @Index(name = "idx_categories_name", columnList = "name")
+})
 @Data
 public class Category {
 
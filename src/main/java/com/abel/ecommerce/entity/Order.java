@@ -15,7 +15,13 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Keyset pagination of a user's order history
+        @Index(name = "idx_orders_user_created_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_orders_user_status_created_id", columnList = "user_id, status, created_at, id"),
+        // Expired-order scans and status lookups
+        @Index(name = "idx_orders_status_created", columnList = "status, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
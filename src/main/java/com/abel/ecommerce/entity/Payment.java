@@ -13,7 +13,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_order_status", columnList = "order_id, status"),
+        @Index(name = "idx_payments_stripe_session_id", columnList = "stripe_session_id"),
+        @Index(name = "idx_payments_stripe_payment_intent_id", columnList = "stripe_payment_intent_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
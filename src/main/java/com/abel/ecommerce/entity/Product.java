@@ -10,7 +10,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Keyset pagination of product listings
+        @Index(name = "idx_products_category_status_created_id", columnList = "category_id, status, created_at, id"),
+        @Index(name = "idx_products_status_created_id", columnList = "status, created_at, id"),
+        @Index(name = "idx_products_price", columnList = "price")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
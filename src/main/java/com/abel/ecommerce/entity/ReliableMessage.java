@@ -7,7 +7,11 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "reliable_message")
+@Table(name = "reliable_message", indexes = {
+        @Index(name = "idx_reliable_message_consumer_time", columnList = "consumer_name, consume_time"),
+        // Cleanup job and time-range lookups
+        @Index(name = "idx_reliable_message_consume_time", columnList = "consume_time")
+})
 public class ReliableMessage {
 
     @Id
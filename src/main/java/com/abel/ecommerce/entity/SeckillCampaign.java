@@ -0,0 +1,59 @@
+package com.abel.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A scheduled flash sale. Its products (SeckillCampaignItem) are warmed into Redis shortly before start_time
+ * and only accept seckill requests between start_time and end_time.
+ */
+@Entity
+@Table(name = "seckill_campaign", indexes = {
+        // Warm-up scan: status = 0 AND start_time <= now + lead
+        @Index(name = "idx_seckill_campaign_status_start", columnList = "status, start_time"),
+        // Sale windows loaded by every node
+        @Index(name = "idx_seckill_campaign_end_time", columnList = "end_time")
+})
+@Data
+public class SeckillCampaign {
+
+    // Status constants
+    public static final Integer STATUS_SCHEDULED = 0;
+    public static final Integer STATUS_WARMED = 1;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    @Column(nullable = false)
+    private Integer status = STATUS_SCHEDULED;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+        if (status == null) status = STATUS_SCHEDULED;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
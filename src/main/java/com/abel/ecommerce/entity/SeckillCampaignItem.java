@@ -0,0 +1,30 @@
+package com.abel.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * A product sold in a seckill campaign and the stock set aside for it
+ */
+@Entity
+@Table(name = "seckill_campaign_item", indexes = {
+        @Index(name = "idx_seckill_campaign_item_campaign_id", columnList = "campaign_id"),
+        @Index(name = "idx_seckill_campaign_item_product_id", columnList = "product_id")
+})
+@Data
+public class SeckillCampaignItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "campaign_id", nullable = false)
+    private Long campaignId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // Seckill stock loaded into Redis at warm-up
+    @Column(nullable = false)
+    private Integer quantity;
+}
@@ -6,7 +6,13 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "seckill_message")
+@Table(name = "seckill_message", indexes = {
+        // Relay claim: status = 0 AND next_retry_time <= now
+        @Index(name = "idx_seckill_message_status_retry", columnList = "status, next_retry_time"),
+        @Index(name = "idx_seckill_message_order_no", columnList = "order_no"),
+        @Index(name = "idx_seckill_message_user_id", columnList = "user_id"),
+        @Index(name = "idx_seckill_message_product_id", columnList = "product_id")
+})
 @Data
 public class SeckillMessage {
 
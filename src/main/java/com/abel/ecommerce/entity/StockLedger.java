@@ -0,0 +1,65 @@
+package com.abel.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Journal of product stock/sales changes. Rows are written in the same transaction as the
+ * order change that causes them and folded into the products table later by StockLedgerTask.
+ */
+@Entity
+@Table(name = "stock_ledger", indexes = {
+        @Index(name = "idx_stock_ledger_status_id", columnList = "status, id"),
+        @Index(name = "idx_stock_ledger_product_status", columnList = "product_id, status")
+})
+@Data
+public class StockLedger {
+
+    // Status constants
+    public static final Integer STATUS_PENDING = 0;
+    public static final Integer STATUS_APPLIED = 1;
+    // Refused by the products table (would take stock below zero), parked for manual review
+    public static final Integer STATUS_REJECTED = 2;
+
+    // Source constants
+    public static final String SOURCE_SECKILL_ORDER = "SECKILL_ORDER";
+    public static final String SOURCE_ORDER_CANCEL = "ORDER_CANCEL";
+    public static final String SOURCE_PAYMENT_TIMEOUT = "PAYMENT_TIMEOUT";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "stock_delta", nullable = false)
+    private Integer stockDelta;
+
+    @Column(name = "sales_delta", nullable = false)
+    private Integer salesDelta;
+
+    @Column(nullable = false, length = 32)
+    private String source;
+
+    // Order number that caused the change, null for aggregated batch entries
+    @Column(name = "reference_no", length = 64)
+    private String referenceNo;
+
+    @Column(nullable = false)
+    private Integer status = STATUS_PENDING;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "applied_at")
+    private LocalDateTime appliedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (status == null) status = STATUS_PENDING;
+    }
+}
@@ -108,6 +108,21 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(result);
     }
 
+    /**
+     * Handle invalid page cursor
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ResponseResult> handleInvalidCursor(InvalidCursorException e) {
+        log.warn("Invalid cursor: {}", e.getMessage());
+
+        ResponseResult result = ResponseResult.error(
+                ResultCode.PARAM_NOT_VALID.getCode(),
+                e.getMessage()
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(result);
+    }
+
     /**
      * Handle Product Not Found Exception
      */
@@ -213,6 +228,21 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(result);
     }
 
+    /**
+     * Handle Seckill Not Active Exception
+     */
+    @ExceptionHandler(SeckillNotActiveException.class)
+    public ResponseEntity<ResponseResult> handleSeckillNotActive(SeckillNotActiveException e) {
+        log.warn("Seckill not active: {}", e.getMessage());
+
+        ResponseResult result = ResponseResult.error(
+                ResultCode.SECKILL_NOT_ACTIVE.getCode(),
+                e.getMessage()
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(result);
+    }
+
     /**
      * Handle User Already Exists Exception
      */
@@ -0,0 +1,8 @@
+package com.abel.ecommerce.exception;
+
+public class InvalidCursorException extends BaseException {
+
+    public InvalidCursorException(String cursor) {
+        super(400, String.format("Invalid page cursor: %s", cursor));
+    }
+}
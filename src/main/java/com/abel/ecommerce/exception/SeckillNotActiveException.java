@@ -0,0 +1,10 @@
+package com.abel.ecommerce.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class SeckillNotActiveException extends BaseException {
+
+    public SeckillNotActiveException(String message) {
+        super(HttpStatus.BAD_REQUEST.value(), message);
+    }
+}
@@ -0,0 +1,185 @@
+package com.abel.ecommerce.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limiter that admits requests from tokens leased in chunks from the Redis bucket.
+ *
+ * Each node leases up to capacity * tolerance tokens per key and hands them out locally, topping the lease up
+ * asynchronously once half of it is used, so Redis sees about one call per lease instead of one per request.
+ * A node never holds more than one lease per key, so bursts exceed the bucket by at most the tolerance per node.
+ * While Redis is unreachable each node limits with an in-memory bucket of the same configuration.
+ */
+@Component
+@Slf4j
+public class HybridRateLimiter {
+
+    private final ProxyManager<String> proxyManager;
+    private final double tolerance;
+    private final long remoteRetryMillis;
+    private final ExecutorService syncExecutor;
+
+    // Tokens already taken from Redis and not yet handed out, per bucket key
+    private final Cache<String, Lease> leases;
+
+    // Used instead of Redis while it is unreachable
+    private final Cache<String, Bucket> localBuckets;
+
+    private volatile long remoteDownUntil = 0;
+
+    @Autowired
+    public HybridRateLimiter(ProxyManager<String> rateLimitProxyManager,
+                             @Value("${rate-limit.lease.tolerance:0.1}") double tolerance,
+                             @Value("${rate-limit.remote.retry-ms:5000}") long remoteRetryMillis) {
+        this(rateLimitProxyManager, tolerance, remoteRetryMillis, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sync");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    HybridRateLimiter(ProxyManager<String> proxyManager, double tolerance, long remoteRetryMillis,
+                      ExecutorService syncExecutor) {
+        if (tolerance <= 0 || tolerance > 1) {
+            throw new IllegalArgumentException("rate-limit.lease.tolerance must be in (0, 1]");
+        }
+        this.proxyManager = proxyManager;
+        this.tolerance = tolerance;
+        this.remoteRetryMillis = remoteRetryMillis;
+        this.syncExecutor = syncExecutor;
+        // Same idle expiry as the Redis buckets (RateLimitConfig)
+        this.leases = Caffeine.newBuilder().expireAfterAccess(Duration.ofMinutes(5)).build();
+        this.localBuckets = Caffeine.newBuilder().expireAfterAccess(Duration.ofMinutes(5)).build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        syncExecutor.shutdown();
+    }
+
+    /**
+     * Take one token from the bucket stored under key, creating it with config if it does not exist
+     */
+    public boolean tryAcquire(String key, BucketConfiguration config) {
+        Lease lease = leases.get(key, k -> new Lease());
+        long leaseSize = leaseSize(config);
+
+        // 1. Serve from the local lease, no Redis call
+        if (lease.tryTake()) {
+            if (lease.tokens.get() <= leaseSize / 2) {
+                topUpAsync(key, config, lease, leaseSize);
+            }
+            return true;
+        }
+
+        // 2. Redis is known to be down, limit locally
+        if (System.currentTimeMillis() < remoteDownUntil) {
+            return localBucket(key, config).tryConsume(1);
+        }
+
+        // 3. Lease is empty, lease synchronously; one thread per key goes to Redis, the others reuse its result
+        synchronized (lease) {
+            if (lease.tryTake()) {
+                return true;
+            }
+            try {
+                long granted = proxyManager.builder().build(key, () -> config).tryConsumeAsMuchAsPossible(leaseSize);
+                if (granted == 0) {
+                    return false;
+                }
+                lease.tokens.addAndGet(granted - 1);
+                return true;
+            }
+            catch (Exception e) {
+                markRemoteDown(e);
+                return localBucket(key, config).tryConsume(1);
+            }
+        }
+    }
+
+    // Refill the lease up to its size in the background, at most one refill per key in flight
+    private void topUpAsync(String key, BucketConfiguration config, Lease lease, long leaseSize) {
+        if (System.currentTimeMillis() < remoteDownUntil || !lease.syncing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            syncExecutor.execute(() -> {
+                try {
+                    long wanted = leaseSize - lease.tokens.get();
+                    if (wanted > 0) {
+                        lease.tokens.addAndGet(proxyManager.builder().build(key, () -> config).tryConsumeAsMuchAsPossible(wanted));
+                    }
+                }
+                catch (Exception e) {
+                    markRemoteDown(e);
+                }
+                finally {
+                    lease.syncing.set(false);
+                }
+            });
+        }
+        catch (Exception e) {
+            // Executor shut down or saturated, the next empty lease is refilled synchronously
+            lease.syncing.set(false);
+        }
+    }
+
+    private long leaseSize(BucketConfiguration config) {
+        long capacity = Long.MAX_VALUE;
+        for (Bandwidth bandwidth : config.getBandwidths()) {
+            capacity = Math.min(capacity, bandwidth.getCapacity());
+        }
+        return Math.max(1, (long) (capacity * tolerance));
+    }
+
+    private Bucket localBucket(String key, BucketConfiguration config) {
+        return localBuckets.get(key, k -> {
+            LocalBucketBuilder builder = Bucket.builder();
+            for (Bandwidth bandwidth : config.getBandwidths()) {
+                builder.addLimit(bandwidth);
+            }
+            return builder.build();
+        });
+    }
+
+    private void markRemoteDown(Exception e) {
+        if (System.currentTimeMillis() >= remoteDownUntil) {
+            log.warn("Redis rate limit bucket unavailable, limiting locally for {} ms: {}", remoteRetryMillis, e.getMessage());
+        }
+        remoteDownUntil = System.currentTimeMillis() + remoteRetryMillis;
+    }
+
+    private static class Lease {
+
+        private final AtomicLong tokens = new AtomicLong();
+        private final AtomicBoolean syncing = new AtomicBoolean();
+
+        private boolean tryTake() {
+            long current;
+            do {
+                current = tokens.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(current, current - 1));
+            return true;
+        }
+    }
+}
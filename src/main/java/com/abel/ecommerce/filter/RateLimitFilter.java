@@ -2,8 +2,6 @@ package com.abel.ecommerce.filter;
 
 import com.abel.ecommerce.utils.JwtTokenUtil;
 import io.github.bucket4j.BucketConfiguration;
-import io.github.bucket4j.distributed.BucketProxy;
-import io.github.bucket4j.distributed.proxy.ProxyManager;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,6 +12,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 public class RateLimitFilter extends OncePerRequestFilter {
@@ -21,15 +20,18 @@ public class RateLimitFilter extends OncePerRequestFilter {
     private static final String IP_RATE_LIMIT_KEY_PREFIX = "rate_limit:ip:";
     private static final String USER_RATE_LIMIT_KEY_PREFIX = "rate_limit:user:";
 
-    private final ProxyManager<String> proxyManager;
+    private final HybridRateLimiter rateLimiter;
+    private final RouteRateLimitRegistry routeRegistry;
     private final BucketConfiguration ipRateLimitConfig;
     private final BucketConfiguration userRateLimitConfig;
 
     public RateLimitFilter(
-            ProxyManager<String> rateLimitProxyManager,
+            HybridRateLimiter rateLimiter,
+            RouteRateLimitRegistry routeRegistry,
             @Qualifier("ipRateLimitConfig") BucketConfiguration ipRateLimitConfig,
             @Qualifier("userRateLimitConfig") BucketConfiguration userRateLimitConfig) {
-        this.proxyManager = rateLimitProxyManager;
+        this.rateLimiter = rateLimiter;
+        this.routeRegistry = routeRegistry;
         this.ipRateLimitConfig = ipRateLimitConfig;
         this.userRateLimitConfig = userRateLimitConfig;
     }
@@ -41,29 +43,40 @@ public class RateLimitFilter extends OncePerRequestFilter {
         // Extract client IP
         String clientIp = getClientIp(request);
 
-        // Check IP rate limit using Redis-backed bucket
+        // Check IP rate limit, served from tokens leased from the Redis-backed bucket
         String ipKey = IP_RATE_LIMIT_KEY_PREFIX + clientIp;
 
-        BucketProxy ipBucket = proxyManager.builder()
-                .build(ipKey, () -> ipRateLimitConfig);
-
-        if (!ipBucket.tryConsume(1)) {
+        if (!rateLimiter.tryAcquire(ipKey, ipRateLimitConfig)) {
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
             response.setContentType("application/json");
             response.getWriter().write("{\"error\": \"Too many requests from IP. Please try again later.\"}");
             return;
         }
 
-        // Attempt to extract userId from JWT token
+        // Attempt to extract userId from the verified JWT token, JwtAuthenticationFilter reuses the result
         Long userId = extractUserIdFromToken(request);
 
-        // If authenticated, check user rate limit using Redis-backed bucket
+        // Routes with their own rules (e.g. seckill) are limited by those buckets instead of the user bucket,
+        // so a flash-sale storm is shed here without using up the user's budget for normal browsing
+        List<RouteRateLimitRegistry.RouteLimit> routeLimits = routeRegistry.resolve(request, clientIp, userId);
+        if (!routeLimits.isEmpty()) {
+            for (RouteRateLimitRegistry.RouteLimit limit : routeLimits) {
+                if (!rateLimiter.tryAcquire(limit.bucketKey(), limit.config())) {
+                    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                    response.setContentType("application/json");
+                    response.getWriter().write("{\"error\": \"Too many requests for this endpoint. Please try again later.\"}");
+                    return;
+                }
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // If authenticated, check user rate limit the same way
         if (userId != null) {
             String userKey = USER_RATE_LIMIT_KEY_PREFIX + userId;
-            BucketProxy userBucket = proxyManager.builder()
-                    .build(userKey, () -> userRateLimitConfig);
 
-            if (!userBucket.tryConsume(1)) {
+            if (!rateLimiter.tryAcquire(userKey, userRateLimitConfig)) {
                 response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
                 response.setContentType("application/json");
                 response.getWriter().write("{\"error\": \"Too many requests from user. Please try again later.\"}");
@@ -94,15 +107,11 @@ public class RateLimitFilter extends OncePerRequestFilter {
     }
 
     /**
-     * Extract userId from JWT token if present
+     * Extract userId from JWT token if present and valid
      */
     private Long extractUserIdFromToken(HttpServletRequest request) {
         try {
-            String authHeader = request.getHeader("Authorization");
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                return JwtTokenUtil.getUserIdFromToken(token);
-            }
+            return JwtTokenUtil.getUserIdFromRequest(request);
         } catch (Exception e) {
             // Token parsing failed or not present, return null
         }
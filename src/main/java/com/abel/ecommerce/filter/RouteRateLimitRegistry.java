@@ -0,0 +1,188 @@
+package com.abel.ecommerce.filter;
+
+import com.abel.ecommerce.constant.RedisKeyConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Route-scoped rate limit rules: path pattern + method -> buckets kept per user, IP or path variable.
+ *
+ * Rules come from rate-limit.routes.{name}.* and can be added, changed or disabled at runtime through the
+ * rate_limit:routes Redis hash (rule name -> RouteRateLimitRule JSON). Publishing on channel:rate-limit:routes
+ * makes every node reload at once, otherwise the change is picked up by the periodic reload.
+ */
+@Component
+@Slf4j
+public class RouteRateLimitRegistry implements MessageListener {
+
+    private static final String ROUTE_RATE_LIMIT_KEY_PREFIX = "rate_limit:route:";
+    private static final String PATH_SCOPE_PREFIX = "path:";
+
+    private final Environment environment;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    private volatile List<Route> routes = Collections.emptyList();
+
+    public RouteRateLimitRegistry(Environment environment,
+                                  StringRedisTemplate redisTemplate,
+                                  RedisMessageListenerContainer listenerContainer,
+                                  ObjectMapper objectMapper) {
+        this.environment = environment;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyConstants.RATE_LIMIT_ROUTES_CHANNEL));
+        reload();
+    }
+
+    /**
+     * Rebuild the rule set from properties, overlaid with the rules stored in Redis
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.reload-interval-ms:30000}",
+            initialDelayString = "${rate-limit.reload-interval-ms:30000}")
+    public void reload() {
+        // 1. Rules from properties
+        Map<String, RouteRateLimitRule> rules = new LinkedHashMap<>(Binder.get(environment)
+                .bind("rate-limit.routes", Bindable.mapOf(String.class, RouteRateLimitRule.class))
+                .orElse(Collections.emptyMap()));
+
+        // 2. Runtime rules from Redis replace properties of the same name
+        try {
+            for (Map.Entry<Object, Object> entry : redisTemplate.opsForHash().entries(RedisKeyConstants.RATE_LIMIT_ROUTES_KEY).entrySet()) {
+                rules.put(entry.getKey().toString(), objectMapper.readValue(entry.getValue().toString(), RouteRateLimitRule.class));
+            }
+        }
+        catch (Exception e) {
+            // Keep the current rules rather than silently dropping runtime overrides
+            log.warn("Failed to load route rate limit rules from Redis, keeping current rules: {}", e.getMessage());
+            if (!routes.isEmpty()) {
+                return;
+            }
+        }
+
+        // 3. Compile, skipping disabled and invalid rules
+        List<Route> compiled = new ArrayList<>();
+        rules.forEach((name, rule) -> {
+            if (!rule.isEnabled()) {
+                return;
+            }
+            try {
+                compiled.add(compile(name, rule));
+            }
+            catch (Exception e) {
+                log.warn("Ignoring invalid route rate limit rule {}: {}", name, e.getMessage());
+            }
+        });
+        routes = List.copyOf(compiled);
+        log.info("Loaded {} route rate limit rules", compiled.size());
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        reload();
+    }
+
+    /**
+     * Buckets the request has to take a token from, empty when no rule matches
+     */
+    public List<RouteLimit> resolve(HttpServletRequest request, String clientIp, Long userId) {
+        List<Route> current = routes;
+        String uri = request.getRequestURI();
+        if (current.isEmpty() || uri == null) {
+            return Collections.emptyList();
+        }
+
+        String contextPath = request.getContextPath();
+        if (StringUtils.isNotEmpty(contextPath) && uri.startsWith(contextPath)) {
+            uri = uri.substring(contextPath.length());
+        }
+        PathContainer path = PathContainer.parsePath(uri);
+
+        List<RouteLimit> limits = new ArrayList<>();
+        for (Route route : current) {
+            if (route.method() != null && !route.method().equalsIgnoreCase(request.getMethod())) {
+                continue;
+            }
+            PathPattern.PathMatchInfo match = route.pattern().matchAndExtract(path);
+            if (match == null) {
+                continue;
+            }
+            String scopeValue = scopeValue(route.scope(), match, clientIp, userId);
+            if (scopeValue != null) {
+                limits.add(new RouteLimit(route.name(), route.keyPrefix() + scopeValue, route.config()));
+            }
+        }
+        return limits;
+    }
+
+    // Null when the request has nothing to key the bucket by, e.g. an anonymous request on a per-user rule
+    private String scopeValue(String scope, PathPattern.PathMatchInfo match, String clientIp, Long userId) {
+        if ("user".equals(scope)) {
+            return userId == null ? null : userId.toString();
+        }
+        if ("ip".equals(scope)) {
+            return clientIp;
+        }
+        return match.getUriVariables().get(scope.substring(PATH_SCOPE_PREFIX.length()));
+    }
+
+    private Route compile(String name, RouteRateLimitRule rule) {
+        String scope = rule.getScope();
+        if (!"user".equals(scope) && !"ip".equals(scope)
+                && (scope == null || !scope.startsWith(PATH_SCOPE_PREFIX) || scope.length() == PATH_SCOPE_PREFIX.length())) {
+            throw new IllegalArgumentException("scope must be user, ip or path:{variable}, was " + scope);
+        }
+        if (rule.getCapacity() <= 0 || rule.getPeriodMillis() <= 0) {
+            throw new IllegalArgumentException("capacity and periodMillis must be positive");
+        }
+
+        BucketConfiguration config = BucketConfiguration.builder()
+                .addLimit(Bandwidth.builder()
+                        .capacity(rule.getCapacity())
+                        .refillGreedy(rule.getCapacity(), Duration.ofMillis(rule.getPeriodMillis()))
+                        .build())
+                .build();
+        // Limit is part of the key, the Redis bucket keeps the configuration it was created with
+        String keyPrefix = ROUTE_RATE_LIMIT_KEY_PREFIX + name + ":" + rule.getCapacity() + "/" + rule.getPeriodMillis() + ":";
+        String method = StringUtils.isBlank(rule.getMethod()) ? null : rule.getMethod().trim();
+        return new Route(name, method, PathPatternParser.defaultInstance.parse(rule.getPattern()), scope, config, keyPrefix);
+    }
+
+    private record Route(String name, String method, PathPattern pattern, String scope,
+                         BucketConfiguration config, String keyPrefix) {
+    }
+
+    public record RouteLimit(String ruleName, String bucketKey, BucketConfiguration config) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.abel.ecommerce.filter;
+
+import lombok.Data;
+
+/**
+ * One route-scoped rate limit, bound from rate-limit.routes.{name}.* or stored as JSON in the
+ * rate_limit:routes Redis hash under the rule name.
+ */
+@Data
+public class RouteRateLimitRule {
+
+    // HTTP method to match, null or blank matches any method
+    private String method;
+
+    // Spring path pattern, e.g. /api/seckill/{productId}
+    private String pattern;
+
+    // What one bucket is kept per: "user", "ip" or "path:{variable}", e.g. path:productId
+    private String scope = "user";
+
+    private long capacity;
+
+    private long periodMillis = 1000;
+
+    // A Redis entry with enabled=false switches off the rule of the same name from properties
+    private boolean enabled = true;
+}
@@ -0,0 +1,153 @@
+package com.abel.ecommerce.init;
+
+import com.abel.ecommerce.entity.Product;
+import com.abel.ecommerce.repository.ProductRepository;
+import com.abel.ecommerce.service.ProductCacheService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads product info into Redis in the background once the application has started.
+ *
+ * Products are streamed in primary key order, chunk-size rows at a time, and each chunk is written with one
+ * pipelined Redis call, so memory stays bounded by one chunk whatever the catalog size. Until the warm-up has
+ * finished this indicator reports OUT_OF_SERVICE, which keeps the readiness probe from routing traffic to a
+ * cold node; liveness is not affected. A failed warm-up still ends as UP, reads then fill the cache from the database.
+ */
+@Component
+@Slf4j
+public class ProductCacheWarmer implements HealthIndicator {
+
+    private enum State { PENDING, RUNNING, COMPLETED, FAILED, DISABLED }
+
+    private final ProductRepository productRepository;
+    private final ProductCacheService productCacheService;
+    private final boolean enabled;
+    private final int chunkSize;
+
+    private final Counter warmedCounter;
+    private final Timer durationTimer;
+
+    private final AtomicLong warmed = new AtomicLong();
+    private volatile long total = 0;
+    private volatile long startedAt = 0;
+    private volatile long finishedAt = 0;
+    private volatile State state;
+
+    public ProductCacheWarmer(ProductRepository productRepository,
+                              ProductCacheService productCacheService,
+                              MeterRegistry meterRegistry,
+                              @Value("${product.cache.warmup.enabled:true}") boolean enabled,
+                              @Value("${product.cache.warmup.chunk-size:500}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("product.cache.warmup.chunk-size must be positive");
+        }
+        this.productRepository = productRepository;
+        this.productCacheService = productCacheService;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.state = enabled ? State.PENDING : State.DISABLED;
+
+        this.warmedCounter = Counter.builder("product.cache.warmup.products")
+                .description("Products written to Redis by the startup warm-up")
+                .register(meterRegistry);
+        this.durationTimer = Timer.builder("product.cache.warmup.duration")
+                .description("Time taken by the startup warm-up")
+                .register(meterRegistry);
+        Gauge.builder("product.cache.warmup.progress", this, ProductCacheWarmer::progress)
+                .description("Fraction of products warmed, 1 when finished")
+                .register(meterRegistry);
+        Gauge.builder("product.cache.warmup.throughput", this, ProductCacheWarmer::throughput)
+                .description("Products warmed per second")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start after the context is ready, so warm-up time no longer counts towards startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::warmUp, "product-cache-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void warmUp() {
+        state = State.RUNNING;
+        startedAt = System.currentTimeMillis();
+        try {
+            total = productRepository.count();
+
+            // Keyset pagination on the primary key: no OFFSET scans, and nothing is kept between chunks
+            long lastId = 0;
+            List<Product> chunk;
+            do {
+                chunk = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                productCacheService.warmRemote(chunk);
+                warmed.addAndGet(chunk.size());
+                warmedCounter.increment(chunk.size());
+                lastId = chunk.get(chunk.size() - 1).getId();
+            } while (chunk.size() == chunkSize);
+
+            finish(State.COMPLETED);
+            log.info("Product cache warm-up finished: {} products in {} ms ({} per second)",
+                    warmed.get(), finishedAt - startedAt, (long) throughput());
+        }
+        catch (Exception e) {
+            finish(State.FAILED);
+            log.warn("Product cache warm-up stopped after {} products, continuing with a cold cache: {}",
+                    warmed.get(), e.getMessage());
+        }
+    }
+
+    private void finish(State result) {
+        finishedAt = System.currentTimeMillis();
+        durationTimer.record(Duration.ofMillis(finishedAt - startedAt));
+        state = result;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = (state == State.PENDING || state == State.RUNNING) ? Health.outOfService() : Health.up();
+        return builder
+                .withDetail("state", state.name())
+                .withDetail("warmed", warmed.get())
+                .withDetail("total", total)
+                .build();
+    }
+
+    private double progress() {
+        if (state == State.COMPLETED || state == State.DISABLED) {
+            return 1.0;
+        }
+        return total == 0 ? 0.0 : Math.min(1.0, (double) warmed.get() / total);
+    }
+
+    private double throughput() {
+        if (startedAt == 0) {
+            return 0.0;
+        }
+        long end = finishedAt != 0 ? finishedAt : System.currentTimeMillis();
+        return warmed.get() * 1000.0 / Math.max(1, end - startedAt);
+    }
+}
@@ -0,0 +1,109 @@
+package com.abel.ecommerce.init;
+
+import com.abel.ecommerce.constant.RedisKeyConstants;
+import com.abel.ecommerce.service.StockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One-off move of seckill stock from the single-key format product:stock:{productId} (no hash tag) to the
+ * segmented product:stock:{productId:n} keys.
+ *
+ * Runs once the context is ready and before the node reports ready for traffic. Each legacy key is claimed with
+ * GETDEL, so when several nodes start together only one of them migrates a product. A product that already has
+ * segment keys (re-enabled after the deploy) keeps them and its legacy value is dropped. Once every node runs the
+ * segmented format there is nothing left to migrate and the scan finds no keys.
+ */
+@Component
+@Slf4j
+public class SeckillStockKeyMigration {
+
+    // product:stock:123 only, the segmented keys carry a {id:n} hash tag
+    private static final Pattern LEGACY_KEY = Pattern.compile(Pattern.quote(RedisKeyConstants.PRODUCT_STOCK_PREFIX) + "(\\d+)");
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final StockService stockService;
+    private final boolean enabled;
+
+    public SeckillStockKeyMigration(StringRedisTemplate stringRedisTemplate,
+                                    StockService stockService,
+                                    @Value("${seckill.stock.legacy-key-migration.enabled:true}") boolean enabled) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.stockService = stockService;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int migrated = migrate();
+            if (migrated > 0) {
+                log.info("Moved seckill stock of {} products to segmented stock keys", migrated);
+            }
+        }
+        catch (Exception e) {
+            log.error("Seckill stock key migration failed, products still on legacy keys must be re-enabled", e);
+        }
+    }
+
+    /**
+     * @return Number of products whose legacy stock was moved to segment keys
+     */
+    int migrate() {
+        List<String> legacyKeys = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(RedisKeyConstants.PRODUCT_STOCK_PREFIX + "*").count(1000).build();
+        try (Cursor<String> keys = stringRedisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                String key = keys.next();
+                if (LEGACY_KEY.matcher(key).matches()) {
+                    legacyKeys.add(key);
+                }
+            }
+        }
+
+        Map<Long, Integer> stockByProduct = new HashMap<>();
+        for (String key : legacyKeys) {
+            // Claim the key, another node may be migrating it at the same time
+            String value = stringRedisTemplate.opsForValue().getAndDelete(key);
+            if (value == null) {
+                continue;
+            }
+
+            Matcher matcher = LEGACY_KEY.matcher(key);
+            matcher.matches();
+            Long productId = Long.valueOf(matcher.group(1));
+
+            List<String> segmentKeys = new ArrayList<>(RedisKeyConstants.SECKILL_STOCK_SEGMENTS);
+            for (int segment = 0; segment < RedisKeyConstants.SECKILL_STOCK_SEGMENTS; segment++) {
+                segmentKeys.add(RedisKeyConstants.getProductStockKey(productId, segment));
+            }
+            Long existing = stringRedisTemplate.countExistingKeys(segmentKeys);
+            if (existing != null && existing > 0) {
+                log.warn("Product {} already has segmented stock, dropping legacy stock {}", productId, value);
+                continue;
+            }
+
+            stockByProduct.put(productId, Math.max(0, Integer.parseInt(value)));
+        }
+
+        // Same split and sold-out handling as enabling a product
+        stockService.preloadSeckillStock(stockByProduct);
+        return stockByProduct.size();
+    }
+}
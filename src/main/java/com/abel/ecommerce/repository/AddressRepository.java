@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +25,11 @@ public interface AddressRepository extends JpaRepository<Address, Long> {
      */
     Optional<Address> findByUserIdAndIsDefault(Long userId, Integer isDefault);
 
+    /**
+     * Find default addresses of several users in one query
+     */
+    List<Address> findByUserIdInAndIsDefault(Collection<Long> userIds, Integer isDefault);
+
     /**
      * Check if user has a default address
      */
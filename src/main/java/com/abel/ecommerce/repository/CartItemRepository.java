@@ -2,6 +2,9 @@ package com.abel.ecommerce.repository;
 
 import com.abel.ecommerce.entity.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -28,6 +31,16 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     // Delete cart items by user ID
     void deleteByUserId(Long userId);
 
+    // Delete the cart items of several users in one statement
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.userId IN :userIds")
+    int deleteByUserIdIn(@Param("userIds") List<Long> userIds);
+
+    // Delete a user's cart items by ID in one statement, ownership is enforced by the userId condition
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.userId = :userId AND c.id IN :ids")
+    int deleteByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") List<Long> ids);
+
     // Delete cart items by user ID and product IDs
     void deleteByUserIdAndProductIdIn(Long userId, List<Long> productIds);
 
@@ -3,6 +3,7 @@ package com.abel.ecommerce.repository;
 import com.abel.ecommerce.entity.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -35,6 +36,39 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     Page<Order> findByUserIdAndStatusOrderByCreatedAtDesc(Long userId, Integer status, Pageable pageable);
 
+    /**
+     * First slice of a user's orders for keyset pagination, newest first (no count query)
+     */
+    Slice<Order> findByUserIdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+
+    /**
+     * Next slice of a user's orders after the cursor position (createdAt, id)
+     */
+    @Query("SELECT o FROM Order o WHERE o.userId = :userId " +
+            "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    Slice<Order> findByUserIdBeforeCursor(@Param("userId") Long userId,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+
+    /**
+     * First slice of a user's orders with a given status for keyset pagination
+     */
+    Slice<Order> findByUserIdAndStatusOrderByCreatedAtDescIdDesc(Long userId, Integer status, Pageable pageable);
+
+    /**
+     * Next slice of a user's orders with a given status after the cursor position (createdAt, id)
+     */
+    @Query("SELECT o FROM Order o WHERE o.userId = :userId AND o.status = :status " +
+            "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    Slice<Order> findByUserIdAndStatusBeforeCursor(@Param("userId") Long userId,
+                                                   @Param("status") Integer status,
+                                                   @Param("createdAt") LocalDateTime createdAt,
+                                                   @Param("id") Long id,
+                                                   Pageable pageable);
+
     /**
      * Find orders by status
      */
@@ -4,14 +4,18 @@ import com.abel.ecommerce.entity.Product;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -44,13 +48,61 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Find products by categoryId pageable
     Page<Product> findByCategoryId(Long categoryId, Pageable pageable);
 
+    // Next chunk of products in primary key order, for streaming the whole catalog (List return: no count query)
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // First slice of products by status for keyset pagination, newest first (no count query)
+    Slice<Product> findByStatusOrderByCreatedAtDescIdDesc(Integer status, Pageable pageable);
+
+    // Next slice of products by status after the cursor position (createdAt, id)
+    @Query("SELECT p FROM Product p WHERE p.status = :status " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<Product> findByStatusBeforeCursor(@Param("status") Integer status,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+
+    // First slice of products by categoryId and status for keyset pagination
+    Slice<Product> findByCategoryIdAndStatusOrderByCreatedAtDescIdDesc(Long categoryId, Integer status, Pageable pageable);
+
+    // Next slice of products by categoryId and status after the cursor position (createdAt, id)
+    @Query("SELECT p FROM Product p WHERE p.categoryId = :categoryId AND p.status = :status " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<Product> findByCategoryIdAndStatusBeforeCursor(@Param("categoryId") Long categoryId,
+                                                         @Param("status") Integer status,
+                                                         @Param("createdAt") LocalDateTime createdAt,
+                                                         @Param("id") Long id,
+                                                         Pageable pageable);
+
     // Count the product number by categoryId
     long countByCategoryId(Long categoryId);
 
     // Count the product number by status
     long countByStatus(Integer status);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT p FROM Product p WHERE p.id = :id")
     Product findByIdForUpdate(@Param("id") Long id);
 
+    // Lock several products, in id order so concurrent callers take the row locks in the same order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Apply aggregated stock/sales deltas in one statement, no read-modify-write.
+    // Returns 0 when the delta would take stock below zero (or the product is gone), nothing is changed then.
+    // Native because Hibernate casts JPQL parameters to the columnDefinition ("INT DEFAULT 0"), which is invalid SQL
+    @Modifying
+    @Query(value = "UPDATE products SET stock = stock + :stockDelta, sales = sales + :salesDelta, " +
+           "updated_at = CURRENT_TIMESTAMP WHERE id = :id AND stock + :stockDelta >= 0", nativeQuery = true)
+    int applyStockDelta(@Param("id") Long id, @Param("stockDelta") int stockDelta, @Param("salesDelta") int salesDelta);
+
+    // Reserve stock for one order line only if enough is left; returns 0 when stock is short or the product is gone
+    @Modifying
+    @Query(value = "UPDATE products SET stock = stock - :quantity, sales = sales + :quantity, " +
+           "updated_at = CURRENT_TIMESTAMP WHERE id = :id AND stock >= :quantity", nativeQuery = true)
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+
 }
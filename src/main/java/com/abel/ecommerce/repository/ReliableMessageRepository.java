@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +25,12 @@ public interface ReliableMessageRepository extends JpaRepository<ReliableMessage
      */
     boolean existsByMessageId(String messageId);
 
+    /**
+     * Find which of the given message IDs were already consumed (batch deduplication)
+     */
+    @Query("SELECT rm.messageId FROM ReliableMessage rm WHERE rm.messageId IN :messageIds")
+    List<String> findExistingMessageIds(@Param("messageIds") Collection<String> messageIds);
+
     /**
      * Find all messages by consumer name
      */
@@ -0,0 +1,25 @@
+package com.abel.ecommerce.repository;
+
+import com.abel.ecommerce.entity.SeckillCampaignItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SeckillCampaignItemRepository extends JpaRepository<SeckillCampaignItem, Long> {
+
+    List<SeckillCampaignItem> findByCampaignIdIn(Collection<Long> campaignIds);
+
+    /**
+     * The given products that are in a campaign ending after endTime
+     */
+    @Query("SELECT DISTINCT i.productId FROM SeckillCampaignItem i, SeckillCampaign c " +
+           "WHERE c.id = i.campaignId AND i.productId IN :productIds AND c.endTime > :endTime")
+    List<Long> findProductIdsInCampaignsEndingAfter(@Param("productIds") Collection<Long> productIds,
+                                                   @Param("endTime") LocalDateTime endTime);
+}
@@ -0,0 +1,35 @@
+package com.abel.ecommerce.repository;
+
+import com.abel.ecommerce.entity.SeckillCampaign;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SeckillCampaignRepository extends JpaRepository<SeckillCampaign, Long> {
+
+    /**
+     * Campaigns in the given status starting at or before startTime that have not ended yet
+     */
+    List<SeckillCampaign> findByStatusAndStartTimeLessThanEqualAndEndTimeAfter(Integer status, LocalDateTime startTime,
+                                                                                LocalDateTime endTime);
+
+    /**
+     * Campaigns ending after the given time
+     */
+    List<SeckillCampaign> findByEndTimeAfter(LocalDateTime endTime);
+
+    /**
+     * Move a campaign from one status to another. Returns 0 when it is no longer in the expected status,
+     * so only one node claims a campaign for warm-up.
+     */
+    @Modifying
+    @Query("UPDATE SeckillCampaign c SET c.status = :to, c.updatedAt = :now WHERE c.id = :id AND c.status = :from")
+    int updateStatus(@Param("id") Long id, @Param("from") Integer from, @Param("to") Integer to,
+                     @Param("now") LocalDateTime now);
+}
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +27,37 @@ public interface SeckillMessageRepository extends JpaRepository<SeckillMessage,
            "AND (sm.nextRetryTime IS NULL OR sm.nextRetryTime <= :now)")
     List<SeckillMessage> findPendingMessagesForRetry(@Param("now") LocalDateTime now);
 
+    /**
+     * Claim a batch of pending messages for relaying. Rows locked by another node are skipped,
+     * so several nodes can relay at the same time without sending the same row twice.
+     * Must be called inside a transaction, the locks are held until it commits.
+     */
+    @Query(value = "SELECT * FROM seckill_message WHERE status = 0 AND retry_count < max_retry " +
+            "AND (next_retry_time IS NULL OR next_retry_time <= :now) " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<SeckillMessage> claimPendingMessages(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Mark a batch of messages as sent in one statement
+     */
+    @Modifying
+    @Query("UPDATE SeckillMessage sm SET sm.status = 1, sm.updatedAt = :now, sm.version = sm.version + 1 " +
+           "WHERE sm.id IN :ids")
+    int markSent(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Schedule a batch of messages for retry in one statement, messages out of retries become FAILED.
+     * status is assigned first because MySQL evaluates SET assignments left to right.
+     */
+    @Modifying
+    @Query("UPDATE SeckillMessage sm SET " +
+           "sm.status = CASE WHEN sm.retryCount + 1 >= sm.maxRetry THEN 2 ELSE sm.status END, " +
+           "sm.retryCount = sm.retryCount + 1, sm.nextRetryTime = :nextRetryTime, " +
+           "sm.updatedAt = :now, sm.version = sm.version + 1 " +
+           "WHERE sm.id IN :ids")
+    int markForRetry(@Param("ids") List<Long> ids, @Param("nextRetryTime") LocalDateTime nextRetryTime,
+                     @Param("now") LocalDateTime now);
+
     /**
      * Find all failed messages (status = 2 or retry_count >= max_retry)
      */
@@ -69,6 +101,17 @@ public interface SeckillMessageRepository extends JpaRepository<SeckillMessage,
     @Query("DELETE FROM SeckillMessage sm WHERE sm.status = 1 AND sm.createdAt < :before")
     void deleteOldSuccessfulMessages(@Param("before") LocalDateTime before);
 
+    /**
+     * Messages of the given products created since the given time whose order does not exist yet,
+     * i.e. admitted in Redis but not (yet) part of the database stock. Messages in excludedStatus
+     * (the relay gave up on them) are left out.
+     */
+    @Query("SELECT sm FROM SeckillMessage sm WHERE sm.productId IN :productIds AND sm.createdAt >= :since " +
+           "AND sm.status <> :excludedStatus AND NOT EXISTS (SELECT o.id FROM Order o WHERE o.orderNo = sm.orderNo)")
+    List<SeckillMessage> findWithoutOrder(@Param("productIds") Collection<Long> productIds,
+                                          @Param("since") LocalDateTime since,
+                                          @Param("excludedStatus") Integer excludedStatus);
+
     /**
      * Count messages by status
      */
@@ -0,0 +1,55 @@
+package com.abel.ecommerce.repository;
+
+import com.abel.ecommerce.entity.StockLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockLedgerRepository extends JpaRepository<StockLedger, Long> {
+
+    /**
+     * Claim a batch of pending ledger entries. Rows locked by another node are skipped.
+     * Must be called inside a transaction, the locks are held until it commits.
+     */
+    @Query(value = "SELECT * FROM stock_ledger WHERE status = 0 ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<StockLedger> claimPending(@Param("limit") int limit);
+
+    /**
+     * Mark a batch of entries as applied in one statement
+     */
+    @Modifying
+    @Query("UPDATE StockLedger sl SET sl.status = 1, sl.appliedAt = :now WHERE sl.id IN :ids")
+    int markApplied(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Move a batch of entries to the given status in one statement
+     */
+    @Modifying
+    @Query("UPDATE StockLedger sl SET sl.status = :status WHERE sl.id IN :ids")
+    int updateStatus(@Param("ids") List<Long> ids, @Param("status") Integer status);
+
+    /**
+     * Entries of the given products in the given status
+     */
+    List<StockLedger> findByProductIdInAndStatus(Collection<Long> productIds, Integer status);
+
+    /**
+     * Count entries not yet applied to the products table
+     */
+    long countByStatus(Integer status);
+
+    /**
+     * Delete applied entries (cleanup job)
+     */
+    @Modifying
+    @Query("DELETE FROM StockLedger sl WHERE sl.status = 1 AND sl.appliedAt < :before")
+    int deleteAppliedBefore(@Param("before") LocalDateTime before);
+}
@@ -31,6 +31,13 @@ public interface CartService {
      */
     void removeFromCart(Long userId, Long cartItemId);
 
+    /**
+     * Remove the items that were just checked out, in one delete
+     * @param userId User ID
+     * @param cartItemIds IDs of the ordered cart items, items of other users are ignored
+     */
+    void removeCheckedOutItems(Long userId, List<Long> cartItemIds);
+
     /**
      * Clear all items from cart
      * @param userId User ID
@@ -60,9 +67,11 @@ public interface CartService {
     List<CartItem> getSelectedCartItems(Long userId);
 
     /**
-     * Find cart item by ID
+     * Find one of the user's cart items by ID
+     * @param userId User ID
      * @param cartItemId Cart item ID
      * @return Cart item entity
+     * @throws com.abel.ecommerce.exception.CartItemNotFoundException if the item does not exist or belongs to another user
      */
-    CartItem findCartItemById(Long cartItemId);
+    CartItem findCartItemById(Long userId, Long cartItemId);
 }
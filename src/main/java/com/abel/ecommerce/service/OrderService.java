@@ -2,10 +2,13 @@ package com.abel.ecommerce.service;
 
 import com.abel.ecommerce.entity.Order;
 import com.abel.ecommerce.entity.OrderItem;
+import com.abel.ecommerce.utils.PageCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
+import java.util.Map;
 
 public interface OrderService {
 
@@ -80,6 +83,17 @@ public interface OrderService {
      */
     Page<Order> findOrdersByUserIdAndStatus(Long userId, Integer status, Pageable pageable);
 
+    /**
+     * Find user's orders with keyset pagination, newest first. No count query is run.
+     *
+     * @param userId User ID
+     * @param status Status filter (optional)
+     * @param cursor Position after which to continue, null for the first slice
+     * @param size   Slice size
+     * @return Slice of orders
+     */
+    Slice<Order> findOrdersByUserIdAfterCursor(Long userId, Integer status, PageCursor cursor, int size);
+
     /**
      * Find order by order number
      *
@@ -96,6 +110,14 @@ public interface OrderService {
      */
     List<OrderItem> findOrderItems(Long orderId);
 
+    /**
+     * Find order items for several orders with a single query
+     *
+     * @param orderIds Order IDs
+     * @return Order items grouped by order ID; orders without items map to an empty list
+     */
+    Map<Long, List<OrderItem>> findOrderItemsByOrderIds(List<Long> orderIds);
+
     /**
      * Find order items by order number
      *
@@ -0,0 +1,53 @@
+package com.abel.ecommerce.service;
+
+import com.abel.ecommerce.entity.Product;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ProductCacheService {
+
+    /**
+     * Get product through the local cache (L1), then Redis (L2), then the database.
+     * Concurrent misses for the same ID are loaded once; missing IDs are cached briefly too.
+     * @param id Product ID
+     * @return Copy of the cached product, safe to modify
+     * @throws com.abel.ecommerce.exception.ProductNotFoundException if the product does not exist
+     */
+    Product getProduct(Long id);
+
+    /**
+     * Get several products at once: one L1 lookup, one Redis MGET for the L1 misses
+     * and one database query for whatever is left
+     * @param ids Product IDs
+     * @return Copies of the products found, keyed by ID; missing IDs are absent from the map
+     */
+    Map<Long, Product> getProducts(Collection<Long> ids);
+
+    /**
+     * Put a freshly loaded product into both cache levels (cache warming)
+     * @param product Product loaded from the database
+     */
+    void putProduct(Product product);
+
+    /**
+     * Put several freshly loaded products into both cache levels, with one pipelined Redis write
+     * @param products Products loaded from the database
+     */
+    void putProducts(Collection<Product> products);
+
+    /**
+     * Write products to Redis only, in one pipelined call, for cache warm-up; the local level fills on reads.
+     * Unlike the other writes, a Redis failure is thrown to the caller.
+     * @param products Products loaded from the database
+     */
+    void warmRemote(List<Product> products);
+
+    /**
+     * Evict product from both cache levels on every node. When called inside a transaction
+     * the eviction happens after commit, so readers cannot re-cache the old row.
+     * @param id Product ID
+     */
+    void evictProduct(Long id);
+}
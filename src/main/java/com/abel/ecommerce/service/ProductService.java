@@ -3,10 +3,14 @@ package com.abel.ecommerce.service;
 import com.abel.ecommerce.dto.request.ProductRequest;
 import com.abel.ecommerce.entity.CartItem;
 import com.abel.ecommerce.entity.Product;
+import com.abel.ecommerce.utils.PageCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ProductService {
 
@@ -60,6 +64,16 @@ public interface ProductService {
      */
     Page<Product> findProductsWithPagination(Long categoryId, Integer status, Pageable pageable);
 
+    /**
+     * Find products with keyset pagination, newest first. No count query is run.
+     * @param categoryId Category ID filter (optional)
+     * @param status Status filter
+     * @param cursor Position after which to continue, null for the first slice
+     * @param size Slice size
+     * @return Slice of products
+     */
+    Slice<Product> findProductsAfterCursor(Long categoryId, Integer status, PageCursor cursor, int size);
+
     /**
      * Find product by ID
      * @param id Product ID
@@ -68,7 +82,15 @@ public interface ProductService {
     Product findProductById(Long id);
 
     /**
-     * Reserve products for order (lock rows and update stock)
+     * Find several products by ID in one lookup
+     * @param ids Product IDs
+     * @return Products keyed by ID; IDs that do not exist are absent from the map
+     */
+    Map<Long, Product> findProductsByIds(Collection<Long> ids);
+
+    /**
+     * Reserve products for order with one conditional stock UPDATE per product,
+     * failing with InsufficientStockException if any product is short
      * @param cartItems Cart items to reserve products for
      * @return List of reserved products
      */
@@ -0,0 +1,34 @@
+package com.abel.ecommerce.service;
+
+import com.abel.ecommerce.dto.request.SeckillCampaignRequest;
+import com.abel.ecommerce.entity.SeckillCampaign;
+
+public interface SeckillCampaignService {
+
+    /**
+     * Schedule a campaign; its stock is loaded into Redis shortly before the start time.
+     * Product stock is checked but not set aside, warm-up loads at most the stock left at that point
+     * @param request Campaign products, quantities and sale window
+     * @return the saved campaign
+     */
+    SeckillCampaign createCampaign(SeckillCampaignRequest request);
+
+    /**
+     * Load stock and product info of campaigns starting within the warm-up lead time into Redis, pipelined.
+     * Each campaign is claimed in the database first, so only one node warms it.
+     * @return number of campaigns warmed
+     */
+    int warmUpDueCampaigns();
+
+    /**
+     * Reload the sale windows of current and upcoming campaigns into local memory
+     */
+    void refreshWindows();
+
+    /**
+     * Reject a seckill outside its campaign's sale window, from local memory only.
+     * Products that are in no campaign are not restricted.
+     * @param productId Product ID
+     */
+    void checkActive(Long productId);
+}
@@ -0,0 +1,11 @@
+package com.abel.ecommerce.service;
+
+public interface SeckillMessageRelayService {
+
+    /**
+     * Claim a batch of pending seckill messages, publish them to RabbitMQ and record the outcome
+     * @param batchSize Maximum number of messages to claim
+     * @return Number of messages claimed (0 when there is nothing to send)
+     */
+    int relayPendingBatch(int batchSize);
+}
@@ -0,0 +1,19 @@
+package com.abel.ecommerce.service;
+
+import com.abel.ecommerce.dto.request.SeckillOrderMessage;
+import com.abel.ecommerce.dto.response.SeckillOrderBatchResult;
+
+import java.util.List;
+
+public interface SeckillOrderService {
+
+    /**
+     * Create orders for a batch of seckill messages in one transaction.
+     * Deduplication, address and product lookups are done with one query each,
+     * and the stock/sales change is journaled once per product.
+     * Rejected messages are recorded as consumed in the same transaction, so they are only rejected once.
+     * @param messages Parsed seckill messages
+     * @return Created, duplicate and rejected messages
+     */
+    SeckillOrderBatchResult createSeckillOrders(List<SeckillOrderMessage> messages);
+}
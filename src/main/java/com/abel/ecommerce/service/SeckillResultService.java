@@ -0,0 +1,52 @@
+package com.abel.ecommerce.service;
+
+import com.abel.ecommerce.dto.response.SeckillResultResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+public interface SeckillResultService {
+
+    /**
+     * Record that the seckill was admitted and its order message is waiting to be processed
+     * @param orderNo Order number handed to the client
+     * @param userId User ID
+     * @param productId Product ID
+     */
+    void markQueued(String orderNo, Long userId, Long productId);
+
+    /**
+     * Record that the order was created, after the current transaction commits if there is one
+     * @param orderNo Order number
+     */
+    void markCreated(String orderNo);
+
+    /**
+     * Record that the order can never be created
+     * @param orderNo Order number
+     * @param reason Shown to the client
+     */
+    void markFailed(String orderNo, String reason);
+
+    /**
+     * Read the current result from Redis, no database access
+     * @param orderNo Order number
+     * @return the result, or null if unknown or expired
+     */
+    SeckillResultResponse getResult(String orderNo);
+
+    /**
+     * Read the status of several orders in one pipelined round trip, no database access
+     * @param orderNos Order numbers
+     * @return status by order number; unknown or expired orders are left out
+     */
+    Map<String, String> getStatuses(List<String> orderNos);
+
+    /**
+     * Stream the result: one event now, and one more when it reaches CREATED or FAILED
+     * @param result Current result of the order, from getResult
+     * @return emitter that completes after the final result is sent or on timeout
+     */
+    SseEmitter subscribe(SeckillResultResponse result);
+}
@@ -0,0 +1,23 @@
+package com.abel.ecommerce.service;
+
+public interface SoldOutCacheService {
+
+    /**
+     * Check the local sold-out flag, no Redis call is made
+     * @param productId Product ID
+     * @return true if the product is known to be sold out on this node
+     */
+    boolean isSoldOut(Long productId);
+
+    /**
+     * Flag product as sold out locally and broadcast it to the other nodes
+     * @param productId Product ID
+     */
+    void markSoldOut(Long productId);
+
+    /**
+     * Clear sold-out flag locally and on the other nodes (call when stock is added back)
+     * @param productId Product ID
+     */
+    void clearSoldOut(Long productId);
+}
@@ -0,0 +1,38 @@
+package com.abel.ecommerce.service;
+
+public interface StockLedgerService {
+
+    /**
+     * Journal a sale (stock - quantity, sales + quantity). Must run inside the caller's transaction.
+     * @param productId Product ID
+     * @param quantity Quantity sold
+     * @param source What caused the change, see StockLedger.SOURCE_*
+     * @param referenceNo Order number, may be null
+     */
+    void recordSale(Long productId, int quantity, String source, String referenceNo);
+
+    /**
+     * Journal a restock (stock + quantity, sales - quantity). Must run inside the caller's transaction.
+     * @param productId Product ID
+     * @param quantity Quantity given back
+     * @param source What caused the change, see StockLedger.SOURCE_*
+     * @param referenceNo Order number, may be null
+     */
+    void recordRestock(Long productId, int quantity, String source, String referenceNo);
+
+    /**
+     * Claim a batch of pending entries and apply them as one UPDATE per product.
+     * A product whose aggregated delta would take its stock below zero is not updated and its entries are
+     * parked as StockLedger.STATUS_REJECTED for manual review (counted by the stock.ledger.rejected metric).
+     * @param batchSize Maximum number of entries to claim
+     * @return Number of entries claimed, applied or rejected
+     */
+    int flushPending(int batchSize);
+
+    /**
+     * Delete applied entries older than the given number of days
+     * @param retentionDays Days to keep applied entries
+     * @return Number of entries deleted
+     */
+    int purgeApplied(int retentionDays);
+}
@@ -0,0 +1,28 @@
+package com.abel.ecommerce.service;
+
+import com.abel.ecommerce.dto.response.StockReconciliationResult;
+
+import java.util.List;
+
+public interface StockReconciliationService {
+
+    /**
+     * IDs of the products that currently have seckill stock in Redis
+     * @return Product IDs, in no particular order
+     */
+    List<Long> findSeckillProductIds();
+
+    /**
+     * Compare the Redis stock of the given products with the stock the database says they should have,
+     * and repair drift that was seen unchanged in the previous run too, if repairs are enabled
+     * @param productIds Products to check
+     * @return What was found and repaired
+     */
+    StockReconciliationResult reconcile(List<Long> productIds);
+
+    /**
+     * Publish the totals of a full run as metrics
+     * @param result Sum of the batch results of the run
+     */
+    void recordRun(StockReconciliationResult result);
+}
@@ -1,7 +1,11 @@
 package com.abel.ecommerce.service;
 
+import com.abel.ecommerce.dto.response.SeckillAdmissionResult;
 import com.abel.ecommerce.entity.Product;
 
+import java.time.LocalDateTime;
+import java.util.Map;
+
 // TODO: Change a name like stockServiceFrom cache because you manage it in redis cache
 public interface StockService {
 
@@ -14,4 +18,35 @@ public interface StockService {
     public Product findProductById(Long id);
 
     public void enableProductForSeckill(Long productId);
+
+    /**
+     * Set seckill stock of several products in one pipelined Redis call, each split across the stock segments,
+     * and clear their sold-out flags
+     * @param stockByProduct Product ID -> stock to sell
+     */
+    public void preloadSeckillStock(Map<Long, Integer> stockByProduct);
+
+    /**
+     * Same as {@link #preloadSeckillStock(Map)}, with the stock keys of the given products expiring at a set time
+     * @param stockByProduct Product ID -> stock to sell
+     * @param expireAt Product ID -> when its stock keys are removed, products without an entry never expire
+     */
+    public void preloadSeckillStock(Map<Long, Integer> stockByProduct, Map<Long, LocalDateTime> expireAt);
+
+    /**
+     * Check participation, deduct stock and record the user in a single Redis call
+     * @param userId User ID
+     * @param productId Product ID
+     * @param quantity Quantity to deduct
+     * @return Admission status and remaining stock
+     */
+    public SeckillAdmissionResult admitSeckill(Long userId, Long productId, Integer quantity);
+
+    /**
+     * Undo a successful admission (restore stock and remove participation record) in a single Redis call
+     * @param userId User ID
+     * @param productId Product ID
+     * @param quantity Quantity to restore
+     */
+    public void rollbackSeckill(Long userId, Long productId, Integer quantity);
 }
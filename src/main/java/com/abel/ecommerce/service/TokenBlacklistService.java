@@ -1,5 +1,7 @@
 package com.abel.ecommerce.service;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
+
 public interface TokenBlacklistService {
 
     /**
@@ -15,6 +17,21 @@ public interface TokenBlacklistService {
      */
     boolean isTokenBlacklisted(String token);
 
+    /**
+     * Check if an already decoded token is blacklisted, including tokens without a jti
+     * that were blacklisted under the whole token
+     * @param decodedJWT Decoded token
+     * @return true if token is blacklisted, false otherwise
+     */
+    boolean isTokenBlacklisted(DecodedJWT decodedJWT);
+
+    /**
+     * Check if token is blacklisted by its jti
+     * @param tokenId Token ID from JwtTokenUtil.getTokenId
+     * @return true if token is blacklisted, false otherwise
+     */
+    boolean isTokenIdBlacklisted(String tokenId);
+
     /**
      * Remove token from blacklist (mainly for testing purposes)
      * @param token JWT token to remove from blacklist
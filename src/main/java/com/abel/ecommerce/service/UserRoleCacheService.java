@@ -12,7 +12,7 @@ public interface UserRoleCacheService {
     Set<String> getUserRoles(String username);
 
     /**
-     * Clear user role cache (call when roles change)
+     * Clear user role cache on every node (call when roles change)
      * @param username Username
      */
     void clearUserRoleCache(String username);
@@ -10,12 +10,14 @@ import com.abel.ecommerce.service.CartService;
 import com.abel.ecommerce.service.ProductService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "cart.store", havingValue = "mysql", matchIfMissing = true)
 public class CartServiceImpl implements CartService {
 
     private final CartItemRepository cartItemRepository;
@@ -53,11 +55,8 @@ public class CartServiceImpl implements CartService {
     @Override
     @Transactional
     public CartItem updateCartItem(Long userId, Long cartItemId, Integer quantity) {
-        // Check if cart existed
-        CartItem cartItemById = findCartItemById(cartItemId);
-
-        // Check if cart item belongs to this user
-        if (!cartItemById.getUserId().equals(userId)) throw new CartItemNotFoundException("Cart Item does not belong to user");
+        // Check if cart item exists and belongs to this user
+        CartItem cartItemById = findCartItemById(userId, cartItemId);
 
         // Get product using existing productId from cartItem
         Product productById = productService.findProductById(cartItemById.getProductId());
@@ -75,16 +74,20 @@ public class CartServiceImpl implements CartService {
     @Override
     @Transactional
     public void removeFromCart(Long userId, Long cartItemId) {
-        // Check if cart Item existed
-        CartItem cartItemById = findCartItemById(cartItemId);
-
-        // Check if cart Item belongs to user
-        if (!cartItemById.getUserId().equals(userId)) throw new CartItemNotFoundException("Cart Item does not belong to user");
+        // Check if cart item exists and belongs to this user
+        CartItem cartItemById = findCartItemById(userId, cartItemId);
 
         // Delete cart Item
         cartItemRepository.deleteById(cartItemId);
     }
 
+    @Override
+    @Transactional
+    public void removeCheckedOutItems(Long userId, List<Long> cartItemIds) {
+        if (cartItemIds.isEmpty()) return;
+        cartItemRepository.deleteByUserIdAndIdIn(userId, cartItemIds);
+    }
+
     @Override
     @Transactional
     public void clearCart(Long userId) {
@@ -94,11 +97,8 @@ public class CartServiceImpl implements CartService {
     @Override
     @Transactional
     public void updateItemSelection(Long userId, Long cartItemId, Integer selected) {
-        // Check if cart Item existed
-        CartItem cartItemById = findCartItemById(cartItemId);
-
-        // Check if cart Item belongs to user
-        if (!cartItemById.getUserId().equals(userId)) throw new CartItemNotFoundException("Cart Item does not belong to user");
+        // Check if cart item exists and belongs to this user
+        CartItem cartItemById = findCartItemById(userId, cartItemId);
 
         // Update cart Item selected
         cartItemById.setSelected(selected);
@@ -116,9 +116,11 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
-    public CartItem findCartItemById(Long cartItemId) {
-        return cartItemRepository.findById(cartItemId)
+    public CartItem findCartItemById(Long userId, Long cartItemId) {
+        CartItem cartItem = cartItemRepository.findById(cartItemId)
                 .orElseThrow(() -> new CartItemNotFoundException(cartItemId, "cart Item ID"));
+        if (!cartItem.getUserId().equals(userId)) throw new CartItemNotFoundException("Cart Item does not belong to user");
+        return cartItem;
     }
 
 }
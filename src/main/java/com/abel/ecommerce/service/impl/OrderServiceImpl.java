@@ -7,19 +7,25 @@ import com.abel.ecommerce.exception.OrderStatusException;
 import com.abel.ecommerce.repository.OrderItemRepository;
 import com.abel.ecommerce.repository.OrderRepository;
 import com.abel.ecommerce.service.OrderService;
+import com.abel.ecommerce.utils.PageCursor;
+import com.abel.ecommerce.utils.SnowflakeIdGenerator;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -30,11 +36,16 @@ public class OrderServiceImpl implements OrderService {
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final StringRedisTemplate redisTemplate;
+    private final SnowflakeIdGenerator snowflakeIdGenerator;
 
     // Cache key prefix for user roles
     private static final String ORDER_TOKEN_KEY = "order:token:";
     private static final long CACHE_EXPIRE_MINUTES = 30;
 
+    // Order number = 19-digit snowflake ID + 4-digit user suffix, fits the 32-char order_no column
+    private static final int ORDER_ID_DIGITS = 19;
+    private static final int USER_SUFFIX_DIGITS = 4;
+
     @Override
     @Transactional
     public Order payOrder(Long userId, Long orderId) {
@@ -136,6 +147,36 @@ public class OrderServiceImpl implements OrderService {
         return orderItemRepository.findByOrderId(orderId);
     }
 
+    @Override
+    public Slice<Order> findOrdersByUserIdAfterCursor(Long userId, Integer status, PageCursor cursor, int size) {
+        Pageable pageable = PageRequest.ofSize(size);
+        if (status == null) {
+            return cursor == null
+                    ? orderRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, pageable)
+                    : orderRepository.findByUserIdBeforeCursor(userId, cursor.getCreatedAt(), cursor.getId(), pageable);
+        }
+        return cursor == null
+                ? orderRepository.findByUserIdAndStatusOrderByCreatedAtDescIdDesc(userId, status, pageable)
+                : orderRepository.findByUserIdAndStatusBeforeCursor(userId, status, cursor.getCreatedAt(), cursor.getId(), pageable);
+    }
+
+    @Override
+    public Map<Long, List<OrderItem>> findOrderItemsByOrderIds(List<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        // One "order_id IN (...)" query, grouped in memory
+        Map<Long, List<OrderItem>> itemsByOrderId = new HashMap<>(orderIds.size());
+        for (Long orderId : orderIds) {
+            itemsByOrderId.put(orderId, new ArrayList<>());
+        }
+        for (OrderItem item : orderItemRepository.findByOrderIdIn(orderIds)) {
+            itemsByOrderId.computeIfAbsent(item.getOrderId(), id -> new ArrayList<>()).add(item);
+        }
+        return itemsByOrderId;
+    }
+
     @Override
     public List<OrderItem> findOrderItemsByOrderNo(String orderNo) {
         return orderItemRepository.findByOrderNo(orderNo);
@@ -153,11 +194,21 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public String generateOrderNo(Long userId) {
-        // Format: timestamp(yyyyMMddHHmmss) + userSuffix + random
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String userSuffix = String.format("%04d", userId % 10000);
-        String random = String.format("%03d", new Random().nextInt(1000));
-        return timestamp + userSuffix + random;
+        // Format: snowflakeId(19 digits, zero padded) + userSuffix(userId % 10000, 4 digits)
+        // Unique without relying on the order_no unique constraint, and sorts by creation time
+        long id = snowflakeIdGenerator.nextId();
+        long userSuffix = Math.floorMod(userId, 10000L);
+
+        char[] digits = new char[ORDER_ID_DIGITS + USER_SUFFIX_DIGITS];
+        for (int i = digits.length - 1; i >= ORDER_ID_DIGITS; i--) {
+            digits[i] = (char) ('0' + userSuffix % 10);
+            userSuffix /= 10;
+        }
+        for (int i = ORDER_ID_DIGITS - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + id % 10);
+            id /= 10;
+        }
+        return new String(digits);
     }
 
     @Override
@@ -0,0 +1,269 @@
+package com.abel.ecommerce.service.impl;
+
+import com.abel.ecommerce.constant.RedisKeyConstants;
+import com.abel.ecommerce.entity.Product;
+import com.abel.ecommerce.exception.ProductNotFoundException;
+import com.abel.ecommerce.repository.ProductRepository;
+import com.abel.ecommerce.service.ProductCacheService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class ProductCacheServiceImpl implements ProductCacheService, MessageListener {
+
+    private final ProductRepository productRepository;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final RedisTemplate<String, Object> objectRedisTemplate;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    // L1: bounded on-heap cache, Optional.empty() marks a product that does not exist
+    private final Cache<Long, Optional<Product>> localCache;
+
+    // L2: Redis, shared by all nodes
+    private static final long REDIS_TTL_MINUTES = 60;
+
+    public ProductCacheServiceImpl(ProductRepository productRepository,
+                                   StringRedisTemplate stringRedisTemplate,
+                                   RedisTemplate<String, Object> objectRedisTemplate,
+                                   RedisMessageListenerContainer listenerContainer,
+                                   @Value("${product.cache.local.max-size:10000}") long maxSize,
+                                   @Value("${product.cache.local.ttl-seconds:30}") long ttlSeconds,
+                                   @Value("${product.cache.local.negative-ttl-seconds:5}") long negativeTtlSeconds) {
+        this.productRepository = productRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectRedisTemplate = objectRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ProductExpiry(TimeUnit.SECONDS.toNanos(ttlSeconds), TimeUnit.SECONDS.toNanos(negativeTtlSeconds)))
+                .build();
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyConstants.PRODUCT_INVALIDATE_CHANNEL));
+    }
+
+    @Override
+    public Product getProduct(Long id) {
+        // Caffeine runs the loader once per key, concurrent callers wait for it (single flight)
+        Optional<Product> cached = localCache.get(id, this::load);
+        return cached.map(ProductCacheServiceImpl::copy)
+                .orElseThrow(() -> new ProductNotFoundException(id, "ID"));
+    }
+
+    @Override
+    public Map<Long, Product> getProducts(Collection<Long> ids) {
+        Map<Long, Optional<Product>> cached = localCache.getAll(ids, this::loadAll);
+
+        Map<Long, Product> products = new HashMap<>(cached.size());
+        cached.forEach((id, product) -> product.ifPresent(p -> products.put(id, copy(p))));
+        return products;
+    }
+
+    @Override
+    public void putProduct(Product product) {
+        Product cachedCopy = copy(product);
+        writeRemote(cachedCopy);
+        localCache.put(product.getId(), Optional.of(cachedCopy));
+    }
+
+    @Override
+    public void putProducts(Collection<Product> products) {
+        List<Product> cachedCopies = products.stream().map(ProductCacheServiceImpl::copy).toList();
+        writeRemoteAll(cachedCopies);
+        cachedCopies.forEach(product -> localCache.put(product.getId(), Optional.of(product)));
+    }
+
+    @Override
+    public void warmRemote(List<Product> products) {
+        if (!products.isEmpty()) {
+            pipelineRemote(products);
+        }
+    }
+
+    @Override
+    public void evictProduct(Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvict(id);
+                }
+            });
+        }
+        else {
+            doEvict(id);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            localCache.invalidate(Long.valueOf(body));
+        }
+        catch (NumberFormatException e) {
+            log.warn("Ignoring malformed product invalidation message: {}", body);
+        }
+    }
+
+    private Optional<Product> load(Long id) {
+        // 1. L2
+        String key = RedisKeyConstants.getProductInfoKey(id);
+        try {
+            Object cached = objectRedisTemplate.opsForValue().get(key);
+            if (cached instanceof Product product) {
+                return Optional.of(product);
+            }
+        }
+        catch (Exception e) {
+            // Redis problems must not break product reads, fall through to the database
+            log.warn("Failed to read product {} from Redis", id, e);
+        }
+
+        // 2. Database, missing IDs are cached locally as empty
+        Optional<Product> product = productRepository.findById(id);
+        product.ifPresent(this::writeRemote);
+        return product;
+    }
+
+    private Map<Long, Optional<Product>> loadAll(Set<? extends Long> ids) {
+        Map<Long, Optional<Product>> loaded = new HashMap<>(ids.size());
+        List<Long> idList = new ArrayList<>(ids);
+
+        // 1. L2, one MGET for all IDs
+        try {
+            List<String> keys = idList.stream().map(RedisKeyConstants::getProductInfoKey).toList();
+            List<Object> values = objectRedisTemplate.opsForValue().multiGet(keys);
+            if (values != null) {
+                for (int i = 0; i < idList.size(); i++) {
+                    if (values.get(i) instanceof Product product) {
+                        loaded.put(idList.get(i), Optional.of(product));
+                    }
+                }
+            }
+        }
+        catch (Exception e) {
+            log.warn("Failed to read {} products from Redis", idList.size(), e);
+        }
+
+        // 2. Database, one query for the Redis misses
+        List<Long> misses = idList.stream().filter(id -> !loaded.containsKey(id)).toList();
+        if (misses.isEmpty()) {
+            return loaded;
+        }
+        List<Product> found = productRepository.findAllById(misses);
+        writeRemoteAll(found);
+        found.forEach(product -> loaded.put(product.getId(), Optional.of(product)));
+        misses.forEach(id -> loaded.putIfAbsent(id, Optional.empty()));
+        return loaded;
+    }
+
+    private void writeRemoteAll(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        try {
+            pipelineRemote(products);
+        }
+        catch (Exception e) {
+            log.warn("Failed to write {} products to Redis", products.size(), e);
+        }
+    }
+
+    private void pipelineRemote(List<Product> products) {
+        objectRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                for (Product product : products) {
+                    operations.opsForValue().set(RedisKeyConstants.getProductInfoKey(product.getId()),
+                            product, REDIS_TTL_MINUTES, TimeUnit.MINUTES);
+                }
+                return null;
+            }
+        });
+    }
+
+    private void writeRemote(Product product) {
+        try {
+            objectRedisTemplate.opsForValue().set(RedisKeyConstants.getProductInfoKey(product.getId()),
+                    product, REDIS_TTL_MINUTES, TimeUnit.MINUTES);
+        }
+        catch (Exception e) {
+            log.warn("Failed to write product {} to Redis", product.getId(), e);
+        }
+    }
+
+    private void doEvict(Long id) {
+        localCache.invalidate(id);
+        try {
+            objectRedisTemplate.delete(RedisKeyConstants.getProductInfoKey(id));
+            stringRedisTemplate.convertAndSend(RedisKeyConstants.PRODUCT_INVALIDATE_CHANNEL, String.valueOf(id));
+        }
+        catch (Exception e) {
+            // Other nodes fall back to their local TTL
+            log.error("Failed to evict product {} from Redis", id, e);
+        }
+    }
+
+    // Cached instances are shared, callers get their own copy
+    private static Product copy(Product product) {
+        Product copy = new Product();
+        BeanUtils.copyProperties(product, copy);
+        return copy;
+    }
+
+    /**
+     * Positive entries live for ttl, negative (missing product) entries for the shorter negativeTtl
+     */
+    private record ProductExpiry(long ttlNanos, long negativeTtlNanos) implements Expiry<Long, Optional<Product>> {
+
+        @Override
+        public long expireAfterCreate(Long key, Optional<Product> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, Optional<Product> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, Optional<Product> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
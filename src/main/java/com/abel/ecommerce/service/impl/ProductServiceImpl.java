@@ -7,20 +7,26 @@ import com.abel.ecommerce.entity.Product;
 import com.abel.ecommerce.exception.InsufficientStockException;
 import com.abel.ecommerce.exception.ProductNotFoundException;
 import com.abel.ecommerce.repository.ProductRepository;
+import com.abel.ecommerce.service.ProductCacheService;
 import com.abel.ecommerce.service.ProductService;
+import com.abel.ecommerce.utils.PageCursor;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -33,6 +39,8 @@ public class ProductServiceImpl implements ProductService {
 
     private final RedisTemplate<String, Object> objectRedisTemplate;
 
+    private final ProductCacheService productCacheService;
+
 
     @Override
     @Transactional
@@ -44,26 +52,34 @@ public class ProductServiceImpl implements ProductService {
         BeanUtils.copyProperties(request, product);
         product.setStatus(Product.ACTIVE_PRODUCT); // Active status
 
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        // Drop a cached "not found" for this ID
+        productCacheService.evictProduct(savedProduct.getId());
+        return savedProduct;
     }
 
     @Override
     public void updateProduct(Product product) {
         productRepository.save(product);
+        productCacheService.evictProduct(product.getId());
     }
 
     @Override
     @Transactional
     public Product updateProduct(ProductRequest request, Long id) {
-        Product existingProduct = findProductById(id);
+        // Writes start from the database row, never from a cached copy
+        Product existingProduct = productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException(id, "ID"));
         BeanUtils.copyProperties(request, existingProduct);
-        return productRepository.save(existingProduct);
+        Product savedProduct = productRepository.save(existingProduct);
+        productCacheService.evictProduct(id);
+        return savedProduct;
     }
 
     @Override
     public void deleteProduct(Long id) {
-        findProductById(id); // Check if product exists
+        productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException(id, "ID")); // Check if product exists
         productRepository.deleteById(id);
+        productCacheService.evictProduct(id);
     }
 
     @Override
@@ -85,23 +101,56 @@ public class ProductServiceImpl implements ProductService {
 
     }
 
+    @Override
+    public Slice<Product> findProductsAfterCursor(Long categoryId, Integer status, PageCursor cursor, int size) {
+        Pageable pageable = PageRequest.ofSize(size);
+        if (categoryId == null) {
+            return cursor == null
+                    ? productRepository.findByStatusOrderByCreatedAtDescIdDesc(status, pageable)
+                    : productRepository.findByStatusBeforeCursor(status, cursor.getCreatedAt(), cursor.getId(), pageable);
+        }
+        return cursor == null
+                ? productRepository.findByCategoryIdAndStatusOrderByCreatedAtDescIdDesc(categoryId, status, pageable)
+                : productRepository.findByCategoryIdAndStatusBeforeCursor(categoryId, status, cursor.getCreatedAt(), cursor.getId(), pageable);
+    }
+
     @Override
     public Product findProductById(Long id) {
-        return productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException(id, "ID"));
+        return productCacheService.getProduct(id);
+    }
+
+    @Override
+    public Map<Long, Product> findProductsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return productCacheService.getProducts(ids);
     }
 
     @Override
+    @Transactional
     public List<Product> reserveProductsForOrder(List<CartItem> cartItems) {
-        List<Product> products = new ArrayList<>();
+        // 1. Sum quantities per product; TreeMap keeps ascending ID order so concurrent orders
+        //    take row locks in the same order and cannot deadlock each other
+        Map<Long, Integer> quantities = new TreeMap<>();
         for (CartItem cartItem : cartItems) {
-            // lock row
-            Product product = productRepository.findByIdForUpdate(cartItem.getProductId());
-            if (cartItem.getQuantity() > product.getStock())
-                throw new InsufficientStockException(product.getName(), product.getStock(), cartItem.getQuantity());
-            product.setStock(product.getStock() - cartItem.getQuantity());
-            product.setSales(product.getSales() + cartItem.getQuantity());
-            productRepository.save(product);
-            products.add(product);
+            quantities.merge(cartItem.getProductId(), cartItem.getQuantity(), Integer::sum);
+        }
+
+        // 2. One conditional UPDATE per product, the row lock is only held until the transaction ends.
+        //    Throwing here rolls back the lines already reserved
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (productRepository.reserveStock(entry.getKey(), entry.getValue()) == 0) {
+                Product product = productRepository.findById(entry.getKey())
+                        .orElseThrow(() -> new ProductNotFoundException(entry.getKey(), "id"));
+                throw new InsufficientStockException(product.getName(), product.getStock(), entry.getValue());
+            }
+        }
+
+        // 3. Load the reserved rows for prices and names, and drop them from the product cache
+        List<Product> products = productRepository.findAllById(quantities.keySet());
+        for (Product product : products) {
+            productCacheService.evictProduct(product.getId());
         }
         return products;
     }
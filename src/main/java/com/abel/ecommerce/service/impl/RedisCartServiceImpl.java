@@ -0,0 +1,367 @@
+package com.abel.ecommerce.service.impl;
+
+import com.abel.ecommerce.constant.RedisKeyConstants;
+import com.abel.ecommerce.dto.request.CartItemRequest;
+import com.abel.ecommerce.entity.CartItem;
+import com.abel.ecommerce.entity.Product;
+import com.abel.ecommerce.exception.CartItemNotFoundException;
+import com.abel.ecommerce.exception.InsufficientStockException;
+import com.abel.ecommerce.repository.CartItemRepository;
+import com.abel.ecommerce.service.CartService;
+import com.abel.ecommerce.service.ProductService;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart store backed by one Redis hash per user, enabled with cart.store=redis.
+ *
+ * Each cart line uses three hash fields: "{productId}" holds the quantity (so adds are a single HINCRBY),
+ * "{productId}:selected" and "{productId}:addedAt". Lines are identified by product ID, so the cart item ID
+ * seen by clients is the product ID. Mutations only touch Redis and add the user to a dirty set;
+ * persistDirtyCarts() writes those carts back to cart_items in batches.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cart.store", havingValue = "redis")
+public class RedisCartServiceImpl implements CartService {
+
+    // Marks a cart as loaded, so an empty cart is not reloaded from MySQL on every request
+    static final String LOADED_FIELD = "_loaded";
+    private static final String SELECTED_SUFFIX = ":selected";
+    private static final String ADDED_AT_SUFFIX = ":addedAt";
+
+    // Copy the cart from MySQL only if nobody created the hash in the meantime
+    // ARGV[1] = TTL seconds, ARGV[2..] = field/value pairs
+    private static final DefaultRedisScript<Long> LOAD_CART_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then " +
+                    "  return 0 " +
+                    "end " +
+                    "redis.call('HSET', KEYS[1], unpack(ARGV, 2)) " +
+                    "redis.call('EXPIRE', KEYS[1], ARGV[1]) " +
+                    "return 1",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CartItemRepository cartItemRepository;
+    private final ProductService productService;
+
+    // Idle carts drop out of Redis and are reloaded from cart_items on the next request
+    @Value("${cart.redis.ttl-days:30}")
+    private long ttlDays = 30;
+
+    @Override
+    public CartItem addToCart(Long userId, CartItemRequest request) {
+        // 1. Check if product exists && Check if stock is enough
+        Product product = productService.findProductById(request.getProductId());
+        if (request.getQuantity() > product.getStock())
+            throw new InsufficientStockException(product.getName(), product.getStock(), request.getQuantity());
+
+        // 2. Add to the existing quantity atomically, a missing line starts from 0
+        ensureLoaded(userId);
+        String key = RedisKeyConstants.getCartKey(userId);
+        String quantityField = String.valueOf(request.getProductId());
+        Long newQuantity = hashOps().increment(key, quantityField, request.getQuantity());
+
+        // 3. Undo the increment if the merged quantity is over stock
+        if (newQuantity > product.getStock()) {
+            hashOps().increment(key, quantityField, -request.getQuantity());
+            throw new InsufficientStockException(product.getName(), product.getStock(), newQuantity.intValue());
+        }
+
+        // 4. A new line is selected by default
+        if (newQuantity.intValue() == request.getQuantity()) {
+            hashOps().putAll(key, Map.of(
+                    quantityField + SELECTED_SUFFIX, String.valueOf(CartItem.DEFAULT_SELECTED),
+                    quantityField + ADDED_AT_SUFFIX, String.valueOf(System.currentTimeMillis())));
+        }
+
+        markDirty(userId);
+        return readLine(userId, request.getProductId());
+    }
+
+    @Override
+    public CartItem updateCartItem(Long userId, Long cartItemId, Integer quantity) {
+        // Check if cart item exists in this user's cart
+        String key = requireLine(userId, cartItemId);
+
+        // Check if new quantity exceeds stock
+        Product product = productService.findProductById(cartItemId);
+        if (quantity > product.getStock())
+            throw new InsufficientStockException(product.getName(), product.getStock(), quantity);
+
+        // Update cart Item quantity and set as selected by default
+        hashOps().putAll(key, Map.of(
+                String.valueOf(cartItemId), String.valueOf(quantity),
+                cartItemId + SELECTED_SUFFIX, String.valueOf(CartItem.DEFAULT_SELECTED)));
+        markDirty(userId);
+        return readLine(userId, cartItemId);
+    }
+
+    @Override
+    public void removeFromCart(Long userId, Long cartItemId) {
+        ensureLoaded(userId);
+        Long removed = hashOps().delete(RedisKeyConstants.getCartKey(userId),
+                String.valueOf(cartItemId), cartItemId + SELECTED_SUFFIX, cartItemId + ADDED_AT_SUFFIX);
+        if (removed == null || removed == 0) throw new CartItemNotFoundException(cartItemId, "cart Item ID");
+        markDirty(userId);
+    }
+
+    @Override
+    public void removeCheckedOutItems(Long userId, List<Long> cartItemIds) {
+        if (cartItemIds.isEmpty()) return;
+
+        // One HDEL for all lines, cart item IDs are product IDs here
+        List<String> fields = new ArrayList<>(cartItemIds.size() * 3);
+        for (Long productId : cartItemIds) {
+            fields.add(String.valueOf(productId));
+            fields.add(productId + SELECTED_SUFFIX);
+            fields.add(productId + ADDED_AT_SUFFIX);
+        }
+        hashOps().delete(RedisKeyConstants.getCartKey(userId), fields.toArray());
+        markDirty(userId);
+    }
+
+    @Override
+    public void clearCart(Long userId) {
+        String key = RedisKeyConstants.getCartKey(userId);
+        stringRedisTemplate.delete(key);
+        hashOps().put(key, LOADED_FIELD, "1");
+        markDirty(userId);
+    }
+
+    @Override
+    public void updateItemSelection(Long userId, Long cartItemId, Integer selected) {
+        String key = requireLine(userId, cartItemId);
+        hashOps().put(key, cartItemId + SELECTED_SUFFIX, String.valueOf(selected));
+        markDirty(userId);
+    }
+
+    @Override
+    public List<CartItem> getCartItemsByUserId(Long userId) {
+        List<CartItem> cartItems = toCartItems(userId, readCart(userId));
+        // Same order as the MySQL store: newest first
+        cartItems.sort(Comparator.comparing(CartItem::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(CartItem::getId, Comparator.reverseOrder()));
+        return cartItems;
+    }
+
+    @Override
+    public List<CartItem> getSelectedCartItems(Long userId) {
+        return toCartItems(userId, readCart(userId)).stream()
+                .filter(cartItem -> CartItem.DEFAULT_SELECTED.equals(cartItem.getSelected()))
+                .toList();
+    }
+
+    @Override
+    public CartItem findCartItemById(Long userId, Long cartItemId) {
+        // Cart item IDs are product IDs here
+        ensureLoaded(userId);
+        return readLine(userId, cartItemId);
+    }
+
+    /**
+     * Write carts changed since the last run back to cart_items, called by CartPersistTask
+     * @param batchSize Max number of carts to write
+     * @return Number of carts taken from the dirty set
+     */
+    @Transactional
+    public int persistDirtyCarts(int batchSize) {
+        // 1. Take a batch of dirty users. A change made after this point marks the user dirty again
+        List<String> popped = stringRedisTemplate.opsForSet().pop(RedisKeyConstants.CART_DIRTY_KEY, batchSize);
+        if (popped == null || popped.isEmpty()) {
+            return 0;
+        }
+        requeueOnRollback(popped);
+        List<Long> userIds = popped.stream().map(Long::valueOf).toList();
+
+        // 2. Read all their carts in one pipeline
+        List<Object> carts = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                for (Long userId : userIds) {
+                    operations.opsForHash().entries(RedisKeyConstants.getCartKey(userId));
+                }
+                return null;
+            }
+        });
+
+        // 3. Replace the stored rows of every cart that is still in Redis
+        List<Long> persistedUserIds = new ArrayList<>();
+        List<CartItem> cartItems = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            Map<?, ?> cart = (Map<?, ?>) carts.get(i);
+            if (cart == null || cart.isEmpty()) {
+                // Hash is gone (expired or Redis lost it), keep what MySQL has rather than wiping it
+                log.warn("Cart of user {} was marked dirty but is no longer in Redis", userIds.get(i));
+                continue;
+            }
+            persistedUserIds.add(userIds.get(i));
+            cartItems.addAll(toCartItems(userIds.get(i), cart));
+        }
+
+        if (!persistedUserIds.isEmpty()) {
+            cartItemRepository.deleteByUserIdIn(persistedUserIds);
+            cartItems.forEach(cartItem -> cartItem.setId(null));
+            cartItemRepository.saveAll(cartItems);
+        }
+        return popped.size();
+    }
+
+    /**
+     * Load the cart from cart_items if it is not in Redis yet
+     */
+    private void ensureLoaded(Long userId) {
+        if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(RedisKeyConstants.getCartKey(userId)))) {
+            loadFromDatabase(userId);
+        }
+    }
+
+    private Map<String, String> readCart(Long userId) {
+        Map<String, String> cart = hashOps().entries(RedisKeyConstants.getCartKey(userId));
+        if (!cart.isEmpty()) {
+            return cart;
+        }
+        // Either we loaded it, or another request did just before us
+        Map<String, String> loaded = loadFromDatabase(userId);
+        return loaded != null ? loaded : hashOps().entries(RedisKeyConstants.getCartKey(userId));
+    }
+
+    /**
+     * Copy the user's cart_items rows into Redis
+     * @return The fields written, or null if the hash already existed
+     */
+    private Map<String, String> loadFromDatabase(Long userId) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put(LOADED_FIELD, "1");
+        for (CartItem cartItem : cartItemRepository.findByUserId(userId)) {
+            String productId = String.valueOf(cartItem.getProductId());
+            fields.put(productId, String.valueOf(cartItem.getQuantity()));
+            fields.put(productId + SELECTED_SUFFIX, String.valueOf(cartItem.getSelected()));
+            if (cartItem.getCreatedAt() != null) {
+                fields.put(productId + ADDED_AT_SUFFIX,
+                        String.valueOf(cartItem.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+            }
+        }
+
+        List<Object> args = new ArrayList<>();
+        args.add(String.valueOf(TimeUnit.DAYS.toSeconds(ttlDays)));
+        fields.forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+        Long loaded = stringRedisTemplate.execute(LOAD_CART_SCRIPT,
+                Collections.singletonList(RedisKeyConstants.getCartKey(userId)), args.toArray());
+        return loaded != null && loaded == 1L ? fields : null;
+    }
+
+    private String requireLine(Long userId, Long productId) {
+        ensureLoaded(userId);
+        String key = RedisKeyConstants.getCartKey(userId);
+        if (!Boolean.TRUE.equals(hashOps().hasKey(key, String.valueOf(productId))))
+            throw new CartItemNotFoundException(productId, "cart Item ID");
+        return key;
+    }
+
+    private CartItem readLine(Long userId, Long productId) {
+        String quantityField = String.valueOf(productId);
+        List<String> fields = Arrays.asList(quantityField, quantityField + SELECTED_SUFFIX, quantityField + ADDED_AT_SUFFIX);
+        List<String> values = hashOps().multiGet(RedisKeyConstants.getCartKey(userId), fields);
+
+        Map<String, String> line = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            if (values.get(i) != null) {
+                line.put(fields.get(i), values.get(i));
+            }
+        }
+        List<CartItem> cartItems = toCartItems(userId, line);
+        if (cartItems.isEmpty()) throw new CartItemNotFoundException(productId, "cart Item ID");
+        return cartItems.get(0);
+    }
+
+    private List<CartItem> toCartItems(Long userId, Map<?, ?> cart) {
+        List<CartItem> cartItems = new ArrayList<>();
+        for (Map.Entry<?, ?> entry : cart.entrySet()) {
+            String field = (String) entry.getKey();
+            // Only the quantity field has no suffix
+            if (field.equals(LOADED_FIELD) || field.contains(":")) {
+                continue;
+            }
+
+            Long productId = Long.valueOf(field);
+            Object selected = cart.get(field + SELECTED_SUFFIX);
+            Object addedAt = cart.get(field + ADDED_AT_SUFFIX);
+
+            CartItem cartItem = new CartItem();
+            cartItem.setId(productId);
+            cartItem.setUserId(userId);
+            cartItem.setProductId(productId);
+            cartItem.setQuantity(Integer.valueOf((String) entry.getValue()));
+            cartItem.setSelected(selected != null ? Integer.valueOf((String) selected) : CartItem.DEFAULT_SELECTED);
+            if (addedAt != null) {
+                cartItem.setCreatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong((String) addedAt)),
+                        ZoneId.systemDefault()));
+            }
+            cartItems.add(cartItem);
+        }
+        return cartItems;
+    }
+
+    /**
+     * Queue the cart for persistence and push its expiry out, in one round trip
+     */
+    private void markDirty(Long userId) {
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                operations.opsForSet().add(RedisKeyConstants.CART_DIRTY_KEY, String.valueOf(userId));
+                operations.expire(RedisKeyConstants.getCartKey(userId), ttlDays, TimeUnit.DAYS);
+                return null;
+            }
+        });
+    }
+
+    private void requeueOnRollback(List<String> userIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    stringRedisTemplate.opsForSet().add(RedisKeyConstants.CART_DIRTY_KEY, userIds.toArray(new String[0]));
+                }
+            }
+        });
+    }
+
+    private HashOperations<String, String, String> hashOps() {
+        return stringRedisTemplate.opsForHash();
+    }
+}
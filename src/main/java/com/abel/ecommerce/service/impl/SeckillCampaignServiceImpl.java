@@ -0,0 +1,241 @@
+package com.abel.ecommerce.service.impl;
+
+import com.abel.ecommerce.dto.request.SeckillCampaignRequest;
+import com.abel.ecommerce.entity.Product;
+import com.abel.ecommerce.entity.SeckillCampaign;
+import com.abel.ecommerce.entity.SeckillCampaignItem;
+import com.abel.ecommerce.exception.InsufficientStockException;
+import com.abel.ecommerce.exception.ProductNotFoundException;
+import com.abel.ecommerce.exception.SeckillNotActiveException;
+import com.abel.ecommerce.repository.ProductRepository;
+import com.abel.ecommerce.repository.SeckillCampaignItemRepository;
+import com.abel.ecommerce.repository.SeckillCampaignRepository;
+import com.abel.ecommerce.service.ProductCacheService;
+import com.abel.ecommerce.service.SeckillCampaignService;
+import com.abel.ecommerce.service.StockService;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Scheduled seckill campaigns.
+ *
+ * Stock and product info are pipelined into Redis a few seconds before a campaign starts, instead of product by
+ * product through the enable endpoint. Every node keeps the sale windows in memory so requests before the start
+ * or after the end are rejected without a Redis call.
+ *
+ * Warmed stock keys expire stock-grace-seconds after the campaign ends. Once a campaign drops out of the in-memory
+ * windows (ENDED_RETENTION after its end) its stock is long gone from Redis, so the product cannot be sold again
+ * from leftover stock.
+ */
+@Service
+@Slf4j
+public class SeckillCampaignServiceImpl implements SeckillCampaignService {
+
+    // Ended campaigns stay in memory this long, so late requests get "has ended" rather than falling through
+    private static final Duration ENDED_RETENTION = Duration.ofDays(1);
+
+    private final SeckillCampaignRepository campaignRepository;
+    private final SeckillCampaignItemRepository campaignItemRepository;
+    private final ProductRepository productRepository;
+    private final StockService stockService;
+    private final ProductCacheService productCacheService;
+    private final long warmUpLeadSeconds;
+    private final long stockGraceSeconds;
+
+    // Sale windows by product ID, replaced as a whole on refresh
+    private volatile Map<Long, List<Window>> windows = Collections.emptyMap();
+
+    public SeckillCampaignServiceImpl(SeckillCampaignRepository campaignRepository,
+                                      SeckillCampaignItemRepository campaignItemRepository,
+                                      ProductRepository productRepository,
+                                      StockService stockService,
+                                      ProductCacheService productCacheService,
+                                      @Value("${seckill.campaign.warmup-lead-seconds:10}") long warmUpLeadSeconds,
+                                      @Value("${seckill.campaign.stock-grace-seconds:600}") long stockGraceSeconds) {
+        if (Duration.ofSeconds(stockGraceSeconds).compareTo(ENDED_RETENTION) >= 0) {
+            throw new IllegalArgumentException("seckill.campaign.stock-grace-seconds must be shorter than " + ENDED_RETENTION);
+        }
+        this.campaignRepository = campaignRepository;
+        this.campaignItemRepository = campaignItemRepository;
+        this.productRepository = productRepository;
+        this.stockService = stockService;
+        this.productCacheService = productCacheService;
+        this.warmUpLeadSeconds = warmUpLeadSeconds;
+        this.stockGraceSeconds = stockGraceSeconds;
+    }
+
+    @Override
+    @Transactional
+    public SeckillCampaign createCampaign(SeckillCampaignRequest request) {
+        // 1. Merge repeated products
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (SeckillCampaignRequest.Item item : request.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        // 2. Products must exist and have enough stock right now. The check is advisory: nothing is set aside, so
+        //    normal orders can still sell those units before the start and warm-up loads no more than what is left.
+        //    The rows stay locked until commit, so a concurrent request for any of the same products waits here
+        //    and then sees this campaign in the overlap check.
+        //    This must be the first query of the transaction, so the overlap check reads after the lock is granted.
+        Map<Long, Product> products = productRepository.findAllByIdForUpdate(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        quantities.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new ProductNotFoundException(productId, "ID");
+            }
+            if (product.getStock() < quantity) {
+                throw new InsufficientStockException(product.getName(), product.getStock(), quantity);
+            }
+        });
+
+        // 3. A product's seckill stock keys can only serve one campaign at a time
+        List<Long> overlapping = campaignRepository.findByEndTimeAfter(request.getStartTime()).stream()
+                .filter(campaign -> campaign.getStartTime().isBefore(request.getEndTime()))
+                .map(SeckillCampaign::getId)
+                .toList();
+        if (!overlapping.isEmpty()) {
+            for (SeckillCampaignItem item : campaignItemRepository.findByCampaignIdIn(overlapping)) {
+                if (quantities.containsKey(item.getProductId())) {
+                    throw new IllegalStateException(String.format(
+                            "Product %d is already in campaign %d during this time", item.getProductId(), item.getCampaignId()));
+                }
+            }
+        }
+
+        // 4. Save campaign and items
+        SeckillCampaign campaign = new SeckillCampaign();
+        campaign.setName(request.getName());
+        campaign.setStartTime(request.getStartTime());
+        campaign.setEndTime(request.getEndTime());
+        campaign.setStatus(SeckillCampaign.STATUS_SCHEDULED);
+        SeckillCampaign savedCampaign = campaignRepository.save(campaign);
+
+        List<SeckillCampaignItem> items = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> {
+            SeckillCampaignItem item = new SeckillCampaignItem();
+            item.setCampaignId(savedCampaign.getId());
+            item.setProductId(productId);
+            item.setQuantity(quantity);
+            items.add(item);
+        });
+        campaignItemRepository.saveAll(items);
+
+        log.info("Scheduled seckill campaign {} with {} products from {} to {}",
+                savedCampaign.getId(), items.size(), savedCampaign.getStartTime(), savedCampaign.getEndTime());
+        return savedCampaign;
+    }
+
+    @Override
+    @Transactional
+    public int warmUpDueCampaigns() {
+        LocalDateTime now = LocalDateTime.now();
+        List<SeckillCampaign> due = campaignRepository.findByStatusAndStartTimeLessThanEqualAndEndTimeAfter(
+                SeckillCampaign.STATUS_SCHEDULED, now.plusSeconds(warmUpLeadSeconds), now);
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        // 1. Claim the campaigns, another node may already have taken some
+        List<Long> claimed = new ArrayList<>();
+        for (SeckillCampaign campaign : due) {
+            if (campaignRepository.updateStatus(campaign.getId(), SeckillCampaign.STATUS_SCHEDULED,
+                    SeckillCampaign.STATUS_WARMED, now) == 1) {
+                claimed.add(campaign.getId());
+            }
+        }
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        // 2. Campaign quantities per product; stock expires a grace period after the campaign ends,
+        //    so nothing is left to sell once it is over
+        Map<Long, LocalDateTime> endTimes = due.stream()
+                .collect(Collectors.toMap(SeckillCampaign::getId, SeckillCampaign::getEndTime));
+        Map<Long, Integer> stockByProduct = new HashMap<>();
+        Map<Long, LocalDateTime> expireAt = new HashMap<>();
+        for (SeckillCampaignItem item : campaignItemRepository.findByCampaignIdIn(claimed)) {
+            stockByProduct.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            expireAt.merge(item.getProductId(), endTimes.get(item.getCampaignId()).plusSeconds(stockGraceSeconds),
+                    (a, b) -> a.isAfter(b) ? a : b);
+        }
+
+        // 3. Campaign stock was not set aside at creation, so no more than the product's current stock is loaded
+        List<Product> products = productRepository.findAllById(stockByProduct.keySet());
+        Map<Long, Integer> currentStock = products.stream().collect(Collectors.toMap(Product::getId, Product::getStock));
+        stockByProduct.entrySet().removeIf(entry -> !currentStock.containsKey(entry.getKey()));
+        stockByProduct.replaceAll((productId, quantity) -> {
+            int available = Math.max(0, currentStock.get(productId));
+            if (available < quantity) {
+                log.warn("Product {} has {} units left, loading them instead of the campaign quantity {}",
+                        productId, available, quantity);
+                return available;
+            }
+            return quantity;
+        });
+        expireAt.keySet().retainAll(stockByProduct.keySet());
+
+        // 4. One pipelined write for all stock segments, one for all product info.
+        //    A Redis failure rolls back the claims and the next run tries again.
+        stockService.preloadSeckillStock(stockByProduct, expireAt);
+        productCacheService.putProducts(products);
+
+        log.info("Warmed up seckill campaigns {} with {} products", claimed, stockByProduct.size());
+        return claimed.size();
+    }
+
+    @Override
+    public void refreshWindows() {
+        List<SeckillCampaign> campaigns = campaignRepository.findByEndTimeAfter(LocalDateTime.now().minus(ENDED_RETENTION));
+        if (campaigns.isEmpty()) {
+            windows = Collections.emptyMap();
+            return;
+        }
+
+        Map<Long, SeckillCampaign> campaignsById = campaigns.stream()
+                .collect(Collectors.toMap(SeckillCampaign::getId, Function.identity()));
+        Map<Long, List<Window>> next = new HashMap<>();
+        for (SeckillCampaignItem item : campaignItemRepository.findByCampaignIdIn(campaignsById.keySet())) {
+            SeckillCampaign campaign = campaignsById.get(item.getCampaignId());
+            next.computeIfAbsent(item.getProductId(), k -> new ArrayList<>())
+                    .add(new Window(campaign.getStartTime(), campaign.getEndTime()));
+        }
+        windows = next;
+    }
+
+    @Override
+    public void checkActive(Long productId) {
+        List<Window> productWindows = windows.get(productId);
+        if (productWindows == null) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        boolean upcoming = false;
+        for (Window window : productWindows) {
+            if (!now.isBefore(window.start()) && now.isBefore(window.end())) {
+                return;
+            }
+            upcoming |= now.isBefore(window.start());
+        }
+        throw new SeckillNotActiveException(String.format(
+                upcoming ? "Seckill for product %d has not started" : "Seckill for product %d has ended", productId));
+    }
+
+    private record Window(LocalDateTime start, LocalDateTime end) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.abel.ecommerce.service.impl;
+
+import com.abel.ecommerce.entity.SeckillMessage;
+import com.abel.ecommerce.repository.SeckillMessageRepository;
+import com.abel.ecommerce.service.SeckillMessageRelayService;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SeckillMessageRelayServiceImpl implements SeckillMessageRelayService {
+
+    private final SeckillMessageRepository messageRepository;
+
+    private final RabbitTemplate rabbitTemplate;
+
+    // How long to wait for the broker to confirm the whole batch
+    @Value("${seckill.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs = 5000;
+
+    @Value("${seckill.outbox.retry-delay-seconds:30}")
+    private long retryDelaySeconds = 30;
+
+    @Override
+    @Transactional
+    public int relayPendingBatch(int batchSize) {
+        // 1. Claim a batch, rows stay locked until this transaction commits
+        List<SeckillMessage> claimed = messageRepository.claimPendingMessages(LocalDateTime.now(), batchSize);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> sentIds = new ArrayList<>(claimed.size());
+        List<Long> failedIds = new ArrayList<>();
+        List<CorrelationData> pending = new ArrayList<>(claimed.size());
+
+        // 2. Publish the whole batch without waiting, confirms arrive asynchronously
+        for (SeckillMessage message : claimed) {
+            CorrelationData correlationData = new CorrelationData(String.valueOf(message.getId()));
+            try {
+                rabbitTemplate.convertAndSend(message.getExchange(), message.getRoutingKey(),
+                        message.getMessageContent(), correlationData);
+                pending.add(correlationData);
+            }
+            catch (Exception e) {
+                log.warn("Failed to publish message id={}", message.getId(), e);
+                failedIds.add(message.getId());
+            }
+        }
+
+        // 3. Wait for the confirms, one deadline for the whole window
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs);
+        for (CorrelationData correlationData : pending) {
+            Long id = Long.valueOf(correlationData.getId());
+            if (isConfirmed(correlationData, deadline)) {
+                sentIds.add(id);
+            }
+            else {
+                failedIds.add(id);
+            }
+        }
+
+        // 4. Record the outcome with one statement per outcome
+        LocalDateTime now = LocalDateTime.now();
+        if (!sentIds.isEmpty()) {
+            messageRepository.markSent(sentIds, now);
+        }
+        if (!failedIds.isEmpty()) {
+            messageRepository.markForRetry(failedIds, now.plusSeconds(retryDelaySeconds), now);
+            log.warn("{} of {} seckill messages were not confirmed, scheduled for retry", failedIds.size(), claimed.size());
+        }
+
+        log.debug("Relayed seckill messages: claimed={}, sent={}, failed={}", claimed.size(), sentIds.size(), failedIds.size());
+        return claimed.size();
+    }
+
+    private boolean isConfirmed(CorrelationData correlationData, long deadline) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            CorrelationData.Confirm confirm = correlationData.getFuture().get(remaining, TimeUnit.NANOSECONDS);
+            // A returned message was acked by the broker but not routed to any queue
+            return confirm.isAck() && correlationData.getReturned() == null;
+        }
+        catch (TimeoutException | ExecutionException e) {
+            log.warn("No publisher confirm for message id={}", correlationData.getId());
+            return false;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.abel.ecommerce.service.impl;
+
+import com.abel.ecommerce.dto.request.SeckillOrderMessage;
+import com.abel.ecommerce.dto.response.SeckillOrderBatchResult;
+import com.abel.ecommerce.entity.Address;
+import com.abel.ecommerce.entity.Order;
+import com.abel.ecommerce.entity.OrderItem;
+import com.abel.ecommerce.entity.Product;
+import com.abel.ecommerce.entity.ReliableMessage;
+import com.abel.ecommerce.entity.StockLedger;
+import com.abel.ecommerce.repository.AddressRepository;
+import com.abel.ecommerce.repository.OrderItemRepository;
+import com.abel.ecommerce.repository.OrderRepository;
+import com.abel.ecommerce.repository.ProductRepository;
+import com.abel.ecommerce.repository.ReliableMessageRepository;
+import com.abel.ecommerce.service.SeckillOrderService;
+import com.abel.ecommerce.service.StockLedgerService;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SeckillOrderServiceImpl implements SeckillOrderService {
+
+    public static final String CONSUMER_NAME = "seckill.order.queue";
+
+    private final ReliableMessageRepository reliableMessageRepository;
+
+    private final AddressRepository addressRepository;
+
+    private final ProductRepository productRepository;
+
+    private final OrderRepository orderRepository;
+
+    private final OrderItemRepository orderItemRepository;
+
+    private final StockLedgerService stockLedgerService;
+
+    @Override
+    @Transactional
+    public SeckillOrderBatchResult createSeckillOrders(List<SeckillOrderMessage> messages) {
+        SeckillOrderBatchResult result = new SeckillOrderBatchResult();
+
+        // 1. Drop duplicates inside the batch, then the ones consumed earlier (one query)
+        Map<String, SeckillOrderMessage> byOrderNo = new LinkedHashMap<>();
+        for (SeckillOrderMessage message : messages) {
+            if (byOrderNo.putIfAbsent(message.getOrderNo(), message) != null) {
+                result.getDuplicates().add(message);
+            }
+        }
+        if (byOrderNo.isEmpty()) {
+            return result;
+        }
+        for (String orderNo : reliableMessageRepository.findExistingMessageIds(byOrderNo.keySet())) {
+            result.getDuplicates().add(byOrderNo.remove(orderNo));
+        }
+        if (byOrderNo.isEmpty()) {
+            return result;
+        }
+
+        // 2. Load default addresses and products with one IN query each
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        for (SeckillOrderMessage message : byOrderNo.values()) {
+            userIds.add(message.getUserId());
+            productIds.add(message.getProductId());
+        }
+        Map<Long, Address> addresses = addressRepository.findByUserIdInAndIsDefault(userIds, Address.DEFAULT_ADDRESS)
+                .stream()
+                .collect(Collectors.toMap(Address::getUserId, Function.identity(), (first, second) -> first));
+        Map<Long, Product> products = productRepository.findAllById(productIds)
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // 3. Build orders, rejecting messages that can never succeed. Rejected messages get a dedup record too,
+        //    so a redelivery is a duplicate and their Redis stock is only given back once
+        List<ReliableMessage> reliableMessages = new ArrayList<>();
+        List<Order> orders = new ArrayList<>();
+        List<SeckillOrderMessage> accepted = new ArrayList<>();
+        for (SeckillOrderMessage message : byOrderNo.values()) {
+            ReliableMessage reliableMessage = new ReliableMessage();
+            reliableMessage.setConsumerName(CONSUMER_NAME);
+            reliableMessage.setMessageId(message.getOrderNo());
+            reliableMessages.add(reliableMessage);
+
+            Address address = addresses.get(message.getUserId());
+            Product product = products.get(message.getProductId());
+            if (address == null || product == null) {
+                log.error("PERMANENT FAILURE - Order {} discarded: {}", message.getOrderNo(),
+                        address == null ? "no default address for user " + message.getUserId()
+                                : "product " + message.getProductId() + " not found");
+                result.getRejected().add(message);
+                result.getRejectReasons().put(message.getOrderNo(),
+                        address == null ? "No default address, please add one and try again" : "Product not found");
+                continue;
+            }
+
+            BigDecimal totalAmount = product.getPrice().multiply(new BigDecimal(message.getQuantity()));
+            Order order = new Order();
+            order.setUserId(message.getUserId());
+            order.setOrderNo(message.getOrderNo());
+            order.setTotalAmount(totalAmount);
+            order.setPayAmount(totalAmount);
+            order.setReceiverAddress(address.getFullAddress());
+            order.setReceiverPhone(address.getReceiverPhone());
+            order.setReceiverName(address.getReceiverName());
+            order.setStatus(Order.STATUS_PENDING_PAYMENT);
+            orders.add(order);
+            accepted.add(message);
+        }
+
+        // 4. Insert dedup records, orders and items. A concurrent duplicate fails the unique key and rolls back the batch.
+        reliableMessageRepository.saveAll(reliableMessages);
+        if (orders.isEmpty()) {
+            return result;
+        }
+        orderRepository.saveAll(orders);
+
+        List<OrderItem> orderItems = new ArrayList<>(orders.size());
+        Map<Long, Integer> soldPerProduct = new LinkedHashMap<>();
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            SeckillOrderMessage message = accepted.get(i);
+            Product product = products.get(message.getProductId());
+
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrderId(order.getId());
+            orderItem.setOrderNo(order.getOrderNo());
+            orderItem.setProductId(product.getId());
+            orderItem.setProductName(product.getName());
+            orderItem.setProductImage(product.getMainImage());
+            orderItem.setQuantity(message.getQuantity());
+            orderItem.setProductPrice(product.getPrice());
+            orderItem.setTotalAmount(order.getTotalAmount());
+            orderItems.add(orderItem);
+
+            soldPerProduct.merge(product.getId(), message.getQuantity(), Integer::sum);
+        }
+        orderItemRepository.saveAll(orderItems);
+
+        // 5. One ledger entry per product, StockLedgerTask folds it into the products row
+        soldPerProduct.forEach((productId, quantity) ->
+                stockLedgerService.recordSale(productId, quantity, StockLedger.SOURCE_SECKILL_ORDER, null));
+
+        result.getCreated().addAll(accepted);
+        log.info("Seckill order batch: created={}, duplicates={}, rejected={}",
+                result.getCreated().size(), result.getDuplicates().size(), result.getRejected().size());
+        return result;
+    }
+}
@@ -0,0 +1,223 @@
+package com.abel.ecommerce.service.impl;
+
+import com.abel.ecommerce.constant.RedisKeyConstants;
+import com.abel.ecommerce.dto.response.SeckillResultResponse;
+import com.abel.ecommerce.service.SeckillResultService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Seckill results in Redis hashes (seckill:result:{orderNo}), so clients can poll without touching the orders table.
+ *
+ * Final transitions are published on channel:seckill:result; the node holding a client's SSE stream reads
+ * the result and pushes it, whichever node processed the order.
+ */
+@Service
+@Slf4j
+public class SeckillResultServiceImpl implements SeckillResultService, MessageListener {
+
+    // Owner fields are always written, the status only moves forward from QUEUED (a late QUEUED never
+    // overwrites CREATED or FAILED). Returns 1 if the status changed.
+    // KEYS[1] result hash, ARGV: status, reason, updatedAt, ttlSeconds, userId ('' to skip), productId
+    private static final RedisScript<Long> TRANSITION_SCRIPT = new DefaultRedisScript<>(
+            "if ARGV[5] ~= '' then " +
+            "  redis.call('HSET', KEYS[1], 'userId', ARGV[5], 'productId', ARGV[6]) " +
+            "end " +
+            "local current = redis.call('HGET', KEYS[1], 'status') " +
+            "local changed = 0 " +
+            "if not current or current == 'QUEUED' then " +
+            "  redis.call('HSET', KEYS[1], 'status', ARGV[1], 'reason', ARGV[2], 'updatedAt', ARGV[3]) " +
+            "  changed = 1 " +
+            "end " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[4]) " +
+            "return changed",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final long ttlSeconds;
+    private final long sseTimeoutMs;
+
+    // Open SSE streams on this node, by order number
+    private final Map<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    public SeckillResultServiceImpl(StringRedisTemplate redisTemplate,
+                                    RedisMessageListenerContainer listenerContainer,
+                                    @Value("${seckill.result.ttl-hours:24}") long ttlHours,
+                                    @Value("${seckill.result.sse-timeout-ms:30000}") long sseTimeoutMs) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.ttlSeconds = Duration.ofHours(ttlHours).toSeconds();
+        this.sseTimeoutMs = sseTimeoutMs;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyConstants.SECKILL_RESULT_CHANNEL));
+    }
+
+    @Override
+    public void markQueued(String orderNo, Long userId, Long productId) {
+        transition(orderNo, SeckillResultResponse.STATUS_QUEUED, "", String.valueOf(userId), String.valueOf(productId));
+    }
+
+    @Override
+    public void markCreated(String orderNo) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    transition(orderNo, SeckillResultResponse.STATUS_CREATED, "", "", "");
+                }
+            });
+        }
+        else {
+            transition(orderNo, SeckillResultResponse.STATUS_CREATED, "", "", "");
+        }
+    }
+
+    @Override
+    public void markFailed(String orderNo, String reason) {
+        transition(orderNo, SeckillResultResponse.STATUS_FAILED, StringUtils.defaultString(reason), "", "");
+    }
+
+    // Result tracking must never fail the seckill itself, Redis errors are only logged
+    private void transition(String orderNo, String status, String reason, String userId, String productId) {
+        try {
+            Long changed = redisTemplate.execute(TRANSITION_SCRIPT, List.of(RedisKeyConstants.getSeckillResultKey(orderNo)),
+                    status, reason, String.valueOf(System.currentTimeMillis()), String.valueOf(ttlSeconds), userId, productId);
+            if (Long.valueOf(1L).equals(changed) && !SeckillResultResponse.STATUS_QUEUED.equals(status)) {
+                redisTemplate.convertAndSend(RedisKeyConstants.SECKILL_RESULT_CHANNEL, orderNo);
+            }
+        }
+        catch (Exception e) {
+            log.warn("Failed to record seckill result {} for order {}: {}", status, orderNo, e.getMessage());
+        }
+    }
+
+    @Override
+    public SeckillResultResponse getResult(String orderNo) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(RedisKeyConstants.getSeckillResultKey(orderNo));
+        if (fields.isEmpty() || fields.get("status") == null) {
+            return null;
+        }
+        return new SeckillResultResponse(
+                orderNo,
+                toLong(fields.get("userId")),
+                toLong(fields.get("productId")),
+                fields.get("status").toString(),
+                StringUtils.defaultIfEmpty((String) fields.get("reason"), null),
+                toLong(fields.get("updatedAt")));
+    }
+
+    @Override
+    public Map<String, String> getStatuses(List<String> orderNos) {
+        List<Object> statuses = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (String orderNo : orderNos) {
+                stringConnection.hGet(RedisKeyConstants.getSeckillResultKey(orderNo), "status");
+            }
+            return null;
+        });
+
+        Map<String, String> statusByOrderNo = new HashMap<>();
+        for (int i = 0; i < orderNos.size(); i++) {
+            Object status = statuses.get(i);
+            if (status != null) {
+                statusByOrderNo.put(orderNos.get(i), status.toString());
+            }
+        }
+        return statusByOrderNo;
+    }
+
+    @Override
+    public SseEmitter subscribe(SeckillResultResponse result) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        String orderNo = result.getOrderNo();
+        if (!send(emitter, result) || result.isFinished()) {
+            emitter.complete();
+            return emitter;
+        }
+
+        List<SseEmitter> waiting = emitters.computeIfAbsent(orderNo, k -> new CopyOnWriteArrayList<>());
+        waiting.add(emitter);
+        Runnable remove = () -> emitters.computeIfPresent(orderNo, (k, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        // The result may have been finished between the first read and registering
+        SeckillResultResponse current = getResult(orderNo);
+        if (current != null && current.isFinished()) {
+            publishLocally(orderNo, current);
+        }
+        return emitter;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String orderNo = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (!emitters.containsKey(orderNo)) {
+            return;
+        }
+        SeckillResultResponse result = getResult(orderNo);
+        if (result != null) {
+            publishLocally(orderNo, result);
+        }
+    }
+
+    private void publishLocally(String orderNo, SeckillResultResponse result) {
+        List<SseEmitter> waiting = emitters.remove(orderNo);
+        if (waiting == null) {
+            return;
+        }
+        for (SseEmitter emitter : waiting) {
+            send(emitter, result);
+            emitter.complete();
+        }
+    }
+
+    private boolean send(SseEmitter emitter, SeckillResultResponse result) {
+        try {
+            emitter.send(SseEmitter.event().name("result").data(result, MediaType.APPLICATION_JSON));
+            return true;
+        }
+        catch (IOException | IllegalStateException e) {
+            // Client went away
+            log.debug("Failed to push seckill result for order {}: {}", result.getOrderNo(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static Long toLong(Object value) {
+        return value == null ? null : Long.valueOf(value.toString());
+    }
+}
@@ -1,13 +1,15 @@
 package com.abel.ecommerce.service.impl;
 
-import com.abel.ecommerce.constant.RedisKeyConstants;
-import com.abel.ecommerce.entity.Product;
+import com.abel.ecommerce.dto.response.SeckillAdmissionResult;
 import com.abel.ecommerce.entity.SeckillMessage;
 import com.abel.ecommerce.exception.DuplicateSeckillException;
 import com.abel.ecommerce.exception.InsufficientStockException;
 import com.abel.ecommerce.repository.SeckillMessageRepository;
 import com.abel.ecommerce.service.OrderService;
+import com.abel.ecommerce.service.SeckillCampaignService;
+import com.abel.ecommerce.service.SeckillResultService;
 import com.abel.ecommerce.service.SeckillService;
+import com.abel.ecommerce.service.SoldOutCacheService;
 import com.abel.ecommerce.service.StockService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -15,21 +17,16 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 public class SeckillServiceImpl implements SeckillService {
 
-
-    private final StringRedisTemplate stringRedisTemplate;
-
     private final StockService stockService;
 
     private final OrderService orderService;
@@ -38,40 +35,42 @@ public class SeckillServiceImpl implements SeckillService {
 
     private final SeckillMessageRepository seckillMessageRepository;
 
+    private final SoldOutCacheService soldOutCacheService;
+
+    private final SeckillResultService seckillResultService;
+
+    private final SeckillCampaignService seckillCampaignService;
+
     private static final Logger log = LoggerFactory.getLogger(SeckillServiceImpl.class);
 
     @Override
     public SeckillMessage doSeckill(Long userId, Long productId, int quantity) {
 
-        // 1. Check if user has already participated in this seckill (idempotency check)
-        String userKey = RedisKeyConstants.getSeckillUserKey(userId, productId);
-        Boolean alreadyParticipated = stringRedisTemplate.opsForValue().setIfAbsent(
-                userKey,
-                String.valueOf(System.currentTimeMillis()),
-                24,
-                TimeUnit.HOURS
-        );
-
-        // If setIfAbsent returns false, key already exists = user already participated
-        if (Boolean.FALSE.equals(alreadyParticipated)) {
-            log.warn("User {} already participated in seckill for product {}", userId, productId);
-            throw new DuplicateSeckillException(userId, productId);
+        // 0. Requests outside the campaign window and sold-out products are rejected locally, without touching Redis
+        seckillCampaignService.checkActive(productId);
+        if (soldOutCacheService.isSoldOut(productId)) {
+            throw new InsufficientStockException(String.format("Seckill product %d is sold out", productId));
         }
 
-        // 2. Atomically deduct stock from Redis
-        Long deductStockStatus = stockService.deductStock(productId, quantity);
+        // 1. Duplicate check, stock deduction and participation record in one Redis round trip
+        SeckillAdmissionResult admission = stockService.admitSeckill(userId, productId, quantity);
 
-        // 3. If stock deduction failed, remove user key and throw exception
-        if (deductStockStatus != 1) {
-            // Clean up user participation record since seckill failed
-            stringRedisTemplate.delete(userKey);
-
-            int stock = stockService.getStock(productId);
-            Product product = stockService.findProductById(productId);
-            throw new InsufficientStockException(product.getName(), stock, quantity);
+        // 2. Map rejected admissions to business exceptions without any further Redis or DB calls
+        if (admission.isDuplicate()) {
+            log.warn("User {} already participated in seckill for product {}", userId, productId);
+            throw new DuplicateSeckillException(userId, productId);
+        }
+        if (admission.isNotEnabled()) {
+            log.warn("Product {} is not enabled for seckill", productId);
+            throw new InsufficientStockException(String.format("Product %d is not available for seckill", productId));
+        }
+        if (!admission.isAdmitted()) {
+            throw new InsufficientStockException(String.format(
+                    "Insufficient stock for seckill product %d. Available: %d, Requested: %d",
+                    productId, admission.getRemainingStock(), quantity));
         }
 
-        // 4. Stock deduction succeeded, now save message to DB
+        // 3. Admission succeeded, now save message to DB
         try {
             String orderNo = orderService.generateOrderNo(userId);
 
@@ -86,13 +85,15 @@ public class SeckillServiceImpl implements SeckillService {
             seckillMessage.setMessageContent(buildMessageJson(orderNo, userId, productId));
             seckillMessageRepository.save(seckillMessage);
 
+            // 4. Clients poll or stream this until the consumer records CREATED or FAILED
+            seckillResultService.markQueued(orderNo, userId, productId);
+
             log.info("User {} successfully participated in seckill for product {}", userId, productId);
             return seckillMessage;
         } catch (Exception e) {
             // Only restore stock if DB save failed AFTER successful stock deduction
             log.error("Failed to save seckill message for product {}, restoring stock and user key", productId, e);
-            stockService.restoreStock(productId, quantity);
-            stringRedisTemplate.delete(userKey); // Also remove user participation record
+            stockService.rollbackSeckill(userId, productId, quantity);
             throw new RuntimeException("Failed to create seckill message", e);
         }
     }
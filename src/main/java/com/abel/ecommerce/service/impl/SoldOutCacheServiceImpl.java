@@ -0,0 +1,100 @@
+package com.abel.ecommerce.service.impl;
+
+import com.abel.ecommerce.constant.RedisKeyConstants;
+import com.abel.ecommerce.service.SoldOutCacheService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SoldOutCacheServiceImpl implements SoldOutCacheService, MessageListener {
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    // A flag is trusted for this long, after that one request goes to Redis again and re-flags it if still sold out.
+    // Bounds the damage of a lost "clear" broadcast.
+    static final Duration SOLD_OUT_TTL = Duration.ofSeconds(5);
+
+    static final String ACTION_SOLD_OUT = "SOLD_OUT";
+    static final String ACTION_CLEAR = "CLEAR";
+
+    // Products flagged as sold out, each flag expires SOLD_OUT_TTL after it was (re)set
+    private final Cache<Long, Boolean> soldOutProducts = Caffeine.newBuilder()
+            .expireAfterWrite(SOLD_OUT_TTL)
+            .build();
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyConstants.SECKILL_SOLD_OUT_CHANNEL));
+    }
+
+    @Override
+    public boolean isSoldOut(Long productId) {
+        // An expired flag is gone, so the next request re-checks Redis
+        return soldOutProducts.getIfPresent(productId) != null;
+    }
+
+    @Override
+    public void markSoldOut(Long productId) {
+        // Only the first request that sees the sellout broadcasts it
+        if (soldOutProducts.asMap().put(productId, Boolean.TRUE) == null) {
+            log.info("Product {} sold out, broadcasting to other nodes", productId);
+            publish(ACTION_SOLD_OUT, productId);
+        }
+    }
+
+    @Override
+    public void clearSoldOut(Long productId) {
+        soldOutProducts.invalidate(productId);
+        publish(ACTION_CLEAR, productId);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        if (separator < 0) {
+            log.warn("Ignoring malformed sold-out message: {}", body);
+            return;
+        }
+
+        try {
+            String action = body.substring(0, separator);
+            Long productId = Long.valueOf(body.substring(separator + 1));
+            if (ACTION_SOLD_OUT.equals(action)) {
+                soldOutProducts.put(productId, Boolean.TRUE);
+            }
+            else if (ACTION_CLEAR.equals(action)) {
+                soldOutProducts.invalidate(productId);
+            }
+        }
+        catch (NumberFormatException e) {
+            log.warn("Ignoring malformed sold-out message: {}", body);
+        }
+    }
+
+    private void publish(String action, Long productId) {
+        try {
+            stringRedisTemplate.convertAndSend(RedisKeyConstants.SECKILL_SOLD_OUT_CHANNEL, action + ":" + productId);
+        }
+        catch (Exception e) {
+            // Other nodes will find out on their own via Redis, the local flag is still valid
+            log.error("Failed to broadcast sold-out change for product {}", productId, e);
+        }
+    }
+}
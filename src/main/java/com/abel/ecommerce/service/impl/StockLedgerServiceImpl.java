@@ -0,0 +1,124 @@
+package com.abel.ecommerce.service.impl;
+
+import com.abel.ecommerce.entity.StockLedger;
+import com.abel.ecommerce.repository.ProductRepository;
+import com.abel.ecommerce.repository.StockLedgerRepository;
+import com.abel.ecommerce.service.ProductCacheService;
+import com.abel.ecommerce.service.StockLedgerService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Slf4j
+@Service
+public class StockLedgerServiceImpl implements StockLedgerService {
+
+    private final StockLedgerRepository stockLedgerRepository;
+
+    private final ProductRepository productRepository;
+
+    private final ProductCacheService productCacheService;
+
+    private final Counter rejectedCounter;
+
+    public StockLedgerServiceImpl(StockLedgerRepository stockLedgerRepository,
+                                  ProductRepository productRepository,
+                                  ProductCacheService productCacheService,
+                                  MeterRegistry meterRegistry) {
+        this.stockLedgerRepository = stockLedgerRepository;
+        this.productRepository = productRepository;
+        this.productCacheService = productCacheService;
+        this.rejectedCounter = Counter.builder("stock.ledger.rejected")
+                .description("Stock ledger entries parked because applying them would take product stock below zero")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordSale(Long productId, int quantity, String source, String referenceNo) {
+        record(productId, -quantity, quantity, source, referenceNo);
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordRestock(Long productId, int quantity, String source, String referenceNo) {
+        record(productId, quantity, -quantity, source, referenceNo);
+    }
+
+    @Override
+    @Transactional
+    public int flushPending(int batchSize) {
+        // 1. Claim a batch, rows stay locked until this transaction commits
+        List<StockLedger> claimed = stockLedgerRepository.claimPending(batchSize);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        // 2. Fold the entries into one {stockDelta, salesDelta} per product
+        Map<Long, int[]> deltas = new TreeMap<>();
+        Map<Long, List<Long>> idsByProduct = new HashMap<>();
+        for (StockLedger entry : claimed) {
+            int[] delta = deltas.computeIfAbsent(entry.getProductId(), id -> new int[2]);
+            delta[0] += entry.getStockDelta();
+            delta[1] += entry.getSalesDelta();
+            idsByProduct.computeIfAbsent(entry.getProductId(), id -> new ArrayList<>()).add(entry.getId());
+        }
+
+        // 3. One UPDATE per product, in id order so concurrent flushes lock rows in the same order.
+        //    The update refuses to take stock below zero; those entries are parked, otherwise they would be
+        //    claimed first on every flush and hold up the entries behind them
+        List<Long> ids = new ArrayList<>(claimed.size());
+        List<Long> rejectedIds = new ArrayList<>();
+        deltas.forEach((productId, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0) {
+                if (productRepository.applyStockDelta(productId, delta[0], delta[1]) == 0) {
+                    log.error("Stock ledger delta {} for product {} would oversell or the product is gone, " +
+                            "parking {} entries as rejected", delta[0], productId, idsByProduct.get(productId).size());
+                    rejectedIds.addAll(idsByProduct.get(productId));
+                    return;
+                }
+                productCacheService.evictProduct(productId);
+            }
+            ids.addAll(idsByProduct.get(productId));
+        });
+
+        // 4. Mark the entries in the same transaction as the product updates
+        if (!ids.isEmpty()) {
+            ids.sort(null);
+            stockLedgerRepository.markApplied(ids, LocalDateTime.now());
+        }
+        if (!rejectedIds.isEmpty()) {
+            rejectedIds.sort(null);
+            stockLedgerRepository.updateStatus(rejectedIds, StockLedger.STATUS_REJECTED);
+            rejectedCounter.increment(rejectedIds.size());
+        }
+
+        log.debug("Applied {} and rejected {} of {} claimed stock ledger entries", ids.size(), rejectedIds.size(), claimed.size());
+        return claimed.size();
+    }
+
+    @Override
+    @Transactional
+    public int purgeApplied(int retentionDays) {
+        return stockLedgerRepository.deleteAppliedBefore(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    private void record(Long productId, int stockDelta, int salesDelta, String source, String referenceNo) {
+        StockLedger entry = new StockLedger();
+        entry.setProductId(productId);
+        entry.setStockDelta(stockDelta);
+        entry.setSalesDelta(salesDelta);
+        entry.setSource(source);
+        entry.setReferenceNo(referenceNo);
+        stockLedgerRepository.save(entry);
+    }
+}
@@ -0,0 +1,334 @@
+package com.abel.ecommerce.service.impl;
+
+import com.abel.ecommerce.constant.RedisKeyConstants;
+import com.abel.ecommerce.dto.response.SeckillResultResponse;
+import com.abel.ecommerce.dto.response.StockReconciliationResult;
+import com.abel.ecommerce.entity.Product;
+import com.abel.ecommerce.entity.SeckillMessage;
+import com.abel.ecommerce.entity.StockLedger;
+import com.abel.ecommerce.repository.ProductRepository;
+import com.abel.ecommerce.repository.SeckillCampaignItemRepository;
+import com.abel.ecommerce.repository.SeckillMessageRepository;
+import com.abel.ecommerce.repository.StockLedgerRepository;
+import com.abel.ecommerce.service.SeckillResultService;
+import com.abel.ecommerce.service.SoldOutCacheService;
+import com.abel.ecommerce.service.StockReconciliationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Finds and repairs drift between seckill stock in Redis and the database.
+ *
+ * Expected Redis stock = products.stock + pending stock ledger deltas - seckill messages without an order yet.
+ * Products enabled on their own must match it exactly. Campaign products only hold their campaign quantity,
+ * so for them the expected stock is an upper bound and only stock above it counts as drift.
+ *
+ * A repair is only made when the same drift is seen over the same Redis segment values in two runs in a row, so
+ * products with admissions in progress are left alone, and each segment write is a compare-and-set in Lua.
+ */
+@Service
+@Slf4j
+public class StockReconciliationServiceImpl implements StockReconciliationService {
+
+    private static final int SEGMENTS = RedisKeyConstants.SECKILL_STOCK_SEGMENTS;
+
+    // Seckill results read per pipelined round trip
+    private static final int RESULT_BATCH_SIZE = 500;
+
+    // Segment 0 exists for every enabled product, so one key per product is scanned
+    private static final String FIRST_SEGMENT_PATTERN = RedisKeyConstants.PRODUCT_STOCK_PREFIX + "{*:0}";
+
+    // KEYS[1] stock segment, ARGV[1] value the repair was computed from, ARGV[2] new value.
+    // A missing segment counts as 0, as it does for the admission script. KEEPTTL keeps a campaign's stock expiry.
+    private static final RedisScript<Long> COMPARE_AND_SET_SCRIPT = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[1]) or '0') == ARGV[1] then " +
+            "  redis.call('SET', KEYS[1], ARGV[2], 'KEEPTTL') " +
+            "  return 1 " +
+            "end " +
+            "return 0",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ProductRepository productRepository;
+    private final StockLedgerRepository stockLedgerRepository;
+    private final SeckillMessageRepository seckillMessageRepository;
+    private final SeckillCampaignItemRepository campaignItemRepository;
+    private final SeckillResultService seckillResultService;
+    private final SoldOutCacheService soldOutCacheService;
+    private final long inFlightMinutes;
+    private final long campaignStockGraceSeconds;
+    private final boolean repairEnabled;
+
+    // Drift seen in the previous run, by product ID
+    private final Map<Long, Observation> previous = new ConcurrentHashMap<>();
+
+    private final AtomicLong driftingGauge = new AtomicLong();
+    private final AtomicLong overUnitsGauge = new AtomicLong();
+    private final AtomicLong underUnitsGauge = new AtomicLong();
+    private final Counter repairedCounter;
+    private final Counter conflictCounter;
+
+    public StockReconciliationServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                          ProductRepository productRepository,
+                                          StockLedgerRepository stockLedgerRepository,
+                                          SeckillMessageRepository seckillMessageRepository,
+                                          SeckillCampaignItemRepository campaignItemRepository,
+                                          SeckillResultService seckillResultService,
+                                          SoldOutCacheService soldOutCacheService,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${stock.reconcile.in-flight-minutes:60}") long inFlightMinutes,
+                                          @Value("${seckill.campaign.stock-grace-seconds:600}") long campaignStockGraceSeconds,
+                                          @Value("${stock.reconcile.repair-enabled:false}") boolean repairEnabled) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.productRepository = productRepository;
+        this.stockLedgerRepository = stockLedgerRepository;
+        this.seckillMessageRepository = seckillMessageRepository;
+        this.campaignItemRepository = campaignItemRepository;
+        this.seckillResultService = seckillResultService;
+        this.soldOutCacheService = soldOutCacheService;
+        this.inFlightMinutes = inFlightMinutes;
+        this.campaignStockGraceSeconds = campaignStockGraceSeconds;
+        this.repairEnabled = repairEnabled;
+
+        Gauge.builder("seckill.stock.drift.products", driftingGauge, AtomicLong::get)
+                .description("Products whose Redis stock differs from the database in the last reconciliation")
+                .register(meterRegistry);
+        Gauge.builder("seckill.stock.drift.units", overUnitsGauge, AtomicLong::get)
+                .tag("direction", "over")
+                .description("Units of Redis stock above the expected stock (oversell risk)")
+                .register(meterRegistry);
+        Gauge.builder("seckill.stock.drift.units", underUnitsGauge, AtomicLong::get)
+                .tag("direction", "under")
+                .description("Units of Redis stock below the expected stock (undersell)")
+                .register(meterRegistry);
+        this.repairedCounter = Counter.builder("seckill.stock.repairs")
+                .tag("result", "repaired")
+                .register(meterRegistry);
+        this.conflictCounter = Counter.builder("seckill.stock.repairs")
+                .tag("result", "conflict")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<Long> findSeckillProductIds() {
+        Set<Long> productIds = new HashSet<>();
+        ScanOptions options = ScanOptions.scanOptions().match(FIRST_SEGMENT_PATTERN).count(1000).build();
+        try (Cursor<String> keys = stringRedisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                String key = keys.next();
+                try {
+                    // product:stock:{id:0}
+                    productIds.add(Long.valueOf(key.substring(key.indexOf('{') + 1, key.lastIndexOf(':'))));
+                }
+                catch (RuntimeException e) {
+                    log.warn("Ignoring unexpected stock key {}", key);
+                }
+            }
+        }
+        return new ArrayList<>(productIds);
+    }
+
+    @Override
+    @Transactional
+    public StockReconciliationResult reconcile(List<Long> productIds) {
+        StockReconciliationResult result = new StockReconciliationResult();
+        if (productIds.isEmpty()) {
+            return result;
+        }
+
+        // 1. Redis first: the database snapshot starts with the first query below, so admissions made in between
+        //    show up as a message without Redis stock and are not mistaken for missing stock
+        Map<Long, List<Integer>> segmentsByProduct = readSegments(productIds);
+
+        // 2. Database side, read in one transaction
+        Map<Long, Product> products = productRepository.findAllById(segmentsByProduct.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, Long> pendingDelta = new HashMap<>();
+        for (StockLedger entry : stockLedgerRepository.findByProductIdInAndStatus(segmentsByProduct.keySet(), StockLedger.STATUS_PENDING)) {
+            pendingDelta.merge(entry.getProductId(), (long) entry.getStockDelta(), Long::sum);
+        }
+        Map<Long, Long> inFlight = countInFlight(segmentsByProduct.keySet());
+        // Campaign stock stays in Redis until the grace period after the campaign's end, older campaigns don't count
+        Set<Long> campaignProducts = new HashSet<>(campaignItemRepository.findProductIdsInCampaignsEndingAfter(
+                segmentsByProduct.keySet(), LocalDateTime.now().minusSeconds(campaignStockGraceSeconds)));
+
+        // 3. Compare, and repair drift that has not moved since the previous run
+        segmentsByProduct.forEach((productId, segments) -> {
+            result.setScanned(result.getScanned() + 1);
+
+            long actual = segments.stream().mapToLong(Integer::longValue).sum();
+            Product product = products.get(productId);
+            long dbStock = product == null ? 0 : product.getStock();
+            long expected = Math.max(0, dbStock + pendingDelta.getOrDefault(productId, 0L) - inFlight.getOrDefault(productId, 0L));
+            long target = campaignProducts.contains(productId) ? Math.min(actual, expected) : expected;
+
+            if (actual == target) {
+                previous.remove(productId);
+                return;
+            }
+
+            result.setDrifting(result.getDrifting() + 1);
+            if (actual > target) {
+                result.setOverUnits(result.getOverUnits() + actual - target);
+            }
+            else {
+                result.setUnderUnits(result.getUnderUnits() + target - actual);
+            }
+
+            Observation observation = new Observation(segments, target);
+            if (!repairEnabled || !observation.equals(previous.put(productId, observation))) {
+                log.warn("Seckill stock drift for product {}: Redis {}, expected {} (database {}, in flight {})",
+                        productId, actual, target, dbStock, inFlight.getOrDefault(productId, 0L));
+                return;
+            }
+
+            previous.remove(productId);
+            if (repair(productId, segments, target)) {
+                result.setRepaired(result.getRepaired() + 1);
+                log.warn("Repaired seckill stock of product {}: Redis {} -> {}", productId, actual, target);
+            }
+            else {
+                result.setConflicts(result.getConflicts() + 1);
+                log.info("Seckill stock of product {} changed during repair, checking again next run", productId);
+            }
+        });
+
+        repairedCounter.increment(result.getRepaired());
+        conflictCounter.increment(result.getConflicts());
+        return result;
+    }
+
+    @Override
+    public void recordRun(StockReconciliationResult result) {
+        driftingGauge.set(result.getDrifting());
+        overUnitsGauge.set(result.getOverUnits());
+        underUnitsGauge.set(result.getUnderUnits());
+        // Products that were not seen in this run have no drift left to track
+        if (result.getDrifting() == 0) {
+            previous.clear();
+        }
+    }
+
+    // All segments of all products in one pipelined call; products that are no longer in Redis are left out
+    private Map<Long, List<Integer>> readSegments(List<Long> productIds) {
+        List<Object> values = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (Long productId : productIds) {
+                for (int segment = 0; segment < SEGMENTS; segment++) {
+                    stringConnection.get(RedisKeyConstants.getProductStockKey(productId, segment));
+                }
+            }
+            return null;
+        });
+
+        Map<Long, List<Integer>> segmentsByProduct = new HashMap<>();
+        for (int i = 0; i < productIds.size(); i++) {
+            List<Integer> segments = new ArrayList<>(SEGMENTS);
+            boolean found = false;
+            for (int segment = 0; segment < SEGMENTS; segment++) {
+                Object value = values.get(i * SEGMENTS + segment);
+                found |= value != null;
+                segments.add(value == null ? 0 : Integer.parseInt(value.toString()));
+            }
+            if (found) {
+                segmentsByProduct.put(productIds.get(i), Collections.unmodifiableList(segments));
+            }
+        }
+        return segmentsByProduct;
+    }
+
+    // Messages whose order is not created yet; permanent consumer failures already gave their stock back.
+    // Their results are read one pipelined batch at a time
+    private Map<Long, Long> countInFlight(Set<Long> productIds) {
+        Map<Long, Long> inFlight = new HashMap<>();
+        LocalDateTime since = LocalDateTime.now().minusMinutes(inFlightMinutes);
+        List<SeckillMessage> messages = seckillMessageRepository.findWithoutOrder(productIds, since, SeckillMessage.STATUS_FAILED);
+        for (int from = 0; from < messages.size(); from += RESULT_BATCH_SIZE) {
+            List<SeckillMessage> batch = messages.subList(from, Math.min(from + RESULT_BATCH_SIZE, messages.size()));
+            Map<String, String> statuses = seckillResultService.getStatuses(
+                    batch.stream().map(SeckillMessage::getOrderNo).collect(Collectors.toList()));
+            for (SeckillMessage message : batch) {
+                if (!SeckillResultResponse.STATUS_FAILED.equals(statuses.get(message.getOrderNo()))) {
+                    // Seckill messages are always for one unit
+                    inFlight.merge(message.getProductId(), 1L, Long::sum);
+                }
+            }
+        }
+        return inFlight;
+    }
+
+    // Move the segments from the observed values towards target, one compare-and-set per segment
+    private boolean repair(Long productId, List<Integer> segments, long target) {
+        long delta = target - segments.stream().mapToLong(Integer::longValue).sum();
+
+        if (delta > 0) {
+            // Missing stock goes to the emptiest segment
+            int segment = 0;
+            for (int i = 1; i < SEGMENTS; i++) {
+                if (segments.get(i) < segments.get(segment)) {
+                    segment = i;
+                }
+            }
+            if (!compareAndSet(productId, segment, segments.get(segment), segments.get(segment) + delta)) {
+                return false;
+            }
+            soldOutCacheService.clearSoldOut(productId);
+            return true;
+        }
+
+        // Excess stock is taken from the fullest segments first
+        long remaining = -delta;
+        List<Integer> order = IntStream.range(0, SEGMENTS).boxed().collect(Collectors.toList());
+        order.sort((a, b) -> Integer.compare(segments.get(b), segments.get(a)));
+        for (int segment : order) {
+            if (remaining == 0) {
+                break;
+            }
+            long take = Math.min(segments.get(segment), remaining);
+            if (take == 0) {
+                continue;
+            }
+            if (!compareAndSet(productId, segment, segments.get(segment), segments.get(segment) - take)) {
+                return false;
+            }
+            remaining -= take;
+        }
+        return true;
+    }
+
+    private boolean compareAndSet(Long productId, int segment, long observed, long value) {
+        Long changed = stringRedisTemplate.execute(COMPARE_AND_SET_SCRIPT,
+                List.of(RedisKeyConstants.getProductStockKey(productId, segment)),
+                String.valueOf(observed), String.valueOf(value));
+        return Long.valueOf(1L).equals(changed);
+    }
+
+    private record Observation(List<Integer> segments, long target) {
+    }
+}
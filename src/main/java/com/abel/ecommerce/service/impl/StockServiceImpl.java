@@ -1,17 +1,28 @@
 package com.abel.ecommerce.service.impl;
 
 import com.abel.ecommerce.constant.RedisKeyConstants;
+import com.abel.ecommerce.dto.response.SeckillAdmissionResult;
 import com.abel.ecommerce.entity.Product;
 import com.abel.ecommerce.exception.ProductNotFoundException;
 import com.abel.ecommerce.repository.ProductRepository;
+import com.abel.ecommerce.service.ProductCacheService;
+import com.abel.ecommerce.service.SoldOutCacheService;
 import com.abel.ecommerce.service.StockService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -20,12 +31,21 @@ public class StockServiceImpl implements StockService {
 
     private final StringRedisTemplate stringRedisTemplate;
 
-    private final RedisTemplate<String, Object> objectRedisTemplate;
-
     private final ProductRepository productRepository;
 
+    private final SoldOutCacheService soldOutCacheService;
+
+    private final ProductCacheService productCacheService;
+
+    private static final int SEGMENTS = RedisKeyConstants.SECKILL_STOCK_SEGMENTS;
+
+    // Internal admission status: home segment is short, user is reserved, caller should try the other segments
+    private static final long STATUS_SEGMENT_EMPTY = 3L;
+
+    // How long a user's participation record is kept
+    private static final long SECKILL_USER_TTL_SECONDS = TimeUnit.HOURS.toSeconds(24);
 
-    private static final String DEDUCT_STOCK_SCRIPT =
+    private static final DefaultRedisScript<Long> DEDUCT_STOCK_SCRIPT = new DefaultRedisScript<>(
             "local stock = redis.call('GET', KEYS[1]) " +
                     "if stock == false then " +
                     "  return -1 " +
@@ -36,45 +56,103 @@ public class StockServiceImpl implements StockService {
                     "  return 1 " +
                     "else " +
                     "  return 0 " +
-                    "end";
+                    "end",
+            Long.class);
 
-    public Long deductStock(Long productId, Integer quantity) {
-        String key = RedisKeyConstants.getProductStockKey(productId);
+    // KEYS[1] = stock segment key, ARGV[1] = units still needed
+    // Takes whatever the segment can give up to ARGV[1] and returns the amount taken, -1 if the key is missing
+    private static final DefaultRedisScript<Long> TAKE_FROM_SEGMENT_SCRIPT = new DefaultRedisScript<>(
+            "local stock = redis.call('GET', KEYS[1]) " +
+                    "if stock == false then " +
+                    "  return -1 " +
+                    "end " +
+                    "local take = math.min(tonumber(stock), tonumber(ARGV[1])) " +
+                    "if take <= 0 then " +
+                    "  return 0 " +
+                    "end " +
+                    "redis.call('DECRBY', KEYS[1], take) " +
+                    "return take",
+            Long.class);
 
-        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
-        script.setScriptText(DEDUCT_STOCK_SCRIPT);
-        script.setResultType(Long.class);
+    // KEYS[1] = home stock segment key, KEYS[2] = user participation key (same hash tag)
+    // ARGV[1] = quantity, ARGV[2] = participation timestamp, ARGV[3] = participation TTL in seconds
+    // Returns {status, segmentStock}, see SeckillAdmissionResult for the status codes.
+    // When the home segment is short the user is still reserved and 3 (segment empty) is returned.
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> ADMIT_SECKILL_SCRIPT = new DefaultRedisScript<>(
+            "local stock = redis.call('GET', KEYS[1]) " +
+                    "if stock == false then " +
+                    "  return {-1, 0} " +
+                    "end " +
+                    "stock = tonumber(stock) " +
+                    "if redis.call('EXISTS', KEYS[2]) == 1 then " +
+                    "  return {2, stock} " +
+                    "end " +
+                    "if stock < tonumber(ARGV[1]) then " +
+                    "  redis.call('SET', KEYS[2], ARGV[2], 'EX', ARGV[3]) " +
+                    "  return {3, stock} " +
+                    "end " +
+                    "local remaining = redis.call('DECRBY', KEYS[1], ARGV[1]) " +
+                    "redis.call('SET', KEYS[2], ARGV[2], 'EX', ARGV[3]) " +
+                    "return {1, remaining}",
+            List.class);
 
-        return stringRedisTemplate.execute(
-                script,
-                Collections.singletonList(key),  // KEYS
-                String.valueOf(quantity)          // ARGV
-        );
+    // KEYS[1] = stock key, KEYS[2] = user participation key, ARGV[1] = quantity
+    // Stock only goes back while the segment exists, an expired campaign is not put back on sale
+    private static final DefaultRedisScript<Long> ROLLBACK_SECKILL_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('DEL', KEYS[2]) " +
+                    "if redis.call('EXISTS', KEYS[1]) == 0 then " +
+                    "  return -1 " +
+                    "end " +
+                    "return redis.call('INCRBY', KEYS[1], ARGV[1])",
+            Long.class);
+
+    // KEYS[1] = stock segment key, ARGV[1] = quantity; returns -1 without creating the key when it is missing
+    private static final DefaultRedisScript<Long> RESTORE_STOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then " +
+                    "  return -1 " +
+                    "end " +
+                    "return redis.call('INCRBY', KEYS[1], ARGV[1])",
+            Long.class);
+
+    public Long deductStock(Long productId, Integer quantity) {
+        // No user to hash on, start at a random segment so callers spread over all of them
+        int start = ThreadLocalRandom.current().nextInt(SEGMENTS);
+        Long result = deductFromSegments(productId, quantity, start, -1);
+
+        if (result != null && result == 0L && getStock(productId) <= 0) {
+            soldOutCacheService.markSoldOut(productId);
+        }
+        return result;
     }
 
     public void restoreStock(Long productId, Integer quantity) {
-        String key = RedisKeyConstants.getProductStockKey(productId);
-        stringRedisTemplate.opsForValue().increment(key, quantity);
+        // A product whose stock keys are gone (campaign over, or never enabled) is not put back on sale
+        String key = RedisKeyConstants.getProductStockKey(productId, ThreadLocalRandom.current().nextInt(SEGMENTS));
+        Long restored = stringRedisTemplate.execute(RESTORE_STOCK_SCRIPT, Collections.singletonList(key), String.valueOf(quantity));
+        if (restored != null && restored >= 0) {
+            soldOutCacheService.clearSoldOut(productId);
+        }
     }
 
     public int getStock(Long productId) {
-        String key = RedisKeyConstants.getProductStockKey(productId);
-        String stockStr = stringRedisTemplate.opsForValue().get(key);
-        return stockStr != null ? Integer.parseInt(stockStr) : 0;
+        List<String> segments = stringRedisTemplate.opsForValue().multiGet(getStockKeys(productId));
+        if (segments == null) {
+            return 0;
+        }
+
+        int total = 0;
+        for (String stockStr : segments) {
+            if (stockStr != null) {
+                total += Integer.parseInt(stockStr);
+            }
+        }
+        return total;
     }
 
     @Override
     public Product findProductById(Long id) {
-        // TODO: remove redis logic
-        String infoKey = RedisKeyConstants.PRODUCT_INFO_PREFIX + id;
-        Product product = (Product) objectRedisTemplate.opsForValue().get(infoKey);
-
-        if (product == null) {
-            Product productFromDB = productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException(id, "ID"));
-            objectRedisTemplate.opsForValue().set(infoKey, productFromDB, 1 , TimeUnit.HOURS);
-            return productFromDB;
-        }
-        return product;
+        return productCacheService.getProduct(id);
     }
 
     @Override
@@ -82,12 +160,176 @@ public class StockServiceImpl implements StockService {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ProductNotFoundException(productId, "ID"));
 
-        String stockKey = RedisKeyConstants.getProductStockKey(productId);
-        String infoKey = RedisKeyConstants.PRODUCT_INFO_PREFIX + productId;
+        preloadSeckillStock(Map.of(productId, product.getStock()));
+
+        productCacheService.putProduct(product);
+    }
+
+    @Override
+    public void preloadSeckillStock(Map<Long, Integer> stockByProduct) {
+        preloadSeckillStock(stockByProduct, Collections.emptyMap());
+    }
+
+    @Override
+    public void preloadSeckillStock(Map<Long, Integer> stockByProduct, Map<Long, LocalDateTime> expireAt) {
+        if (stockByProduct.isEmpty()) {
+            return;
+        }
+
+        // Split stock evenly, the first (stock % SEGMENTS) segments take one extra unit
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            stockByProduct.forEach((productId, stock) -> {
+                int base = stock / SEGMENTS;
+                int extra = stock % SEGMENTS;
+                LocalDateTime expiry = expireAt.get(productId);
+                for (int segment = 0; segment < SEGMENTS; segment++) {
+                    int segmentStock = base + (segment < extra ? 1 : 0);
+                    String key = RedisKeyConstants.getProductStockKey(productId, segment);
+                    stringConnection.set(key, String.valueOf(segmentStock));
+                    if (expiry != null) {
+                        stringConnection.pExpireAt(key, expiry.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                    }
+                }
+            });
+            return null;
+        });
 
-        stringRedisTemplate.opsForValue().set(stockKey, String.valueOf(product.getStock()));
+        stockByProduct.keySet().forEach(soldOutCacheService::clearSoldOut);
+    }
+
+    @Override
+    public SeckillAdmissionResult admitSeckill(Long userId, Long productId, Integer quantity) {
+        int home = getHomeSegment(userId);
+        String userKey = RedisKeyConstants.getSeckillUserKey(userId, productId, home);
+        List<String> keys = Arrays.asList(RedisKeyConstants.getProductStockKey(productId, home), userKey);
 
-        objectRedisTemplate.opsForValue().set(infoKey, product, 1, TimeUnit.HOURS);
+        // 1. Duplicate check, deduction on the home segment and participation record in one call.
+        //    Script is sent by SHA (EVALSHA) and only re-sent in full when Redis does not know it yet
+        List<?> result = stringRedisTemplate.execute(
+                ADMIT_SECKILL_SCRIPT,
+                keys,
+                String.valueOf(quantity),
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(SECKILL_USER_TTL_SECONDS));
+
+        if (result == null || result.size() < 2) {
+            throw new IllegalStateException("Unexpected seckill admission result for product " + productId);
+        }
+        long status = ((Number) result.get(0)).longValue();
+        long remaining = ((Number) result.get(1)).longValue();
+
+        if (status != STATUS_SEGMENT_EMPTY) {
+            return new SeckillAdmissionResult(status, remaining);
+        }
+
+        // 2. Home segment is empty but the user is already reserved, try the sibling segments
+        Long deducted = deductFromSegments(productId, quantity, home + 1, home);
+        if (deducted != null && deducted == 1L) {
+            return new SeckillAdmissionResult(SeckillAdmissionResult.STATUS_ADMITTED, getStock(productId));
+        }
+
+        // 3. Every segment is short, release the reservation so the user can retry after a restock
+        stringRedisTemplate.delete(userKey);
+        int total = getStock(productId);
+        if (total <= 0) {
+            // Nothing left at all, stop sending this product's traffic to Redis
+            soldOutCacheService.markSoldOut(productId);
+        }
+        return new SeckillAdmissionResult(SeckillAdmissionResult.STATUS_SOLD_OUT, total);
+    }
+
+    @Override
+    public void rollbackSeckill(Long userId, Long productId, Integer quantity) {
+        // Stock goes back to the home segment, the total is what matters
+        int home = getHomeSegment(userId);
+        List<String> keys = Arrays.asList(
+                RedisKeyConstants.getProductStockKey(productId, home),
+                RedisKeyConstants.getSeckillUserKey(userId, productId, home));
+        stringRedisTemplate.execute(ROLLBACK_SECKILL_SCRIPT, keys, String.valueOf(quantity));
+        soldOutCacheService.clearSoldOut(productId);
+    }
+
+    /**
+     * Try segments in order starting at {@code start}, skipping {@code skip}. When no single segment has
+     * enough, fall back to taking the quantity from several segments.
+     * @return 1 if the quantity was deducted, 0 if there was not enough stock, -1 if the product is not in Redis
+     */
+    private Long deductFromSegments(Long productId, Integer quantity, int start, int skip) {
+        Long result = -1L;
+        for (int i = 0; i < SEGMENTS; i++) {
+            int segment = (start + i) % SEGMENTS;
+            if (segment == skip) {
+                continue;
+            }
+
+            Long segmentResult = stringRedisTemplate.execute(
+                    DEDUCT_STOCK_SCRIPT,
+                    Collections.singletonList(RedisKeyConstants.getProductStockKey(productId, segment)),  // KEYS
+                    String.valueOf(quantity)                                                               // ARGV
+            );
+            if (segmentResult != null && segmentResult == 1L) {
+                return 1L;
+            }
+            if (segmentResult != null && segmentResult == 0L) {
+                result = 0L;
+            }
+        }
+        // No single segment can cover the quantity, but together they might
+        if (result == 0L && quantity > 1 && takeAcrossSegments(productId, quantity, start)) {
+            return 1L;
+        }
+        // With only the skipped segment there is nothing to try, treat it as empty
+        return skip >= 0 && result == -1L ? 0L : result;
+    }
+
+    /**
+     * Collect {@code quantity} units from several segments, starting at {@code start}.
+     * Segments live in different cluster slots, so this is not atomic: if the segments run dry
+     * part way through, the units already taken are given back.
+     * @return true if the full quantity was taken
+     */
+    private boolean takeAcrossSegments(Long productId, Integer quantity, int start) {
+        if (getStock(productId) < quantity) {
+            return false;
+        }
+
+        long[] taken = new long[SEGMENTS];
+        long needed = quantity;
+        for (int i = 0; i < SEGMENTS && needed > 0; i++) {
+            int segment = (start + i) % SEGMENTS;
+            Long segmentTaken = stringRedisTemplate.execute(
+                    TAKE_FROM_SEGMENT_SCRIPT,
+                    Collections.singletonList(RedisKeyConstants.getProductStockKey(productId, segment)),
+                    String.valueOf(needed));
+            if (segmentTaken != null && segmentTaken > 0) {
+                taken[segment] = segmentTaken;
+                needed -= segmentTaken;
+            }
+        }
+        if (needed == 0) {
+            return true;
+        }
+
+        // Lost a race with other buyers, put back what this request took
+        for (int segment = 0; segment < SEGMENTS; segment++) {
+            if (taken[segment] > 0) {
+                stringRedisTemplate.opsForValue().increment(RedisKeyConstants.getProductStockKey(productId, segment), taken[segment]);
+            }
+        }
+        return false;
+    }
+
+    private int getHomeSegment(Long userId) {
+        return Math.floorMod(userId.hashCode(), SEGMENTS);
+    }
+
+    private List<String> getStockKeys(Long productId) {
+        List<String> keys = new ArrayList<>(SEGMENTS);
+        for (int segment = 0; segment < SEGMENTS; segment++) {
+            keys.add(RedisKeyConstants.getProductStockKey(productId, segment));
+        }
+        return keys;
     }
 
 }
@@ -1,26 +1,116 @@
 package com.abel.ecommerce.service.impl;
 
+import com.abel.ecommerce.constant.RedisKeyConstants;
 import com.abel.ecommerce.service.TokenBlacklistService;
+import com.abel.ecommerce.utils.BloomFilter;
+import com.abel.ecommerce.utils.JwtTokenUtil;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.interfaces.DecodedJWT;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Token blacklist in Redis, keyed by token ID (jti).
+ *
+ * Each node keeps a Bloom filter of blacklisted token IDs, built from Redis at startup and kept current through
+ * pub/sub, so Redis is only asked about tokens the filter might contain. Blacklist entries expire with their
+ * token while a Bloom filter cannot forget, so the filter is rebuilt from Redis periodically.
+ *
+ * Tokens issued before tokens carried a jti were blacklisted under the whole token (token:blacklist:{token}).
+ * Those tokens skip the filter and are checked against both the legacy key and their SHA-256 ID; the legacy
+ * keys expire with their tokens, at most EXPIRE_TIME after the upgrade.
+ */
 @Service
 @Slf4j
-@RequiredArgsConstructor
-public class TokenBlacklistServiceImpl implements TokenBlacklistService {
+public class TokenBlacklistServiceImpl implements TokenBlacklistService, MessageListener {
 
     private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
 
     // Cache key prefix for blacklisted tokens
     private static final String BLACKLIST_KEY = "token:blacklist:";
 
+    private final int expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+
+    // Filter being rebuilt, pub/sub updates go to it as well so none are lost during the swap
+    private BloomFilter rebuilding;
+
+    // False until the filter has been loaded from Redis once, until then every check goes to Redis
+    private volatile boolean filterLoaded = false;
+
+    public TokenBlacklistServiceImpl(StringRedisTemplate redisTemplate,
+                                     RedisMessageListenerContainer listenerContainer,
+                                     @Value("${token.blacklist.filter.expected-insertions:100000}") int expectedInsertions,
+                                     @Value("${token.blacklist.filter.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyConstants.TOKEN_BLACKLIST_CHANNEL));
+        rebuildFilter();
+    }
+
+    /**
+     * Reload the filter from the blacklist keys still in Redis, dropping token IDs that have expired
+     */
+    @Scheduled(fixedDelayString = "${token.blacklist.filter.rebuild-interval-ms:600000}",
+            initialDelayString = "${token.blacklist.filter.rebuild-interval-ms:600000}")
+    public void rebuildFilter() {
+        BloomFilter next = new BloomFilter(expectedInsertions, falsePositiveRate);
+        synchronized (this) {
+            rebuilding = next;
+        }
+        try {
+            int count = 0;
+            ScanOptions options = ScanOptions.scanOptions().match(BLACKLIST_KEY + "*").count(1000).build();
+            try (Cursor<String> keys = redisTemplate.scan(options)) {
+                while (keys.hasNext()) {
+                    String tokenId = keys.next().substring(BLACKLIST_KEY.length());
+                    // Legacy whole-token keys are never looked up through the filter
+                    if (!isLegacyKeySuffix(tokenId)) {
+                        next.put(tokenId);
+                        count++;
+                    }
+                }
+            }
+            filter = next;
+            filterLoaded = true;
+            log.info("Token blacklist filter rebuilt with {} entries", count);
+        }
+        catch (Exception e) {
+            // Keep the current filter; if it was never loaded, checks keep going to Redis
+            log.warn("Failed to rebuild token blacklist filter: {}", e.getMessage());
+        }
+        finally {
+            synchronized (this) {
+                rebuilding = null;
+            }
+        }
+    }
+
     @Override
     public void blacklistToken(String token) {
         try {
@@ -33,14 +123,17 @@ public class TokenBlacklistServiceImpl implements TokenBlacklistService {
                 long remainingTime = expiration.getTime() - System.currentTimeMillis();
 
                 if (remainingTime > 0) {
-                    // Store token in blacklist with remaining expiration time
-                    String key = BLACKLIST_KEY + token;
+                    // Store token ID in blacklist with remaining expiration time
+                    String tokenId = JwtTokenUtil.getTokenId(decodedJWT);
                     redisTemplate.opsForValue().set(
-                        key,
+                        BLACKLIST_KEY + tokenId,
                         "blacklisted",
                         remainingTime,
                         TimeUnit.MILLISECONDS
                     );
+                    addToFilter(tokenId);
+                    // Other nodes add it to their filter when they receive this
+                    redisTemplate.convertAndSend(RedisKeyConstants.TOKEN_BLACKLIST_CHANNEL, tokenId);
                     log.info("Token blacklisted successfully");
                 } else {
                     log.warn("Token is already expired, no need to blacklist");
@@ -55,8 +148,40 @@ public class TokenBlacklistServiceImpl implements TokenBlacklistService {
     @Override
     public boolean isTokenBlacklisted(String token) {
         try {
-            String key = BLACKLIST_KEY + token;
-            return redisTemplate.hasKey(key);
+            return isTokenBlacklisted(JWT.decode(token));
+        } catch (Exception e) {
+            log.error("Failed to check token blacklist status: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isTokenBlacklisted(DecodedJWT decodedJWT) {
+        if (decodedJWT.getId() != null) {
+            return isTokenIdBlacklisted(decodedJWT.getId());
+        }
+
+        // No jti: issued before the upgrade, so it may be blacklisted under the whole token, which the filter does not hold
+        try {
+            Long found = redisTemplate.countExistingKeys(List.of(
+                    BLACKLIST_KEY + JwtTokenUtil.getTokenId(decodedJWT),
+                    BLACKLIST_KEY + decodedJWT.getToken()));
+            return found != null && found > 0;
+        } catch (Exception e) {
+            log.error("Failed to check token blacklist status: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isTokenIdBlacklisted(String tokenId) {
+        // Definitely not blacklisted, no Redis call needed
+        if (filterLoaded && !filter.mightContain(tokenId)) {
+            return false;
+        }
+
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(BLACKLIST_KEY + tokenId));
         } catch (Exception e) {
             log.error("Failed to check token blacklist status: {}", e.getMessage(), e);
             // On error, assume token is not blacklisted to avoid blocking valid users
@@ -67,11 +192,34 @@ public class TokenBlacklistServiceImpl implements TokenBlacklistService {
     @Override
     public void removeFromBlacklist(String token) {
         try {
-            String key = BLACKLIST_KEY + token;
-            redisTemplate.delete(key);
+            // The filter keeps the ID until the next rebuild, which only costs a Redis check
+            DecodedJWT decodedJWT = JWT.decode(token);
+            if (decodedJWT.getId() != null) {
+                redisTemplate.delete(BLACKLIST_KEY + decodedJWT.getId());
+            } else {
+                redisTemplate.delete(List.of(BLACKLIST_KEY + JwtTokenUtil.getTokenId(decodedJWT), BLACKLIST_KEY + token));
+            }
             log.info("Token removed from blacklist");
         } catch (Exception e) {
             log.error("Failed to remove token from blacklist: {}", e.getMessage(), e);
         }
     }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        addToFilter(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    // Token IDs never contain '.', a whole JWT always does
+    private static boolean isLegacyKeySuffix(String suffix) {
+        return suffix.indexOf('.') >= 0;
+    }
+
+    // Synchronized with the swap in rebuildFilter, adds are rare so this stays off the read path
+    private synchronized void addToFilter(String tokenId) {
+        filter.put(tokenId);
+        if (rebuilding != null) {
+            rebuilding.put(tokenId);
+        }
+    }
 }
@@ -1,15 +1,24 @@
 package com.abel.ecommerce.service.impl;
 
+import com.abel.ecommerce.constant.RedisKeyConstants;
 import com.abel.ecommerce.repository.UserRepository;
 import com.abel.ecommerce.service.UserRoleCacheService;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -17,25 +26,56 @@ import java.util.stream.Collectors;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
-public class UserRoleCacheServiceImpl implements UserRoleCacheService {
+public class UserRoleCacheServiceImpl implements UserRoleCacheService, MessageListener {
 
     private final StringRedisTemplate redisTemplate;
     private final UserRepository userRepository;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    // L1: short-lived on-heap copy, so the auth filter needs no network call for active users
+    private final Cache<String, Set<String>> localCache;
 
     // Cache key prefix for user roles
     private static final String USER_ROLE_KEY = "user:roles:";
     private static final long CACHE_EXPIRE_HOURS = 24;
 
+    public UserRoleCacheServiceImpl(StringRedisTemplate redisTemplate,
+                                    UserRepository userRepository,
+                                    RedisMessageListenerContainer listenerContainer,
+                                    @Value("${user.roles.cache.local.max-size:10000}") long maxSize,
+                                    @Value("${user.roles.cache.local.ttl-seconds:30}") long ttlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.userRepository = userRepository;
+        this.listenerContainer = listenerContainer;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyConstants.USER_ROLE_INVALIDATE_CHANNEL));
+    }
+
     @Override
     public Set<String> getUserRoles(String username) {
-        String key = USER_ROLE_KEY + username;
-        String roleStr = redisTemplate.opsForValue().get("key");
+        // Caffeine runs the loader once per key, concurrent requests of the same user wait for it
+        return localCache.get(username, this::load);
+    }
 
-        // get roles from cache
-        if (!StringUtils.isEmpty(roleStr)) {
-            log.debug("Get user roles from cache:{}", username);
-            return Arrays.stream(roleStr.split(",")).collect(Collectors.toSet());
+    private Set<String> load(String username) {
+        // get roles from redis
+        try {
+            String roleStr = redisTemplate.opsForValue().get(USER_ROLE_KEY + username);
+            if (!StringUtils.isEmpty(roleStr)) {
+                log.debug("Get user roles from cache:{}", username);
+                return Arrays.stream(roleStr.split(",")).collect(Collectors.toUnmodifiableSet());
+            }
+        }
+        catch (Exception e) {
+            // Redis problems must not block authentication, fall through to the database
+            log.warn("Failed to read roles of user {} from Redis", username, e);
         }
 
         // Cache miss, load from database
@@ -53,23 +93,34 @@ public class UserRoleCacheServiceImpl implements UserRoleCacheService {
 
         if (!roles.isEmpty()) {
             // Store user roles in redis
-            String rolesStr = String.join(",", roles);
-            redisTemplate.opsForValue().set(
-                    USER_ROLE_KEY + username,
-                    rolesStr,
-                    CACHE_EXPIRE_HOURS,
-                    TimeUnit.HOURS
-            );
-
+            try {
+                redisTemplate.opsForValue().set(
+                        USER_ROLE_KEY + username,
+                        String.join(",", roles),
+                        CACHE_EXPIRE_HOURS,
+                        TimeUnit.HOURS
+                );
+            }
+            catch (Exception e) {
+                log.warn("Failed to cache roles of user {} in Redis", username, e);
+            }
         }
 
-        return new HashSet<>(roles);
+        return Set.copyOf(roles);
     }
 
     @Override
     public void clearUserRoleCache(String username) {
         redisTemplate.delete(USER_ROLE_KEY + username);
+        localCache.invalidate(username);
+        // Other nodes drop their local copy when they receive this
+        redisTemplate.convertAndSend(RedisKeyConstants.USER_ROLE_INVALIDATE_CHANNEL, username);
         log.info("Cleared role cache for user: {}", username);
     }
 
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        localCache.invalidate(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
 }
@@ -0,0 +1,60 @@
+package com.abel.ecommerce.task;
+
+import com.abel.ecommerce.service.impl.RedisCartServiceImpl;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes carts changed in the Redis cart store back to cart_items
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cart.store", havingValue = "redis")
+public class CartPersistTask {
+
+    private final RedisCartServiceImpl redisCartService;
+
+    @Value("${cart.redis.persist-batch-size:200}")
+    private int batchSize = 200;
+
+    // Upper bound for one run, so a large backlog does not pin the scheduler thread
+    @Value("${cart.redis.persist-max-batches-per-run:20}")
+    private int maxBatchesPerRun = 20;
+
+    @Scheduled(fixedDelayString = "${cart.redis.persist-interval-ms:1000}")
+    public void persist() {
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int persisted;
+            try {
+                persisted = redisCartService.persistDirtyCarts(batchSize);
+            }
+            catch (Exception e) {
+                // The batch was put back on the dirty set, retry on the next run
+                log.error("Failed to persist carts", e);
+                break;
+            }
+            total += persisted;
+            if (persisted < batchSize) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.debug("Persisted {} carts", total);
+        }
+    }
+
+    // Drain what is left before the node goes away
+    @PreDestroy
+    public void persistOnShutdown() {
+        persist();
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.abel.ecommerce.task;
+
+import com.abel.ecommerce.service.SeckillCampaignService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SeckillCampaignTask {
+
+    private final SeckillCampaignService seckillCampaignService;
+
+    // Short interval so stock is in Redis within warmup-lead-seconds of the start, not a full interval late
+    @Scheduled(fixedDelayString = "${seckill.campaign.warmup-interval-ms:1000}")
+    public void warmUp() {
+        try {
+            int warmed = seckillCampaignService.warmUpDueCampaigns();
+            if (warmed > 0) {
+                log.info("Warmed up {} seckill campaigns", warmed);
+            }
+        }
+        catch (Exception e) {
+            log.error("Seckill campaign warm-up failed, retrying next run: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${seckill.campaign.refresh-interval-ms:5000}")
+    public void refreshWindows() {
+        try {
+            seckillCampaignService.refreshWindows();
+        }
+        catch (Exception e) {
+            // Keep the current windows
+            log.warn("Failed to refresh seckill campaign windows: {}", e.getMessage());
+        }
+    }
+}
@@ -1,58 +1,40 @@
 package com.abel.ecommerce.task;
 
-import com.abel.ecommerce.entity.SeckillMessage;
-import com.abel.ecommerce.repository.SeckillMessageRepository;
+import com.abel.ecommerce.service.SeckillMessageRelayService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
-import java.util.List;
-
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class SeckillMessageTask {
 
-    private final SeckillMessageRepository messageRepository;
+    private final SeckillMessageRelayService relayService;
 
-    private final RabbitTemplate rabbitTemplate;
+    @Value("${seckill.outbox.batch-size:500}")
+    private int batchSize = 500;
 
-//    @Scheduled(fixedRate = 5000)
-    public void scanAndSend() {
-        List<SeckillMessage> pendingMessages = messageRepository.findPendingMessagesForRetry(LocalDateTime.now());
+    // Upper bound for one run, so a large backlog does not pin the scheduler thread
+    @Value("${seckill.outbox.max-batches-per-run:100}")
+    private int maxBatchesPerRun = 100;
 
-        if (pendingMessages.isEmpty()) {
-            return;
+    @Scheduled(fixedDelayString = "${seckill.outbox.interval-ms:1000}")
+    public void scanAndSend() {
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int claimed = relayService.relayPendingBatch(batchSize);
+            total += claimed;
+            // A short batch means the backlog is drained (or the rest is claimed by other nodes)
+            if (claimed < batchSize) {
+                break;
+            }
         }
 
-        log.info("Found {} pending messages to retry", pendingMessages.size());
-
-        for (SeckillMessage message : pendingMessages) {
-            try {
-                rabbitTemplate.convertAndSend(message.getExchange(), message.getRoutingKey(), message.getMessageContent());
-                message.setStatus(SeckillMessage.STATUS_SENT);
-
-                log.info("Successfully sent message id={} to exchange={}, routingKey={}",
-                        message.getId(), message.getExchange(), message.getRoutingKey());
-            }
-            catch (Exception e) {
-                message.setRetryCount(message.getRetryCount() + 1);
-                message.setNextRetryTime(LocalDateTime.now().plusSeconds(30));
-
-                if (message.getRetryCount() >= message.getMaxRetry()) {
-                    message.setStatus(SeckillMessage.STATUS_FAILED);
-                    log.error("Message id={} failed after {} retries. Marking as FAILED",
-                            message.getId(), message.getRetryCount(), e);
-                }
-                else {
-                    log.warn("Failed to send message id={}, retry count={}/{}",
-                            message.getId(), message.getRetryCount(), message.getMaxRetry(), e);
-                }
-            }
-            messageRepository.save(message);
+        if (total > 0) {
+            log.info("Relayed {} seckill messages", total);
         }
     }
 
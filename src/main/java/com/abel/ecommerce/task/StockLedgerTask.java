@@ -0,0 +1,49 @@
+package com.abel.ecommerce.task;
+
+import com.abel.ecommerce.service.StockLedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockLedgerTask {
+
+    private final StockLedgerService stockLedgerService;
+
+    @Value("${stock.ledger.batch-size:1000}")
+    private int batchSize = 1000;
+
+    // Upper bound for one run, so a large backlog does not pin the scheduler thread
+    @Value("${stock.ledger.max-batches-per-run:50}")
+    private int maxBatchesPerRun = 50;
+
+    @Value("${stock.ledger.retention-days:7}")
+    private int retentionDays = 7;
+
+    @Scheduled(fixedDelayString = "${stock.ledger.flush-interval-ms:1000}")
+    public void flush() {
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int flushed = stockLedgerService.flushPending(batchSize);
+            total += flushed;
+            if (flushed < batchSize) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.debug("Flushed {} stock ledger entries", total);
+        }
+    }
+
+    @Scheduled(cron = "${stock.ledger.purge-cron:0 30 3 * * *}")
+    public void purge() {
+        int deleted = stockLedgerService.purgeApplied(retentionDays);
+        log.info("Purged {} applied stock ledger entries older than {} days", deleted, retentionDays);
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.abel.ecommerce.task;
+
+import com.abel.ecommerce.dto.response.StockReconciliationResult;
+import com.abel.ecommerce.service.StockReconciliationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockReconciliationTask {
+
+    private final StockReconciliationService stockReconciliationService;
+
+    // Products per database transaction and Redis pipeline
+    @Value("${stock.reconcile.batch-size:200}")
+    private int batchSize = 200;
+
+    @Scheduled(fixedDelayString = "${stock.reconcile.interval-ms:60000}",
+            initialDelayString = "${stock.reconcile.interval-ms:60000}")
+    public void reconcile() {
+        try {
+            List<Long> productIds = stockReconciliationService.findSeckillProductIds();
+
+            StockReconciliationResult total = new StockReconciliationResult();
+            for (int from = 0; from < productIds.size(); from += batchSize) {
+                total.add(stockReconciliationService.reconcile(
+                        productIds.subList(from, Math.min(from + batchSize, productIds.size()))));
+            }
+            stockReconciliationService.recordRun(total);
+
+            if (total.getDrifting() > 0) {
+                log.warn("Stock reconciliation: {} of {} products drifting ({} units over, {} under), {} repaired, {} conflicts",
+                        total.getDrifting(), total.getScanned(), total.getOverUnits(), total.getUnderUnits(),
+                        total.getRepaired(), total.getConflicts());
+            }
+            else {
+                log.debug("Stock reconciliation: {} products in sync", total.getScanned());
+            }
+        }
+        catch (Exception e) {
+            log.error("Stock reconciliation failed, retrying next run: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.abel.ecommerce.utils;
+
+/**
+ * Binary encoding of one cached type for CompactRedisSerializer: fields only, no class names or field names.
+ *
+ * The type ID and schema version are written in front of every value. A codec must keep reading every version
+ * it has ever written until those values have expired from Redis; new fields go at the end under a new version.
+ */
+public interface CompactCodec<T> {
+
+    /**
+     * Class this codec encodes, matched exactly
+     */
+    Class<T> type();
+
+    /**
+     * Stable ID of the type, 1 to 255, never reused for another type
+     */
+    int typeId();
+
+    /**
+     * Schema version written by {@link #write}
+     */
+    int version();
+
+    void write(T value, CompactWriter out);
+
+    /**
+     * @param version Schema version the value was written with, at most {@link #version()}
+     */
+    T read(CompactReader in, int version);
+}
@@ -0,0 +1,84 @@
+package com.abel.ecommerce.utils;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Reads what CompactWriter wrote. Truncated or malformed input fails with SerializationException.
+ */
+public class CompactReader {
+
+    private final byte[] buffer;
+    private int position;
+
+    public CompactReader(byte[] buffer, int offset) {
+        this.buffer = buffer;
+        this.position = offset;
+    }
+
+    public int readByte() {
+        require(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed variable-length integer");
+    }
+
+    public long readSignedVarLong() {
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public int readVarInt() {
+        return Math.toIntExact(readVarLong());
+    }
+
+    public byte[] readBytes() {
+        long length = readVarLong();
+        if (length < 0 || length > buffer.length - position) {
+            throw new SerializationException("Truncated compact value");
+        }
+        byte[] bytes = new byte[(int) length];
+        System.arraycopy(buffer, position, bytes, 0, bytes.length);
+        position += bytes.length;
+        return bytes;
+    }
+
+    public String readString() {
+        return new String(readBytes(), StandardCharsets.UTF_8);
+    }
+
+    public BigDecimal readBigDecimal() {
+        int scale = Math.toIntExact(readSignedVarLong());
+        return new BigDecimal(new BigInteger(readBytes()), scale);
+    }
+
+    public LocalDateTime readLocalDateTime() {
+        long seconds = readSignedVarLong();
+        return LocalDateTime.ofEpochSecond(seconds, readVarInt(), ZoneOffset.UTC);
+    }
+
+    public boolean hasRemaining() {
+        return position < buffer.length;
+    }
+
+    private void require(int count) {
+        if (position + count > buffer.length) {
+            throw new SerializationException("Truncated compact value");
+        }
+    }
+}
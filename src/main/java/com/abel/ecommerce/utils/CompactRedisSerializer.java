@@ -0,0 +1,87 @@
+package com.abel.ecommerce.utils;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis value serializer that writes types with a registered CompactCodec as
+ * [0x00][type ID][schema version][fields], and everything else through the fallback (JSON) serializer.
+ *
+ * Reads accept both formats: a JSON value never starts with a 0x00 byte. This is the migration path for
+ * existing keys: they stay readable and are rewritten in the compact form the next time they are cached.
+ * With writeCompact off, values are still read in both formats but only written as JSON, so every node can
+ * be upgraded to read the compact form before any node starts writing it.
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = 0x00;
+
+    private final RedisSerializer<Object> fallback;
+    private final boolean writeCompact;
+    private final Map<Class<?>, CompactCodec<?>> codecsByType = new HashMap<>();
+    private final CompactCodec<?>[] codecsById = new CompactCodec<?>[256];
+
+    public CompactRedisSerializer(RedisSerializer<Object> fallback, boolean writeCompact, List<CompactCodec<?>> codecs) {
+        this.fallback = fallback;
+        this.writeCompact = writeCompact;
+        for (CompactCodec<?> codec : codecs) {
+            int typeId = codec.typeId();
+            if (typeId < 1 || typeId > 255 || codecsById[typeId] != null) {
+                throw new IllegalArgumentException("Compact codec type ID must be unique and between 1 and 255: " + typeId);
+            }
+            if (codec.version() < 1 || codec.version() > 255) {
+                throw new IllegalArgumentException("Compact codec version must be between 1 and 255: " + codec.version());
+            }
+            codecsById[typeId] = codec;
+            codecsByType.put(codec.type(), codec);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] serialize(Object value) throws SerializationException {
+        CompactCodec<Object> codec = value == null || !writeCompact ? null : (CompactCodec<Object>) codecsByType.get(value.getClass());
+        if (codec == null) {
+            return fallback.serialize(value);
+        }
+
+        CompactWriter out = new CompactWriter();
+        out.writeByte(MAGIC);
+        out.writeByte(codec.typeId());
+        out.writeByte(codec.version());
+        codec.write(value, out);
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+
+        CompactReader in = new CompactReader(bytes, 1);
+        int typeId = in.readByte();
+        int version = in.readByte();
+        CompactCodec<?> codec = codecsById[typeId];
+        if (codec == null) {
+            // Written by a node that knows more types, callers treat this as a cache miss
+            throw new SerializationException("Unknown compact type ID " + typeId);
+        }
+        if (version > codec.version()) {
+            throw new SerializationException("Compact " + codec.type().getSimpleName() + " version " + version
+                    + " is newer than supported version " + codec.version());
+        }
+        Object value = codec.read(in, version);
+        if (in.hasRemaining()) {
+            throw new SerializationException("Trailing bytes after compact " + codec.type().getSimpleName());
+        }
+        return value;
+    }
+}
@@ -6,9 +6,15 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import jakarta.servlet.http.HttpServletRequest;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.UUID;
 
 public class JwtTokenUtil {
     /**
@@ -21,6 +27,22 @@ public class JwtTokenUtil {
      */
     private static final String SECRET = "ecommerce_secret_key"; // Changed to project-specific
 
+    /**
+     * Algorithm and verifier are immutable and thread-safe, so they are built once instead of per call
+     */
+    private static final Algorithm ALGORITHM = Algorithm.HMAC256(SECRET);
+    private static final JWTVerifier VERIFIER = JWT.require(ALGORITHM).build();
+
+    /**
+     * Request attribute holding the verified token, so the filters of one request verify it only once
+     */
+    public static final String VERIFIED_TOKEN_ATTRIBUTE = JwtTokenUtil.class.getName() + ".VERIFIED_TOKEN";
+
+    // Stored instead of a DecodedJWT when the request has no valid token
+    private static final Object NO_VALID_TOKEN = new Object();
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
     /**
      * Generate JWT token with 50 minutes expiration
      * @param username Username to be encoded in token
@@ -31,15 +53,16 @@ public class JwtTokenUtil {
     public static String generateToken(String username, Long userId) throws Exception {
         try {
             Date expirationDate = new Date(System.currentTimeMillis() + EXPIRE_TIME);
-            Algorithm algorithm = Algorithm.HMAC256(SECRET);
             return JWT.create()
                     // Save username to token
                     .withAudience(username)
                     .withClaim("userId", userId)
+                    // Short unique ID, used as the blacklist key instead of the whole token
+                    .withJWTId(UUID.randomUUID().toString())
                     // Token expires in 50 minutes
                     .withExpiresAt(expirationDate)
                     // Sign with secret key
-                    .sign(algorithm);
+                    .sign(ALGORITHM);
         } catch (Exception ex) {
             ex.printStackTrace();
             throw new Exception("Token generation failed");
@@ -54,12 +77,21 @@ public class JwtTokenUtil {
      * @throws JWTDecodeException If token decoding fails
      */
     public static String getUsernameFromToken(String token) {
-            DecodedJWT decode = JWT.decode(token);
-            List<String> audience = decode.getAudience();
-            if (audience == null || audience.isEmpty()){
-                throw new JWTDecodeException("Invalid token format");
-            }
-            return audience.get(0);
+        return getUsername(JWT.decode(token));
+    }
+
+    /**
+     * Extract username from an already decoded token
+     * @param decodedJWT Decoded token
+     * @return Username stored in token
+     * @throws JWTDecodeException If the token has no audience
+     */
+    public static String getUsername(DecodedJWT decodedJWT) {
+        List<String> audience = decodedJWT.getAudience();
+        if (audience == null || audience.isEmpty()){
+            throw new JWTDecodeException("Invalid token format");
+        }
+        return audience.get(0);
     }
 
     /**
@@ -76,6 +108,25 @@ public class JwtTokenUtil {
         }
     }
 
+    /**
+     * Get a short ID identifying the token: its jti claim, or a SHA-256 of the token if it has none
+     * @param decodedJWT Decoded token
+     * @return Token ID
+     */
+    public static String getTokenId(DecodedJWT decodedJWT) {
+        if (decodedJWT.getId() != null) {
+            return decodedJWT.getId();
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(decodedJWT.getToken().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        }
+        catch (NoSuchAlgorithmException e) {
+            // Every JVM ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Validate JWT token
      * @param token JWT token to validate
@@ -84,15 +135,65 @@ public class JwtTokenUtil {
      */
     public static boolean validateToken(String token) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(SECRET);
-            JWTVerifier verifier = JWT.require(algorithm).build();
-            DecodedJWT decodedJWT = verifier.verify(token);
+            VERIFIER.verify(token);
             return true;
         } catch (JWTVerificationException exception) {
             throw new RuntimeException("Invalid token, please login again");
         }
     }
 
+    /**
+     * Get the bearer token of the request, verified at most once per request.
+     * The result is kept in the {@link #VERIFIED_TOKEN_ATTRIBUTE} request attribute for later filters.
+     * @param request Current request
+     * @return Verified token, or null if the request has no token or the token is invalid or expired
+     */
+    public static DecodedJWT getVerifiedToken(HttpServletRequest request) {
+        Object cached = request.getAttribute(VERIFIED_TOKEN_ATTRIBUTE);
+        if (cached instanceof DecodedJWT decodedJWT) {
+            return decodedJWT;
+        }
+        if (cached != null) {
+            return null;
+        }
+
+        DecodedJWT decodedJWT = null;
+        String token = getTokenFromRequest(request);
+        if (token != null) {
+            try {
+                decodedJWT = VERIFIER.verify(token);
+            }
+            catch (JWTVerificationException e) {
+                // Invalid or expired, treated like an anonymous request
+            }
+        }
+        request.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, decodedJWT != null ? decodedJWT : NO_VALID_TOKEN);
+        return decodedJWT;
+    }
+
+    /**
+     * Extract userId from the request's verified token
+     * @param request Current request
+     * @return User ID stored in token, or null if the request has no valid token
+     */
+    public static Long getUserIdFromRequest(HttpServletRequest request) {
+        DecodedJWT decodedJWT = getVerifiedToken(request);
+        return decodedJWT != null ? decodedJWT.getClaim("userId").asLong() : null;
+    }
+
+    /**
+     * Extract the raw token from the Authorization header
+     * @param request Current request
+     * @return Token without the "Bearer " prefix, or null if there is none
+     */
+    public static String getTokenFromRequest(HttpServletRequest request) {
+        String bearerToken = request.getHeader("Authorization");
+        if (bearerToken != null && bearerToken.startsWith(BEARER_PREFIX)) {
+            return bearerToken.substring(BEARER_PREFIX.length());
+        }
+        return null;
+    }
+
     /**
      * Get token expiration time in seconds
      * @return Expiration time in seconds
@@ -0,0 +1,101 @@
+package com.abel.ecommerce.utils;
+
+import com.abel.ecommerce.entity.Product;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Product as cached under product:info:{id}.
+ * Version 1: presence bitmask, then the non-null fields in declaration order.
+ */
+public class ProductCompactCodec implements CompactCodec<Product> {
+
+    public static final int TYPE_ID = 1;
+
+    private static final int VERSION = 1;
+
+    // Presence bits, one per nullable field
+    private static final int ID = 1;
+    private static final int NAME = 1 << 1;
+    private static final int CATEGORY_ID = 1 << 2;
+    private static final int PRICE = 1 << 3;
+    private static final int ORIGINAL_PRICE = 1 << 4;
+    private static final int DESCRIPTION = 1 << 5;
+    private static final int MAIN_IMAGE = 1 << 6;
+    private static final int IMAGES = 1 << 7;
+    private static final int STOCK = 1 << 8;
+    private static final int SALES = 1 << 9;
+    private static final int STATUS = 1 << 10;
+    private static final int CREATED_AT = 1 << 11;
+    private static final int UPDATED_AT = 1 << 12;
+
+    @Override
+    public Class<Product> type() {
+        return Product.class;
+    }
+
+    @Override
+    public int typeId() {
+        return TYPE_ID;
+    }
+
+    @Override
+    public int version() {
+        return VERSION;
+    }
+
+    @Override
+    public void write(Product product, CompactWriter out) {
+        int mask = (product.getId() != null ? ID : 0)
+                | (product.getName() != null ? NAME : 0)
+                | (product.getCategoryId() != null ? CATEGORY_ID : 0)
+                | (product.getPrice() != null ? PRICE : 0)
+                | (product.getOriginalPrice() != null ? ORIGINAL_PRICE : 0)
+                | (product.getDescription() != null ? DESCRIPTION : 0)
+                | (product.getMainImage() != null ? MAIN_IMAGE : 0)
+                | (product.getImages() != null ? IMAGES : 0)
+                | (product.getStock() != null ? STOCK : 0)
+                | (product.getSales() != null ? SALES : 0)
+                | (product.getStatus() != null ? STATUS : 0)
+                | (product.getCreatedAt() != null ? CREATED_AT : 0)
+                | (product.getUpdatedAt() != null ? UPDATED_AT : 0);
+        out.writeVarLong(mask);
+
+        if ((mask & ID) != 0) out.writeSignedVarLong(product.getId());
+        if ((mask & NAME) != 0) out.writeString(product.getName());
+        if ((mask & CATEGORY_ID) != 0) out.writeSignedVarLong(product.getCategoryId());
+        if ((mask & PRICE) != 0) out.writeBigDecimal(product.getPrice());
+        if ((mask & ORIGINAL_PRICE) != 0) out.writeBigDecimal(product.getOriginalPrice());
+        if ((mask & DESCRIPTION) != 0) out.writeString(product.getDescription());
+        if ((mask & MAIN_IMAGE) != 0) out.writeString(product.getMainImage());
+        if ((mask & IMAGES) != 0) out.writeString(product.getImages());
+        if ((mask & STOCK) != 0) out.writeSignedVarLong(product.getStock());
+        if ((mask & SALES) != 0) out.writeSignedVarLong(product.getSales());
+        if ((mask & STATUS) != 0) out.writeSignedVarLong(product.getStatus());
+        if ((mask & CREATED_AT) != 0) out.writeLocalDateTime(product.getCreatedAt());
+        if ((mask & UPDATED_AT) != 0) out.writeLocalDateTime(product.getUpdatedAt());
+    }
+
+    @Override
+    public Product read(CompactReader in, int version) {
+        if (version != VERSION) {
+            throw new SerializationException("Unsupported Product schema version " + version);
+        }
+
+        long mask = in.readVarLong();
+        Product product = new Product();
+        if ((mask & ID) != 0) product.setId(in.readSignedVarLong());
+        if ((mask & NAME) != 0) product.setName(in.readString());
+        if ((mask & CATEGORY_ID) != 0) product.setCategoryId(in.readSignedVarLong());
+        if ((mask & PRICE) != 0) product.setPrice(in.readBigDecimal());
+        if ((mask & ORIGINAL_PRICE) != 0) product.setOriginalPrice(in.readBigDecimal());
+        if ((mask & DESCRIPTION) != 0) product.setDescription(in.readString());
+        if ((mask & MAIN_IMAGE) != 0) product.setMainImage(in.readString());
+        if ((mask & IMAGES) != 0) product.setImages(in.readString());
+        if ((mask & STOCK) != 0) product.setStock(Math.toIntExact(in.readSignedVarLong()));
+        if ((mask & SALES) != 0) product.setSales(Math.toIntExact(in.readSignedVarLong()));
+        if ((mask & STATUS) != 0) product.setStatus(Math.toIntExact(in.readSignedVarLong()));
+        if ((mask & CREATED_AT) != 0) product.setCreatedAt(in.readLocalDateTime());
+        if ((mask & UPDATED_AT) != 0) product.setUpdatedAt(in.readLocalDateTime());
+        return product;
+    }
+}
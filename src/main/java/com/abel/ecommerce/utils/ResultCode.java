@@ -42,6 +42,7 @@ public enum ResultCode {
     PRODUCT_NOT_EXIST(6001, "Product does not exist"),
     PRODUCT_OUT_OF_STOCK(6002, "Product out of stock"),
     PRODUCT_ALREADY_EXIST(6003, "Product already exists"),
+    SECKILL_NOT_ACTIVE(6004, "Seckill is not active"),
 
     /* Order Errors: 7000～7999 */
     ORDER_NOT_EXIST(7001, "Order does not exist"),
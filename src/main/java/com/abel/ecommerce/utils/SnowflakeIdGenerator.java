@@ -0,0 +1,108 @@
+package com.abel.ecommerce.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style 63-bit ID generator: 41 bits of milliseconds since EPOCH, 10 bits of node ID
+ * and 12 bits of per-millisecond sequence. Lock-free, nextId() allocates nothing.
+ *
+ * Clock rollback is handled with a logical clock: if the wall clock goes backwards the generator
+ * keeps counting from the last timestamp it issued (borrowing the next millisecond when the sequence
+ * runs out) until the wall clock catches up, so IDs stay unique and increasing.
+ *
+ * When the node ID is leased, nextId() refuses to issue IDs once the lease may have lapsed (see
+ * {@link #setLeaseExpiresAt(long)}), so two nodes never issue IDs with the same node ID.
+ */
+public class SnowflakeIdGenerator {
+
+    /**
+     * 2024-01-01T00:00:00Z, 41 bits of milliseconds last until 2093
+     */
+    public static final long EPOCH = 1704067200000L;
+
+    public static final int NODE_ID_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final long MAX_NODE_ID = (1L << NODE_ID_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final LongSupplier clock;
+
+    private volatile long nodeId;
+
+    // Wall clock millis after which the node ID may belong to another node, MAX_VALUE when not leased
+    private volatile long leaseExpiresAt = Long.MAX_VALUE;
+
+    // Last issued (timestamp << SEQUENCE_BITS | sequence), updated with CAS
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    public SnowflakeIdGenerator(long nodeId, LongSupplier clock) {
+        this.clock = clock;
+        setNodeId(nodeId);
+    }
+
+    /**
+     * Generate the next ID
+     * @return Unique, increasing (per node) positive ID
+     * @throws IllegalStateException if the node ID lease is no longer confirmed
+     */
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long lastTimestamp = current >>> SEQUENCE_BITS;
+            long wallClock = clock.getAsLong();
+            if (wallClock > leaseExpiresAt) {
+                throw new IllegalStateException("Snowflake node lease " + nodeId + " is not confirmed, not issuing IDs");
+            }
+            long now = wallClock - EPOCH;
+
+            long next;
+            if (now > lastTimestamp) {
+                // New millisecond, restart the sequence
+                next = now << SEQUENCE_BITS;
+            }
+            else if ((current & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                // Same millisecond, or the clock went backwards: keep counting on the logical clock
+                next = current + 1;
+            }
+            else {
+                // Sequence exhausted, borrow the next millisecond
+                next = (lastTimestamp + 1) << SEQUENCE_BITS;
+            }
+
+            if (state.compareAndSet(current, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (NODE_ID_BITS + SEQUENCE_BITS))
+                        | (nodeId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Change the node ID, used when the node lease has to be re-acquired
+     * @param nodeId Node ID between 0 and MAX_NODE_ID
+     */
+    public void setNodeId(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Stop issuing IDs after the given time unless the lease is confirmed again before then
+     * @param leaseExpiresAt Wall clock millis, 0 to stop at once
+     */
+    public void setLeaseExpiresAt(long leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+}
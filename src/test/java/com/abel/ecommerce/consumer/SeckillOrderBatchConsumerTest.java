@@ -0,0 +1,131 @@
+package com.abel.ecommerce.consumer;
+
+import com.abel.ecommerce.dto.request.SeckillOrderMessage;
+import com.abel.ecommerce.dto.response.SeckillOrderBatchResult;
+import com.abel.ecommerce.service.SeckillOrderService;
+import com.abel.ecommerce.service.SeckillResultService;
+import com.abel.ecommerce.service.StockService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SeckillOrderBatchConsumer
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SeckillOrderBatchConsumer Unit Tests")
+class SeckillOrderBatchConsumerTest {
+
+    @Mock
+    private SeckillOrderService seckillOrderService;
+
+    @Mock
+    private StockService stockService;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private SeckillResultService seckillResultService;
+
+    @Mock
+    private Channel channel;
+
+    private SeckillOrderBatchConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new SeckillOrderBatchConsumer(seckillOrderService, stockService, rabbitTemplate, new ObjectMapper(),
+                seckillResultService, 2);
+    }
+
+    private static Message message(long deliveryTag, String orderNo) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        String body = "{\"orderNo\":\"" + orderNo + "\",\"userId\":1,\"productId\":100,\"quantity\":1}";
+        return new Message(body.getBytes(StandardCharsets.UTF_8), properties);
+    }
+
+    private static SeckillOrderBatchResult created(SeckillOrderMessage message) {
+        SeckillOrderBatchResult result = new SeckillOrderBatchResult();
+        result.getCreated().add(message);
+        return result;
+    }
+
+    @Test
+    @DisplayName("Should ack the whole batch once when all orders are created")
+    void testBatch_Created() throws Exception {
+        SeckillOrderMessage first = new SeckillOrderMessage("ORD1", 1L, 100L, 1);
+        SeckillOrderMessage second = new SeckillOrderMessage("ORD2", 1L, 100L, 1);
+        SeckillOrderBatchResult result = created(first);
+        result.getCreated().add(second);
+        when(seckillOrderService.createSeckillOrders(List.of(first, second))).thenReturn(result);
+
+        consumer.handleSeckillOrderBatch(List.of(message(1, "ORD1"), message(2, "ORD2")), channel);
+
+        verify(channel).basicAck(2, true);
+        verify(seckillResultService).markCreated("ORD1");
+        verify(seckillResultService).markCreated("ORD2");
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Should requeue the whole batch when the database is unavailable")
+    void testBatch_TransientFailure() throws Exception {
+        when(seckillOrderService.createSeckillOrders(anyList())).thenThrow(new QueryTimeoutException("timeout"));
+
+        consumer.handleSeckillOrderBatch(List.of(message(1, "ORD1"), message(2, "ORD2")), channel);
+
+        verify(channel).basicNack(2, true, true);
+        verify(seckillOrderService, times(1)).createSeckillOrders(anyList());
+    }
+
+    @Test
+    @DisplayName("Should process a failed batch one message at a time so one bad message does not block the others")
+    void testBatch_FallsBackToOneByOne() throws Exception {
+        SeckillOrderMessage good = new SeckillOrderMessage("ORD1", 1L, 100L, 1);
+        SeckillOrderMessage bad = new SeckillOrderMessage("ORD2", 1L, 100L, 1);
+        when(seckillOrderService.createSeckillOrders(List.of(good, bad))).thenThrow(new DataIntegrityViolationException("bad"));
+        when(seckillOrderService.createSeckillOrders(List.of(good))).thenReturn(created(good));
+        when(seckillOrderService.createSeckillOrders(List.of(bad))).thenThrow(new DataIntegrityViolationException("bad"));
+
+        consumer.handleSeckillOrderBatch(List.of(message(1, "ORD1"), message(2, "ORD2")), channel);
+
+        verify(channel).basicAck(1, false);
+        verify(seckillResultService).markCreated("ORD1");
+        verify(channel).basicNack(2, false, true);
+        verify(channel, never()).basicNack(anyLong(), eq(true), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Should discard a message that keeps failing on its own after the maximum attempts")
+    void testBatch_GivesUpAfterMaxAttempts() throws Exception {
+        SeckillOrderMessage bad = new SeckillOrderMessage("ORD2", 1L, 100L, 1);
+        when(seckillOrderService.createSeckillOrders(List.of(bad))).thenThrow(new DataIntegrityViolationException("bad"));
+
+        // Batch attempt and single attempt per delivery; max-attempts is 2
+        consumer.handleSeckillOrderBatch(List.of(message(1, "ORD2")), channel);
+        consumer.handleSeckillOrderBatch(List.of(message(2, "ORD2")), channel);
+
+        verify(channel).basicNack(1, false, true);
+        verify(channel).basicNack(2, false, false);
+        verify(seckillResultService).markFailed(eq("ORD2"), anyString());
+        verifyNoInteractions(stockService);
+    }
+}
@@ -27,6 +27,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -104,7 +105,7 @@ class CartControllerTest {
         // Arrange
         when(cartService.addToCart(eq(testUserId), any(CartItemRequest.class))).thenReturn(testCartItem);
         when(cartService.getCartItemsByUserId(testUserId)).thenReturn(Arrays.asList(testCartItem));
-        when(productService.findProductById(1L)).thenReturn(testProduct);
+        when(productService.findProductsByIds(anyCollection())).thenReturn(Map.of(1L, testProduct));
 
         // Act & Assert
         mockMvc.perform(post("/api/cart/add")
@@ -168,7 +169,7 @@ class CartControllerTest {
         // Arrange
         when(cartService.updateCartItem(testUserId, 1L, 20)).thenReturn(testCartItem);
         when(cartService.getCartItemsByUserId(testUserId)).thenReturn(Arrays.asList(testCartItem));
-        when(productService.findProductById(1L)).thenReturn(testProduct);
+        when(productService.findProductsByIds(anyCollection())).thenReturn(Map.of(1L, testProduct));
 
         // Act & Assert
         mockMvc.perform(put("/api/cart/update/{cartItemId}", 1L)
@@ -226,7 +227,7 @@ class CartControllerTest {
         // Arrange
         doNothing().when(cartService).removeFromCart(testUserId, 1L);
         when(cartService.getCartItemsByUserId(testUserId)).thenReturn(Arrays.asList());
-        when(productService.findProductById(anyLong())).thenReturn(testProduct);
+        when(productService.findProductsByIds(anyCollection())).thenReturn(Map.of(1L, testProduct));
 
         // Act & Assert
         mockMvc.perform(delete("/api/cart/remove/{cartItemId}", 1L)
@@ -276,8 +277,7 @@ class CartControllerTest {
         product2.setMainImage("image2.jpg");
 
         when(cartService.getCartItemsByUserId(testUserId)).thenReturn(Arrays.asList(testCartItem, item2));
-        when(productService.findProductById(1L)).thenReturn(testProduct);
-        when(productService.findProductById(2L)).thenReturn(product2);
+        when(productService.findProductsByIds(anyCollection())).thenReturn(Map.of(1L, testProduct, 2L, product2));
 
         // Act & Assert
         mockMvc.perform(get("/api/cart")
@@ -290,6 +290,35 @@ class CartControllerTest {
                 .andExpect(jsonPath("$.data.items", hasSize(2)));
 
         verify(cartService, times(1)).getCartItemsByUserId(testUserId);
+        // Whole cart is resolved with one batched lookup
+        verify(productService, times(1)).findProductsByIds(anyCollection());
+        verify(productService, never()).findProductById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should keep items whose product was deleted, with zero amount")
+    @WithMockUser
+    void getCart_DeletedProduct() throws Exception {
+        // Arrange
+        CartItem item2 = new CartItem();
+        item2.setId(2L);
+        item2.setUserId(testUserId);
+        item2.setProductId(2L);
+        item2.setQuantity(3);
+        item2.setSelected(1);
+
+        when(cartService.getCartItemsByUserId(testUserId)).thenReturn(Arrays.asList(testCartItem, item2));
+        when(productService.findProductsByIds(anyCollection())).thenReturn(Map.of(1L, testProduct));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/cart")
+                        .param("userId", testUserId.toString()))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalItems").value(2))
+                .andExpect(jsonPath("$.data.items[1].productName").value("Product not found"))
+                .andExpect(jsonPath("$.data.totalAmount").value(499.95))
+                .andExpect(jsonPath("$.data.selectedCount").value(2));
     }
 
     @Test
@@ -435,8 +464,7 @@ class CartControllerTest {
         product2.setMainImage("image2.jpg");
 
         when(cartService.getCartItemsByUserId(testUserId)).thenReturn(Arrays.asList(testCartItem, item2));
-        when(productService.findProductById(1L)).thenReturn(testProduct);
-        when(productService.findProductById(2L)).thenReturn(product2);
+        when(productService.findProductsByIds(anyCollection())).thenReturn(Map.of(1L, testProduct, 2L, product2));
 
         // Act & Assert
         mockMvc.perform(get("/api/cart")
@@ -445,7 +473,7 @@ class CartControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.data.totalItems").value(2))
                 .andExpect(jsonPath("$.data.selectedCount").value(1))
-                .andExpect(jsonPath("$.data.totalAmount").exists())
-                .andExpect(jsonPath("$.data.selectedAmount").exists());
+                .andExpect(jsonPath("$.data.totalAmount").value(249.98))
+                .andExpect(jsonPath("$.data.selectedAmount").value(199.98));
     }
 }
\ No newline at end of file
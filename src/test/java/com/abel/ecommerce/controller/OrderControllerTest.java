@@ -32,6 +32,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -229,7 +230,8 @@ class OrderControllerTest {
 
         when(orderService.findOrdersByUserId(eq(testUserId), any(PageRequest.class)))
                 .thenReturn(orderPage);
-        when(orderService.findOrderItems(anyLong())).thenReturn(testOrderItems);
+        when(orderService.findOrderItemsByOrderIds(Arrays.asList(1L, 2L)))
+                .thenReturn(Map.of(1L, testOrderItems, 2L, List.of()));
 
         mockMvc.perform(get("/api/orders")
                         .param("userId", String.valueOf(testUserId))
@@ -241,9 +243,14 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.status").value(200))
                 .andExpect(jsonPath("$.data.content", hasSize(2)))
                 .andExpect(jsonPath("$.data.totalElements").value(2))
-                .andExpect(jsonPath("$.data.content[0].orderNo").value(testOrderNo));
+                .andExpect(jsonPath("$.data.content[0].orderNo").value(testOrderNo))
+                .andExpect(jsonPath("$.data.content[0].totalItems").value(testOrderItems.size()))
+                .andExpect(jsonPath("$.data.content[1].totalItems").value(0));
 
         verify(orderService, times(1)).findOrdersByUserId(eq(testUserId), any(PageRequest.class));
+        // Items for the whole page come from one bulk load
+        verify(orderService, times(1)).findOrderItemsByOrderIds(Arrays.asList(1L, 2L));
+        verify(orderService, never()).findOrderItems(anyLong());
     }
 
     @Test
@@ -256,7 +263,7 @@ class OrderControllerTest {
                 eq(Order.STATUS_PENDING_PAYMENT),
                 any(PageRequest.class)
         )).thenReturn(orderPage);
-        when(orderService.findOrderItems(anyLong())).thenReturn(testOrderItems);
+        when(orderService.findOrderItemsByOrderIds(anyList())).thenReturn(Map.of(1L, testOrderItems));
 
         mockMvc.perform(get("/api/orders")
                         .param("userId", String.valueOf(testUserId))
@@ -7,6 +7,7 @@ import com.abel.ecommerce.filter.RateLimitFilter;
 import com.abel.ecommerce.service.ProductService;
 import com.abel.ecommerce.service.TokenBlacklistService;
 import com.abel.ecommerce.service.UserRoleCacheService;
+import com.abel.ecommerce.utils.PageCursor;
 import com.abel.ecommerce.utils.ResultCode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +20,8 @@ import org.springframework.context.annotation.FilterType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -26,6 +29,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
@@ -345,6 +349,58 @@ class ProductControllerTest {
         );
     }
 
+    @Test
+    @DisplayName("Should return a cursor slice and resume from the returned cursor")
+    @WithMockUser
+    void findProductsByCursor_Success() throws Exception {
+        // Arrange
+        testProduct.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 0));
+        Slice<Product> slice = new SliceImpl<>(List.of(testProduct), PageRequest.ofSize(1), true);
+        when(productService.findProductsAfterCursor(eq(10L), eq(1), isNull(), eq(1))).thenReturn(slice);
+
+        String expectedCursor = new PageCursor(testProduct.getCreatedAt(), testProduct.getId()).encode();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products/cursor")
+                        .param("categoryId", "10")
+                        .param("size", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items", hasSize(1)))
+                .andExpect(jsonPath("$.data.hasNext").value(true))
+                .andExpect(jsonPath("$.data.nextCursor").value(expectedCursor));
+
+        // Next request decodes the cursor back into (createdAt, id)
+        when(productService.findProductsAfterCursor(eq(10L), eq(1), any(PageCursor.class), eq(1)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.ofSize(1), false));
+
+        mockMvc.perform(get("/api/products/cursor")
+                        .param("categoryId", "10")
+                        .param("size", "1")
+                        .param("cursor", expectedCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.hasNext").value(false))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+
+        verify(productService).findProductsAfterCursor(eq(10L), eq(1), argThat(cursor ->
+                cursor != null && cursor.getId().equals(testProduct.getId())
+                        && cursor.getCreatedAt().equals(testProduct.getCreatedAt())), eq(1));
+    }
+
+    @Test
+    @DisplayName("Should reject a tampered cursor with 400")
+    @WithMockUser
+    void findProductsByCursor_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/products/cursor")
+                        .param("cursor", "not-a-cursor"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(ResultCode.PARAM_NOT_VALID.getCode()));
+
+        verify(productService, never()).findProductsAfterCursor(any(), any(), any(), anyInt());
+    }
+
     @Test
     @DisplayName("Should find products with default pagination parameters")
     @WithMockUser
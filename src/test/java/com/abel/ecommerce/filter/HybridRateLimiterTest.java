@@ -0,0 +1,177 @@
+package com.abel.ecommerce.filter;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.BucketProxy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for HybridRateLimiter
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HybridRateLimiter Unit Tests")
+class HybridRateLimiterTest {
+
+    private static final String KEY = "rate_limit:ip:192.168.1.1";
+
+    // Capacity 100 with tolerance 0.1 gives leases of 10 tokens
+    private static final BucketConfiguration CONFIG = BucketConfiguration.builder()
+            .addLimit(Bandwidth.builder().capacity(100).refillGreedy(100, Duration.ofSeconds(1)).build())
+            .build();
+
+    @Mock
+    private ProxyManager<String> proxyManager;
+
+    @Mock
+    private RemoteBucketBuilder<String> remoteBucketBuilder;
+
+    @Mock
+    private BucketProxy remoteBucket;
+
+    private ManualExecutor executor;
+
+    private HybridRateLimiter rateLimiter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        executor = new ManualExecutor();
+        rateLimiter = new HybridRateLimiter(proxyManager, 0.1, 5000, executor);
+        lenient().when(proxyManager.builder()).thenReturn(remoteBucketBuilder);
+        lenient().when(remoteBucketBuilder.build(eq(KEY), any(Supplier.class))).thenReturn(remoteBucket);
+    }
+
+    @Test
+    @DisplayName("Should serve a lease of requests with one Redis call")
+    void tryAcquire_ServesFromLease() {
+        when(remoteBucket.tryConsumeAsMuchAsPossible(10)).thenReturn(10L);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(rateLimiter.tryAcquire(KEY, CONFIG)).isTrue();
+        }
+
+        verify(remoteBucket, times(1)).tryConsumeAsMuchAsPossible(anyLong());
+        verify(remoteBucket, never()).tryConsume(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should top the lease up in the background once half of it is used")
+    void tryAcquire_TopsUpAsynchronously() {
+        when(remoteBucket.tryConsumeAsMuchAsPossible(10)).thenReturn(10L);
+        when(remoteBucket.tryConsumeAsMuchAsPossible(5)).thenReturn(5L);
+
+        // 10 leased, 5 used leaves 5, which schedules a top up of 5
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.tryAcquire(KEY, CONFIG);
+        }
+        assertThat(executor.tasks).hasSize(1);
+        executor.runAll();
+
+        // 5 + 5 tokens serve the next 10 requests without a synchronous lease
+        for (int i = 0; i < 10; i++) {
+            assertThat(rateLimiter.tryAcquire(KEY, CONFIG)).isTrue();
+            executor.tasks.clear();
+        }
+        verify(remoteBucket, times(1)).tryConsumeAsMuchAsPossible(10);
+        verify(remoteBucket, times(1)).tryConsumeAsMuchAsPossible(5);
+    }
+
+    @Test
+    @DisplayName("Should reject when the Redis bucket has no tokens left")
+    void tryAcquire_RemoteExhausted() {
+        when(remoteBucket.tryConsumeAsMuchAsPossible(10)).thenReturn(0L);
+
+        assertThat(rateLimiter.tryAcquire(KEY, CONFIG)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should only hand out the tokens Redis granted")
+    void tryAcquire_PartialGrant() {
+        when(remoteBucket.tryConsumeAsMuchAsPossible(10)).thenReturn(2L, 0L);
+
+        assertThat(rateLimiter.tryAcquire(KEY, CONFIG)).isTrue();
+        assertThat(rateLimiter.tryAcquire(KEY, CONFIG)).isTrue();
+        executor.tasks.clear();
+        assertThat(rateLimiter.tryAcquire(KEY, CONFIG)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should limit locally with the same configuration while Redis is down")
+    void tryAcquire_FallsBackToLocalBucket() {
+        // Slow refill so the count is not affected by test timing
+        BucketConfiguration config = BucketConfiguration.builder()
+                .addLimit(Bandwidth.builder().capacity(100).refillGreedy(100, Duration.ofHours(1)).build())
+                .build();
+        when(remoteBucket.tryConsumeAsMuchAsPossible(anyLong())).thenThrow(new RuntimeException("connection refused"));
+
+        int admitted = 0;
+        for (int i = 0; i < 150; i++) {
+            if (rateLimiter.tryAcquire(KEY, config)) {
+                admitted++;
+            }
+        }
+
+        assertThat(admitted).isEqualTo(100);
+        // Redis is not retried until the retry interval has passed
+        verify(remoteBucket, times(1)).tryConsumeAsMuchAsPossible(anyLong());
+    }
+
+    // Runs submitted tasks only when the test asks, so async top ups are deterministic
+    private static class ManualExecutor extends AbstractExecutorService {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            List<Runnable> pending = new ArrayList<>(tasks);
+            tasks.clear();
+            pending.forEach(Runnable::run);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
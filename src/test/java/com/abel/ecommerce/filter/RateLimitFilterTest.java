@@ -4,8 +4,6 @@ import com.abel.ecommerce.utils.JwtTokenUtil;
 import io.github.bucket4j.BucketConfiguration;
 import io.github.bucket4j.ConsumptionProbe;
 import io.github.bucket4j.distributed.BucketProxy;
-import io.github.bucket4j.distributed.proxy.ProxyManager;
-import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -37,7 +35,10 @@ import static org.mockito.Mockito.*;
 class RateLimitFilterTest {
 
     @Mock
-    private ProxyManager<String> proxyManager;
+    private HybridRateLimiter rateLimiter;
+
+    @Mock
+    private RouteRateLimitRegistry routeRegistry;
 
     @Mock
     private BucketConfiguration ipRateLimitConfig;
@@ -60,34 +61,28 @@ class RateLimitFilterTest {
     @Mock
     private BucketProxy userBucketProxy;
 
-    @Mock
-    private RemoteBucketBuilder<String> remoteBucketBuilder;
-
     private RateLimitFilter rateLimitFilter;
 
     private StringWriter responseWriter;
 
     @BeforeEach
     void setUp() throws Exception {
-        rateLimitFilter = new RateLimitFilter(proxyManager, ipRateLimitConfig, userRateLimitConfig);
+        rateLimitFilter = new RateLimitFilter(rateLimiter, routeRegistry, ipRateLimitConfig, userRateLimitConfig);
 
         // Setup response output stream
         responseWriter = new StringWriter();
         PrintWriter printWriter = new PrintWriter(responseWriter);
         when(response.getWriter()).thenReturn(printWriter);
 
-        // Mock ProxyManager.builder() to return the mock builder
-        when(proxyManager.builder()).thenReturn(remoteBucketBuilder);
-
-        // Mock builder.build() to return appropriate bucket proxies based on key prefix
-        when(remoteBucketBuilder.build(anyString(), any(java.util.function.Supplier.class))).thenAnswer(invocation -> {
+        // The limiter decides per dimension, the bucket mocks stand in for the IP and user buckets
+        when(rateLimiter.tryAcquire(anyString(), any(BucketConfiguration.class))).thenAnswer(invocation -> {
             String key = invocation.getArgument(0);
             if (key.startsWith("rate_limit:ip:")) {
-                return ipBucketProxy;
+                return ipBucketProxy.tryConsume(1);
             } else if (key.startsWith("rate_limit:user:")) {
-                return userBucketProxy;
+                return userBucketProxy.tryConsume(1);
             }
-            return null;
+            return false;
         });
     }
 
@@ -148,7 +143,7 @@ class RateLimitFilterTest {
             when(userBucketProxy.tryConsume(1)).thenReturn(true);
 
             try (MockedStatic<JwtTokenUtil> jwtMock = mockStatic(JwtTokenUtil.class)) {
-                jwtMock.when(() -> JwtTokenUtil.getUserIdFromToken(validToken)).thenReturn(userId);
+                jwtMock.when(() -> JwtTokenUtil.getUserIdFromRequest(request)).thenReturn(userId);
 
                 // Act
                 rateLimitFilter.doFilterInternal(request, response, filterChain);
@@ -174,7 +169,7 @@ class RateLimitFilterTest {
             when(userBucketProxy.tryConsume(1)).thenReturn(false);
 
             try (MockedStatic<JwtTokenUtil> jwtMock = mockStatic(JwtTokenUtil.class)) {
-                jwtMock.when(() -> JwtTokenUtil.getUserIdFromToken(validToken)).thenReturn(userId);
+                jwtMock.when(() -> JwtTokenUtil.getUserIdFromRequest(request)).thenReturn(userId);
 
                 // Act
                 rateLimitFilter.doFilterInternal(request, response, filterChain);
@@ -190,6 +185,59 @@ class RateLimitFilterTest {
         }
     }
 
+    @Nested
+    class RouteRateLimitTests {
+
+        @Mock
+        private BucketConfiguration seckillConfig;
+
+        @Test
+        void doFilterInternal_routeRuleMatches_shouldUseRouteBucketsInsteadOfUserBucket() throws Exception {
+            // Test seckill requests are limited by their route buckets and leave the user bucket alone
+            // Arrange
+            String clientIp = "192.168.1.110";
+            Long userId = 555L;
+            when(request.getRemoteAddr()).thenReturn(clientIp);
+            when(ipBucketProxy.tryConsume(1)).thenReturn(true);
+            when(routeRegistry.resolve(request, clientIp, userId)).thenReturn(java.util.List.of(
+                    new RouteRateLimitRegistry.RouteLimit("seckill-user", "rate_limit:route:seckill-user:10/1000:555", seckillConfig)));
+            when(rateLimiter.tryAcquire("rate_limit:route:seckill-user:10/1000:555", seckillConfig)).thenReturn(true);
+
+            try (MockedStatic<JwtTokenUtil> jwtMock = mockStatic(JwtTokenUtil.class)) {
+                jwtMock.when(() -> JwtTokenUtil.getUserIdFromRequest(request)).thenReturn(userId);
+
+                // Act
+                rateLimitFilter.doFilterInternal(request, response, filterChain);
+
+                // Assert
+                verify(filterChain).doFilter(request, response);
+                verify(rateLimiter).tryAcquire("rate_limit:route:seckill-user:10/1000:555", seckillConfig);
+                verify(userBucketProxy, never()).tryConsume(anyLong());
+            }
+        }
+
+        @Test
+        void doFilterInternal_routeBucketExhausted_shouldReturn429() throws Exception {
+            // Test a flash-sale storm is shed by the route bucket
+            // Arrange
+            String clientIp = "192.168.1.111";
+            when(request.getRemoteAddr()).thenReturn(clientIp);
+            when(ipBucketProxy.tryConsume(1)).thenReturn(true);
+            when(routeRegistry.resolve(request, clientIp, null)).thenReturn(java.util.List.of(
+                    new RouteRateLimitRegistry.RouteLimit("seckill-product", "rate_limit:route:seckill-product:500/1000:7", seckillConfig)));
+            when(rateLimiter.tryAcquire("rate_limit:route:seckill-product:500/1000:7", seckillConfig)).thenReturn(false);
+
+            // Act
+            rateLimitFilter.doFilterInternal(request, response, filterChain);
+
+            // Assert
+            verify(response).setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            verify(filterChain, never()).doFilter(any(), any());
+            assertThat(responseWriter.toString())
+                    .isEqualTo("{\"error\": \"Too many requests for this endpoint. Please try again later.\"}");
+        }
+    }
+
     @Nested
     class IpExtractionTests {
 
@@ -309,7 +357,7 @@ class RateLimitFilterTest {
             when(ipBucketProxy.tryConsume(1)).thenReturn(true);
 
             try (MockedStatic<JwtTokenUtil> jwtMock = mockStatic(JwtTokenUtil.class)) {
-                jwtMock.when(() -> JwtTokenUtil.getUserIdFromToken(invalidToken))
+                jwtMock.when(() -> JwtTokenUtil.getUserIdFromRequest(request))
                         .thenThrow(new RuntimeException("Invalid token"));
 
                 // Act
@@ -358,7 +406,7 @@ class RateLimitFilterTest {
             when(userBucketProxy.tryConsume(1)).thenReturn(true);
 
             try (MockedStatic<JwtTokenUtil> jwtMock = mockStatic(JwtTokenUtil.class)) {
-                jwtMock.when(() -> JwtTokenUtil.getUserIdFromToken(validToken)).thenReturn(userId);
+                jwtMock.when(() -> JwtTokenUtil.getUserIdFromRequest(request)).thenReturn(userId);
 
                 // Act
                 rateLimitFilter.doFilterInternal(request, response, filterChain);
@@ -384,7 +432,7 @@ class RateLimitFilterTest {
             when(userBucketProxy.tryConsume(1)).thenReturn(false);
 
             try (MockedStatic<JwtTokenUtil> jwtMock = mockStatic(JwtTokenUtil.class)) {
-                jwtMock.when(() -> JwtTokenUtil.getUserIdFromToken(validToken)).thenReturn(userId);
+                jwtMock.when(() -> JwtTokenUtil.getUserIdFromRequest(request)).thenReturn(userId);
 
                 // Act
                 rateLimitFilter.doFilterInternal(request, response, filterChain);
@@ -413,7 +461,7 @@ class RateLimitFilterTest {
             when(ipBucketProxy.tryConsume(1)).thenReturn(false);
 
             try (MockedStatic<JwtTokenUtil> jwtMock = mockStatic(JwtTokenUtil.class)) {
-                jwtMock.when(() -> JwtTokenUtil.getUserIdFromToken(validToken)).thenReturn(userId);
+                jwtMock.when(() -> JwtTokenUtil.getUserIdFromRequest(request)).thenReturn(userId);
 
                 // Act
                 rateLimitFilter.doFilterInternal(request, response, filterChain);
@@ -588,7 +636,7 @@ class RateLimitFilterTest {
             when(userBucketProxy.tryConsume(1)).thenReturn(true);
 
             try (MockedStatic<JwtTokenUtil> jwtMock = mockStatic(JwtTokenUtil.class)) {
-                jwtMock.when(() -> JwtTokenUtil.getUserIdFromToken(validToken)).thenReturn(userId);
+                jwtMock.when(() -> JwtTokenUtil.getUserIdFromRequest(request)).thenReturn(userId);
 
                 // Submit concurrent tasks
                 for (int i = 0; i < threadCount; i++) {
@@ -619,14 +667,15 @@ class RateLimitFilterTest {
     class RedisFailureTests {
 
         @Test
-        void testProxyManagerBuilderThrowsException_shouldReturn500() throws Exception {
-            // Test graceful handling when Redis/ProxyManager fails
+        void testRateLimiterThrowsException_shouldNotContinueFilterChain() throws Exception {
+            // Test handling when the limiter itself fails; Redis outages are absorbed by HybridRateLimiter
 
             String clientIp = "192.168.1.202";
             when(request.getRemoteAddr()).thenReturn(clientIp);
 
-            // Simulate Redis failure
-            when(proxyManager.builder()).thenThrow(new RuntimeException("Redis connection failed"));
+            // Simulate limiter failure
+            when(rateLimiter.tryAcquire(anyString(), any(BucketConfiguration.class)))
+                    .thenThrow(new RuntimeException("Redis connection failed"));
 
             // Act & Assert - filter should propagate exception (or handle gracefully depending on requirements)
             try {
@@ -0,0 +1,141 @@
+package com.abel.ecommerce.filter;
+
+import com.abel.ecommerce.constant.RedisKeyConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RouteRateLimitRegistry
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RouteRateLimitRegistry Unit Tests")
+class RouteRateLimitRegistryTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    private RouteRateLimitRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("rate-limit.routes.seckill-user.method", "POST")
+                .withProperty("rate-limit.routes.seckill-user.pattern", "/api/seckill/{productId}")
+                .withProperty("rate-limit.routes.seckill-user.scope", "user")
+                .withProperty("rate-limit.routes.seckill-user.capacity", "10")
+                .withProperty("rate-limit.routes.seckill-product.method", "POST")
+                .withProperty("rate-limit.routes.seckill-product.pattern", "/api/seckill/{productId}")
+                .withProperty("rate-limit.routes.seckill-product.scope", "path:productId")
+                .withProperty("rate-limit.routes.seckill-product.capacity", "500");
+        registry = new RouteRateLimitRegistry(environment, redisTemplate, listenerContainer, new ObjectMapper());
+        lenient().when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+
+    @Test
+    @DisplayName("Should resolve per-user and per-product buckets for a seckill POST")
+    void resolve_SeckillPost() {
+        when(hashOperations.entries(RedisKeyConstants.RATE_LIMIT_ROUTES_KEY)).thenReturn(Collections.emptyMap());
+        registry.init();
+
+        List<RouteRateLimitRegistry.RouteLimit> limits = registry.resolve(request("POST", "/api/seckill/7"), "10.0.0.1", 42L);
+
+        assertThat(limits).extracting(RouteRateLimitRegistry.RouteLimit::bucketKey).containsExactlyInAnyOrder(
+                "rate_limit:route:seckill-user:10/1000:42",
+                "rate_limit:route:seckill-product:500/1000:7");
+        assertThat(limits).allSatisfy(limit -> assertThat(limit.config().getBandwidths()).hasSize(1));
+    }
+
+    @Test
+    @DisplayName("Should not match browsing requests")
+    void resolve_OtherRoutes() {
+        when(hashOperations.entries(RedisKeyConstants.RATE_LIMIT_ROUTES_KEY)).thenReturn(Collections.emptyMap());
+        registry.init();
+
+        assertThat(registry.resolve(request("GET", "/api/products/7"), "10.0.0.1", 42L)).isEmpty();
+        assertThat(registry.resolve(request("GET", "/api/seckill/7"), "10.0.0.1", 42L)).isEmpty();
+        assertThat(registry.resolve(request("POST", "/api/seckill/enable/7"), "10.0.0.1", 42L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should skip per-user rules for anonymous requests")
+    void resolve_Anonymous() {
+        when(hashOperations.entries(RedisKeyConstants.RATE_LIMIT_ROUTES_KEY)).thenReturn(Collections.emptyMap());
+        registry.init();
+
+        assertThat(registry.resolve(request("POST", "/api/seckill/7"), "10.0.0.1", null))
+                .extracting(RouteRateLimitRegistry.RouteLimit::ruleName)
+                .containsExactly("seckill-product");
+    }
+
+    @Test
+    @DisplayName("Should apply rules from Redis on reload without a restart")
+    void onMessage_ReloadsRedisRules() {
+        when(hashOperations.entries(RedisKeyConstants.RATE_LIMIT_ROUTES_KEY))
+                .thenReturn(Collections.emptyMap())
+                .thenReturn(Map.of(
+                        "seckill-user", "{\"enabled\":false}",
+                        "orders-ip", "{\"method\":\"POST\",\"pattern\":\"/api/orders\",\"scope\":\"ip\",\"capacity\":20,\"periodMillis\":60000}"));
+        registry.init();
+
+        registry.onMessage(new DefaultMessage(RedisKeyConstants.RATE_LIMIT_ROUTES_CHANNEL.getBytes(), new byte[0]), null);
+
+        assertThat(registry.resolve(request("POST", "/api/seckill/7"), "10.0.0.1", 42L))
+                .extracting(RouteRateLimitRegistry.RouteLimit::ruleName)
+                .containsExactly("seckill-product");
+        assertThat(registry.resolve(request("POST", "/api/orders"), "10.0.0.1", 42L))
+                .extracting(RouteRateLimitRegistry.RouteLimit::bucketKey)
+                .containsExactly("rate_limit:route:orders-ip:20/60000:10.0.0.1");
+    }
+
+    @Test
+    @DisplayName("Should ignore invalid rules and keep the valid ones")
+    void reload_InvalidRule() {
+        when(hashOperations.entries(RedisKeyConstants.RATE_LIMIT_ROUTES_KEY)).thenReturn(Map.of(
+                "broken", "{\"pattern\":\"/api/cart\",\"scope\":\"session\",\"capacity\":5}"));
+        registry.init();
+
+        assertThat(registry.resolve(request("POST", "/api/seckill/7"), "10.0.0.1", 42L)).hasSize(2);
+        assertThat(registry.resolve(request("GET", "/api/cart"), "10.0.0.1", 42L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep the current rules when Redis fails during a reload")
+    void reload_RedisDown() {
+        when(hashOperations.entries(RedisKeyConstants.RATE_LIMIT_ROUTES_KEY)).thenReturn(Map.of(
+                "orders-ip", "{\"pattern\":\"/api/orders\",\"scope\":\"ip\",\"capacity\":20}"));
+        registry.init();
+        when(hashOperations.entries(RedisKeyConstants.RATE_LIMIT_ROUTES_KEY)).thenThrow(new RuntimeException("connection refused"));
+
+        registry.reload();
+
+        assertThat(registry.resolve(request("GET", "/api/orders"), "10.0.0.1", 42L)).hasSize(1);
+    }
+}
@@ -0,0 +1,126 @@
+package com.abel.ecommerce.init;
+
+import com.abel.ecommerce.entity.Product;
+import com.abel.ecommerce.repository.ProductRepository;
+import com.abel.ecommerce.service.ProductCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProductCacheWarmer
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductCacheWarmer Unit Tests")
+class ProductCacheWarmerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCacheService productCacheService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProductCacheWarmer warmer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        warmer = new ProductCacheWarmer(productRepository, productCacheService, meterRegistry, true, 2);
+    }
+
+    private static List<Product> products(long... ids) {
+        return LongStream.of(ids).mapToObj(id -> {
+            Product product = new Product();
+            product.setId(id);
+            return product;
+        }).toList();
+    }
+
+    @Test
+    @DisplayName("Should stream products in id order one chunk at a time")
+    void testWarmUp_KeysetChunks() {
+        when(productRepository.count()).thenReturn(5L);
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2))).thenReturn(products(1, 2));
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(2L, PageRequest.of(0, 2))).thenReturn(products(4, 7));
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(7L, PageRequest.of(0, 2))).thenReturn(products(9));
+
+        warmer.warmUp();
+
+        verify(productCacheService).warmRemote(products(1, 2));
+        verify(productCacheService).warmRemote(products(4, 7));
+        verify(productCacheService).warmRemote(products(9));
+        verify(productRepository, never()).findAll();
+        assertThat(meterRegistry.get("product.cache.warmup.products").counter().count()).isEqualTo(5.0);
+        assertThat(meterRegistry.get("product.cache.warmup.progress").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("product.cache.warmup.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should stop after a full last chunk when the next one is empty")
+    void testWarmUp_ExactMultipleOfChunkSize() {
+        when(productRepository.count()).thenReturn(2L);
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2))).thenReturn(products(1, 2));
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(2L, PageRequest.of(0, 2))).thenReturn(List.of());
+
+        warmer.warmUp();
+
+        verify(productCacheService, times(1)).warmRemote(anyList());
+        assertThat(warmer.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    @DisplayName("Should report out of service until the warm-up has finished")
+    void testHealth_GatesReadiness() {
+        assertThat(warmer.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        when(productRepository.count()).thenReturn(0L);
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any())).thenReturn(List.of());
+        warmer.warmUp();
+
+        assertThat(warmer.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(warmer.health().getDetails()).containsEntry("state", "COMPLETED");
+    }
+
+    @Test
+    @DisplayName("Should become ready with a cold cache when Redis fails")
+    void testWarmUp_RedisFailure() {
+        when(productRepository.count()).thenReturn(4L);
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2))).thenReturn(products(1, 2));
+        doThrow(new RedisConnectionFailureException("connection refused"))
+                .when(productCacheService).warmRemote(anyList());
+
+        warmer.warmUp();
+
+        assertThat(warmer.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(warmer.health().getDetails()).containsEntry("state", "FAILED").containsEntry("warmed", 0L);
+        verify(productRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should be ready immediately when disabled")
+    void testDisabled() {
+        ProductCacheWarmer disabled = new ProductCacheWarmer(productRepository, productCacheService,
+                new SimpleMeterRegistry(), false, 2);
+
+        disabled.onApplicationReady();
+
+        assertThat(disabled.health().getStatus()).isEqualTo(Status.UP);
+        verifyNoInteractions(productRepository, productCacheService);
+    }
+}
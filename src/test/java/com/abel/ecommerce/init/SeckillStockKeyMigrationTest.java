@@ -0,0 +1,87 @@
+package com.abel.ecommerce.init;
+
+import com.abel.ecommerce.constant.RedisKeyConstants;
+import com.abel.ecommerce.service.StockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SeckillStockKeyMigration
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SeckillStockKeyMigration Unit Tests")
+class SeckillStockKeyMigrationTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private StockService stockService;
+
+    @Mock
+    private Cursor<String> cursor;
+
+    private SeckillStockKeyMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        migration = new SeckillStockKeyMigration(stringRedisTemplate, stockService, true);
+        lenient().when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    private void mockScan(String... keys) {
+        Iterator<String> iterator = List.of(keys).iterator();
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        lenient().when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        when(stringRedisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+    }
+
+    @Test
+    @DisplayName("Should split legacy stock keys into segments and leave segmented keys alone")
+    void testMigrate_SplitsLegacyKeys() {
+        mockScan("product:stock:7", RedisKeyConstants.getProductStockKey(8L, 0), "product:stock:9");
+        when(valueOperations.getAndDelete("product:stock:7")).thenReturn("10");
+        when(valueOperations.getAndDelete("product:stock:9")).thenReturn("3");
+        when(stringRedisTemplate.countExistingKeys(anyCollection())).thenReturn(0L);
+
+        int migrated = migration.migrate();
+
+        assertThat(migrated).isEqualTo(2);
+        verify(stockService).preloadSeckillStock(Map.of(7L, 10, 9L, 3));
+        verify(valueOperations, never()).getAndDelete(RedisKeyConstants.getProductStockKey(8L, 0));
+        verify(cursor).close();
+    }
+
+    @Test
+    @DisplayName("Should skip keys claimed by another node and products already segmented")
+    void testMigrate_SkipsClaimedAndSegmented() {
+        mockScan("product:stock:7", "product:stock:9");
+        when(valueOperations.getAndDelete("product:stock:7")).thenReturn(null);
+        when(valueOperations.getAndDelete("product:stock:9")).thenReturn("3");
+        when(stringRedisTemplate.countExistingKeys(anyCollection())).thenReturn(4L);
+
+        int migrated = migration.migrate();
+
+        assertThat(migrated).isZero();
+        verify(stockService).preloadSeckillStock(Map.of());
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -106,6 +107,18 @@ class AddressRepositoryTest {
         assertThat(defaultAddress.get().isDefaultAddress()).isTrue();
     }
 
+    @Test
+    @DisplayName("Should find default addresses of several users in one query")
+    void findByUserIdInAndIsDefault() {
+        List<Address> defaults = addressRepository.findByUserIdInAndIsDefault(
+                Arrays.asList(testUserId1, testUserId2, 999L),
+                Address.DEFAULT_ADDRESS
+        );
+
+        assertThat(defaults).hasSize(2);
+        assertThat(defaults).extracting(Address::getUserId).containsExactlyInAnyOrder(testUserId1, testUserId2);
+    }
+
     @Test
     @DisplayName("Should return empty when user has no default address")
     void findByUserIdAndIsDefault_NoDefault() {
@@ -179,6 +179,20 @@ class CartItemRepositoryTest {
         assertThat(remainingItems.get(0).getProductId()).isEqualTo(productId3);
     }
 
+    @Test
+    @DisplayName("Should delete only the given user's cart items by ID")
+    void deleteByUserIdAndIdIn() {
+        // cartItem4 belongs to user 2 and must survive
+        int deleted = cartItemRepository.deleteByUserIdAndIdIn(testUserId1,
+                Arrays.asList(cartItem1.getId(), cartItem3.getId(), cartItem4.getId()));
+
+        List<CartItem> remainingItems = cartItemRepository.findByUserId(testUserId1);
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(remainingItems).extracting(CartItem::getProductId).containsExactly(productId2);
+        assertThat(cartItemRepository.countByUserId(testUserId2)).isEqualTo(1);
+    }
+
     @Test
     @DisplayName("Should count cart items by user")
     void countByUserId() {
@@ -1,6 +1,7 @@
 package com.abel.ecommerce.repository;
 
 import com.abel.ecommerce.entity.Product;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
@@ -38,6 +40,9 @@ class ProductRepositoryTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private Product testProduct1;
     private Product testProduct2;
     private Product testProduct3;
@@ -263,6 +268,102 @@ class ProductRepositoryTest {
         assertThat(result.getName()).isEqualTo("Laptop");
     }
 
+    @Test
+    @DisplayName("Should apply stock and sales deltas in one update")
+    void applyStockDelta() {
+        // Act
+        int updated = productRepository.applyStockDelta(testProduct1.getId(), -3, 3);
+        entityManager.clear();
+
+        // Assert
+        Product result = productRepository.findById(testProduct1.getId()).orElseThrow();
+        assertThat(updated).isEqualTo(1);
+        assertThat(result.getStock()).isEqualTo(47);
+        assertThat(result.getSales()).isEqualTo(13);
+    }
+
+    @Test
+    @DisplayName("Should refuse a delta that would take stock below zero")
+    void applyStockDelta_WouldOversell() {
+        // Act
+        int updated = productRepository.applyStockDelta(testProduct1.getId(), -51, 51);
+        entityManager.clear();
+
+        // Assert
+        Product result = productRepository.findById(testProduct1.getId()).orElseThrow();
+        assertThat(updated).isEqualTo(0);
+        assertThat(result.getStock()).isEqualTo(50);
+        assertThat(result.getSales()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should load and lock several products in id order")
+    void findAllByIdForUpdate() {
+        // Act
+        List<Product> result = productRepository.findAllByIdForUpdate(List.of(testProduct2.getId(), testProduct1.getId()));
+
+        // Assert
+        assertThat(result).extracting(Product::getId).containsExactly(testProduct1.getId(), testProduct2.getId());
+    }
+
+    @Test
+    @DisplayName("Should reserve stock only when enough is left")
+    void reserveStock() {
+        // Act
+        int reserved = productRepository.reserveStock(testProduct1.getId(), 50);
+        int rejected = productRepository.reserveStock(testProduct1.getId(), 1);
+        entityManager.clear();
+
+        // Assert
+        Product result = productRepository.findById(testProduct1.getId()).orElseThrow();
+        assertThat(reserved).isEqualTo(1);
+        assertThat(rejected).isEqualTo(0);
+        assertThat(result.getStock()).isEqualTo(0);
+        assertThat(result.getSales()).isEqualTo(60);
+    }
+
+    @Test
+    @DisplayName("Should walk products by keyset cursor, breaking createdAt ties by id")
+    void findByStatus_KeysetPagination() {
+        // Arrange - same createdAt for every row, so only the id orders them
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        entityManager.createQuery("UPDATE Product p SET p.createdAt = :createdAt")
+                .setParameter("createdAt", createdAt)
+                .executeUpdate();
+        entityManager.clear();
+
+        // Act
+        Slice<Product> first = productRepository.findByStatusOrderByCreatedAtDescIdDesc(Product.ACTIVE_PRODUCT, PageRequest.ofSize(1));
+        Product last = first.getContent().get(0);
+        Slice<Product> second = productRepository.findByStatusBeforeCursor(Product.ACTIVE_PRODUCT,
+                last.getCreatedAt(), last.getId(), PageRequest.ofSize(1));
+
+        // Assert
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getId()).isEqualTo(testProduct2.getId());
+        assertThat(second.getContent()).extracting(Product::getId).containsExactly(testProduct1.getId());
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should walk products of one category by keyset cursor")
+    void findByCategoryIdAndStatus_KeysetPagination() {
+        // Arrange - read createdAt back as stored, the managed entities still hold nanoseconds the column drops
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        Slice<Product> first = productRepository.findByCategoryIdAndStatusOrderByCreatedAtDescIdDesc(1L, Product.ACTIVE_PRODUCT, PageRequest.ofSize(5));
+        Product last = first.getContent().get(first.getNumberOfElements() - 1);
+        Slice<Product> second = productRepository.findByCategoryIdAndStatusBeforeCursor(1L, Product.ACTIVE_PRODUCT,
+                last.getCreatedAt(), last.getId(), PageRequest.ofSize(5));
+
+        // Assert
+        assertThat(first.getContent()).extracting(Product::getName).containsExactlyInAnyOrder("Laptop", "Mouse");
+        assertThat(first.hasNext()).isFalse();
+        assertThat(second.getContent()).isEmpty();
+    }
+
     // ========== EDGE CASES ==========
 
     @Test
@@ -0,0 +1,163 @@
+package com.abel.ecommerce.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that every query declared in the repository package is served by an index.
+ *
+ * Each declared repository method is called once with placeholder arguments while H2 records the
+ * SQL Hibernate sends. Every recorded statement is then EXPLAINed and the test fails if H2 plans
+ * a full table scan for it. New finders therefore need a matching @Index on the entity, or an
+ * entry in ALLOWED_SCANS explaining why a scan is acceptable.
+ */
+@DataJpaTest
+@DisplayName("Repository query plan index coverage")
+@org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase(replace = org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanIndexTest {
+
+    private static final String REPOSITORY_PACKAGE = "com.abel.ecommerce.repository";
+
+    // Repository.method -> why a full scan is acceptable there
+    private static final Map<String, String> ALLOWED_SCANS = Map.of(
+            "ProductRepository.findByNameContaining", "LIKE '%name%' cannot use a B-tree index",
+            "SeckillMessageRepository.findFailedMessages", "ops query, OR across status and retry_count/max_retry",
+            "RoleRepository.findByStatus", "roles only holds a handful of rows"
+    );
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should not plan a full table scan for any repository query")
+    void allRepositoryQueriesUseAnIndex() throws Exception {
+        List<String> fullScans = new ArrayList<>();
+        int checkedStatements = 0;
+
+        for (Object repository : applicationContext.getBeansOfType(Repository.class).values()) {
+            Class<?> repositoryInterface = findRepositoryInterface(repository);
+            if (repositoryInterface == null) {
+                continue;
+            }
+
+            Method[] methods = repositoryInterface.getDeclaredMethods();
+            Arrays.sort(methods, Comparator.comparing(Method::getName));
+            for (Method method : methods) {
+                String name = repositoryInterface.getSimpleName() + "." + method.getName();
+
+                // 1. Run the query with H2 recording the statements it sends
+                List<String> statements = recordStatements(repository, method);
+
+                // 2. EXPLAIN each recorded statement and look for table scans
+                for (String sql : statements) {
+                    checkedStatements++;
+                    String plan = explain(sql);
+                    if (plan.contains("tableScan") && !ALLOWED_SCANS.containsKey(name)) {
+                        fullScans.add(name + "\n    " + plan.replace("\n", "\n    "));
+                    }
+                }
+            }
+        }
+
+        assertThat(checkedStatements).isGreaterThan(0);
+        assertThat(fullScans)
+                .withFailMessage("Full table scans found, add an @Index or an ALLOWED_SCANS entry:%n%s",
+                        String.join("\n", fullScans))
+                .isEmpty();
+    }
+
+    private List<String> recordStatements(Object repository, Method method) throws Exception {
+        // Turning statistics off and on again clears what was recorded so far
+        jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+        jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+
+        method.invoke(repository, placeholderArguments(method));
+
+        return jdbcTemplate.queryForList("SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS", String.class)
+                .stream()
+                .filter(sql -> {
+                    String lower = sql.trim().toLowerCase(Locale.ROOT);
+                    return (lower.startsWith("select") || lower.startsWith("update") || lower.startsWith("delete"))
+                            && !lower.contains("information_schema");
+                })
+                .toList();
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatement statement) -> {
+            int parameterCount = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameterCount; i++) {
+                statement.setNull(i, Types.NULL);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1));
+                }
+            }
+            return plan.toString();
+        });
+    }
+
+    private static Class<?> findRepositoryInterface(Object repository) {
+        for (Class<?> candidate : repository.getClass().getInterfaces()) {
+            if (candidate.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static Object[] placeholderArguments(Method method) {
+        Type[] types = method.getGenericParameterTypes();
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            arguments[i] = placeholder(types[i]);
+        }
+        return arguments;
+    }
+
+    private static Object placeholder(Type type) {
+        if (type instanceof ParameterizedType parameterized
+                && Collection.class.isAssignableFrom((Class<?>) parameterized.getRawType())) {
+            return List.of(placeholder(parameterized.getActualTypeArguments()[0]));
+        }
+
+        Class<?> raw = (Class<?>) type;
+        if (raw == Long.class || raw == long.class) return 1L;
+        if (raw == Integer.class || raw == int.class) return 1;
+        if (raw == String.class) return "placeholder";
+        if (raw == LocalDateTime.class) return LocalDateTime.now();
+        if (raw == BigDecimal.class) return BigDecimal.ONE;
+        if (Pageable.class.isAssignableFrom(raw)) return PageRequest.of(0, 10);
+        throw new IllegalArgumentException("No placeholder for parameter type " + type);
+    }
+}
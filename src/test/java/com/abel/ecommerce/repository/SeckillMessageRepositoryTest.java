@@ -0,0 +1,118 @@
+package com.abel.ecommerce.repository;
+
+import com.abel.ecommerce.entity.SeckillMessage;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for SeckillMessageRepository
+ *
+ * Tests the outbox relay queries: batch claiming and bulk status updates
+ */
+@DataJpaTest
+@DisplayName("SeckillMessageRepository Integration Tests")
+@org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase(replace = org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE)
+class SeckillMessageRepositoryTest {
+
+    @Autowired
+    private SeckillMessageRepository seckillMessageRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private SeckillMessage pending1;
+    private SeckillMessage pending2;
+    private SeckillMessage notDueYet;
+    private SeckillMessage sent;
+
+    @BeforeEach
+    void setUp() {
+        seckillMessageRepository.deleteAll();
+
+        pending1 = seckillMessageRepository.save(createMessage("ORD001", SeckillMessage.STATUS_PENDING, null));
+        pending2 = seckillMessageRepository.save(createMessage("ORD002", SeckillMessage.STATUS_PENDING, LocalDateTime.now().minusSeconds(5)));
+        notDueYet = seckillMessageRepository.save(createMessage("ORD003", SeckillMessage.STATUS_PENDING, LocalDateTime.now().plusMinutes(5)));
+        sent = seckillMessageRepository.save(createMessage("ORD004", SeckillMessage.STATUS_SENT, null));
+        entityManager.flush();
+    }
+
+    private SeckillMessage createMessage(String orderNo, Integer status, LocalDateTime nextRetryTime) {
+        SeckillMessage message = new SeckillMessage();
+        message.setOrderNo(orderNo);
+        message.setUserId(1L);
+        message.setProductId(100L);
+        message.setExchange("seckill.exchange");
+        message.setRoutingKey("seckill.order");
+        message.setMessageContent("{}");
+        message.setStatus(status);
+        message.setNextRetryTime(nextRetryTime);
+        return message;
+    }
+
+    @Test
+    @DisplayName("Should claim only due pending messages, oldest first, up to the limit")
+    void testClaimPendingMessages() {
+        List<SeckillMessage> claimed = seckillMessageRepository.claimPendingMessages(LocalDateTime.now(), 10);
+
+        assertThat(claimed).extracting(SeckillMessage::getOrderNo).containsExactly("ORD001", "ORD002");
+
+        List<SeckillMessage> limited = seckillMessageRepository.claimPendingMessages(LocalDateTime.now(), 1);
+        assertThat(limited).extracting(SeckillMessage::getOrderNo).containsExactly("ORD001");
+    }
+
+    @Test
+    @DisplayName("Should mark a batch as sent in one update")
+    void testMarkSent() {
+        int updated = seckillMessageRepository.markSent(Arrays.asList(pending1.getId(), pending2.getId()), LocalDateTime.now());
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(2);
+        assertThat(seckillMessageRepository.findById(pending1.getId()).orElseThrow().getStatus()).isEqualTo(SeckillMessage.STATUS_SENT);
+        assertThat(seckillMessageRepository.findById(pending2.getId()).orElseThrow().getStatus()).isEqualTo(SeckillMessage.STATUS_SENT);
+        assertThat(seckillMessageRepository.findById(notDueYet.getId()).orElseThrow().getStatus()).isEqualTo(SeckillMessage.STATUS_PENDING);
+    }
+
+    @Test
+    @DisplayName("Should schedule retry and fail messages that ran out of retries")
+    void testMarkForRetry() {
+        pending2.setRetryCount(pending2.getMaxRetry() - 1);
+        seckillMessageRepository.saveAndFlush(pending2);
+        LocalDateTime nextRetryTime = LocalDateTime.now().plusSeconds(30);
+
+        seckillMessageRepository.markForRetry(Arrays.asList(pending1.getId(), pending2.getId()), nextRetryTime, LocalDateTime.now());
+        entityManager.clear();
+
+        SeckillMessage retried = seckillMessageRepository.findById(pending1.getId()).orElseThrow();
+        assertThat(retried.getStatus()).isEqualTo(SeckillMessage.STATUS_PENDING);
+        assertThat(retried.getRetryCount()).isEqualTo(1);
+        assertThat(retried.getNextRetryTime()).isNotNull();
+
+        SeckillMessage exhausted = seckillMessageRepository.findById(pending2.getId()).orElseThrow();
+        assertThat(exhausted.getStatus()).isEqualTo(SeckillMessage.STATUS_FAILED);
+        assertThat(exhausted.getRetryCount()).isEqualTo(exhausted.getMaxRetry());
+
+        assertThat(seckillMessageRepository.findById(sent.getId()).orElseThrow().getRetryCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should find messages without an order and leave out the excluded status")
+    void testFindWithoutOrder() {
+        seckillMessageRepository.updateStatus(pending2.getId(), SeckillMessage.STATUS_FAILED);
+        entityManager.clear();
+
+        List<SeckillMessage> inFlight = seckillMessageRepository.findWithoutOrder(
+                List.of(100L), LocalDateTime.now().minusHours(1), SeckillMessage.STATUS_FAILED);
+
+        assertThat(inFlight).extracting(SeckillMessage::getOrderNo).containsExactlyInAnyOrder("ORD001", "ORD003", "ORD004");
+    }
+}
@@ -0,0 +1,100 @@
+package com.abel.ecommerce.repository;
+
+import com.abel.ecommerce.entity.StockLedger;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for StockLedgerRepository
+ *
+ * Tests claiming pending ledger entries and bulk status updates
+ */
+@DataJpaTest
+@DisplayName("StockLedgerRepository Integration Tests")
+@org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase(replace = org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE)
+class StockLedgerRepositoryTest {
+
+    @Autowired
+    private StockLedgerRepository stockLedgerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private StockLedger sale1;
+    private StockLedger sale2;
+    private StockLedger applied;
+
+    @BeforeEach
+    void setUp() {
+        stockLedgerRepository.deleteAll();
+
+        sale1 = stockLedgerRepository.save(createEntry(100L, -1, 1, StockLedger.STATUS_PENDING));
+        sale2 = stockLedgerRepository.save(createEntry(200L, -2, 2, StockLedger.STATUS_PENDING));
+        applied = stockLedgerRepository.save(createEntry(100L, 5, -5, StockLedger.STATUS_APPLIED));
+        entityManager.flush();
+    }
+
+    private StockLedger createEntry(Long productId, int stockDelta, int salesDelta, Integer status) {
+        StockLedger entry = new StockLedger();
+        entry.setProductId(productId);
+        entry.setStockDelta(stockDelta);
+        entry.setSalesDelta(salesDelta);
+        entry.setSource(StockLedger.SOURCE_SECKILL_ORDER);
+        entry.setStatus(status);
+        return entry;
+    }
+
+    @Test
+    @DisplayName("Should claim only pending entries, oldest first, up to the limit")
+    void claimPending() {
+        List<StockLedger> claimed = stockLedgerRepository.claimPending(10);
+        assertThat(claimed).extracting(StockLedger::getId).containsExactly(sale1.getId(), sale2.getId());
+
+        List<StockLedger> limited = stockLedgerRepository.claimPending(1);
+        assertThat(limited).extracting(StockLedger::getId).containsExactly(sale1.getId());
+    }
+
+    @Test
+    @DisplayName("Should mark a batch of entries as applied")
+    void markApplied() {
+        int updated = stockLedgerRepository.markApplied(List.of(sale1.getId(), sale2.getId()), LocalDateTime.now());
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(2);
+        assertThat(stockLedgerRepository.countByStatus(StockLedger.STATUS_PENDING)).isZero();
+        assertThat(stockLedgerRepository.findById(sale1.getId()).orElseThrow().getAppliedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should not claim rejected entries, so they do not hold up later ones")
+    void claimPending_SkipsRejected() {
+        stockLedgerRepository.updateStatus(List.of(sale1.getId()), StockLedger.STATUS_REJECTED);
+        entityManager.clear();
+
+        List<StockLedger> claimed = stockLedgerRepository.claimPending(1);
+
+        assertThat(claimed).extracting(StockLedger::getId).containsExactly(sale2.getId());
+        assertThat(stockLedgerRepository.countByStatus(StockLedger.STATUS_REJECTED)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should delete only applied entries older than the cutoff")
+    void deleteAppliedBefore() {
+        stockLedgerRepository.markApplied(List.of(applied.getId()), LocalDateTime.now().minusDays(10));
+
+        int deleted = stockLedgerRepository.deleteAppliedBefore(LocalDateTime.now().minusDays(7));
+        entityManager.clear();
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(stockLedgerRepository.count()).isEqualTo(2);
+    }
+}
@@ -262,6 +262,27 @@ class CartServiceImplTest {
         verify(cartItemRepository, never()).deleteById(anyLong());
     }
 
+    @Test
+    @DisplayName("Should remove checked out items with one delete")
+    void removeCheckedOutItems_Success() {
+        // Act
+        cartService.removeCheckedOutItems(testUserId, Arrays.asList(1L, 2L));
+
+        // Assert
+        verify(cartItemRepository, times(1)).deleteByUserIdAndIdIn(testUserId, Arrays.asList(1L, 2L));
+        verify(cartItemRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should skip the delete when nothing was checked out")
+    void removeCheckedOutItems_Empty() {
+        // Act
+        cartService.removeCheckedOutItems(testUserId, List.of());
+
+        // Assert
+        verifyNoInteractions(cartItemRepository);
+    }
+
     // ========== CLEAR CART TESTS ==========
 
     @Test
@@ -402,7 +423,7 @@ class CartServiceImplTest {
         when(cartItemRepository.findById(1L)).thenReturn(Optional.of(testCartItem));
 
         // Act
-        CartItem result = cartService.findCartItemById(1L);
+        CartItem result = cartService.findCartItemById(testUserId, 1L);
 
         // Assert
         assertThat(result).isNotNull();
@@ -417,10 +438,23 @@ class CartServiceImplTest {
         when(cartItemRepository.findById(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
-        assertThatThrownBy(() -> cartService.findCartItemById(999L))
+        assertThatThrownBy(() -> cartService.findCartItemById(testUserId, 999L))
                 .isInstanceOf(CartItemNotFoundException.class);
     }
 
+    @Test
+    @DisplayName("Should throw exception when cart item belongs to another user")
+    void findCartItemById_OtherUser_ThrowsException() {
+        // Arrange
+        testCartItem.setUserId(999L);
+        when(cartItemRepository.findById(1L)).thenReturn(Optional.of(testCartItem));
+
+        // Act & Assert
+        assertThatThrownBy(() -> cartService.findCartItemById(testUserId, 1L))
+                .isInstanceOf(CartItemNotFoundException.class)
+                .hasMessageContaining("does not belong to user");
+    }
+
     // ========== EDGE CASE TESTS ==========
 
     @Test
@@ -7,12 +7,14 @@ import com.abel.ecommerce.exception.OrderStatusException;
 import com.abel.ecommerce.repository.OrderItemRepository;
 import com.abel.ecommerce.repository.OrderRepository;
 import com.abel.ecommerce.service.impl.OrderServiceImpl;
+import com.abel.ecommerce.utils.SnowflakeIdGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -23,8 +25,10 @@ import org.springframework.data.redis.core.ValueOperations;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -66,6 +70,9 @@ class OrderServiceImplTest {
     @Mock
     private ValueOperations<String, String> valueOperations;
 
+    @Spy
+    private SnowflakeIdGenerator snowflakeIdGenerator = new SnowflakeIdGenerator(1L);
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -534,6 +541,37 @@ class OrderServiceImplTest {
         verify(orderItemRepository, times(1)).findByOrderId(999L);
     }
 
+    @Test
+    @DisplayName("Should load items for several orders with one query and group them by order")
+    void findOrderItemsByOrderIds_GroupsByOrder() {
+        // Arrange
+        OrderItem otherItem = new OrderItem();
+        otherItem.setId(3L);
+        otherItem.setOrderId(2L);
+        List<OrderItem> allItems = new ArrayList<>(testOrderItems);
+        allItems.add(otherItem);
+        when(orderItemRepository.findByOrderIdIn(Arrays.asList(1L, 2L, 3L))).thenReturn(allItems);
+
+        // Act
+        Map<Long, List<OrderItem>> result = orderService.findOrderItemsByOrderIds(Arrays.asList(1L, 2L, 3L));
+
+        // Assert
+        assertThat(result.get(1L)).hasSize(2);
+        assertThat(result.get(2L)).containsExactly(otherItem);
+        assertThat(result.get(3L)).isEmpty();
+
+        verify(orderItemRepository, times(1)).findByOrderIdIn(anyList());
+        verify(orderItemRepository, never()).findByOrderId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should not query when there are no orders")
+    void findOrderItemsByOrderIds_Empty() {
+        assertThat(orderService.findOrderItemsByOrderIds(List.of())).isEmpty();
+
+        verify(orderItemRepository, never()).findByOrderIdIn(anyList());
+    }
+
     @Test
     @DisplayName("Should find order items by order number")
     void findOrderItemsByOrderNo_Success() {
@@ -588,28 +626,27 @@ class OrderServiceImplTest {
 
     @Test
     @DisplayName("Should generate unique order number with correct format")
-    void generateOrderNo_ReturnsUniqueFormat() throws InterruptedException {
-        // Act - generate multiple order numbers
+    void generateOrderNo_ReturnsUniqueFormat() {
+        // Act - generate many order numbers for the same user within the same millisecond(s)
         List<String> orderNumbers = new java.util.ArrayList<>();
-        for (int i = 0; i < 5; i++) {
-            String orderNo = orderService.generateOrderNo(1L);
-            orderNumbers.add(orderNo);
-            Thread.sleep(10); // Small delay to ensure timestamp difference
+        for (int i = 0; i < 1000; i++) {
+            orderNumbers.add(orderService.generateOrderNo(1L));
         }
 
         // Assert - check each order number
         for (String orderNo : orderNumbers) {
             assertThat(orderNo).isNotNull();
-            assertThat(orderNo).hasSize(21);
-            assertThat(orderNo).matches("\\d{21}"); // All digits
+            assertThat(orderNo).hasSize(23);
+            assertThat(orderNo).matches("\\d{23}"); // All digits
 
-            // Extract and verify user suffix (characters 14-17)
-            String userSuffix = orderNo.substring(14, 18);
+            // Extract and verify user suffix (last 4 characters)
+            String userSuffix = orderNo.substring(19);
             assertThat(userSuffix).isEqualTo("0001"); // userId 1 % 10000 = 1, formatted as "0001"
         }
 
-        // Assert uniqueness - all order numbers should be different
+        // Assert uniqueness and creation order - all order numbers are different and increasing
         assertThat(orderNumbers).doesNotHaveDuplicates();
+        assertThat(orderNumbers).isSorted();
     }
 
     @Test
@@ -621,13 +658,13 @@ class OrderServiceImplTest {
 
         // Assert - both order numbers are valid
         assertThat(orderNo1).isNotNull();
-        assertThat(orderNo1).hasSize(21);
+        assertThat(orderNo1).hasSize(23);
         assertThat(orderNo2).isNotNull();
-        assertThat(orderNo2).hasSize(21);
+        assertThat(orderNo2).hasSize(23);
 
-        // Extract user suffixes (characters 14-17)
-        String userSuffix1 = orderNo1.substring(14, 18);
-        String userSuffix2 = orderNo2.substring(14, 18);
+        // Extract user suffixes (last 4 characters)
+        String userSuffix1 = orderNo1.substring(19);
+        String userSuffix2 = orderNo2.substring(19);
 
         // Assert - verify expected suffixes
         assertThat(userSuffix1).isEqualTo("0001"); // 1 % 10000 = 1 -> "0001"
@@ -0,0 +1,184 @@
+package com.abel.ecommerce.service;
+
+import com.abel.ecommerce.constant.RedisKeyConstants;
+import com.abel.ecommerce.entity.Product;
+import com.abel.ecommerce.exception.ProductNotFoundException;
+import com.abel.ecommerce.repository.ProductRepository;
+import com.abel.ecommerce.service.impl.ProductCacheServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProductCacheServiceImpl (Caffeine L1 + Redis L2)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductCacheService Unit Tests")
+class ProductCacheServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private RedisTemplate<String, Object> objectRedisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    private ProductCacheServiceImpl productCacheService;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        // Built by hand: the cache sizes come from @Value constructor arguments
+        productCacheService = new ProductCacheServiceImpl(productRepository, stringRedisTemplate, objectRedisTemplate,
+                listenerContainer, 100, 30, 5);
+        lenient().when(objectRedisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        product = new Product();
+        product.setId(1L);
+        product.setName("Test Product");
+        product.setStock(10);
+    }
+
+    @Test
+    @DisplayName("Should load from the database once and serve later reads from L1")
+    void testGetProduct_LoadsOnceThenHitsLocal() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        Product first = productCacheService.getProduct(1L);
+        Product second = productCacheService.getProduct(1L);
+
+        assertThat(first.getName()).isEqualTo("Test Product");
+        assertThat(second.getName()).isEqualTo("Test Product");
+        verify(productRepository, times(1)).findById(1L);
+        verify(valueOperations, times(1)).get(RedisKeyConstants.getProductInfoKey(1L));
+        verify(valueOperations).set(RedisKeyConstants.getProductInfoKey(1L), product, 60, TimeUnit.MINUTES);
+    }
+
+    @Test
+    @DisplayName("Should serve from L2 without touching the database")
+    void testGetProduct_RedisHit() {
+        when(valueOperations.get(RedisKeyConstants.getProductInfoKey(1L))).thenReturn(product);
+
+        Product result = productCacheService.getProduct(1L);
+
+        assertThat(result.getId()).isEqualTo(1L);
+        verify(productRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the database when Redis fails")
+    void testGetProduct_RedisDown() {
+        when(valueOperations.get(anyString())).thenThrow(new RuntimeException("connection refused"));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        assertThat(productCacheService.getProduct(1L).getId()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should return copies so callers cannot change the cached entry")
+    void testGetProduct_ReturnsCopy() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        productCacheService.getProduct(1L).setStock(0);
+
+        assertThat(productCacheService.getProduct(1L).getStock()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should cache missing products so repeated misses skip the database")
+    void testGetProduct_NegativeCaching() {
+        when(productRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> productCacheService.getProduct(999L)).isInstanceOf(ProductNotFoundException.class);
+        assertThatThrownBy(() -> productCacheService.getProduct(999L)).isInstanceOf(ProductNotFoundException.class);
+
+        verify(productRepository, times(1)).findById(999L);
+        verify(valueOperations, never()).set(anyString(), any(), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    @DisplayName("Should resolve a batch with one MGET and one query for the Redis misses")
+    @SuppressWarnings("unchecked")
+    void testGetProducts_Batch() {
+        Product product2 = new Product();
+        product2.setId(2L);
+        product2.setName("Product 2");
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList(product, null, null));
+        when(productRepository.findAllById(anyList())).thenReturn(List.of(product2));
+
+        Map<Long, Product> result = productCacheService.getProducts(Arrays.asList(1L, 2L, 999L));
+
+        assertThat(result).containsOnlyKeys(1L, 2L);
+        ArgumentCaptor<List<Long>> misses = ArgumentCaptor.forClass(List.class);
+        verify(productRepository).findAllById(misses.capture());
+        assertThat(misses.getValue()).containsExactlyInAnyOrder(2L, 999L);
+        verify(objectRedisTemplate).executePipelined(any(SessionCallback.class));
+
+        // Everything, including the missing ID, is now in L1
+        productCacheService.getProducts(Arrays.asList(1L, 2L, 999L));
+        assertThatThrownBy(() -> productCacheService.getProduct(999L)).isInstanceOf(ProductNotFoundException.class);
+        verify(valueOperations, times(1)).multiGet(anyList());
+        verify(productRepository, times(1)).findAllById(anyList());
+        verify(productRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should drop both levels and broadcast on evict")
+    void testEvictProduct() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        productCacheService.getProduct(1L);
+
+        productCacheService.evictProduct(1L);
+        productCacheService.getProduct(1L);
+
+        verify(objectRedisTemplate).delete(RedisKeyConstants.getProductInfoKey(1L));
+        verify(stringRedisTemplate).convertAndSend(RedisKeyConstants.PRODUCT_INVALIDATE_CHANNEL, "1");
+        verify(productRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should drop the local entry on invalidation from another node")
+    void testOnMessage() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        productCacheService.getProduct(1L);
+
+        productCacheService.onMessage(new DefaultMessage(
+                RedisKeyConstants.PRODUCT_INVALIDATE_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "1".getBytes(StandardCharsets.UTF_8)), null);
+        productCacheService.getProduct(1L);
+
+        verify(productRepository, times(2)).findById(1L);
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+}
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -56,6 +57,9 @@ class ProductServiceImplTest {
     @Mock
     private RedisTemplate<String, Object> objectRedisTemplate;
 
+    @Mock
+    private ProductCacheService productCacheService;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -135,7 +139,7 @@ class ProductServiceImplTest {
     @DisplayName("Should find product by ID successfully")
     void findProductById_Success() {
         // Arrange
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productCacheService.getProduct(1L)).thenReturn(testProduct);
 
         // Act
         Product result = productService.findProductById(1L);
@@ -145,21 +149,22 @@ class ProductServiceImplTest {
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getName()).isEqualTo("Test Product");
 
-        verify(productRepository, times(1)).findById(1L);
+        verify(productCacheService, times(1)).getProduct(1L);
+        verify(productRepository, never()).findById(anyLong());
     }
 
     @Test
     @DisplayName("Should throw ProductNotFoundException when product not found")
     void findProductById_NotFound_ThrowsException() {
         // Arrange
-        when(productRepository.findById(999L)).thenReturn(Optional.empty());
+        when(productCacheService.getProduct(999L)).thenThrow(new ProductNotFoundException(999L, "ID"));
 
         // Act & Assert - Use assertThatThrownBy for exception testing
         assertThatThrownBy(() -> productService.findProductById(999L))
                 .isInstanceOf(ProductNotFoundException.class)
                 .hasMessageContaining("999");
 
-        verify(productRepository, times(1)).findById(999L);
+        verify(productCacheService, times(1)).getProduct(999L);
     }
 
     // ========== UPDATE PRODUCT TESTS ==========
@@ -335,19 +340,17 @@ class ProductServiceImplTest {
         cartItem.setProductId(1L);
         cartItem.setQuantity(10);
 
-        when(productRepository.findByIdForUpdate(1L)).thenReturn(testProduct);
-        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        when(productRepository.reserveStock(1L, 10)).thenReturn(1);
+        when(productRepository.findAllById(anyCollection())).thenReturn(Arrays.asList(testProduct));
 
         // Act
         List<Product> result = productService.reserveProductsForOrder(Arrays.asList(cartItem));
 
         // Assert
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getStock()).isEqualTo(90); // 100 - 10
-        assertThat(result.get(0).getSales()).isEqualTo(10); // 0 + 10
-
-        verify(productRepository, times(1)).findByIdForUpdate(1L);
-        verify(productRepository, times(1)).save(any(Product.class));
+        assertThat(result).containsExactly(testProduct);
+        verify(productRepository, times(1)).reserveStock(1L, 10);
+        verify(productCacheService, times(1)).evictProduct(1L);
+        verify(productRepository, never()).save(any(Product.class));
     }
 
     @Test
@@ -358,7 +361,8 @@ class ProductServiceImplTest {
         cartItem.setProductId(1L);
         cartItem.setQuantity(150); // More than available stock (100)
 
-        when(productRepository.findByIdForUpdate(1L)).thenReturn(testProduct);
+        when(productRepository.reserveStock(1L, 150)).thenReturn(0);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
 
         // Act & Assert
         assertThatThrownBy(() -> productService.reserveProductsForOrder(Arrays.asList(cartItem)))
@@ -367,12 +371,28 @@ class ProductServiceImplTest {
                 .hasMessageContaining("100")
                 .hasMessageContaining("150");
 
-        verify(productRepository, times(1)).findByIdForUpdate(1L);
-        verify(productRepository, never()).save(any(Product.class));
+        verify(productRepository, never()).findAllById(anyCollection());
+        verify(productCacheService, never()).evictProduct(anyLong());
     }
 
     @Test
-    @DisplayName("Should reserve multiple products successfully")
+    @DisplayName("Should throw ProductNotFoundException when the product no longer exists")
+    void reserveProductsForOrder_ProductMissing_ThrowsException() {
+        // Arrange
+        CartItem cartItem = new CartItem();
+        cartItem.setProductId(999L);
+        cartItem.setQuantity(1);
+
+        when(productRepository.reserveStock(999L, 1)).thenReturn(0);
+        when(productRepository.findById(999L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> productService.reserveProductsForOrder(Arrays.asList(cartItem)))
+                .isInstanceOf(ProductNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should reserve multiple products in ascending ID order")
     void reserveProductsForOrder_MultipleProducts_Success() {
         // Arrange
         Product product2 = new Product();
@@ -381,52 +401,51 @@ class ProductServiceImplTest {
         product2.setStock(50);
         product2.setSales(0);
 
-        CartItem cartItem1 = new CartItem();
-        cartItem1.setProductId(1L);
-        cartItem1.setQuantity(10);
-
         CartItem cartItem2 = new CartItem();
         cartItem2.setProductId(2L);
         cartItem2.setQuantity(5);
 
-        when(productRepository.findByIdForUpdate(1L)).thenReturn(testProduct);
-        when(productRepository.findByIdForUpdate(2L)).thenReturn(product2);
-        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        CartItem cartItem1 = new CartItem();
+        cartItem1.setProductId(1L);
+        cartItem1.setQuantity(10);
+
+        when(productRepository.reserveStock(anyLong(), anyInt())).thenReturn(1);
+        when(productRepository.findAllById(anyCollection())).thenReturn(Arrays.asList(testProduct, product2));
 
         // Act
-        List<Product> result = productService.reserveProductsForOrder(Arrays.asList(cartItem1, cartItem2));
+        List<Product> result = productService.reserveProductsForOrder(Arrays.asList(cartItem2, cartItem1));
 
         // Assert
         assertThat(result).hasSize(2);
-        assertThat(result.get(0).getStock()).isEqualTo(90);
-        assertThat(result.get(0).getSales()).isEqualTo(10);
-        assertThat(result.get(1).getStock()).isEqualTo(45);
-        assertThat(result.get(1).getSales()).isEqualTo(5);
-
-        verify(productRepository, times(2)).findByIdForUpdate(anyLong());
-        verify(productRepository, times(2)).save(any(Product.class));
+        InOrder inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).reserveStock(1L, 10);
+        inOrder.verify(productRepository).reserveStock(2L, 5);
+        inOrder.verify(productRepository).findAllById(anyCollection());
     }
 
     // ========== EDGE CASE TESTS ==========
 
     @Test
-    @DisplayName("Should handle exact stock quantity reservation")
-    void reserveProductsForOrder_ExactStock_Success() {
+    @DisplayName("Should reserve once with the summed quantity when a product appears twice")
+    void reserveProductsForOrder_DuplicateProduct_SumsQuantity() {
         // Arrange
-        CartItem cartItem = new CartItem();
-        cartItem.setProductId(1L);
-        cartItem.setQuantity(100); // Exact stock amount
+        CartItem first = new CartItem();
+        first.setProductId(1L);
+        first.setQuantity(3);
 
-        when(productRepository.findByIdForUpdate(1L)).thenReturn(testProduct);
-        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        CartItem second = new CartItem();
+        second.setProductId(1L);
+        second.setQuantity(4);
+
+        when(productRepository.reserveStock(1L, 7)).thenReturn(1);
+        when(productRepository.findAllById(anyCollection())).thenReturn(Arrays.asList(testProduct));
 
         // Act
-        List<Product> result = productService.reserveProductsForOrder(Arrays.asList(cartItem));
+        productService.reserveProductsForOrder(Arrays.asList(first, second));
 
         // Assert
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getStock()).isEqualTo(0);
-        assertThat(result.get(0).getSales()).isEqualTo(100);
+        verify(productRepository, times(1)).reserveStock(anyLong(), anyInt());
+        verify(productRepository).reserveStock(1L, 7);
     }
 
     @Test
@@ -0,0 +1,242 @@
+package com.abel.ecommerce.service;
+
+import com.abel.ecommerce.constant.RedisKeyConstants;
+import com.abel.ecommerce.dto.request.CartItemRequest;
+import com.abel.ecommerce.entity.CartItem;
+import com.abel.ecommerce.entity.Product;
+import com.abel.ecommerce.exception.CartItemNotFoundException;
+import com.abel.ecommerce.exception.InsufficientStockException;
+import com.abel.ecommerce.repository.CartItemRepository;
+import com.abel.ecommerce.service.impl.RedisCartServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RedisCartServiceImpl (cart.store=redis)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RedisCartService Unit Tests")
+class RedisCartServiceImplTest {
+
+    private static final Long USER_ID = 1L;
+    private static final String CART_KEY = RedisKeyConstants.getCartKey(USER_ID);
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private CartItemRepository cartItemRepository;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @InjectMocks
+    private RedisCartServiceImpl cartService;
+
+    private Product testProduct;
+    private CartItemRequest request;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(stringRedisTemplate.opsForHash()).thenReturn(hashOperations);
+        lenient().when(stringRedisTemplate.opsForSet()).thenReturn(setOperations);
+
+        testProduct = new Product();
+        testProduct.setId(1L);
+        testProduct.setName("Test Product");
+        testProduct.setStock(100);
+
+        request = new CartItemRequest();
+        request.setProductId(1L);
+        request.setQuantity(10);
+    }
+
+    @Test
+    @DisplayName("Should add a new line with one HINCRBY and mark the cart dirty")
+    void addToCart_NewLine() {
+        // Arrange
+        when(productService.findProductById(1L)).thenReturn(testProduct);
+        when(stringRedisTemplate.hasKey(CART_KEY)).thenReturn(true);
+        when(hashOperations.increment(CART_KEY, "1", 10L)).thenReturn(10L);
+        when(hashOperations.multiGet(eq(CART_KEY), anyCollection())).thenReturn(Arrays.asList("10", "1", "1700000000000"));
+
+        // Act
+        CartItem result = cartService.addToCart(USER_ID, request);
+
+        // Assert
+        assertThat(result.getId()).isEqualTo(1L);
+        assertThat(result.getQuantity()).isEqualTo(10);
+        assertThat(result.getSelected()).isEqualTo(1);
+        verify(hashOperations).putAll(eq(CART_KEY), anyMap());
+        verify(stringRedisTemplate).executePipelined(any(SessionCallback.class));
+        verify(cartItemRepository, never()).save(any(CartItem.class));
+    }
+
+    @Test
+    @DisplayName("Should undo the increment when the merged quantity exceeds stock")
+    void addToCart_MergedQuantityOverStock() {
+        // Arrange
+        when(productService.findProductById(1L)).thenReturn(testProduct);
+        when(stringRedisTemplate.hasKey(CART_KEY)).thenReturn(true);
+        when(hashOperations.increment(CART_KEY, "1", 10L)).thenReturn(105L);
+
+        // Act & Assert
+        assertThatThrownBy(() -> cartService.addToCart(USER_ID, request))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("105");
+        verify(hashOperations).increment(CART_KEY, "1", -10L);
+        verify(stringRedisTemplate, never()).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    @DisplayName("Should find a cart line by product ID in the user's hash")
+    void findCartItemById_Success() {
+        // Arrange
+        when(stringRedisTemplate.hasKey(CART_KEY)).thenReturn(true);
+        when(hashOperations.multiGet(eq(CART_KEY), anyCollection())).thenReturn(Arrays.asList("3", "0", "1700000000000"));
+
+        // Act
+        CartItem result = cartService.findCartItemById(USER_ID, 1L);
+
+        // Assert
+        assertThat(result.getId()).isEqualTo(1L);
+        assertThat(result.getUserId()).isEqualTo(USER_ID);
+        assertThat(result.getQuantity()).isEqualTo(3);
+        assertThat(result.getSelected()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Should throw when the product is not in the user's cart")
+    void findCartItemById_NotFound() {
+        // Arrange
+        when(stringRedisTemplate.hasKey(CART_KEY)).thenReturn(true);
+        when(hashOperations.multiGet(eq(CART_KEY), anyCollection())).thenReturn(Arrays.asList(null, null, null));
+
+        // Act & Assert
+        assertThatThrownBy(() -> cartService.findCartItemById(USER_ID, 2L))
+                .isInstanceOf(CartItemNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should load the cart from cart_items when it is not in Redis")
+    @SuppressWarnings("unchecked")
+    void getCartItemsByUserId_LoadsFromDatabase() {
+        // Arrange
+        CartItem stored = new CartItem();
+        stored.setUserId(USER_ID);
+        stored.setProductId(3L);
+        stored.setQuantity(2);
+        stored.setSelected(0);
+        when(hashOperations.entries(CART_KEY)).thenReturn(Collections.emptyMap());
+        when(cartItemRepository.findByUserId(USER_ID)).thenReturn(List.of(stored));
+        when(stringRedisTemplate.execute(any(RedisScript.class), eq(List.of(CART_KEY)), any(Object[].class))).thenReturn(1L);
+
+        // Act
+        List<CartItem> result = cartService.getCartItemsByUserId(USER_ID);
+
+        // Assert
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getProductId()).isEqualTo(3L);
+        assertThat(result.get(0).getQuantity()).isEqualTo(2);
+        assertThat(result.get(0).getSelected()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Should only return selected lines")
+    void getSelectedCartItems() {
+        // Arrange
+        when(hashOperations.entries(CART_KEY)).thenReturn(Map.of(
+                "_loaded", "1",
+                "1", "2", "1:selected", "1",
+                "2", "5", "2:selected", "0"));
+
+        // Act
+        List<CartItem> result = cartService.getSelectedCartItems(USER_ID);
+
+        // Assert
+        assertThat(result).extracting(CartItem::getProductId).containsExactly(1L);
+        verify(cartItemRepository, never()).findByUserId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should throw CartItemNotFoundException when removing a line that is not in the cart")
+    void removeFromCart_NotFound() {
+        // Arrange
+        when(stringRedisTemplate.hasKey(CART_KEY)).thenReturn(true);
+        when(hashOperations.delete(eq(CART_KEY), any(Object[].class))).thenReturn(0L);
+
+        // Act & Assert
+        assertThatThrownBy(() -> cartService.removeFromCart(USER_ID, 99L))
+                .isInstanceOf(CartItemNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should remove all checked out lines with one HDEL")
+    void removeCheckedOutItems() {
+        // Act
+        cartService.removeCheckedOutItems(USER_ID, List.of(1L, 2L));
+
+        // Assert
+        verify(hashOperations).delete(CART_KEY, "1", "1:selected", "1:addedAt", "2", "2:selected", "2:addedAt");
+        verify(stringRedisTemplate).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    @DisplayName("Should replace stored rows of dirty carts in one batch and skip carts gone from Redis")
+    @SuppressWarnings("unchecked")
+    void persistDirtyCarts() {
+        // Arrange
+        when(setOperations.pop(RedisKeyConstants.CART_DIRTY_KEY, 100)).thenReturn(List.of("1", "2"));
+        when(stringRedisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(Arrays.asList(
+                Map.of("_loaded", "1", "7", "3", "7:selected", "1"),
+                Collections.emptyMap()));
+
+        // Act
+        int persisted = cartService.persistDirtyCarts(100);
+
+        // Assert
+        assertThat(persisted).isEqualTo(2);
+        verify(cartItemRepository).deleteByUserIdIn(List.of(1L));
+        ArgumentCaptor<List<CartItem>> saved = ArgumentCaptor.forClass(List.class);
+        verify(cartItemRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).hasSize(1);
+        assertThat(saved.getValue().get(0).getId()).isNull();
+        assertThat(saved.getValue().get(0).getProductId()).isEqualTo(7L);
+        assertThat(saved.getValue().get(0).getQuantity()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when no cart is dirty")
+    void persistDirtyCarts_NothingDirty() {
+        when(setOperations.pop(RedisKeyConstants.CART_DIRTY_KEY, 100)).thenReturn(Collections.emptyList());
+
+        assertThat(cartService.persistDirtyCarts(100)).isZero();
+        verify(cartItemRepository, never()).deleteByUserIdIn(anyList());
+    }
+}
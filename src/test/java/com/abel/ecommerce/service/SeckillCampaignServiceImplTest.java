@@ -0,0 +1,321 @@
+package com.abel.ecommerce.service;
+
+import com.abel.ecommerce.dto.request.SeckillCampaignRequest;
+import com.abel.ecommerce.entity.Product;
+import com.abel.ecommerce.entity.SeckillCampaign;
+import com.abel.ecommerce.entity.SeckillCampaignItem;
+import com.abel.ecommerce.exception.InsufficientStockException;
+import com.abel.ecommerce.exception.ProductNotFoundException;
+import com.abel.ecommerce.exception.SeckillNotActiveException;
+import com.abel.ecommerce.repository.ProductRepository;
+import com.abel.ecommerce.repository.SeckillCampaignItemRepository;
+import com.abel.ecommerce.repository.SeckillCampaignRepository;
+import com.abel.ecommerce.service.impl.SeckillCampaignServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SeckillCampaignServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SeckillCampaignService Unit Tests")
+class SeckillCampaignServiceImplTest {
+
+    @Mock
+    private SeckillCampaignRepository campaignRepository;
+
+    @Mock
+    private SeckillCampaignItemRepository campaignItemRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private StockService stockService;
+
+    @Mock
+    private ProductCacheService productCacheService;
+
+    private SeckillCampaignServiceImpl campaignService;
+
+    @BeforeEach
+    void setUp() {
+        campaignService = new SeckillCampaignServiceImpl(campaignRepository, campaignItemRepository,
+                productRepository, stockService, productCacheService, 10, 600);
+    }
+
+    private static Product product(long id, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setStock(stock);
+        return product;
+    }
+
+    private static SeckillCampaign campaign(long id, LocalDateTime start, LocalDateTime end) {
+        SeckillCampaign campaign = new SeckillCampaign();
+        campaign.setId(id);
+        campaign.setStartTime(start);
+        campaign.setEndTime(end);
+        return campaign;
+    }
+
+    private static SeckillCampaignItem item(long campaignId, long productId, int quantity) {
+        SeckillCampaignItem item = new SeckillCampaignItem();
+        item.setCampaignId(campaignId);
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private static SeckillCampaignRequest request(LocalDateTime start, LocalDateTime end, long... productIdAndQuantity) {
+        SeckillCampaignRequest request = new SeckillCampaignRequest();
+        request.setName("Flash sale");
+        request.setStartTime(start);
+        request.setEndTime(end);
+        List<SeckillCampaignRequest.Item> items = new ArrayList<>();
+        for (int i = 0; i < productIdAndQuantity.length; i += 2) {
+            SeckillCampaignRequest.Item item = new SeckillCampaignRequest.Item();
+            item.setProductId(productIdAndQuantity[i]);
+            item.setQuantity((int) productIdAndQuantity[i + 1]);
+            items.add(item);
+        }
+        request.setItems(items);
+        return request;
+    }
+
+    @Test
+    @DisplayName("Should save campaign with repeated products merged")
+    @SuppressWarnings("unchecked")
+    void testCreateCampaign_MergesItems() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        when(productRepository.findAllByIdForUpdate(any())).thenReturn(List.of(product(1L, 100), product(2L, 50)));
+        when(campaignRepository.save(any(SeckillCampaign.class))).thenAnswer(invocation -> {
+            SeckillCampaign saved = invocation.getArgument(0);
+            saved.setId(7L);
+            return saved;
+        });
+
+        SeckillCampaign saved = campaignService.createCampaign(request(start, start.plusHours(1), 1, 10, 2, 5, 1, 20));
+
+        assertThat(saved.getId()).isEqualTo(7L);
+        assertThat(saved.getStatus()).isEqualTo(SeckillCampaign.STATUS_SCHEDULED);
+        ArgumentCaptor<List<SeckillCampaignItem>> items = ArgumentCaptor.forClass(List.class);
+        verify(campaignItemRepository).saveAll(items.capture());
+        assertThat(items.getValue())
+                .extracting(SeckillCampaignItem::getProductId, SeckillCampaignItem::getQuantity)
+                .containsExactly(tuple(1L, 30), tuple(2L, 5));
+        assertThat(items.getValue()).allMatch(item -> item.getCampaignId().equals(7L));
+    }
+
+    @Test
+    @DisplayName("Should reject campaign with unknown product")
+    void testCreateCampaign_ProductNotFound() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        when(productRepository.findAllByIdForUpdate(any())).thenReturn(List.of(product(1L, 100)));
+
+        assertThatThrownBy(() -> campaignService.createCampaign(request(start, start.plusHours(1), 1, 10, 2, 5)))
+                .isInstanceOf(ProductNotFoundException.class);
+
+        verify(campaignRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should reject campaign quantity above product stock")
+    void testCreateCampaign_InsufficientStock() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        when(productRepository.findAllByIdForUpdate(any())).thenReturn(List.of(product(1L, 5)));
+
+        assertThatThrownBy(() -> campaignService.createCampaign(request(start, start.plusHours(1), 1, 10)))
+                .isInstanceOf(InsufficientStockException.class);
+
+        verify(campaignRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should reject product already in an overlapping campaign")
+    void testCreateCampaign_OverlappingCampaign() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        when(productRepository.findAllByIdForUpdate(any())).thenReturn(List.of(product(1L, 100)));
+        when(campaignRepository.findByEndTimeAfter(start))
+                .thenReturn(List.of(campaign(3L, start.minusMinutes(30), start.plusMinutes(30))));
+        when(campaignItemRepository.findByCampaignIdIn(List.of(3L))).thenReturn(List.of(item(3L, 1L, 10)));
+
+        assertThatThrownBy(() -> campaignService.createCampaign(request(start, start.plusHours(1), 1, 10)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already in campaign 3");
+
+        verify(campaignRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should lock the campaign's product rows before checking for overlapping campaigns")
+    void testCreateCampaign_LocksProductsBeforeOverlapCheck() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        when(productRepository.findAllByIdForUpdate(any())).thenReturn(List.of(product(1L, 100)));
+        when(campaignRepository.save(any(SeckillCampaign.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        campaignService.createCampaign(request(start, start.plusHours(1), 1, 10));
+
+        InOrder inOrder = inOrder(productRepository, campaignRepository);
+        inOrder.verify(productRepository).findAllByIdForUpdate(Set.of(1L));
+        inOrder.verify(campaignRepository).findByEndTimeAfter(start);
+        inOrder.verify(campaignRepository).save(any(SeckillCampaign.class));
+        verify(productRepository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Should pipeline stock and product info of claimed campaigns only")
+    @SuppressWarnings("unchecked")
+    void testWarmUpDueCampaigns_ClaimsAndPreloads() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime end = now.plusHours(1);
+        when(campaignRepository.findByStatusAndStartTimeLessThanEqualAndEndTimeAfter(
+                eq(SeckillCampaign.STATUS_SCHEDULED), any(), any()))
+                .thenReturn(List.of(campaign(1L, now, end), campaign(2L, now, end)));
+        // Campaign 2 was claimed by another node
+        when(campaignRepository.updateStatus(eq(1L), eq(SeckillCampaign.STATUS_SCHEDULED), eq(SeckillCampaign.STATUS_WARMED), any()))
+                .thenReturn(1);
+        when(campaignRepository.updateStatus(eq(2L), eq(SeckillCampaign.STATUS_SCHEDULED), eq(SeckillCampaign.STATUS_WARMED), any()))
+                .thenReturn(0);
+        when(campaignItemRepository.findByCampaignIdIn(List.of(1L)))
+                .thenReturn(List.of(item(1L, 100L, 30), item(1L, 200L, 5)));
+        List<Product> products = List.of(product(100L, 500), product(200L, 50));
+        when(productRepository.findAllById(any())).thenReturn(products);
+
+        int warmed = campaignService.warmUpDueCampaigns();
+
+        assertThat(warmed).isEqualTo(1);
+        verify(stockService).preloadSeckillStock(Map.of(100L, 30, 200L, 5),
+                Map.of(100L, end.plusSeconds(600), 200L, end.plusSeconds(600)));
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(productRepository).findAllById(ids.capture());
+        assertThat(ids.getValue()).containsExactlyInAnyOrder(100L, 200L);
+        verify(productCacheService).putProducts(products);
+    }
+
+    @Test
+    @DisplayName("Should load no more than the stock left when normal orders sold campaign units before the start")
+    void testWarmUpDueCampaigns_CapsAtCurrentStock() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime end = now.plusHours(1);
+        when(campaignRepository.findByStatusAndStartTimeLessThanEqualAndEndTimeAfter(any(), any(), any()))
+                .thenReturn(List.of(campaign(1L, now, end)));
+        when(campaignRepository.updateStatus(eq(1L), any(), any(), any())).thenReturn(1);
+        when(campaignItemRepository.findByCampaignIdIn(List.of(1L)))
+                .thenReturn(List.of(item(1L, 100L, 30), item(1L, 200L, 5), item(1L, 300L, 5)));
+        // Product 300 was deleted since the campaign was scheduled
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(100L, 12), product(200L, 50)));
+
+        campaignService.warmUpDueCampaigns();
+
+        verify(stockService).preloadSeckillStock(Map.of(100L, 12, 200L, 5),
+                Map.of(100L, end.plusSeconds(600), 200L, end.plusSeconds(600)));
+    }
+
+    @Test
+    @DisplayName("Should expire campaign stock before the campaign drops out of the windows")
+    @SuppressWarnings("unchecked")
+    void testCheckActive_AfterRetention() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime end = now.plusHours(1);
+        when(campaignRepository.findByStatusAndStartTimeLessThanEqualAndEndTimeAfter(any(), any(), any()))
+                .thenReturn(List.of(campaign(1L, now, end)));
+        when(campaignRepository.updateStatus(eq(1L), any(), any(), any())).thenReturn(1);
+        when(campaignItemRepository.findByCampaignIdIn(List.of(1L))).thenReturn(List.of(item(1L, 100L, 30)));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(100L, 500)));
+
+        campaignService.warmUpDueCampaigns();
+
+        // A day after the end the campaign is no longer loaded, and checkActive leaves the product to the
+        // Redis admission check, which finds no stock keys because they expired 10 minutes after the end
+        when(campaignRepository.findByEndTimeAfter(any())).thenReturn(Collections.emptyList());
+        campaignService.refreshWindows();
+        assertThatCode(() -> campaignService.checkActive(100L)).doesNotThrowAnyException();
+
+        ArgumentCaptor<Map<Long, LocalDateTime>> expireAt = ArgumentCaptor.forClass(Map.class);
+        verify(stockService).preloadSeckillStock(eq(Map.of(100L, 30)), expireAt.capture());
+        assertThat(expireAt.getValue()).containsEntry(100L, end.plusSeconds(600));
+        assertThat(expireAt.getValue().get(100L)).isBefore(end.plusDays(1));
+    }
+
+    @Test
+    @DisplayName("Should refuse a stock grace period that outlives the ended-campaign retention")
+    void testConstructor_GraceTooLong() {
+        assertThatThrownBy(() -> new SeckillCampaignServiceImpl(campaignRepository, campaignItemRepository,
+                productRepository, stockService, productCacheService, 10, TimeUnit.DAYS.toSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should not touch Redis when no campaign is due")
+    void testWarmUpDueCampaigns_NothingDue() {
+        when(campaignRepository.findByStatusAndStartTimeLessThanEqualAndEndTimeAfter(any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+
+        assertThat(campaignService.warmUpDueCampaigns()).isZero();
+
+        verifyNoInteractions(stockService, productCacheService);
+    }
+
+    @Test
+    @DisplayName("Should reject requests before start and after end from the loaded windows")
+    void testCheckActive_Windows() {
+        LocalDateTime now = LocalDateTime.now();
+        when(campaignRepository.findByEndTimeAfter(any())).thenReturn(List.of(
+                campaign(1L, now.minusMinutes(5), now.plusMinutes(5)),
+                campaign(2L, now.plusMinutes(5), now.plusMinutes(10)),
+                campaign(3L, now.minusMinutes(10), now.minusMinutes(5))));
+        when(campaignItemRepository.findByCampaignIdIn(any())).thenReturn(List.of(
+                item(1L, 100L, 10), item(2L, 200L, 10), item(3L, 300L, 10)));
+
+        campaignService.refreshWindows();
+
+        assertThatCode(() -> campaignService.checkActive(100L)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> campaignService.checkActive(200L))
+                .isInstanceOf(SeckillNotActiveException.class)
+                .hasMessageContaining("has not started");
+        assertThatThrownBy(() -> campaignService.checkActive(300L))
+                .isInstanceOf(SeckillNotActiveException.class)
+                .hasMessageContaining("has ended");
+        // Not in any campaign, left to the Redis admission check
+        assertThatCode(() -> campaignService.checkActive(400L)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should allow a product while any of its campaigns is running")
+    void testCheckActive_SecondWindow() {
+        LocalDateTime now = LocalDateTime.now();
+        when(campaignRepository.findByEndTimeAfter(any())).thenReturn(List.of(
+                campaign(1L, now.minusMinutes(10), now.minusMinutes(5)),
+                campaign(2L, now.minusMinutes(1), now.plusMinutes(5))));
+        when(campaignItemRepository.findByCampaignIdIn(any())).thenReturn(List.of(
+                item(1L, 100L, 10), item(2L, 100L, 10)));
+
+        campaignService.refreshWindows();
+
+        assertThatCode(() -> campaignService.checkActive(100L)).doesNotThrowAnyException();
+    }
+}
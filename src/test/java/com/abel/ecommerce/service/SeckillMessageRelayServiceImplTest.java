@@ -0,0 +1,119 @@
+package com.abel.ecommerce.service;
+
+import com.abel.ecommerce.entity.SeckillMessage;
+import com.abel.ecommerce.repository.SeckillMessageRepository;
+import com.abel.ecommerce.service.impl.SeckillMessageRelayServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SeckillMessageRelayServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SeckillMessageRelayService Unit Tests")
+class SeckillMessageRelayServiceImplTest {
+
+    @Mock
+    private SeckillMessageRepository messageRepository;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @InjectMocks
+    private SeckillMessageRelayServiceImpl relayService;
+
+    private static SeckillMessage message(long id) {
+        SeckillMessage message = new SeckillMessage();
+        message.setId(id);
+        message.setOrderNo("ORD" + id);
+        message.setExchange("seckill.exchange");
+        message.setRoutingKey("seckill.order");
+        message.setMessageContent("{\"orderNo\":\"ORD" + id + "\"}");
+        return message;
+    }
+
+    private void confirmWith(boolean ack) {
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(3);
+            correlationData.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+    }
+
+    @Test
+    @DisplayName("Should return 0 and touch nothing when no message is pending")
+    void testRelay_NothingPending() {
+        when(messageRepository.claimPendingMessages(any(LocalDateTime.class), eq(100))).thenReturn(Collections.emptyList());
+
+        assertThat(relayService.relayPendingBatch(100)).isZero();
+
+        verifyNoInteractions(rabbitTemplate);
+        verify(messageRepository, never()).markSent(anyList(), any());
+    }
+
+    @Test
+    @DisplayName("Should mark all confirmed messages as sent in one update")
+    void testRelay_AllConfirmed() {
+        when(messageRepository.claimPendingMessages(any(LocalDateTime.class), eq(100)))
+                .thenReturn(Arrays.asList(message(1L), message(2L), message(3L)));
+        confirmWith(true);
+
+        assertThat(relayService.relayPendingBatch(100)).isEqualTo(3);
+
+        verify(rabbitTemplate, times(3)).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+        verify(messageRepository).markSent(eq(Arrays.asList(1L, 2L, 3L)), any(LocalDateTime.class));
+        verify(messageRepository, never()).markForRetry(anyList(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should schedule nacked messages for retry")
+    void testRelay_Nacked() {
+        when(messageRepository.claimPendingMessages(any(LocalDateTime.class), eq(100)))
+                .thenReturn(Arrays.asList(message(1L), message(2L)));
+        confirmWith(false);
+
+        relayService.relayPendingBatch(100);
+
+        verify(messageRepository, never()).markSent(anyList(), any());
+        verify(messageRepository).markForRetry(eq(Arrays.asList(1L, 2L)), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should schedule retry for publish failures and unconfirmed messages")
+    void testRelay_PublishFailureAndTimeout() {
+        ReflectionTestUtils.setField(relayService, "confirmTimeoutMs", 50L);
+        when(messageRepository.claimPendingMessages(any(LocalDateTime.class), eq(100)))
+                .thenReturn(Arrays.asList(message(1L), message(2L), message(3L)));
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(3);
+            switch (correlationData.getId()) {
+                case "1" -> correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+                case "2" -> throw new AmqpException("connection lost");
+                default -> { } // never confirmed
+            }
+            return null;
+        }).when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+
+        relayService.relayPendingBatch(100);
+
+        verify(messageRepository).markSent(eq(List.of(1L)), any(LocalDateTime.class));
+        verify(messageRepository).markForRetry(eq(Arrays.asList(2L, 3L)), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+}
@@ -0,0 +1,178 @@
+package com.abel.ecommerce.service;
+
+import com.abel.ecommerce.dto.request.SeckillOrderMessage;
+import com.abel.ecommerce.dto.response.SeckillOrderBatchResult;
+import com.abel.ecommerce.entity.Address;
+import com.abel.ecommerce.entity.Order;
+import com.abel.ecommerce.entity.OrderItem;
+import com.abel.ecommerce.entity.Product;
+import com.abel.ecommerce.entity.StockLedger;
+import com.abel.ecommerce.repository.AddressRepository;
+import com.abel.ecommerce.repository.OrderItemRepository;
+import com.abel.ecommerce.repository.OrderRepository;
+import com.abel.ecommerce.repository.ProductRepository;
+import com.abel.ecommerce.repository.ReliableMessageRepository;
+import com.abel.ecommerce.service.impl.SeckillOrderServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SeckillOrderServiceImpl (batch seckill order creation)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SeckillOrderService Unit Tests")
+class SeckillOrderServiceImplTest {
+
+    @Mock
+    private ReliableMessageRepository reliableMessageRepository;
+
+    @Mock
+    private AddressRepository addressRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private StockLedgerService stockLedgerService;
+
+    @InjectMocks
+    private SeckillOrderServiceImpl seckillOrderService;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = new Product();
+        product.setId(100L);
+        product.setName("Seckill Phone");
+        product.setPrice(new BigDecimal("99.00"));
+        product.setStock(10);
+        product.setSales(0);
+    }
+
+    private static Address defaultAddress(Long userId) {
+        Address address = new Address();
+        address.setUserId(userId);
+        address.setReceiverName("User " + userId);
+        address.setReceiverPhone("0400000000");
+        address.setDetailAddress("1 Test St");
+        address.setIsDefault(Address.DEFAULT_ADDRESS);
+        return address;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assignOrderIds() {
+        when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            long id = 1;
+            for (Order order : orders) {
+                order.setId(id++);
+            }
+            return orders;
+        });
+    }
+
+    @Test
+    @DisplayName("Should create all orders with one ledger entry per product")
+    @SuppressWarnings("unchecked")
+    void testCreateSeckillOrders_AggregatesStockUpdate() {
+        List<SeckillOrderMessage> messages = Arrays.asList(
+                new SeckillOrderMessage("ORD1", 1L, 100L, 1),
+                new SeckillOrderMessage("ORD2", 2L, 100L, 1),
+                new SeckillOrderMessage("ORD3", 3L, 100L, 2));
+        when(reliableMessageRepository.findExistingMessageIds(anyCollection())).thenReturn(Collections.emptyList());
+        when(addressRepository.findByUserIdInAndIsDefault(anyCollection(), eq(Address.DEFAULT_ADDRESS)))
+                .thenReturn(Arrays.asList(defaultAddress(1L), defaultAddress(2L), defaultAddress(3L)));
+        when(productRepository.findAllById(anyIterable())).thenReturn(List.of(product));
+        assignOrderIds();
+
+        SeckillOrderBatchResult result = seckillOrderService.createSeckillOrders(messages);
+
+        assertThat(result.getCreated()).hasSize(3);
+        assertThat(result.getRejected()).isEmpty();
+        verify(stockLedgerService, times(1)).recordSale(100L, 4, StockLedger.SOURCE_SECKILL_ORDER, null);
+        verify(reliableMessageRepository).saveAll(argThat(list -> ((List<?>) list).size() == 3));
+
+        ArgumentCaptor<List<OrderItem>> items = ArgumentCaptor.forClass(List.class);
+        verify(orderItemRepository).saveAll(items.capture());
+        assertThat(items.getValue()).extracting(OrderItem::getOrderId).containsExactly(1L, 2L, 3L);
+        assertThat(items.getValue().get(2).getTotalAmount()).isEqualByComparingTo("198.00");
+    }
+
+    @Test
+    @DisplayName("Should skip messages already consumed and repeated in the batch")
+    void testCreateSeckillOrders_Duplicates() {
+        List<SeckillOrderMessage> messages = Arrays.asList(
+                new SeckillOrderMessage("ORD1", 1L, 100L, 1),
+                new SeckillOrderMessage("ORD1", 1L, 100L, 1),
+                new SeckillOrderMessage("ORD2", 2L, 100L, 1));
+        when(reliableMessageRepository.findExistingMessageIds(anyCollection())).thenReturn(List.of("ORD2"));
+        when(addressRepository.findByUserIdInAndIsDefault(anyCollection(), eq(Address.DEFAULT_ADDRESS)))
+                .thenReturn(List.of(defaultAddress(1L)));
+        when(productRepository.findAllById(anyIterable())).thenReturn(List.of(product));
+        assignOrderIds();
+
+        SeckillOrderBatchResult result = seckillOrderService.createSeckillOrders(messages);
+
+        assertThat(result.getCreated()).extracting(SeckillOrderMessage::getOrderNo).containsExactly("ORD1");
+        assertThat(result.getDuplicates()).extracting(SeckillOrderMessage::getOrderNo).containsExactlyInAnyOrder("ORD1", "ORD2");
+        verify(stockLedgerService).recordSale(100L, 1, StockLedger.SOURCE_SECKILL_ORDER, null);
+    }
+
+    @Test
+    @DisplayName("Should reject messages without default address or product")
+    void testCreateSeckillOrders_Rejected() {
+        List<SeckillOrderMessage> messages = Arrays.asList(
+                new SeckillOrderMessage("ORD1", 1L, 100L, 1),
+                new SeckillOrderMessage("ORD2", 2L, 999L, 1));
+        when(reliableMessageRepository.findExistingMessageIds(anyCollection())).thenReturn(Collections.emptyList());
+        when(addressRepository.findByUserIdInAndIsDefault(anyCollection(), eq(Address.DEFAULT_ADDRESS)))
+                .thenReturn(List.of(defaultAddress(2L)));
+        when(productRepository.findAllById(anyIterable())).thenReturn(List.of(product));
+
+        SeckillOrderBatchResult result = seckillOrderService.createSeckillOrders(messages);
+
+        assertThat(result.getCreated()).isEmpty();
+        assertThat(result.getRejected()).extracting(SeckillOrderMessage::getOrderNo).containsExactly("ORD1", "ORD2");
+        assertThat(result.getRejectReasons()).containsEntry("ORD1", "No default address, please add one and try again")
+                .containsEntry("ORD2", "Product not found");
+        verify(reliableMessageRepository).saveAll(argThat(list -> ((List<?>) list).size() == 2));
+        verify(orderRepository, never()).saveAll(anyList());
+        verifyNoInteractions(stockLedgerService);
+    }
+
+    @Test
+    @DisplayName("Should treat a redelivered rejected message as a duplicate, not reject it again")
+    void testCreateSeckillOrders_RedeliveredRejected() {
+        // ORD1 was rejected earlier and got its dedup record then
+        when(reliableMessageRepository.findExistingMessageIds(anyCollection())).thenReturn(List.of("ORD1"));
+
+        SeckillOrderBatchResult result = seckillOrderService.createSeckillOrders(
+                List.of(new SeckillOrderMessage("ORD1", 1L, 100L, 1)));
+
+        assertThat(result.getRejected()).isEmpty();
+        assertThat(result.getDuplicates()).extracting(SeckillOrderMessage::getOrderNo).containsExactly("ORD1");
+        verifyNoInteractions(addressRepository, productRepository, orderRepository);
+    }
+}
@@ -0,0 +1,203 @@
+package com.abel.ecommerce.service;
+
+import com.abel.ecommerce.constant.RedisKeyConstants;
+import com.abel.ecommerce.dto.response.SeckillResultResponse;
+import com.abel.ecommerce.service.impl.SeckillResultServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SeckillResultServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SeckillResultService Unit Tests")
+class SeckillResultServiceImplTest {
+
+    private static final String ORDER_NO = "ORD20240101001";
+    private static final String RESULT_KEY = RedisKeyConstants.getSeckillResultKey(ORDER_NO);
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    private SeckillResultServiceImpl seckillResultService;
+
+    @BeforeEach
+    void setUp() {
+        seckillResultService = new SeckillResultServiceImpl(redisTemplate, listenerContainer, 24, 30000);
+        lenient().when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubTransition(long changed) {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(RESULT_KEY)), any(Object[].class))).thenReturn(changed);
+    }
+
+    @Test
+    @DisplayName("Should record QUEUED with the owner and not publish it")
+    @SuppressWarnings("unchecked")
+    void testMarkQueued() {
+        stubTransition(1L);
+
+        seckillResultService.markQueued(ORDER_NO, 1L, 100L);
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(RESULT_KEY)),
+                eq("QUEUED"), eq(""), anyString(), eq("86400"), eq("1"), eq("100"));
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should publish FAILED with its reason so SSE streams on any node are completed")
+    @SuppressWarnings("unchecked")
+    void testMarkFailed() {
+        stubTransition(1L);
+
+        seckillResultService.markFailed(ORDER_NO, "Product not found");
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(RESULT_KEY)),
+                eq("FAILED"), eq("Product not found"), anyString(), anyString(), eq(""), eq(""));
+        verify(redisTemplate).convertAndSend(RedisKeyConstants.SECKILL_RESULT_CHANNEL, ORDER_NO);
+    }
+
+    @Test
+    @DisplayName("Should not publish when the result was already final")
+    void testMarkCreated_AlreadyFinal() {
+        stubTransition(0L);
+
+        seckillResultService.markCreated(ORDER_NO);
+
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should record CREATED only after the order transaction commits")
+    @SuppressWarnings("unchecked")
+    void testMarkCreated_AfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        seckillResultService.markCreated(ORDER_NO);
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+
+        stubTransition(1L);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(redisTemplate).convertAndSend(RedisKeyConstants.SECKILL_RESULT_CHANNEL, ORDER_NO);
+    }
+
+    @Test
+    @DisplayName("Should not fail the caller when Redis is down")
+    @SuppressWarnings("unchecked")
+    void testMarkQueued_RedisDown() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RuntimeException("connection refused"));
+
+        seckillResultService.markQueued(ORDER_NO, 1L, 100L);
+
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should read the result from the Redis hash")
+    void testGetResult() {
+        when(hashOperations.entries(RESULT_KEY)).thenReturn(Map.of(
+                "status", "FAILED", "reason", "Product not found", "userId", "1", "productId", "100", "updatedAt", "1700000000000"));
+
+        SeckillResultResponse result = seckillResultService.getResult(ORDER_NO);
+
+        assertThat(result.getStatus()).isEqualTo(SeckillResultResponse.STATUS_FAILED);
+        assertThat(result.getReason()).isEqualTo("Product not found");
+        assertThat(result.getUserId()).isEqualTo(1L);
+        assertThat(result.isFinished()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should return null for unknown or expired order numbers")
+    void testGetResult_Unknown() {
+        when(hashOperations.entries(RESULT_KEY)).thenReturn(Map.of());
+
+        assertThat(seckillResultService.getResult(ORDER_NO)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should read the statuses of several orders in one pipeline and leave out unknown ones")
+    @SuppressWarnings("unchecked")
+    void testGetStatuses() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.asList("CREATED", null, "FAILED"));
+
+        Map<String, String> statuses = seckillResultService.getStatuses(List.of("ORD1", "ORD2", "ORD3"));
+
+        assertThat(statuses).containsExactlyInAnyOrderEntriesOf(Map.of("ORD1", "CREATED", "ORD3", "FAILED"));
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verify(hashOperations, never()).entries(anyString());
+    }
+
+    @Test
+    @DisplayName("Should keep the stream open while queued and push the final result when it is published")
+    void testSubscribe_PushesFinalResult() {
+        SeckillResultResponse queued = new SeckillResultResponse(ORDER_NO, 1L, 100L, "QUEUED", null, 1L);
+        when(hashOperations.entries(RESULT_KEY))
+                .thenReturn(Map.of("status", "QUEUED", "userId", "1", "productId", "100", "updatedAt", "1"))
+                .thenReturn(Map.of("status", "CREATED", "userId", "1", "productId", "100", "updatedAt", "2"));
+
+        SseEmitter emitter = seckillResultService.subscribe(queued);
+        assertThat(emitter).isNotNull();
+
+        seckillResultService.onMessage(new DefaultMessage(
+                RedisKeyConstants.SECKILL_RESULT_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                ORDER_NO.getBytes(StandardCharsets.UTF_8)), null);
+
+        // Second read is the published final result, a further message finds no waiting stream
+        verify(hashOperations, times(2)).entries(RESULT_KEY);
+        seckillResultService.onMessage(new DefaultMessage(
+                RedisKeyConstants.SECKILL_RESULT_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                ORDER_NO.getBytes(StandardCharsets.UTF_8)), null);
+        verify(hashOperations, times(2)).entries(RESULT_KEY);
+    }
+
+    @Test
+    @DisplayName("Should not hold a stream for a result that is already final")
+    void testSubscribe_AlreadyFinished() {
+        SeckillResultResponse created = new SeckillResultResponse(ORDER_NO, 1L, 100L, "CREATED", null, 2L);
+
+        seckillResultService.subscribe(created);
+        seckillResultService.onMessage(new DefaultMessage(
+                RedisKeyConstants.SECKILL_RESULT_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                ORDER_NO.getBytes(StandardCharsets.UTF_8)), null);
+
+        verifyNoInteractions(hashOperations);
+    }
+}
@@ -1,10 +1,11 @@
 package com.abel.ecommerce.service;
 
-import com.abel.ecommerce.constant.RedisKeyConstants;
+import com.abel.ecommerce.dto.response.SeckillAdmissionResult;
 import com.abel.ecommerce.entity.Product;
 import com.abel.ecommerce.entity.SeckillMessage;
 import com.abel.ecommerce.exception.DuplicateSeckillException;
 import com.abel.ecommerce.exception.InsufficientStockException;
+import com.abel.ecommerce.exception.SeckillNotActiveException;
 import com.abel.ecommerce.repository.SeckillMessageRepository;
 import com.abel.ecommerce.service.impl.SeckillServiceImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -15,11 +16,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
 
 import java.math.BigDecimal;
-import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -33,12 +31,6 @@ import static org.mockito.Mockito.*;
 @DisplayName("SeckillService Unit Tests")
 class SeckillServiceImplTest {
 
-    @Mock
-    private StringRedisTemplate stringRedisTemplate;
-
-    @Mock
-    private ValueOperations<String, String> valueOperations;
-
     @Mock
     private StockService stockService;
 
@@ -51,6 +43,15 @@ class SeckillServiceImplTest {
     @Mock
     private SeckillMessageRepository seckillMessageRepository;
 
+    @Mock
+    private SoldOutCacheService soldOutCacheService;
+
+    @Mock
+    private SeckillResultService seckillResultService;
+
+    @Mock
+    private SeckillCampaignService seckillCampaignService;
+
     @InjectMocks
     private SeckillServiceImpl seckillService;
 
@@ -72,20 +73,20 @@ class SeckillServiceImplTest {
         testProduct.setName("Test Seckill Product");
         testProduct.setPrice(new BigDecimal("99.99"));
         testProduct.setStock(10);
+    }
 
-        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+    private static SeckillAdmissionResult admission(long status, long remaining) {
+        return new SeckillAdmissionResult(status, remaining);
     }
 
     @Test
     @DisplayName("Should successfully complete seckill when all conditions are met")
     void testDoSeckill_Success() throws Exception {
         // Given
-        String userKey = RedisKeyConstants.getSeckillUserKey(testUserId, testProductId);
         String messageJson = "{\"orderNo\":\"" + testOrderNo + "\",\"userId\":1,\"productId\":100}";
 
-        when(valueOperations.setIfAbsent(eq(userKey), anyString(), eq(24L), eq(TimeUnit.HOURS)))
-                .thenReturn(true);
-        when(stockService.deductStock(testProductId, testQuantity)).thenReturn(1L);
+        when(stockService.admitSeckill(testUserId, testProductId, testQuantity))
+                .thenReturn(admission(SeckillAdmissionResult.STATUS_ADMITTED, 9));
         when(orderService.generateOrderNo(testUserId)).thenReturn(testOrderNo);
         when(objectMapper.writeValueAsString(any())).thenReturn(messageJson);
 
@@ -105,29 +106,27 @@ class SeckillServiceImplTest {
         assertThat(result.getUserId()).isEqualTo(testUserId);
         assertThat(result.getProductId()).isEqualTo(testProductId);
 
-        verify(valueOperations).setIfAbsent(eq(userKey), anyString(), eq(24L), eq(TimeUnit.HOURS));
-        verify(stockService).deductStock(testProductId, testQuantity);
+        verify(stockService).admitSeckill(testUserId, testProductId, testQuantity);
         verify(orderService).generateOrderNo(testUserId);
         verify(seckillMessageRepository).save(any(SeckillMessage.class));
-        verify(stringRedisTemplate, never()).delete(userKey);
-        verify(stockService, never()).restoreStock(anyLong(), anyInt());
+        verify(seckillResultService).markQueued(testOrderNo, testUserId, testProductId);
+        verify(stockService, never()).rollbackSeckill(anyLong(), anyLong(), anyInt());
     }
 
     @Test
     @DisplayName("Should throw DuplicateSeckillException when user already participated")
     void testDoSeckill_UserAlreadyParticipated() {
         // Given
-        String userKey = RedisKeyConstants.getSeckillUserKey(testUserId, testProductId);
 
-        when(valueOperations.setIfAbsent(eq(userKey), anyString(), eq(24L), eq(TimeUnit.HOURS)))
-                .thenReturn(false);
+        when(stockService.admitSeckill(testUserId, testProductId, testQuantity))
+                .thenReturn(admission(SeckillAdmissionResult.STATUS_DUPLICATE, 9));
 
         // When & Then
         assertThatThrownBy(() -> seckillService.doSeckill(testUserId, testProductId, testQuantity))
                 .isInstanceOf(DuplicateSeckillException.class);
 
-        verify(valueOperations).setIfAbsent(eq(userKey), anyString(), eq(24L), eq(TimeUnit.HOURS));
-        verify(stockService, never()).deductStock(anyLong(), anyInt());
+        verify(stockService).admitSeckill(testUserId, testProductId, testQuantity);
+        verify(stockService, never()).rollbackSeckill(anyLong(), anyLong(), anyInt());
         verify(seckillMessageRepository, never()).save(any());
     }
 
@@ -135,22 +134,20 @@ class SeckillServiceImplTest {
     @DisplayName("Should throw InsufficientStockException when stock deduction fails")
     void testDoSeckill_InsufficientStock() {
         // Given
-        String userKey = RedisKeyConstants.getSeckillUserKey(testUserId, testProductId);
 
-        when(valueOperations.setIfAbsent(eq(userKey), anyString(), eq(24L), eq(TimeUnit.HOURS)))
-                .thenReturn(true);
-        when(stockService.deductStock(testProductId, testQuantity)).thenReturn(0L);
-        when(stockService.getStock(testProductId)).thenReturn(0);
-        when(stockService.findProductById(testProductId)).thenReturn(testProduct);
+        when(stockService.admitSeckill(testUserId, testProductId, testQuantity))
+                .thenReturn(admission(SeckillAdmissionResult.STATUS_SOLD_OUT, 0));
 
         // When & Then
         assertThatThrownBy(() -> seckillService.doSeckill(testUserId, testProductId, testQuantity))
                 .isInstanceOf(InsufficientStockException.class)
-                .hasMessageContaining(testProduct.getName());
+                .hasMessageContaining("Available: 0");
 
-        verify(valueOperations).setIfAbsent(eq(userKey), anyString(), eq(24L), eq(TimeUnit.HOURS));
-        verify(stockService).deductStock(testProductId, testQuantity);
-        verify(stringRedisTemplate).delete(userKey);
+        verify(stockService).admitSeckill(testUserId, testProductId, testQuantity);
+        // The sold-out path must not make extra lookups to build the error
+        verify(stockService, never()).getStock(anyLong());
+        verify(stockService, never()).findProductById(anyLong());
+        verify(stockService, never()).rollbackSeckill(anyLong(), anyLong(), anyInt());
         verify(seckillMessageRepository, never()).save(any());
     }
 
@@ -158,12 +155,10 @@ class SeckillServiceImplTest {
     @DisplayName("Should restore stock and remove user key when DB save fails")
     void testDoSeckill_DBSaveFailure() throws Exception {
         // Given
-        String userKey = RedisKeyConstants.getSeckillUserKey(testUserId, testProductId);
         String messageJson = "{\"orderNo\":\"" + testOrderNo + "\",\"userId\":1,\"productId\":100}";
 
-        when(valueOperations.setIfAbsent(eq(userKey), anyString(), eq(24L), eq(TimeUnit.HOURS)))
-                .thenReturn(true);
-        when(stockService.deductStock(testProductId, testQuantity)).thenReturn(1L);
+        when(stockService.admitSeckill(testUserId, testProductId, testQuantity))
+                .thenReturn(admission(SeckillAdmissionResult.STATUS_ADMITTED, 9));
         when(orderService.generateOrderNo(testUserId)).thenReturn(testOrderNo);
         when(objectMapper.writeValueAsString(any())).thenReturn(messageJson);
         when(seckillMessageRepository.save(any(SeckillMessage.class)))
@@ -174,21 +169,49 @@ class SeckillServiceImplTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Failed to create seckill message");
 
-        verify(stockService).deductStock(testProductId, testQuantity);
-        verify(stockService).restoreStock(testProductId, testQuantity);
-        verify(stringRedisTemplate).delete(userKey);
+        verify(stockService).admitSeckill(testUserId, testProductId, testQuantity);
+        verify(stockService).rollbackSeckill(testUserId, testProductId, testQuantity);
         verify(seckillMessageRepository).save(any(SeckillMessage.class));
     }
 
+    @Test
+    @DisplayName("Should reject sold-out product without calling Redis")
+    void testDoSeckill_SoldOutFlagShortCircuits() {
+        // Given
+        when(soldOutCacheService.isSoldOut(testProductId)).thenReturn(true);
+
+        // When & Then
+        assertThatThrownBy(() -> seckillService.doSeckill(testUserId, testProductId, testQuantity))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("sold out");
+
+        verify(stockService, never()).admitSeckill(anyLong(), anyLong(), anyInt());
+        verify(seckillMessageRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should reject seckill outside the campaign window without calling Redis")
+    void testDoSeckill_CampaignNotActive() {
+        // Given
+        doThrow(new SeckillNotActiveException("Seckill for product 1 has not started"))
+                .when(seckillCampaignService).checkActive(testProductId);
+
+        // When & Then
+        assertThatThrownBy(() -> seckillService.doSeckill(testUserId, testProductId, testQuantity))
+                .isInstanceOf(SeckillNotActiveException.class)
+                .hasMessageContaining("has not started");
+
+        verify(soldOutCacheService, never()).isSoldOut(anyLong());
+        verify(stockService, never()).admitSeckill(anyLong(), anyLong(), anyInt());
+    }
+
     @Test
     @DisplayName("Should restore stock when order number generation fails")
     void testDoSeckill_OrderNoGenerationFailure() throws Exception {
         // Given
-        String userKey = RedisKeyConstants.getSeckillUserKey(testUserId, testProductId);
 
-        when(valueOperations.setIfAbsent(eq(userKey), anyString(), eq(24L), eq(TimeUnit.HOURS)))
-                .thenReturn(true);
-        when(stockService.deductStock(testProductId, testQuantity)).thenReturn(1L);
+        when(stockService.admitSeckill(testUserId, testProductId, testQuantity))
+                .thenReturn(admission(SeckillAdmissionResult.STATUS_ADMITTED, 9));
         when(orderService.generateOrderNo(testUserId))
                 .thenThrow(new RuntimeException("Failed to generate order number"));
 
@@ -197,9 +220,8 @@ class SeckillServiceImplTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Failed to create seckill message");
 
-        verify(stockService).deductStock(testProductId, testQuantity);
-        verify(stockService).restoreStock(testProductId, testQuantity);
-        verify(stringRedisTemplate).delete(userKey);
+        verify(stockService).admitSeckill(testUserId, testProductId, testQuantity);
+        verify(stockService).rollbackSeckill(testUserId, testProductId, testQuantity);
         verify(seckillMessageRepository, never()).save(any());
     }
 
@@ -207,11 +229,9 @@ class SeckillServiceImplTest {
     @DisplayName("Should handle JSON serialization failure gracefully")
     void testDoSeckill_JsonSerializationFailure() throws Exception {
         // Given
-        String userKey = RedisKeyConstants.getSeckillUserKey(testUserId, testProductId);
 
-        when(valueOperations.setIfAbsent(eq(userKey), anyString(), eq(24L), eq(TimeUnit.HOURS)))
-                .thenReturn(true);
-        when(stockService.deductStock(testProductId, testQuantity)).thenReturn(1L);
+        when(stockService.admitSeckill(testUserId, testProductId, testQuantity))
+                .thenReturn(admission(SeckillAdmissionResult.STATUS_ADMITTED, 9));
         when(orderService.generateOrderNo(testUserId)).thenReturn(testOrderNo);
         when(objectMapper.writeValueAsString(any()))
                 .thenThrow(new RuntimeException("Failed to create message content"));
@@ -221,9 +241,8 @@ class SeckillServiceImplTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Failed to create seckill message");
 
-        verify(stockService).deductStock(testProductId, testQuantity);
-        verify(stockService).restoreStock(testProductId, testQuantity);
-        verify(stringRedisTemplate).delete(userKey);
+        verify(stockService).admitSeckill(testUserId, testProductId, testQuantity);
+        verify(stockService).rollbackSeckill(testUserId, testProductId, testQuantity);
         verify(seckillMessageRepository, never()).save(any());
     }
 
@@ -231,12 +250,10 @@ class SeckillServiceImplTest {
     @DisplayName("Should verify seckill message content is saved correctly")
     void testDoSeckill_VerifyMessageContent() throws Exception {
         // Given
-        String userKey = RedisKeyConstants.getSeckillUserKey(testUserId, testProductId);
         String messageJson = "{\"orderNo\":\"" + testOrderNo + "\",\"userId\":1,\"productId\":100,\"quantity\":1}";
 
-        when(valueOperations.setIfAbsent(eq(userKey), anyString(), eq(24L), eq(TimeUnit.HOURS)))
-                .thenReturn(true);
-        when(stockService.deductStock(testProductId, testQuantity)).thenReturn(1L);
+        when(stockService.admitSeckill(testUserId, testProductId, testQuantity))
+                .thenReturn(admission(SeckillAdmissionResult.STATUS_ADMITTED, 9));
         when(orderService.generateOrderNo(testUserId)).thenReturn(testOrderNo);
         when(objectMapper.writeValueAsString(any())).thenReturn(messageJson);
 
@@ -265,12 +282,10 @@ class SeckillServiceImplTest {
     void testDoSeckill_MultipleQuantity() throws Exception {
         // Given
         int multipleQuantity = 5;
-        String userKey = RedisKeyConstants.getSeckillUserKey(testUserId, testProductId);
         String messageJson = "{\"orderNo\":\"" + testOrderNo + "\",\"userId\":1,\"productId\":100}";
 
-        when(valueOperations.setIfAbsent(eq(userKey), anyString(), eq(24L), eq(TimeUnit.HOURS)))
-                .thenReturn(true);
-        when(stockService.deductStock(testProductId, multipleQuantity)).thenReturn(1L);
+        when(stockService.admitSeckill(testUserId, testProductId, multipleQuantity))
+                .thenReturn(admission(SeckillAdmissionResult.STATUS_ADMITTED, 5));
         when(orderService.generateOrderNo(testUserId)).thenReturn(testOrderNo);
         when(objectMapper.writeValueAsString(any())).thenReturn(messageJson);
 
@@ -283,26 +298,23 @@ class SeckillServiceImplTest {
 
         // Then
         assertThat(result).isNotNull();
-        verify(stockService).deductStock(testProductId, multipleQuantity);
+        verify(stockService).admitSeckill(testUserId, testProductId, multipleQuantity);
     }
 
     @Test
-    @DisplayName("Should verify stock deduction returns non-success status code")
-    void testDoSeckill_StockDeductionNonSuccess() {
+    @DisplayName("Should reject seckill when product is not enabled")
+    void testDoSeckill_ProductNotEnabled() {
         // Given
-        String userKey = RedisKeyConstants.getSeckillUserKey(testUserId, testProductId);
 
-        when(valueOperations.setIfAbsent(eq(userKey), anyString(), eq(24L), eq(TimeUnit.HOURS)))
-                .thenReturn(true);
-        when(stockService.deductStock(testProductId, testQuantity)).thenReturn(-1L);
-        when(stockService.getStock(testProductId)).thenReturn(0);
-        when(stockService.findProductById(testProductId)).thenReturn(testProduct);
+        when(stockService.admitSeckill(testUserId, testProductId, testQuantity))
+                .thenReturn(admission(SeckillAdmissionResult.STATUS_NOT_ENABLED, 0));
 
         // When & Then
         assertThatThrownBy(() -> seckillService.doSeckill(testUserId, testProductId, testQuantity))
-                .isInstanceOf(InsufficientStockException.class);
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("not available for seckill");
 
-        verify(stringRedisTemplate).delete(userKey);
+        verify(stockService, never()).rollbackSeckill(anyLong(), anyLong(), anyInt());
         verify(seckillMessageRepository, never()).save(any());
     }
 }
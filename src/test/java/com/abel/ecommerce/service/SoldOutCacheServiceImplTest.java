@@ -0,0 +1,97 @@
+package com.abel.ecommerce.service;
+
+import com.abel.ecommerce.constant.RedisKeyConstants;
+import com.abel.ecommerce.service.impl.SoldOutCacheServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SoldOutCacheServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SoldOutCacheService Unit Tests")
+class SoldOutCacheServiceImplTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @InjectMocks
+    private SoldOutCacheServiceImpl soldOutCacheService;
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(
+                RedisKeyConstants.SECKILL_SOLD_OUT_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should flag product and broadcast only on first mark")
+    void testMarkSoldOut_BroadcastsOnce() {
+        soldOutCacheService.markSoldOut(100L);
+        soldOutCacheService.markSoldOut(100L);
+
+        assertThat(soldOutCacheService.isSoldOut(100L)).isTrue();
+        assertThat(soldOutCacheService.isSoldOut(200L)).isFalse();
+        verify(stringRedisTemplate, times(1))
+                .convertAndSend(RedisKeyConstants.SECKILL_SOLD_OUT_CHANNEL, "SOLD_OUT:100");
+    }
+
+    @Test
+    @DisplayName("Should clear flag and broadcast the clear")
+    void testClearSoldOut() {
+        soldOutCacheService.markSoldOut(100L);
+
+        soldOutCacheService.clearSoldOut(100L);
+
+        assertThat(soldOutCacheService.isSoldOut(100L)).isFalse();
+        verify(stringRedisTemplate).convertAndSend(RedisKeyConstants.SECKILL_SOLD_OUT_CHANNEL, "CLEAR:100");
+    }
+
+    @Test
+    @DisplayName("Should apply flags broadcast by other nodes without re-publishing")
+    void testOnMessage() {
+        soldOutCacheService.onMessage(message("SOLD_OUT:100"), null);
+        assertThat(soldOutCacheService.isSoldOut(100L)).isTrue();
+
+        soldOutCacheService.onMessage(message("CLEAR:100"), null);
+        assertThat(soldOutCacheService.isSoldOut(100L)).isFalse();
+
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should ignore malformed messages")
+    void testOnMessage_Malformed() {
+        soldOutCacheService.onMessage(message("garbage"), null);
+        soldOutCacheService.onMessage(message("SOLD_OUT:abc"), null);
+
+        assertThat(soldOutCacheService.isSoldOut(100L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should still flag locally when broadcast fails")
+    void testMarkSoldOut_PublishFailure() {
+        when(stringRedisTemplate.convertAndSend(anyString(), anyString()))
+                .thenThrow(new RuntimeException("Redis down"));
+
+        soldOutCacheService.markSoldOut(100L);
+
+        assertThat(soldOutCacheService.isSoldOut(100L)).isTrue();
+    }
+}
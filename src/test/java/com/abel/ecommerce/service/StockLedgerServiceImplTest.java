@@ -0,0 +1,153 @@
+package com.abel.ecommerce.service;
+
+import com.abel.ecommerce.entity.StockLedger;
+import com.abel.ecommerce.repository.ProductRepository;
+import com.abel.ecommerce.repository.StockLedgerRepository;
+import com.abel.ecommerce.service.impl.StockLedgerServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StockLedgerServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockLedgerService Unit Tests")
+class StockLedgerServiceImplTest {
+
+    @Mock
+    private StockLedgerRepository stockLedgerRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCacheService productCacheService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private StockLedgerServiceImpl stockLedgerService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stockLedgerService = new StockLedgerServiceImpl(stockLedgerRepository, productRepository, productCacheService, meterRegistry);
+    }
+
+    private static StockLedger entry(long id, long productId, int stockDelta, int salesDelta) {
+        StockLedger entry = new StockLedger();
+        entry.setId(id);
+        entry.setProductId(productId);
+        entry.setStockDelta(stockDelta);
+        entry.setSalesDelta(salesDelta);
+        return entry;
+    }
+
+    @Test
+    @DisplayName("Should journal a sale as negative stock and positive sales")
+    void testRecordSale() {
+        stockLedgerService.recordSale(100L, 2, StockLedger.SOURCE_SECKILL_ORDER, "ORD1");
+
+        verify(stockLedgerRepository).save(argThat(entry ->
+                entry.getProductId().equals(100L) &&
+                        entry.getStockDelta() == -2 &&
+                        entry.getSalesDelta() == 2 &&
+                        "ORD1".equals(entry.getReferenceNo())));
+    }
+
+    @Test
+    @DisplayName("Should journal a restock as positive stock and negative sales")
+    void testRecordRestock() {
+        stockLedgerService.recordRestock(100L, 3, StockLedger.SOURCE_ORDER_CANCEL, "ORD1");
+
+        verify(stockLedgerRepository).save(argThat(entry ->
+                entry.getStockDelta() == 3 && entry.getSalesDelta() == -3));
+    }
+
+    @Test
+    @DisplayName("Should fold claimed entries into one update per product")
+    void testFlushPending_AggregatesPerProduct() {
+        when(stockLedgerRepository.claimPending(100)).thenReturn(Arrays.asList(
+                entry(1L, 100L, -1, 1),
+                entry(2L, 200L, -2, 2),
+                entry(3L, 100L, -1, 1),
+                entry(4L, 300L, -1, 1),
+                entry(5L, 300L, 1, -1)));
+        when(productRepository.applyStockDelta(anyLong(), anyInt(), anyInt())).thenReturn(1);
+
+        int applied = stockLedgerService.flushPending(100);
+
+        assertThat(applied).isEqualTo(5);
+        verify(productRepository).applyStockDelta(100L, -2, 2);
+        verify(productRepository).applyStockDelta(200L, -2, 2);
+        // Net zero, no update needed
+        verify(productRepository, never()).applyStockDelta(eq(300L), anyInt(), anyInt());
+        verify(productCacheService).evictProduct(100L);
+        verify(productCacheService).evictProduct(200L);
+        verify(productCacheService, never()).evictProduct(300L);
+        verify(stockLedgerRepository).markApplied(eq(Arrays.asList(1L, 2L, 3L, 4L, 5L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Should park a product's entries as rejected when its delta would oversell")
+    void testFlushPending_RejectsOversellingEntries() {
+        when(stockLedgerRepository.claimPending(100)).thenReturn(Arrays.asList(
+                entry(1L, 100L, -1, 1),
+                entry(2L, 200L, -5, 5),
+                entry(3L, 100L, -1, 1),
+                entry(4L, 200L, -5, 5)));
+        when(productRepository.applyStockDelta(100L, -2, 2)).thenReturn(1);
+        when(productRepository.applyStockDelta(200L, -10, 10)).thenReturn(0);
+
+        int flushed = stockLedgerService.flushPending(100);
+
+        assertThat(flushed).isEqualTo(4);
+        verify(productCacheService).evictProduct(100L);
+        verify(productCacheService, never()).evictProduct(200L);
+        verify(stockLedgerRepository).markApplied(eq(Arrays.asList(1L, 3L)), any(LocalDateTime.class));
+        verify(stockLedgerRepository).updateStatus(Arrays.asList(2L, 4L), StockLedger.STATUS_REJECTED);
+        assertThat(meterRegistry.get("stock.ledger.rejected").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should still apply entries claimed after a stuck entry, and not claim the stuck entry again")
+    void testFlushPending_StuckEntryDoesNotBlockLaterEntries() {
+        // The oversold product's entry is the oldest, so it is claimed ahead of the appliable one
+        when(stockLedgerRepository.claimPending(1))
+                .thenReturn(List.of(entry(1L, 200L, -5, 5)))
+                .thenReturn(List.of(entry(2L, 100L, -1, 1)));
+        when(productRepository.applyStockDelta(200L, -5, 5)).thenReturn(0);
+        when(productRepository.applyStockDelta(100L, -1, 1)).thenReturn(1);
+
+        assertThat(stockLedgerService.flushPending(1)).isEqualTo(1);
+        assertThat(stockLedgerService.flushPending(1)).isEqualTo(1);
+
+        verify(stockLedgerRepository).updateStatus(List.of(1L), StockLedger.STATUS_REJECTED);
+        verify(stockLedgerRepository).markApplied(eq(List.of(2L)), any(LocalDateTime.class));
+        verify(productRepository, times(1)).applyStockDelta(200L, -5, 5);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when no entry is pending")
+    void testFlushPending_Empty() {
+        when(stockLedgerRepository.claimPending(100)).thenReturn(Collections.emptyList());
+
+        assertThat(stockLedgerService.flushPending(100)).isZero();
+
+        verifyNoInteractions(productRepository);
+        verify(stockLedgerRepository, never()).markApplied(anyList(), any());
+    }
+}
@@ -0,0 +1,308 @@
+package com.abel.ecommerce.service;
+
+import com.abel.ecommerce.dto.response.SeckillResultResponse;
+import com.abel.ecommerce.dto.response.StockReconciliationResult;
+import com.abel.ecommerce.entity.Product;
+import com.abel.ecommerce.entity.SeckillMessage;
+import com.abel.ecommerce.entity.StockLedger;
+import com.abel.ecommerce.repository.ProductRepository;
+import com.abel.ecommerce.repository.SeckillCampaignItemRepository;
+import com.abel.ecommerce.repository.SeckillMessageRepository;
+import com.abel.ecommerce.repository.StockLedgerRepository;
+import com.abel.ecommerce.service.impl.StockReconciliationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StockReconciliationServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("StockReconciliationService Unit Tests")
+class StockReconciliationServiceImplTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private StockLedgerRepository stockLedgerRepository;
+
+    @Mock
+    private SeckillMessageRepository seckillMessageRepository;
+
+    @Mock
+    private SeckillCampaignItemRepository campaignItemRepository;
+
+    @Mock
+    private SeckillResultService seckillResultService;
+
+    @Mock
+    private SoldOutCacheService soldOutCacheService;
+
+    @Mock
+    private Cursor<String> cursor;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private StockReconciliationServiceImpl reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reconciliationService = service(true);
+        when(stockLedgerRepository.findByProductIdInAndStatus(any(), eq(StockLedger.STATUS_PENDING))).thenReturn(Collections.emptyList());
+        when(seckillMessageRepository.findWithoutOrder(any(), any(), eq(SeckillMessage.STATUS_FAILED))).thenReturn(Collections.emptyList());
+        when(seckillResultService.getStatuses(anyList())).thenReturn(Collections.emptyMap());
+        when(campaignItemRepository.findProductIdsInCampaignsEndingAfter(any(), any())).thenReturn(Collections.emptyList());
+    }
+
+    private StockReconciliationServiceImpl service(boolean repairEnabled) {
+        return new StockReconciliationServiceImpl(stringRedisTemplate, productRepository, stockLedgerRepository,
+                seckillMessageRepository, campaignItemRepository, seckillResultService, soldOutCacheService,
+                meterRegistry, 60, 600, repairEnabled);
+    }
+
+    private static Product product(long id, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setStock(stock);
+        return product;
+    }
+
+    private static SeckillMessage message(long productId, String orderNo) {
+        SeckillMessage message = new SeckillMessage();
+        message.setProductId(productId);
+        message.setOrderNo(orderNo);
+        return message;
+    }
+
+    // Redis segment values in pipeline order, null for a missing key
+    @SuppressWarnings("unchecked")
+    private void givenSegments(String... values) {
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(new ArrayList<>(Arrays.asList(values)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenCompareAndSet(long result) {
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(result);
+    }
+
+    @Test
+    @DisplayName("Should collect product IDs from the first stock segment keys")
+    void testFindSeckillProductIds() {
+        Iterator<String> keys = List.of("product:stock:{100:0}", "product:stock:{200:0}", "product:stock:{bad:0}").iterator();
+        when(cursor.hasNext()).thenAnswer(invocation -> keys.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> keys.next());
+        when(stringRedisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+
+        assertThat(reconciliationService.findSeckillProductIds()).containsExactlyInAnyOrder(100L, 200L);
+        verify(cursor).close();
+    }
+
+    @Test
+    @DisplayName("Should count nothing when Redis matches database stock minus in-flight orders")
+    void testReconcile_InSync() {
+        givenSegments("3", "3", "2", "2");
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(100L, 12)));
+        when(stockLedgerRepository.findByProductIdInAndStatus(any(), eq(StockLedger.STATUS_PENDING)))
+                .thenReturn(List.of(ledger(100L, -1)));
+        when(seckillMessageRepository.findWithoutOrder(any(), any(), eq(SeckillMessage.STATUS_FAILED)))
+                .thenReturn(List.of(message(100L, "ORD1")));
+        when(seckillResultService.getStatuses(List.of("ORD1"))).thenReturn(Map.of("ORD1", SeckillResultResponse.STATUS_QUEUED));
+
+        StockReconciliationResult result = reconciliationService.reconcile(List.of(100L));
+
+        assertThat(result.getScanned()).isEqualTo(1);
+        assertThat(result.getDrifting()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not count messages whose order already failed as in flight")
+    void testReconcile_FailedMessageNotInFlight() {
+        givenSegments("3", "3", "2", "2");
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(100L, 10)));
+        when(seckillMessageRepository.findWithoutOrder(any(), any(), eq(SeckillMessage.STATUS_FAILED)))
+                .thenReturn(List.of(message(100L, "ORD1")));
+        when(seckillResultService.getStatuses(List.of("ORD1"))).thenReturn(Map.of("ORD1", SeckillResultResponse.STATUS_FAILED));
+
+        StockReconciliationResult result = reconciliationService.reconcile(List.of(100L));
+
+        assertThat(result.getDrifting()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should read in-flight results in batches, one round trip per batch")
+    void testReconcile_InFlightResultsBatched() {
+        givenSegments("100", "100", "100", "100");
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(100L, 1000)));
+        List<SeckillMessage> messages = IntStream.range(0, 600).mapToObj(i -> message(100L, "ORD" + i)).toList();
+        when(seckillMessageRepository.findWithoutOrder(any(), any(), eq(SeckillMessage.STATUS_FAILED))).thenReturn(messages);
+
+        StockReconciliationResult result = reconciliationService.reconcile(List.of(100L));
+
+        // 1000 in the database, 600 unknown results still in flight
+        assertThat(result.getDrifting()).isZero();
+        verify(seckillResultService, times(2)).getStatuses(anyList());
+        verify(seckillResultService, never()).getResult(anyString());
+    }
+
+    @Test
+    @DisplayName("Should report drift on the first run and only repair it when seen unchanged again")
+    @SuppressWarnings("unchecked")
+    void testReconcile_RepairsStableUndersell() {
+        // Redis 8, database 10: an order cancelled in the database only
+        givenSegments("2", "2", "2", "2");
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(100L, 10)));
+        givenCompareAndSet(1L);
+
+        StockReconciliationResult first = reconciliationService.reconcile(List.of(100L));
+
+        assertThat(first.getDrifting()).isEqualTo(1);
+        assertThat(first.getUnderUnits()).isEqualTo(2);
+        assertThat(first.getRepaired()).isZero();
+        verify(stringRedisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+
+        StockReconciliationResult second = reconciliationService.reconcile(List.of(100L));
+
+        assertThat(second.getRepaired()).isEqualTo(1);
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of("product:stock:{100:0}")), eq("2"), eq("4"));
+        verify(soldOutCacheService).clearSoldOut(100L);
+        assertThat(meterRegistry.get("seckill.stock.repairs").tag("result", "repaired").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should take excess stock from the fullest segments first")
+    @SuppressWarnings("unchecked")
+    void testReconcile_RepairsOversell() {
+        // Redis 9, database 5
+        givenSegments("1", "5", "0", "3");
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(100L, 5)));
+        givenCompareAndSet(1L);
+
+        reconciliationService.reconcile(List.of(100L));
+        StockReconciliationResult second = reconciliationService.reconcile(List.of(100L));
+
+        assertThat(second.getOverUnits()).isEqualTo(4);
+        assertThat(second.getRepaired()).isEqualTo(1);
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of("product:stock:{100:1}")), eq("5"), eq("1"));
+        verify(stringRedisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should not repair when Redis moved between runs")
+    @SuppressWarnings("unchecked")
+    void testReconcile_SkipsMovingProduct() {
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(100L, 10)));
+        givenSegments("2", "2", "2", "2");
+        reconciliationService.reconcile(List.of(100L));
+
+        givenSegments("2", "1", "2", "2");
+        StockReconciliationResult second = reconciliationService.reconcile(List.of(100L));
+
+        assertThat(second.getDrifting()).isEqualTo(1);
+        assertThat(second.getRepaired()).isZero();
+        verify(stringRedisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should count a failed compare-and-set as a conflict")
+    void testReconcile_CompareAndSetConflict() {
+        givenSegments("2", "2", "2", "2");
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(100L, 10)));
+        givenCompareAndSet(0L);
+
+        reconciliationService.reconcile(List.of(100L));
+        StockReconciliationResult second = reconciliationService.reconcile(List.of(100L));
+
+        assertThat(second.getRepaired()).isZero();
+        assertThat(second.getConflicts()).isEqualTo(1);
+        verify(soldOutCacheService, never()).clearSoldOut(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should only treat stock above the database as drift for campaign products")
+    void testReconcile_CampaignProductUpperBound() {
+        when(campaignItemRepository.findProductIdsInCampaignsEndingAfter(any(), any())).thenReturn(List.of(100L));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(100L, 500)));
+
+        // Campaign holds 20 of 500, not drift
+        givenSegments("5", "5", "5", "5");
+        assertThat(reconciliationService.reconcile(List.of(100L)).getDrifting()).isZero();
+
+        // Database dropped below what Redis can still sell
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(100L, 12)));
+        StockReconciliationResult result = reconciliationService.reconcile(List.of(100L));
+        assertThat(result.getDrifting()).isEqualTo(1);
+        assertThat(result.getOverUnits()).isEqualTo(8);
+
+        // Only campaigns whose stock is still in Redis, i.e. ended less than the grace period ago
+        verify(campaignItemRepository, atLeastOnce()).findProductIdsInCampaignsEndingAfter(any(),
+                argThat(endTime -> endTime.isAfter(LocalDateTime.now().minusSeconds(601))
+                        && endTime.isBefore(LocalDateTime.now().minusSeconds(599))));
+    }
+
+    @Test
+    @DisplayName("Should only report drift when repairs are disabled")
+    @SuppressWarnings("unchecked")
+    void testReconcile_RepairDisabled() {
+        // Own registry, gauges keep the first instance registered under a name
+        meterRegistry = new SimpleMeterRegistry();
+        StockReconciliationServiceImpl reportOnly = service(false);
+        givenSegments("2", "2", "2", "2");
+        when(productRepository.findAllById(any())).thenReturn(List.of(product(100L, 10)));
+
+        reportOnly.reconcile(List.of(100L));
+        StockReconciliationResult second = reportOnly.reconcile(List.of(100L));
+        reportOnly.recordRun(second);
+
+        assertThat(second.getDrifting()).isEqualTo(1);
+        assertThat(second.getRepaired()).isZero();
+        verify(stringRedisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        assertThat(meterRegistry.get("seckill.stock.drift.units").tag("direction", "under").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should skip products that are no longer in Redis")
+    void testReconcile_ProductRemovedFromRedis() {
+        givenSegments(null, null, null, null);
+
+        StockReconciliationResult result = reconciliationService.reconcile(List.of(100L));
+
+        assertThat(result.getScanned()).isZero();
+    }
+
+    private static StockLedger ledger(long productId, int stockDelta) {
+        StockLedger entry = new StockLedger();
+        entry.setProductId(productId);
+        entry.setStockDelta(stockDelta);
+        return entry;
+    }
+}
@@ -0,0 +1,244 @@
+package com.abel.ecommerce.service;
+
+import com.abel.ecommerce.constant.RedisKeyConstants;
+import com.abel.ecommerce.dto.response.SeckillAdmissionResult;
+import com.abel.ecommerce.entity.Product;
+import com.abel.ecommerce.repository.ProductRepository;
+import com.abel.ecommerce.service.impl.StockServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StockServiceImpl (segmented seckill stock)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockService Unit Tests")
+class StockServiceImplTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ProductCacheService productCacheService;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private SoldOutCacheService soldOutCacheService;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private StockServiceImpl stockService;
+
+    private final Long userId = 1L;
+    private final Long productId = 100L;
+    private final int home = Math.floorMod(userId.hashCode(), RedisKeyConstants.SECKILL_STOCK_SEGMENTS);
+
+    @BeforeEach
+    void setUp() {
+        stockService = new StockServiceImpl(stringRedisTemplate, productRepository, soldOutCacheService, productCacheService);
+        lenient().when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockAdmission(long status, long stock) {
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any()))
+                .thenReturn(Arrays.asList(status, stock));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockSegmentDeduct(Long... results) {
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any()))
+                .thenReturn(results[0], (Object[]) Arrays.copyOfRange(results, 1, results.length));
+    }
+
+    @Test
+    @DisplayName("Should admit on the home segment without touching siblings")
+    @SuppressWarnings("unchecked")
+    void testAdmitSeckill_HomeSegment() {
+        mockAdmission(SeckillAdmissionResult.STATUS_ADMITTED, 4);
+
+        SeckillAdmissionResult result = stockService.admitSeckill(userId, productId, 1);
+
+        assertThat(result.isAdmitted()).isTrue();
+        assertThat(result.getRemainingStock()).isEqualTo(4);
+        verify(stringRedisTemplate).execute(any(RedisScript.class),
+                eq(Arrays.asList(
+                        RedisKeyConstants.getProductStockKey(productId, home),
+                        RedisKeyConstants.getSeckillUserKey(userId, productId, home))),
+                any(), any(), any());
+        verify(stringRedisTemplate, never()).execute(any(RedisScript.class), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("Should fall back to a sibling segment when the home segment is empty")
+    @SuppressWarnings("unchecked")
+    void testAdmitSeckill_FallbackToSibling() {
+        mockAdmission(3L, 0);
+        mockSegmentDeduct(0L, 1L);
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList("0", "0", "2", "3"));
+
+        SeckillAdmissionResult result = stockService.admitSeckill(userId, productId, 1);
+
+        assertThat(result.isAdmitted()).isTrue();
+        assertThat(result.getRemainingStock()).isEqualTo(5);
+        verify(stringRedisTemplate, times(2)).execute(any(RedisScript.class), anyList(), any());
+        verify(stringRedisTemplate, never()).delete(anyString());
+        verify(soldOutCacheService, never()).markSoldOut(any());
+    }
+
+    @Test
+    @DisplayName("Should release the reservation and flag sold out when every segment is empty")
+    @SuppressWarnings("unchecked")
+    void testAdmitSeckill_AllSegmentsEmpty() {
+        mockAdmission(3L, 0);
+        mockSegmentDeduct(0L, 0L, 0L);
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList("0", "0", "0", "0"));
+
+        SeckillAdmissionResult result = stockService.admitSeckill(userId, productId, 1);
+
+        assertThat(result.isSoldOut()).isTrue();
+        assertThat(result.getRemainingStock()).isZero();
+        verify(stringRedisTemplate, times(RedisKeyConstants.SECKILL_STOCK_SEGMENTS - 1))
+                .execute(any(RedisScript.class), anyList(), any());
+        verify(stringRedisTemplate).delete(RedisKeyConstants.getSeckillUserKey(userId, productId, home));
+        verify(soldOutCacheService).markSoldOut(productId);
+    }
+
+    @Test
+    @DisplayName("Should take the quantity from several segments when no single segment has enough")
+    @SuppressWarnings("unchecked")
+    void testAdmitSeckill_TakesAcrossSegments() {
+        mockAdmission(3L, 2);
+        // Three sibling single-segment attempts fail, then the multi-segment take collects 1 + 1 + 1
+        mockSegmentDeduct(0L, 0L, 0L, 1L, 1L, 1L);
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList("2", "1", "1", "1"));
+
+        SeckillAdmissionResult result = stockService.admitSeckill(userId, productId, 3);
+
+        assertThat(result.isAdmitted()).isTrue();
+        verify(stringRedisTemplate, times(6)).execute(any(RedisScript.class), anyList(), any());
+        verify(valueOperations, never()).increment(anyString(), anyLong());
+        verify(stringRedisTemplate, never()).delete(anyString());
+    }
+
+    @Test
+    @DisplayName("Should give back partially taken units when the segments run dry mid-take")
+    void testAdmitSeckill_TakeAcrossSegmentsRollsBack() {
+        mockAdmission(3L, 1);
+        // Single-segment attempts fail, the take gets 1 unit and then finds every segment drained
+        mockSegmentDeduct(0L, 0L, 0L, 1L, 0L, 0L, 0L);
+        when(valueOperations.multiGet(anyList()))
+                .thenReturn(Arrays.asList("1", "1", "1", "0"))
+                .thenReturn(Arrays.asList("1", "0", "0", "0"));
+
+        SeckillAdmissionResult result = stockService.admitSeckill(userId, productId, 3);
+
+        assertThat(result.isSoldOut()).isTrue();
+        assertThat(result.getRemainingStock()).isEqualTo(1);
+        verify(valueOperations).increment(anyString(), eq(1L));
+        verify(stringRedisTemplate).delete(RedisKeyConstants.getSeckillUserKey(userId, productId, home));
+        verify(soldOutCacheService, never()).markSoldOut(any());
+    }
+
+    @Test
+    @DisplayName("Should deduct a multi-unit order spread over segments outside seckill")
+    void testDeductStock_TakesAcrossSegments() {
+        // 5 units split 2/1/1/1, nobody has 3 on their own
+        mockSegmentDeduct(0L, 0L, 0L, 0L, 2L, 1L);
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList("2", "1", "1", "1"));
+
+        Long result = stockService.deductStock(productId, 3);
+
+        assertThat(result).isEqualTo(1L);
+        verify(soldOutCacheService, never()).markSoldOut(any());
+    }
+
+    @Test
+    @DisplayName("Should set an expiry on every stock segment when one is given")
+    @SuppressWarnings("unchecked")
+    void testPreloadSeckillStock_WithExpiry() {
+        LocalDateTime end = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+        stockService.preloadSeckillStock(Map.of(productId, 4), Map.of(productId, end));
+
+        ArgumentCaptor<RedisCallback<Object>> callback = ArgumentCaptor.forClass(RedisCallback.class);
+        verify(stringRedisTemplate).executePipelined(callback.capture());
+        StringRedisConnection connection = mock(StringRedisConnection.class);
+        callback.getValue().doInRedis(connection);
+
+        long expireAtMillis = end.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        for (int segment = 0; segment < RedisKeyConstants.SECKILL_STOCK_SEGMENTS; segment++) {
+            verify(connection).set(RedisKeyConstants.getProductStockKey(productId, segment), "1");
+            verify(connection).pExpireAt(RedisKeyConstants.getProductStockKey(productId, segment), expireAtMillis);
+        }
+    }
+
+    @Test
+    @DisplayName("Should not recreate stock keys that have expired when stock is restored")
+    @SuppressWarnings("unchecked")
+    void testRestoreStock_SegmentExpired() {
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any())).thenReturn(-1L);
+
+        stockService.restoreStock(productId, 1);
+
+        verify(valueOperations, never()).increment(anyString(), anyLong());
+        verify(soldOutCacheService, never()).clearSoldOut(any());
+    }
+
+    @Test
+    @DisplayName("Should sum all stock segments, ignoring missing ones")
+    void testGetStock_AggregatesSegments() {
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList("3", null, "2", "1"));
+
+        assertThat(stockService.getStock(productId)).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Should split product stock evenly across segments")
+    @SuppressWarnings("unchecked")
+    void testEnableProductForSeckill_SplitsStock() {
+        Product product = new Product();
+        product.setId(productId);
+        product.setStock(10);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+
+        stockService.enableProductForSeckill(productId);
+
+        ArgumentCaptor<RedisCallback<Object>> callback = ArgumentCaptor.forClass(RedisCallback.class);
+        verify(stringRedisTemplate).executePipelined(callback.capture());
+
+        StringRedisConnection connection = mock(StringRedisConnection.class);
+        callback.getValue().doInRedis(connection);
+
+        List<String> expected = Arrays.asList("3", "3", "2", "2");
+        for (int segment = 0; segment < RedisKeyConstants.SECKILL_STOCK_SEGMENTS; segment++) {
+            verify(connection).set(RedisKeyConstants.getProductStockKey(productId, segment), expected.get(segment));
+        }
+        verify(productCacheService).putProduct(product);
+        verify(soldOutCacheService).clearSoldOut(productId);
+    }
+}
@@ -0,0 +1,166 @@
+package com.abel.ecommerce.service;
+
+import com.abel.ecommerce.constant.RedisKeyConstants;
+import com.abel.ecommerce.service.impl.TokenBlacklistServiceImpl;
+import com.abel.ecommerce.utils.JwtTokenUtil;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TokenBlacklistServiceImpl (Bloom filter in front of Redis)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenBlacklistService Unit Tests")
+class TokenBlacklistServiceImplTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private TokenBlacklistServiceImpl tokenBlacklistService;
+
+    @BeforeEach
+    void setUp() {
+        tokenBlacklistService = new TokenBlacklistServiceImpl(redisTemplate, listenerContainer, 1000, 0.001);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    // Start the service with the given token IDs already blacklisted in Redis
+    @SuppressWarnings("unchecked")
+    private void loadFilter(String... tokenIds) {
+        Iterator<String> keys = Arrays.stream(tokenIds).map(id -> "token:blacklist:" + id).iterator();
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> keys.hasNext());
+        lenient().when(cursor.next()).thenAnswer(invocation -> keys.next());
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+        tokenBlacklistService.init();
+    }
+
+    // A token as issued before tokens carried a jti
+    private static String legacyToken() {
+        return JWT.create()
+                .withAudience("alice")
+                .withClaim("userId", 1L)
+                .withExpiresAt(new Date(System.currentTimeMillis() + 60_000))
+                .sign(Algorithm.HMAC256("ecommerce_secret_key"));
+    }
+
+    @Test
+    @DisplayName("Should answer from the filter without Redis for a token that was never blacklisted")
+    void testIsTokenIdBlacklisted_FilterMiss() {
+        loadFilter("revoked-1");
+
+        assertThat(tokenBlacklistService.isTokenIdBlacklisted("fresh")).isFalse();
+
+        verify(redisTemplate, never()).hasKey(anyString());
+    }
+
+    @Test
+    @DisplayName("Should confirm a possible hit with Redis")
+    void testIsTokenIdBlacklisted_FilterHit() {
+        loadFilter("revoked-1");
+        when(redisTemplate.hasKey("token:blacklist:revoked-1")).thenReturn(true);
+
+        assertThat(tokenBlacklistService.isTokenIdBlacklisted("revoked-1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should ask Redis for every token while the filter could not be loaded")
+    void testIsTokenIdBlacklisted_FilterNotLoaded() {
+        when(redisTemplate.scan(any(ScanOptions.class))).thenThrow(new RuntimeException("connection refused"));
+        tokenBlacklistService.init();
+        when(redisTemplate.hasKey("token:blacklist:fresh")).thenReturn(false);
+
+        assertThat(tokenBlacklistService.isTokenIdBlacklisted("fresh")).isFalse();
+
+        verify(redisTemplate).hasKey("token:blacklist:fresh");
+    }
+
+    @Test
+    @DisplayName("Should store the jti, add it to the filter and broadcast it")
+    void testBlacklistToken() throws Exception {
+        loadFilter();
+        String token = JwtTokenUtil.generateToken("alice", 1L);
+        String tokenId = JWT.decode(token).getId();
+        when(redisTemplate.hasKey("token:blacklist:" + tokenId)).thenReturn(true);
+
+        tokenBlacklistService.blacklistToken(token);
+
+        verify(valueOperations).set(eq("token:blacklist:" + tokenId), eq("blacklisted"), anyLong(), eq(TimeUnit.MILLISECONDS));
+        verify(redisTemplate).convertAndSend(RedisKeyConstants.TOKEN_BLACKLIST_CHANNEL, tokenId);
+        assertThat(tokenBlacklistService.isTokenBlacklisted(token)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should still reject a token without jti blacklisted under the legacy whole-token key")
+    void testIsTokenBlacklisted_LegacyKey() {
+        String token = legacyToken();
+        // The legacy key is in Redis but must not end up in the filter
+        loadFilter(token);
+        String hashedKey = "token:blacklist:" + JwtTokenUtil.getTokenId(JWT.decode(token));
+        when(redisTemplate.countExistingKeys(List.of(hashedKey, "token:blacklist:" + token))).thenReturn(1L);
+
+        assertThat(tokenBlacklistService.isTokenBlacklisted(token)).isTrue();
+        assertThat(tokenBlacklistService.isTokenBlacklisted(JWT.decode(token))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should accept a token without jti that was never blacklisted")
+    void testIsTokenBlacklisted_LegacyTokenNotBlacklisted() {
+        loadFilter();
+        when(redisTemplate.countExistingKeys(anyCollection())).thenReturn(0L);
+
+        assertThat(tokenBlacklistService.isTokenBlacklisted(legacyToken())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should answer tokens with a jti from the filter, never from the legacy key")
+    void testIsTokenBlacklisted_JtiUsesFilter() throws Exception {
+        loadFilter();
+
+        assertThat(tokenBlacklistService.isTokenBlacklisted(JwtTokenUtil.generateToken("alice", 1L))).isFalse();
+
+        verify(redisTemplate, never()).hasKey(anyString());
+        verify(redisTemplate, never()).countExistingKeys(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should add token IDs blacklisted on other nodes to the filter")
+    void testOnMessage() {
+        loadFilter();
+        when(redisTemplate.hasKey("token:blacklist:remote")).thenReturn(true);
+
+        tokenBlacklistService.onMessage(new DefaultMessage(
+                RedisKeyConstants.TOKEN_BLACKLIST_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "remote".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(tokenBlacklistService.isTokenIdBlacklisted("remote")).isTrue();
+    }
+}
@@ -0,0 +1,115 @@
+package com.abel.ecommerce.service;
+
+import com.abel.ecommerce.constant.RedisKeyConstants;
+import com.abel.ecommerce.repository.UserRepository;
+import com.abel.ecommerce.service.impl.UserRoleCacheServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserRoleCacheServiceImpl (Caffeine L1 + Redis L2)
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserRoleCacheService Unit Tests")
+class UserRoleCacheServiceImplTest {
+
+    private static final String ROLE_KEY = "user:roles:alice";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private UserRoleCacheServiceImpl userRoleCacheService;
+
+    @BeforeEach
+    void setUp() {
+        // Built by hand: the cache sizes come from @Value constructor arguments
+        userRoleCacheService = new UserRoleCacheServiceImpl(redisTemplate, userRepository, listenerContainer, 100, 30);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("Should read the user's own Redis key and serve repeats from L1")
+    void testGetUserRoles_RedisHitThenLocal() {
+        when(valueOperations.get(ROLE_KEY)).thenReturn("USER,ADMIN");
+
+        assertThat(userRoleCacheService.getUserRoles("alice")).containsExactlyInAnyOrder("USER", "ADMIN");
+        assertThat(userRoleCacheService.getUserRoles("alice")).containsExactlyInAnyOrder("USER", "ADMIN");
+
+        verify(valueOperations, times(1)).get(ROLE_KEY);
+        verify(userRepository, never()).findRoleCodesByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("Should load from the database once and write Redis on a miss")
+    void testGetUserRoles_LoadsFromDatabase() {
+        when(userRepository.findRoleCodesByUsername("alice")).thenReturn(List.of("USER"));
+
+        userRoleCacheService.getUserRoles("alice");
+        assertThat(userRoleCacheService.getUserRoles("alice")).containsExactly("USER");
+
+        verify(userRepository, times(1)).findRoleCodesByUsername("alice");
+        verify(valueOperations).set(ROLE_KEY, "USER", 24, TimeUnit.HOURS);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the database when Redis fails")
+    void testGetUserRoles_RedisDown() {
+        when(valueOperations.get(anyString())).thenThrow(new RuntimeException("connection refused"));
+        when(userRepository.findRoleCodesByUsername("alice")).thenReturn(List.of("USER"));
+
+        assertThat(userRoleCacheService.getUserRoles("alice")).containsExactly("USER");
+    }
+
+    @Test
+    @DisplayName("Should drop both levels and broadcast on clear")
+    void testClearUserRoleCache() {
+        when(userRepository.findRoleCodesByUsername("alice")).thenReturn(List.of("USER"));
+        userRoleCacheService.getUserRoles("alice");
+
+        userRoleCacheService.clearUserRoleCache("alice");
+        userRoleCacheService.getUserRoles("alice");
+
+        verify(redisTemplate).delete(ROLE_KEY);
+        verify(redisTemplate).convertAndSend(RedisKeyConstants.USER_ROLE_INVALIDATE_CHANNEL, "alice");
+        verify(userRepository, times(2)).findRoleCodesByUsername("alice");
+    }
+
+    @Test
+    @DisplayName("Should drop the local entry on invalidation from another node")
+    void testOnMessage() {
+        when(userRepository.findRoleCodesByUsername("alice")).thenReturn(List.of("USER"));
+        userRoleCacheService.getUserRoles("alice");
+
+        userRoleCacheService.onMessage(new DefaultMessage(
+                RedisKeyConstants.USER_ROLE_INVALIDATE_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "alice".getBytes(StandardCharsets.UTF_8)), null);
+        userRoleCacheService.getUserRoles("alice");
+
+        verify(userRepository, times(2)).findRoleCodesByUsername("alice");
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+}
@@ -0,0 +1,85 @@
+package com.abel.ecommerce.utils;
+
+import com.abel.ecommerce.config.RedisConfig;
+import com.abel.ecommerce.entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Cached product values: the compact binary form against the GenericJackson2JsonRedisSerializer JSON it replaces,
+ * both as wired by RedisConfig. Serialized sizes are printed once per fork before the timings.
+ * Run with: mvn -Pjmh test-compile exec:exec@jmh -Djmh.includes=CompactRedisSerializerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactRedisSerializerBenchmark {
+
+    private RedisSerializer<Object> compact;
+
+    private RedisSerializer<Object> json;
+
+    private Product product;
+
+    private byte[] compactBytes;
+
+    private byte[] jsonBytes;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        RedisConfig config = new RedisConfig();
+        compact = (RedisSerializer<Object>) config.redisTemplate(mock(RedisConnectionFactory.class), true).getValueSerializer();
+        json = (RedisSerializer<Object>) config.redisTemplate(mock(RedisConnectionFactory.class), false).getValueSerializer();
+
+        product = new Product(1024L, "Mechanical Keyboard", 7L, new BigDecimal("399.00"), new BigDecimal("499.90"),
+                "87-key hot-swappable keyboard with PBT keycaps",
+                "https://cdn.example.com/products/1024/main.jpg",
+                "https://cdn.example.com/products/1024/1.jpg,https://cdn.example.com/products/1024/2.jpg",
+                150, 3200, Product.ACTIVE_PRODUCT,
+                LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123456789),
+                LocalDateTime.of(2025, 6, 18, 23, 59, 59));
+        compactBytes = compact.serialize(product);
+        jsonBytes = json.serialize(product);
+        System.out.printf("Serialized product: compact %d bytes, JSON %d bytes%n", compactBytes.length, jsonBytes.length);
+    }
+
+    @Benchmark
+    public byte[] serializeCompact() {
+        return compact.serialize(product);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return json.serialize(product);
+    }
+
+    @Benchmark
+    public Object deserializeCompact() {
+        return compact.deserialize(compactBytes);
+    }
+
+    @Benchmark
+    public Object deserializeJson() {
+        return json.deserialize(jsonBytes);
+    }
+}
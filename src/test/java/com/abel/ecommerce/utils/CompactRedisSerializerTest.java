@@ -0,0 +1,157 @@
+package com.abel.ecommerce.utils;
+
+import com.abel.ecommerce.config.RedisConfig;
+import com.abel.ecommerce.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for CompactRedisSerializer
+ */
+@DisplayName("CompactRedisSerializer Unit Tests")
+class CompactRedisSerializerTest {
+
+    private RedisSerializer<Object> compact;
+    private RedisSerializer<Object> jsonOnly;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // Serializers as wired by RedisConfig
+        RedisConfig config = new RedisConfig();
+        compact = (RedisSerializer<Object>) config.redisTemplate(mock(RedisConnectionFactory.class), true).getValueSerializer();
+        jsonOnly = (RedisSerializer<Object>) config.redisTemplate(mock(RedisConnectionFactory.class), false).getValueSerializer();
+    }
+
+    private Product product() {
+        return new Product(1024L, "Mechanical Keyboard", 7L, new BigDecimal("399.00"), new BigDecimal("499.90"),
+                "87-key hot-swappable keyboard with PBT keycaps",
+                "https://cdn.example.com/products/1024/main.jpg",
+                "https://cdn.example.com/products/1024/1.jpg,https://cdn.example.com/products/1024/2.jpg",
+                150, 3200, Product.ACTIVE_PRODUCT,
+                LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123456789),
+                LocalDateTime.of(2025, 6, 18, 23, 59, 59));
+    }
+
+    @Test
+    @DisplayName("Should round-trip a product in the compact format")
+    void testRoundTrip() {
+        Product product = product();
+
+        byte[] bytes = compact.serialize(product);
+
+        assertThat(bytes[0]).isEqualTo(CompactRedisSerializer.MAGIC);
+        assertThat(bytes[1]).isEqualTo((byte) ProductCompactCodec.TYPE_ID);
+        assertThat(compact.deserialize(bytes)).isEqualTo(product);
+    }
+
+    @Test
+    @DisplayName("Should keep null fields null")
+    void testRoundTrip_NullFields() {
+        Product product = new Product();
+        product.setId(5L);
+        product.setName("Name only");
+
+        assertThat(compact.deserialize(compact.serialize(product))).isEqualTo(product);
+        assertThat(compact.deserialize(compact.serialize(new Product()))).isEqualTo(new Product());
+    }
+
+    @Test
+    @DisplayName("Should preserve extreme numbers, non-ASCII text and dates before the epoch")
+    void testRoundTrip_EdgeValues() {
+        Product product = product();
+        product.setId(Long.MAX_VALUE);
+        product.setCategoryId(-1L);
+        product.setPrice(new BigDecimal("-123456789012345678901234567890.123456789"));
+        product.setOriginalPrice(new BigDecimal("1E+5"));
+        product.setName("机械键盘 ⌨️ Größe");
+        product.setDescription("x".repeat(100_000));
+        product.setStock(Integer.MIN_VALUE);
+        product.setCreatedAt(LocalDateTime.of(1900, 1, 1, 0, 0, 0, 1));
+
+        Product read = (Product) compact.deserialize(compact.serialize(product));
+
+        assertThat(read).isEqualTo(product);
+        assertThat(read.getOriginalPrice().scale()).isEqualTo(-5);
+    }
+
+    @Test
+    @DisplayName("Should read products cached as JSON before the compact format was enabled")
+    void testDeserialize_LegacyJson() {
+        Product product = product();
+
+        byte[] json = jsonOnly.serialize(product);
+
+        assertThat(json[0]).isEqualTo((byte) '[');
+        assertThat(compact.deserialize(json)).isEqualTo(product);
+        // With the flag off the node still reads compact values written by other nodes
+        assertThat(jsonOnly.deserialize(compact.serialize(product))).isEqualTo(product);
+    }
+
+    @Test
+    @DisplayName("Should write JSON for types without a codec")
+    void testSerialize_FallbackForOtherTypes() {
+        Map<String, Object> value = new HashMap<>(Map.of("key", "value"));
+
+        byte[] bytes = compact.serialize(value);
+
+        assertThat(bytes[0]).isNotEqualTo(CompactRedisSerializer.MAGIC);
+        assertThat(compact.deserialize(bytes)).isEqualTo(value);
+        assertThat(compact.deserialize(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should be at most half the size of the JSON form")
+    void testSize() {
+        Product product = product();
+
+        int compactSize = compact.serialize(product).length;
+        int jsonSize = jsonOnly.serialize(product).length;
+
+        assertThat(compactSize * 2).isLessThanOrEqualTo(jsonSize);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown types, newer versions and truncated values")
+    void testDeserialize_Unreadable() {
+        byte[] bytes = compact.serialize(product());
+
+        byte[] unknownType = bytes.clone();
+        unknownType[1] = (byte) 200;
+        assertThatThrownBy(() -> compact.deserialize(unknownType))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("Unknown compact type");
+
+        byte[] newerVersion = bytes.clone();
+        newerVersion[2] = 2;
+        assertThatThrownBy(() -> compact.deserialize(newerVersion))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("newer");
+
+        assertThatThrownBy(() -> compact.deserialize(Arrays.copyOf(bytes, bytes.length - 3)))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject codecs sharing a type ID")
+    void testConstructor_DuplicateTypeId() {
+        assertThatThrownBy(() -> new CompactRedisSerializer(RedisSerializer.json(), true,
+                List.of(new ProductCompactCodec(), new ProductCompactCodec())))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,55 @@
+package com.abel.ecommerce.utils;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT work per authenticated request: the old filter chain (decode, build a verifier, verify, decode again)
+ * against one verification with the shared verifier, reused through the request attribute.
+ * Run with: mvn -Pjmh test-compile exec:exec@jmh -Djmh.includes=JwtTokenUtilBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenUtilBenchmark {
+
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        token = JwtTokenUtil.generateToken("alice", 42L);
+    }
+
+    // RateLimitFilter decoded the token, then JwtAuthenticationFilter built a verifier, verified and decoded again
+    @Benchmark
+    public String legacyPerRequest() {
+        Long userId = JWT.decode(token).getClaim("userId").asLong();
+        JWT.require(Algorithm.HMAC256("ecommerce_secret_key")).build().verify(token);
+        return JWT.decode(token).getAudience().get(0) + userId;
+    }
+
+    // Both filters read the token verified once per request
+    @Benchmark
+    public String cachedVerifierPerRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        Long userId = JwtTokenUtil.getUserIdFromRequest(request);
+        return JwtTokenUtil.getUsername(JwtTokenUtil.getVerifiedToken(request)) + userId;
+    }
+}
@@ -0,0 +1,59 @@
+package com.abel.ecommerce.utils;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for JwtTokenUtil
+ */
+@DisplayName("JwtTokenUtil Unit Tests")
+class JwtTokenUtilTest {
+
+    private static MockHttpServletRequest requestWithToken(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    @Test
+    @DisplayName("Should verify the token once and reuse it for the rest of the request")
+    void getVerifiedToken_CachedOnRequest() throws Exception {
+        MockHttpServletRequest request = requestWithToken(JwtTokenUtil.generateToken("alice", 42L));
+
+        DecodedJWT first = JwtTokenUtil.getVerifiedToken(request);
+        DecodedJWT second = JwtTokenUtil.getVerifiedToken(request);
+
+        assertThat(first).isNotNull();
+        assertThat(second).isSameAs(first);
+        assertThat(request.getAttribute(JwtTokenUtil.VERIFIED_TOKEN_ATTRIBUTE)).isSameAs(first);
+        assertThat(JwtTokenUtil.getUsername(first)).isEqualTo("alice");
+        assertThat(JwtTokenUtil.getUserIdFromRequest(request)).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("Should reject a token signed with another key and remember the result")
+    void getVerifiedToken_InvalidSignature() {
+        String forged = JWT.create().withAudience("alice").withClaim("userId", 42L).sign(Algorithm.HMAC256("other"));
+        MockHttpServletRequest request = requestWithToken(forged);
+
+        assertThat(JwtTokenUtil.getVerifiedToken(request)).isNull();
+        assertThat(request.getAttribute(JwtTokenUtil.VERIFIED_TOKEN_ATTRIBUTE)).isNotNull();
+        assertThat(JwtTokenUtil.getUserIdFromRequest(request)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should treat a request without a bearer token as anonymous")
+    void getVerifiedToken_NoToken() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Basic dXNlcjpwYXNz");
+
+        assertThat(JwtTokenUtil.getTokenFromRequest(request)).isNull();
+        assertThat(JwtTokenUtil.getVerifiedToken(request)).isNull();
+    }
+}
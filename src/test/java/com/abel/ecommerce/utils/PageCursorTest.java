@@ -0,0 +1,49 @@
+package com.abel.ecommerce.utils;
+
+import com.abel.ecommerce.exception.InvalidCursorException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for PageCursor
+ */
+@DisplayName("PageCursor Unit Tests")
+class PageCursorTest {
+
+    @Test
+    @DisplayName("Should round-trip createdAt (with fractional seconds) and id")
+    void testEncodeDecode() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123456000);
+
+        PageCursor decoded = PageCursor.decode(new PageCursor(createdAt, 42L).encode());
+
+        assertThat(decoded.getCreatedAt()).isEqualTo(createdAt);
+        assertThat(decoded.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("Should treat a missing cursor as the first page")
+    void testDecode_Blank() {
+        assertThat(PageCursor.decode(null)).isNull();
+        assertThat(PageCursor.decode("")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject cursors it did not produce")
+    void testDecode_Invalid() {
+        String notBase64 = "%%%";
+        String noSeparator = Base64.getUrlEncoder().encodeToString("2025-01-01T00:00".getBytes(StandardCharsets.UTF_8));
+        String badDate = Base64.getUrlEncoder().encodeToString("yesterday|1".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> PageCursor.decode(notBase64)).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> PageCursor.decode(noSeparator)).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> PageCursor.decode(badDate)).isInstanceOf(InvalidCursorException.class);
+    }
+}
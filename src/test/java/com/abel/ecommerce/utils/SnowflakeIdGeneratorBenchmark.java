@@ -0,0 +1,64 @@
+package com.abel.ecommerce.utils;
+
+import com.abel.ecommerce.service.OrderService;
+import com.abel.ecommerce.service.impl.OrderServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order number generation end to end: OrderService.generateOrderNo (snowflake ID rendered as digits + user suffix)
+ * against the timestamp + user suffix + Random number it replaced, both returning the finished order number.
+ * Run with: mvn -Pjmh test-compile exec:exec@jmh -Djmh.includes=SnowflakeIdGeneratorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnowflakeIdGeneratorBenchmark {
+
+    private static final Long USER_ID = 123456L;
+
+    private OrderService orderService;
+
+    @Setup
+    public void setUp() {
+        // generateOrderNo only uses the ID generator
+        orderService = new OrderServiceImpl(null, null, null, new SnowflakeIdGenerator(1L));
+    }
+
+    @Benchmark
+    public String generateOrderNo() {
+        return orderService.generateOrderNo(USER_ID);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String generateOrderNoContended() {
+        return orderService.generateOrderNo(USER_ID);
+    }
+
+    // The previous OrderServiceImpl.generateOrderNo
+    @Benchmark
+    public String legacyGenerateOrderNo() {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+        String userSuffix = String.format("%04d", USER_ID % 10000);
+        String random = String.format("%03d", new Random().nextInt(1000));
+        return timestamp + userSuffix + random;
+    }
+}
@@ -0,0 +1,157 @@
+package com.abel.ecommerce.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for SnowflakeIdGenerator
+ */
+@DisplayName("SnowflakeIdGenerator Unit Tests")
+class SnowflakeIdGeneratorTest {
+
+    private static final long NOW = SnowflakeIdGenerator.EPOCH + 1_000_000L;
+
+    private static long timestampOf(long id) {
+        return id >>> (SnowflakeIdGenerator.NODE_ID_BITS + SnowflakeIdGenerator.SEQUENCE_BITS);
+    }
+
+    private static long nodeIdOf(long id) {
+        return (id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_NODE_ID;
+    }
+
+    @Test
+    @DisplayName("Should encode timestamp, node ID and sequence")
+    void nextId_Layout() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(42L, () -> NOW);
+
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        assertThat(timestampOf(first)).isEqualTo(NOW - SnowflakeIdGenerator.EPOCH);
+        assertThat(nodeIdOf(first)).isEqualTo(42L);
+        assertThat(second).isEqualTo(first + 1);
+    }
+
+    @Test
+    @DisplayName("Should borrow the next millisecond when the sequence runs out")
+    void nextId_SequenceExhausted() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1L, () -> NOW);
+
+        long last = 0;
+        for (int i = 0; i < (1 << SnowflakeIdGenerator.SEQUENCE_BITS) + 1; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(last);
+            last = id;
+        }
+
+        assertThat(timestampOf(last)).isEqualTo(NOW - SnowflakeIdGenerator.EPOCH + 1);
+    }
+
+    @Test
+    @DisplayName("Should keep IDs increasing when the clock goes backwards")
+    void nextId_ClockRollback() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1L, clock::get);
+
+        long beforeRollback = generator.nextId();
+        clock.set(NOW - 5000);
+        long duringRollback = generator.nextId();
+        clock.set(NOW + 1);
+        long afterRecovery = generator.nextId();
+
+        assertThat(duringRollback).isGreaterThan(beforeRollback);
+        assertThat(timestampOf(duringRollback)).isEqualTo(timestampOf(beforeRollback));
+        assertThat(afterRecovery).isGreaterThan(duringRollback);
+        assertThat(timestampOf(afterRecovery)).isEqualTo(NOW + 1 - SnowflakeIdGenerator.EPOCH);
+    }
+
+    @Test
+    @DisplayName("Should reject node IDs out of range")
+    void constructor_InvalidNodeId() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(-1L)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should stop issuing IDs once the node lease lapses and resume when it is confirmed")
+    void nextId_LeaseExpired() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3L, clock::get);
+        generator.setLeaseExpiresAt(NOW + 1000);
+
+        long beforeExpiry = generator.nextId();
+        clock.set(NOW + 1001);
+
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+
+        generator.setNodeId(4L);
+        generator.setLeaseExpiresAt(NOW + 60_000);
+        long afterRenewal = generator.nextId();
+
+        assertThat(afterRenewal).isGreaterThan(beforeExpiry);
+        assertThat(nodeIdOf(afterRenewal)).isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("Should stop issuing IDs at once when the lease is revoked")
+    void nextId_LeaseRevoked() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3L, () -> NOW);
+        generator.setLeaseExpiresAt(0);
+
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should generate unique IDs across threads, increasing within each thread")
+    void nextId_ConcurrentUniqueness() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7L);
+        int threads = 8;
+        int idsPerThread = 50_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet(threads * idsPerThread);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    boolean increasing = true;
+                    long last = 0;
+                    for (int i = 0; i < idsPerThread; i++) {
+                        long id = generator.nextId();
+                        increasing &= id > last;
+                        last = id;
+                        ids.add(id);
+                    }
+                    return increasing;
+                }));
+            }
+
+            start.countDown();
+            for (Future<Boolean> future : futures) {
+                assertThat(future.get(30, TimeUnit.SECONDS)).isTrue();
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(ids).hasSize(threads * idsPerThread);
+    }
+}